@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nexmo.sdk.core.config.Config;
+
+/**
+ * Request url building and response body reading of {@link Client}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClientBenchmark {
+
+    /** Response body size in bytes: a typical verify response and a large error page. */
+    @Param({"96", "4096"})
+    public int bodySize;
+
+    private TreeMap<String, String> params;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        // The parameters of a signed verify request.
+        this.params = new TreeMap<>();
+        this.params.put(Protocol.PARAM_TOKEN, "b2f6d1c3a8e94f7b8d2c5e1a6f9b3d7c");
+        this.params.put(Protocol.PARAM_NUMBER, "447700900000");
+        this.params.put(Protocol.PARAM_COUNTRY_CODE, "GB");
+        this.params.put(Protocol.PARAM_APP_ID, "0b1c2d3e-4f5a-6b7c-8d9e-0f1a2b3c4d5e");
+        this.params.put(Protocol.PARAM_DEVICE_ID, "358240051111110");
+        this.params.put(Protocol.PARAM_SOURCE_IP, "192.168.1.17");
+        this.params.put(Protocol.PARAM_LANGUAGE, "en-GB");
+        this.params.put(Protocol.PARAM_TIMESTAMP, "1444405474");
+        this.params.put(Protocol.PARAM_SIGNATURE, "9e107d9d372bb6826bd81d3542a419d6");
+
+        StringBuilder builder = new StringBuilder("{\"result_code\":0,\"result_message\":\"OK\",\"timestamp\":\"1444405474\",\"user_status\":\"pending\"");
+        while (builder.length() < this.bodySize - 1)
+            builder.append(' ');
+        this.body = builder.append('}').toString().getBytes();
+    }
+
+    @Benchmark
+    public URL constructUrl() throws MalformedURLException {
+        return Client.constructUrlGetConnection(this.params, Protocol.METHOD_VERIFY, Config.ENDPOINT_PRODUCTION);
+    }
+
+    @Benchmark
+    public byte[] readResponse() throws IOException {
+        return Client.readBody(new ByteArrayInputStream(this.body), this.body.length);
+    }
+
+    @Benchmark
+    public byte[] readChunkedResponse() throws IOException {
+        // No Content-Length, the body is read through the per-thread buffer.
+        return Client.readBody(new ByteArrayInputStream(this.body), -1);
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.request;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nexmo.sdk.core.client.Protocol;
+import com.nexmo.sdk.core.client.Response;
+
+/**
+ * Request signing and response signature verification.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestSigningBenchmark {
+
+    private static final String SECRET_KEY = "3b8d4e8c7f2a41d5a9e0c6b1f7d2e4a8";
+    private static final String RESPONSE_BODY = "{\"result_code\":0,\"result_message\":\"OK\",\"timestamp\":\"%s\",\"user_status\":\"pending\"}";
+
+    private TreeMap<String, String> params;
+    private Response response;
+    private String timestamp;
+
+    @Setup
+    public void setUp() {
+        // The parameters of a verify request.
+        this.params = new TreeMap<>();
+        this.params.put(Protocol.PARAM_TOKEN, "b2f6d1c3a8e94f7b8d2c5e1a6f9b3d7c");
+        this.params.put(Protocol.PARAM_NUMBER, "447700900000");
+        this.params.put(Protocol.PARAM_COUNTRY_CODE, "GB");
+        this.params.put(Protocol.PARAM_APP_ID, "0b1c2d3e-4f5a-6b7c-8d9e-0f1a2b3c4d5e");
+        this.params.put(Protocol.PARAM_DEVICE_ID, "358240051111110");
+        this.params.put(Protocol.PARAM_SOURCE_IP, "192.168.1.17");
+        this.params.put(Protocol.PARAM_LANGUAGE, "en-GB");
+    }
+
+    /**
+     * Signatures older than {@link com.nexmo.sdk.core.config.Defaults#MAX_ALLOWABLE_TIME_DELTA} are rejected
+     * before hashing, keep the timestamp current for every iteration.
+     */
+    @Setup(Level.Iteration)
+    public void signResponse() {
+        this.timestamp = "" + System.currentTimeMillis() / 1000;
+        String body = String.format(RESPONSE_BODY, this.timestamp);
+        this.response = new Response(body, sign(body));
+    }
+
+    @Benchmark
+    public String constructSignature() {
+        return RequestSigning.constructSignatureForRequestParameters(this.params, SECRET_KEY);
+    }
+
+    @Benchmark
+    public boolean verifySignature() {
+        return RequestSigning.verifyRequestSignature(this.timestamp, this.response, SECRET_KEY);
+    }
+
+    /**
+     * The response signature is the md5 of the body followed by the secret key.
+     */
+    private static String sign(final String body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest((body + SECRET_KEY).getBytes("UTF-8"));
+            StringBuilder signature = new StringBuilder();
+            for (byte b : digest)
+                signature.append(String.format("%02x", b));
+            return signature.toString();
+        } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.core.response;
+
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import com.nexmo.sdk.core.client.Response;
+
+/**
+ * Steady state Gson parsing of the SDK service responses, as done by the services: straight from the raw body bytes.
+ * <p>
+ * {@code reflective} is a default Gson instance, {@code adapter} is configured like the Gson instance shared by
+ * the services, with the streaming {@link ResponseAdapter}s. See {@link ResponseParsingColdBenchmark} for the
+ * first parse in a fresh JVM.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseParsingBenchmark {
+
+    static final byte[] VERIFY_RESPONSE = bytes("{\"result_code\":0,\"result_message\":\"OK\",\"timestamp\":\"1444405474\",\"user_status\":\"pending\"}");
+    static final byte[] CHECK_RESPONSE = bytes("{\"result_code\":0,\"result_message\":\"OK\",\"timestamp\":\"1444405474\",\"user_status\":\"verified\"}");
+    static final byte[] SEARCH_RESPONSE = bytes("{\"result_code\":0,\"result_message\":\"OK\",\"timestamp\":\"1444405474\",\"user_status\":\"unverified\"}");
+    static final byte[] TOKEN_RESPONSE = bytes("{\"result_code\":0,\"result_message\":\"OK\",\"timestamp\":\"1444405474\",\"token\":\"b2f6d1c3a8e94f7b8d2c5e1a6f9b3d7c\"}");
+
+    @Param({"reflective", "adapter"})
+    public String parser;
+
+    private Gson gson;
+
+    @Setup
+    public void setUp() {
+        this.gson = newGson(this.parser);
+    }
+
+    @Benchmark
+    public VerifyResponse parseVerifyResponse() {
+        return this.gson.fromJson(reader(VERIFY_RESPONSE), VerifyResponse.class);
+    }
+
+    @Benchmark
+    public CheckResponse parseCheckResponse() {
+        return this.gson.fromJson(reader(CHECK_RESPONSE), CheckResponse.class);
+    }
+
+    @Benchmark
+    public SearchResponse parseSearchResponse() {
+        return this.gson.fromJson(reader(SEARCH_RESPONSE), SearchResponse.class);
+    }
+
+    @Benchmark
+    public TokenResponse parseTokenResponse() {
+        return this.gson.fromJson(reader(TOKEN_RESPONSE), TokenResponse.class);
+    }
+
+    static Gson newGson(final String parser) {
+        if ("adapter".equals(parser))
+            return ResponseAdapter.registerAdapters(new GsonBuilder()).create();
+        return new GsonBuilder().create();
+    }
+
+    static Reader reader(final byte[] content) {
+        return new Response(content, null, null).getBodyReader();
+    }
+
+    static byte[] bytes(final String body) {
+        try {
+            return body.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.core.response;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+
+/**
+ * Cold start parsing: the Gson instance is created and parses one response of each service, once per fresh JVM.
+ * <p>
+ * This is what the first verify flow of an app process pays: class loading, the reflective binding
+ * of every response class (or the adapter registration) and interpreted parsing.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Benchmark)
+public class ResponseParsingColdBenchmark {
+
+    @Param({"reflective", "adapter"})
+    public String parser;
+
+    @Benchmark
+    public Object firstParse() {
+        Gson gson = ResponseParsingBenchmark.newGson(this.parser);
+        return new Object[] {
+                gson.fromJson(ResponseParsingBenchmark.reader(ResponseParsingBenchmark.TOKEN_RESPONSE), TokenResponse.class),
+                gson.fromJson(ResponseParsingBenchmark.reader(ResponseParsingBenchmark.VERIFY_RESPONSE), VerifyResponse.class),
+                gson.fromJson(ResponseParsingBenchmark.reader(ResponseParsingBenchmark.CHECK_RESPONSE), CheckResponse.class),
+                gson.fromJson(ResponseParsingBenchmark.reader(ResponseParsingBenchmark.SEARCH_RESPONSE), SearchResponse.class)
+        };
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+import java.io.IOException;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.nexmo.sdk.core.client.ResultCodes;
+import com.nexmo.sdk.verify.core.response.TokenResponse;
+
+/**
+ * Per application state of a bulk run: credentials, request rate limit and the current token.
+ * <p>
+ * One token is shared by every call of the application. When it is missing or expired the first caller
+ * requests a new one while the others wait on the lock, so a run starts with a single token request
+ * instead of one per virtual thread.
+ */
+class AppSession {
+
+    private final String appId;
+    private final String secretKey;
+    private final RateLimiter rateLimiter;
+    private final long tokenTimeToLive;
+    private final ReentrantLock tokenLock = new ReentrantLock();
+    private volatile String token;
+    private volatile long expiresAt;
+
+    AppSession(final String appId, final String secretKey, final RateLimiter rateLimiter, final long tokenTimeToLive) {
+        this.appId = appId;
+        this.secretKey = secretKey;
+        this.rateLimiter = rateLimiter;
+        this.tokenTimeToLive = tokenTimeToLive;
+    }
+
+    String getAppId() {
+        return this.appId;
+    }
+
+    String getSecretKey() {
+        return this.secretKey;
+    }
+
+    RateLimiter getRateLimiter() {
+        return this.rateLimiter;
+    }
+
+    /**
+     * Get a valid token, requesting a new one if needed.
+     *
+     * @param verifier The engine that sends the token request.
+     * @return The token.
+     * @throws TokenRejectedException If the SDK service refused to generate a token, the caller decides whether
+     *                                to ask again, see {@link TokenRejectedException#isCredentialsError()}.
+     * @throws IOException If the token request has failed.
+     * @throws InterruptedException If the caller is interrupted while waiting.
+     */
+    String getToken(final BulkVerifier verifier) throws IOException, InterruptedException {
+        String current = this.token;
+        if (current != null && System.nanoTime() - this.expiresAt < 0)
+            return current;
+        this.tokenLock.lockInterruptibly();
+        try {
+            if (this.token != null && System.nanoTime() - this.expiresAt < 0)
+                return this.token;
+            TokenResponse response = verifier.requestToken(this);
+            if (response.getResultCode() != ResultCodes.RESULT_CODE_OK)
+                throw new TokenRejectedException(response.getResultCode(), response.getResultMessage());
+            this.expiresAt = System.nanoTime() + this.tokenTimeToLive * 1000000;
+            this.token = response.getToken();
+            return this.token;
+        } finally {
+            this.tokenLock.unlock();
+        }
+    }
+
+    /**
+     * Discard a token rejected by the SDK service, unless another caller has replaced it already.
+     *
+     * @param rejected The rejected token.
+     */
+    void invalidate(final String rejected) {
+        this.tokenLock.lock();
+        try {
+            if (rejected != null && rejected.equals(this.token))
+                this.token = null;
+        } finally {
+            this.tokenLock.unlock();
+        }
+    }
+
+}
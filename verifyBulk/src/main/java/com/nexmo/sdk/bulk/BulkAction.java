@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+import com.nexmo.sdk.core.client.Protocol;
+
+/**
+ * The call made for every number of a bulk run.
+ */
+public enum BulkAction {
+
+    /** Start a verification, or report the status of the one in progress. */
+    VERIFY(Protocol.METHOD_VERIFY, null),
+    /** Get the user status without starting a verification. */
+    SEARCH(Protocol.METHOD_SEARCH, null),
+    /** Cancel the verification in progress. */
+    CANCEL(Protocol.METHOD_COMMAND, Protocol.PARAM_COMMAND_CANCEL),
+    /** Skip to the next verification event: SMS, then voice call. */
+    TRIGGER_NEXT_EVENT(Protocol.METHOD_COMMAND, Protocol.PARAM_COMMAND_SKIP),
+    /** Log the user out, the next verify starts a new verification. */
+    LOGOUT(Protocol.METHOD_LOGOUT, null);
+
+    private final String method;
+    private final String command;
+
+    BulkAction(final String method, final String command) {
+        this.method = method;
+        this.command = command;
+    }
+
+    /**
+     * @return The SDK service method.
+     */
+    public String getMethod() {
+        return this.method;
+    }
+
+    /**
+     * @return The {@link Protocol#PARAM_COMMAND} value, {@code null} if the method takes none.
+     */
+    public String getCommand() {
+        return this.command;
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+import com.nexmo.sdk.verify.event.UserStatus;
+
+/**
+ * Outcome of the call made for one {@link BulkTarget}.
+ * <p>
+ * A call either got an answer from the SDK service, with its result code and user status,
+ * or failed without one: the error then describes the network or protocol failure.
+ */
+public class BulkResult {
+
+    /** Result code reported when no answer was received. */
+    public static final int NO_RESULT = -1;
+
+    private final BulkTarget target;
+    private final BulkAction action;
+    private final int resultCode;
+    private final String resultMessage;
+    private final UserStatus userStatus;
+    private final String error;
+    private final int attempts;
+    private final long latency;
+
+    BulkResult(final BulkTarget target, final BulkAction action, final int resultCode, final String resultMessage,
+               final UserStatus userStatus, final String error, final int attempts, final long latency) {
+        this.target = target;
+        this.action = action;
+        this.resultCode = resultCode;
+        this.resultMessage = resultMessage;
+        this.userStatus = userStatus;
+        this.error = error;
+        this.attempts = attempts;
+        this.latency = latency;
+    }
+
+    public BulkTarget getTarget() {
+        return this.target;
+    }
+
+    public BulkAction getAction() {
+        return this.action;
+    }
+
+    /**
+     * @return The {@link com.nexmo.sdk.core.client.ResultCodes} value, {@link #NO_RESULT} if the call failed.
+     */
+    public int getResultCode() {
+        return this.resultCode;
+    }
+
+    public String getResultMessage() {
+        return this.resultMessage;
+    }
+
+    /**
+     * @return The user status, {@code null} if the call failed or the method does not report one.
+     */
+    public UserStatus getUserStatus() {
+        return this.userStatus;
+    }
+
+    /**
+     * @return The failure description, {@code null} if an answer was received.
+     */
+    public String getError() {
+        return this.error;
+    }
+
+    /**
+     * @return The number of requests sent, retries included.
+     */
+    public int getAttempts() {
+        return this.attempts;
+    }
+
+    /**
+     * @return The time spent on this target in milliseconds, rate limiting and retries included.
+     */
+    public long getLatency() {
+        return this.latency;
+    }
+
+    /**
+     * @return True if the SDK service answered, whatever the result code.
+     */
+    public boolean isAnswered() {
+        return (this.resultCode != NO_RESULT);
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+/**
+ * Totals of a bulk run.
+ */
+public class BulkSummary {
+
+    private final long total;
+    private final long succeeded;
+    private final long rejected;
+    private final long failed;
+    private final long elapsed;
+
+    BulkSummary(final long total, final long succeeded, final long rejected, final long failed, final long elapsed) {
+        this.total = total;
+        this.succeeded = succeeded;
+        this.rejected = rejected;
+        this.failed = failed;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * @return The number of targets processed.
+     */
+    public long getTotal() {
+        return this.total;
+    }
+
+    /**
+     * @return The number of calls answered with {@link com.nexmo.sdk.core.client.ResultCodes#RESULT_CODE_OK}.
+     */
+    public long getSucceeded() {
+        return this.succeeded;
+    }
+
+    /**
+     * @return The number of calls answered with an error result code.
+     */
+    public long getRejected() {
+        return this.rejected;
+    }
+
+    /**
+     * @return The number of calls that got no answer.
+     */
+    public long getFailed() {
+        return this.failed;
+    }
+
+    /**
+     * @return The run duration in milliseconds.
+     */
+    public long getElapsed() {
+        return this.elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkSummary{total=" + this.total + ", succeeded=" + this.succeeded + ", rejected=" + this.rejected
+                + ", failed=" + this.failed + ", elapsed=" + this.elapsed + "ms}";
+    }
+
+}
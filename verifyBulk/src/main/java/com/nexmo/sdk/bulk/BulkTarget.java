@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+/**
+ * One line of a bulk input: the phone number to verify, with its country.
+ */
+public class BulkTarget {
+
+    private final String countryCode;
+    private final String phoneNumber;
+    private final String appId;
+    private final long line;
+
+    /**
+     * @param countryCode The ISO 3166 alpha-2 country code, may be {@code null} for numbers in international format.
+     * @param phoneNumber The phone number.
+     * @param appId       The application the number belongs to, {@code null} for the engine default application.
+     * @param line        The input line, used to match results with the input.
+     */
+    public BulkTarget(final String countryCode, final String phoneNumber, final String appId, final long line) {
+        this.countryCode = countryCode;
+        this.phoneNumber = phoneNumber;
+        this.appId = appId;
+        this.line = line;
+    }
+
+    public String getCountryCode() {
+        return this.countryCode;
+    }
+
+    public String getPhoneNumber() {
+        return this.phoneNumber;
+    }
+
+    public String getAppId() {
+        return this.appId;
+    }
+
+    public long getLine() {
+        return this.line;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkTarget{line=" + this.line + ", country=" + this.countryCode + ", number=" + this.phoneNumber + ", appId=" + this.appId + "}";
+    }
+
+}
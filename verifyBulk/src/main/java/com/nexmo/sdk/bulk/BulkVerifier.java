@@ -0,0 +1,435 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+import java.io.IOException;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import com.nexmo.sdk.core.client.ClientBuilderException;
+import com.nexmo.sdk.core.client.ClientConnection;
+import com.nexmo.sdk.core.client.ConnectionClient;
+import com.nexmo.sdk.core.client.PooledClient;
+import com.nexmo.sdk.core.client.Protocol;
+import com.nexmo.sdk.core.client.Request;
+import com.nexmo.sdk.core.client.Response;
+import com.nexmo.sdk.core.client.ResultCodes;
+import com.nexmo.sdk.core.client.RetryPolicy;
+import com.nexmo.sdk.core.config.Config;
+import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.core.request.RequestSigning;
+import com.nexmo.sdk.verify.client.InternalNetworkException;
+import com.nexmo.sdk.verify.core.response.BaseResponse;
+import com.nexmo.sdk.verify.core.response.ResponseAdapter;
+import com.nexmo.sdk.verify.core.response.SearchResponse;
+import com.nexmo.sdk.verify.core.response.TokenResponse;
+import com.nexmo.sdk.verify.core.response.VerifyResponse;
+import com.nexmo.sdk.verify.event.UserStatus;
+
+/**
+ * Runs verify, search and command calls for many numbers at once, from a JVM backend.
+ * <p>
+ * Every target runs on its own virtual thread, so a blocked HTTP exchange costs a few hundred bytes of stack
+ * instead of a platform thread. The number of calls in flight is bounded by {@link BulkVerifierBuilder#maxConcurrency}:
+ * the input is only read as fast as calls complete, so arbitrarily large inputs run in constant memory.
+ * Requests of each application go through its own {@link RateLimiter}, and share one token.
+ * <p>
+ * Results are handed to the {@link ResultSink} as soon as each call completes.
+ * <pre>
+ *     BulkVerifier verifier = new BulkVerifier.BulkVerifierBuilder()
+ *             .app(appId, sharedSecretKey, 20)
+ *             .deviceId("campaign-server-1")
+ *             .build();
+ *     try (TargetReader targets = TargetReader.open(input);
+ *          JsonLinesResultWriter results = new JsonLinesResultWriter(Files.newBufferedWriter(output))) {
+ *         BulkSummary summary = verifier.run(targets, BulkAction.SEARCH, results);
+ *     }
+ * </pre>
+ */
+public class BulkVerifier {
+
+    /** Default number of calls in flight. */
+    public static final int DEFAULT_MAX_CONCURRENCY = 200;
+    /** Default request rate of an application, in requests per second. */
+    public static final double DEFAULT_REQUESTS_PER_SECOND = 20;
+    /** Default number of requests an application may send at once after an idle period. */
+    public static final int DEFAULT_BURST = 10;
+
+    private static final Gson gson = ResponseAdapter.registerAdapters(new GsonBuilder()).create();
+
+    private final String environmentHost;
+    private final String deviceId;
+    private final String sourceIp;
+    private final int maxConcurrency;
+    private final ConnectionClient connectionClient;
+    private final RetryPolicy retryPolicy;
+    private final Map<String, AppSession> apps;
+    private final AppSession defaultApp;
+
+    private BulkVerifier(final String environmentHost, final String deviceId, final String sourceIp, final int maxConcurrency,
+                         final ConnectionClient connectionClient, final RetryPolicy retryPolicy, final Map<String, AppSession> apps) {
+        this.environmentHost = environmentHost;
+        this.deviceId = deviceId;
+        this.sourceIp = sourceIp;
+        this.maxConcurrency = maxConcurrency;
+        this.connectionClient = connectionClient;
+        this.retryPolicy = retryPolicy;
+        this.apps = apps;
+        this.defaultApp = apps.values().iterator().next();
+    }
+
+    public int getMaxConcurrency() {
+        return this.maxConcurrency;
+    }
+
+    /**
+     * Run the action for every target, and wait for all the calls to complete.
+     *
+     * @param targets The targets, read lazily.
+     * @param action  The call made for each target.
+     * @param sink    Receives the results in completion order.
+     * @return The run totals.
+     * @throws InterruptedException If the caller is interrupted, the calls in flight are interrupted as well.
+     */
+    public BulkSummary run(final Iterator<BulkTarget> targets, final BulkAction action, final ResultSink sink) throws InterruptedException {
+        final LongAdder total = new LongAdder();
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final Semaphore inFlight = new Semaphore(this.maxConcurrency);
+        long start = System.nanoTime();
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            while (targets.hasNext()) {
+                final BulkTarget target = targets.next();
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        BulkResult result;
+                        try {
+                            result = execute(target, action);
+                        } catch (RuntimeException e) {
+                            result = new BulkResult(target, action, BulkResult.NO_RESULT, null, null, e.toString(), 0, 0);
+                        }
+                        total.increment();
+                        try {
+                            sink.accept(result);
+                        } catch (RuntimeException e) {
+                            // The result is lost, the target still counts as failed.
+                            failed.increment();
+                            return;
+                        }
+                        if (!result.isAnswered())
+                            failed.increment();
+                        else if (result.getResultCode() == ResultCodes.RESULT_CODE_OK)
+                            succeeded.increment();
+                        else
+                            rejected.increment();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES));
+        } finally {
+            executor.shutdownNow();
+        }
+        return new BulkSummary(total.sum(), succeeded.sum(), rejected.sum(), failed.sum(),
+                               TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Run the action for a single target on the calling thread.
+     * Failed requests are retried according to the {@link RetryPolicy}, a rejected token is requested again once.
+     * A token refused for invalid credentials fails the call, other token errors are retried like any response.
+     *
+     * @param target The target.
+     * @param action The call made.
+     * @return The result.
+     * @throws InterruptedException If the caller is interrupted.
+     */
+    public BulkResult execute(final BulkTarget target, final BulkAction action) throws InterruptedException {
+        long start = System.nanoTime();
+        AppSession app = (target.getAppId() != null ? this.apps.get(target.getAppId()) : this.defaultApp);
+        if (app == null)
+            return new BulkResult(target, action, BulkResult.NO_RESULT, null, null,
+                                  "Unknown application: " + target.getAppId(), 0, 0);
+
+        Class<? extends BaseResponse> responseType = (action == BulkAction.SEARCH ? SearchResponse.class : VerifyResponse.class);
+        boolean tokenRefreshed = false;
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            String token = null;
+            long delay;
+            try {
+                token = app.getToken(this);
+                BaseResponse response = send(app, action.getMethod(), getParams(app, target, action, token), responseType);
+                if (response.getResultCode() == ResultCodes.INVALID_TOKEN && !tokenRefreshed) {
+                    // Expired on the service side before our own estimate, get a new one.
+                    app.invalidate(token);
+                    tokenRefreshed = true;
+                    continue;
+                }
+                delay = this.retryPolicy.onResponse(action.getMethod(), attempt, response.getResultCode(), Long.MAX_VALUE);
+                if (delay < 0)
+                    return new BulkResult(target, action, response.getResultCode(), response.getResultMessage(),
+                                          getUserStatus(response), null, attempt, elapsed(start));
+            } catch (TokenRejectedException e) {
+                delay = (e.isCredentialsError() ? -1
+                                                : this.retryPolicy.onResponse(Protocol.METHOD_TOKEN, attempt, e.getResultCode(), Long.MAX_VALUE));
+                if (delay < 0)
+                    return new BulkResult(target, action, e.getResultCode(), e.getResultMessage(), null, null, attempt, elapsed(start));
+            } catch (IOException e) {
+                delay = this.retryPolicy.onFailure(action.getMethod(), attempt, e, Long.MAX_VALUE);
+                if (delay < 0)
+                    return new BulkResult(target, action, BulkResult.NO_RESULT, null, null, e.toString(), attempt, elapsed(start));
+            }
+            TimeUnit.MILLISECONDS.sleep(delay);
+        }
+    }
+
+    /**
+     * Request a new token for an application.
+     *
+     * @param app The application.
+     * @return The token response.
+     * @throws IOException If the request has failed.
+     * @throws InterruptedException If the caller is interrupted while rate limited.
+     */
+    TokenResponse requestToken(final AppSession app) throws IOException, InterruptedException {
+        Map<String, String> params = new TreeMap<>();
+        params.put(Protocol.PARAM_APP_ID, app.getAppId());
+        params.put(Protocol.PARAM_DEVICE_ID, this.deviceId);
+        params.put(Protocol.PARAM_SOURCE_IP, this.sourceIp);
+        return send(app, Protocol.METHOD_TOKEN, params, TokenResponse.class);
+    }
+
+    private Map<String, String> getParams(final AppSession app, final BulkTarget target, final BulkAction action, final String token) {
+        Map<String, String> params = new TreeMap<>();
+        params.put(Protocol.PARAM_TOKEN, token);
+        params.put(Protocol.PARAM_NUMBER, target.getPhoneNumber());
+        if (target.getCountryCode() != null)
+            params.put(Protocol.PARAM_COUNTRY_CODE, target.getCountryCode());
+        params.put(Protocol.PARAM_APP_ID, app.getAppId());
+        params.put(Protocol.PARAM_DEVICE_ID, this.deviceId);
+        params.put(Protocol.PARAM_SOURCE_IP, this.sourceIp);
+        if (action.getCommand() != null)
+            params.put(Protocol.PARAM_COMMAND, action.getCommand());
+        return params;
+    }
+
+    private <T extends BaseResponse> T send(final AppSession app, final String method, final Map<String, String> params,
+                                            final Class<T> responseType) throws IOException, InterruptedException {
+        app.getRateLimiter().acquire();
+        ClientConnection connection = this.connectionClient.initConnection(new Request(this.environmentHost, app.getSecretKey(), method, params));
+        Response result = this.connectionClient.execute(connection);
+        T response;
+        try {
+            response = gson.fromJson(result.getBodyReader(), responseType);
+        } catch (JsonParseException e) {
+            throw new InternalNetworkException("Malformed response: " + e.getMessage());
+        }
+        if (response == null)
+            throw new InternalNetworkException("Empty response.");
+        if (isSignatureInvalid(app, response, result))
+            throw new InternalNetworkException("Response signature invalid.");
+        return response;
+    }
+
+    /**
+     * Same checks as the Android services: successful responses must be signed with the shared secret key,
+     * a credentials error must at least carry a signature header.
+     */
+    private static boolean isSignatureInvalid(final AppSession app, final BaseResponse response, final Response result) {
+        if (response.getResultCode() == ResultCodes.INVALID_CREDENTIALS)
+            return (result.getSignature() == null || result.getSignature().isEmpty());
+        if (response.getResultCode() == ResultCodes.RESULT_CODE_OK)
+            return !RequestSigning.verifyRequestSignature(response.getTimestamp(), result, app.getSecretKey());
+        return false;
+    }
+
+    private static UserStatus getUserStatus(final BaseResponse response) {
+        if (response instanceof VerifyResponse)
+            return ((VerifyResponse) response).getUserStatus();
+        if (response instanceof SearchResponse)
+            return ((SearchResponse) response).getUserStatus();
+        return null;
+    }
+
+    private static long elapsed(final long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Builder of {@link BulkVerifier} instances.
+     * At least one application and the device id are mandatory.
+     */
+    public static class BulkVerifierBuilder {
+
+        private final Map<String, String> secrets = new LinkedHashMap<>();
+        private final Map<String, Double> rates = new HashMap<>();
+        private String environmentHost = Config.ENDPOINT_PRODUCTION;
+        private String deviceId;
+        private String sourceIp;
+        private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        private long tokenTimeToLive = Defaults.TOKEN_TIME_TO_LIVE;
+        private ConnectionClient connectionClient;
+        private RetryPolicy retryPolicy;
+
+        /**
+         * Register an application with the default rate limit. The first application registered is used for targets
+         * without an app id.
+         */
+        public BulkVerifierBuilder app(final String appId, final String sharedSecretKey) {
+            return app(appId, sharedSecretKey, DEFAULT_REQUESTS_PER_SECOND);
+        }
+
+        /**
+         * Register an application. The first application registered is used for targets without an app id.
+         *
+         * @param requestsPerSecond The request rate allowed for this application, token requests included.
+         */
+        public BulkVerifierBuilder app(final String appId, final String sharedSecretKey, final double requestsPerSecond) {
+            this.secrets.put(appId, sharedSecretKey);
+            this.rates.put(appId, requestsPerSecond);
+            return this;
+        }
+
+        /**
+         * Set the SDK service endpoint, by default {@link Config#ENDPOINT_PRODUCTION}.
+         */
+        public BulkVerifierBuilder environmentHost(final String environmentHost) {
+            this.environmentHost = environmentHost;
+            return this;
+        }
+
+        /**
+         * Set the device id sent with every request, identifying the server running the campaign.
+         */
+        public BulkVerifierBuilder deviceId(final String deviceId) {
+            this.deviceId = deviceId;
+            return this;
+        }
+
+        /**
+         * Set the source IP address sent with every request, by default the local host address.
+         */
+        public BulkVerifierBuilder sourceIp(final String sourceIp) {
+            this.sourceIp = sourceIp;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of calls in flight, by default {@link #DEFAULT_MAX_CONCURRENCY}.
+         */
+        public BulkVerifierBuilder maxConcurrency(final int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Set the token lifetime in milliseconds, as configured on the Dashboard.
+         */
+        public BulkVerifierBuilder tokenTimeToLive(final long tokenTimeToLive) {
+            this.tokenTimeToLive = tokenTimeToLive;
+            return this;
+        }
+
+        /**
+         * Set the connection client, by default a {@link PooledClient} hinting a pool sized for {@link #maxConcurrency}.
+         */
+        public BulkVerifierBuilder connectionClient(final ConnectionClient connectionClient) {
+            this.connectionClient = connectionClient;
+            return this;
+        }
+
+        /**
+         * Set the retry policy, by default {@link RetryPolicy#RetryPolicy()}.
+         */
+        public BulkVerifierBuilder retryPolicy(final RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        public BulkVerifier build() throws ClientBuilderException {
+            StringBuilder stringBuilder = new StringBuilder();
+            if (this.secrets.isEmpty())
+                ClientBuilderException.appendExceptionCause(stringBuilder, Protocol.PARAM_APP_ID);
+            for (Map.Entry<String, String> secret : this.secrets.entrySet()) {
+                if (secret.getKey() == null || secret.getKey().isEmpty())
+                    ClientBuilderException.appendExceptionCause(stringBuilder, Protocol.PARAM_APP_ID);
+                if (secret.getValue() == null || secret.getValue().isEmpty())
+                    ClientBuilderException.appendExceptionCause(stringBuilder, "sharedSecretKey");
+                if (!(this.rates.get(secret.getKey()) > 0))
+                    ClientBuilderException.appendExceptionCause(stringBuilder, "requestsPerSecond");
+            }
+            if (this.deviceId == null || this.deviceId.isEmpty())
+                ClientBuilderException.appendExceptionCause(stringBuilder, Protocol.PARAM_DEVICE_ID);
+            if (this.environmentHost == null || this.environmentHost.isEmpty())
+                ClientBuilderException.appendExceptionCause(stringBuilder, "environmentHost");
+            if (this.maxConcurrency <= 0)
+                ClientBuilderException.appendExceptionCause(stringBuilder, "maxConcurrency");
+            if (this.tokenTimeToLive <= 0)
+                ClientBuilderException.appendExceptionCause(stringBuilder, "tokenTimeToLive");
+
+            String missingParameters = stringBuilder.toString();
+            if (!missingParameters.isEmpty())
+                throw new ClientBuilderException("Building a BulkVerifier instance has failed due to missing parameters: " + missingParameters);
+
+            Map<String, AppSession> sessions = new LinkedHashMap<>();
+            for (Map.Entry<String, String> secret : this.secrets.entrySet()) {
+                RateLimiter rateLimiter = new RateLimiter(this.rates.get(secret.getKey()), DEFAULT_BURST);
+                sessions.put(secret.getKey(), new AppSession(secret.getKey(), secret.getValue(), rateLimiter, this.tokenTimeToLive));
+            }
+            return new BulkVerifier(this.environmentHost,
+                                    this.deviceId,
+                                    this.sourceIp != null ? this.sourceIp : getLocalAddress(),
+                                    this.maxConcurrency,
+                                    this.connectionClient != null ? this.connectionClient
+                                            : new PooledClient(this.maxConcurrency, Defaults.CONNECTION_KEEP_ALIVE_DURATION),
+                                    this.retryPolicy != null ? this.retryPolicy : new RetryPolicy(),
+                                    sessions);
+        }
+
+        private static String getLocalAddress() {
+            try {
+                return InetAddress.getLocalHost().getHostAddress();
+            } catch (UnknownHostException e) {
+                return InetAddress.getLoopbackAddress().getHostAddress();
+            }
+        }
+    }
+
+}
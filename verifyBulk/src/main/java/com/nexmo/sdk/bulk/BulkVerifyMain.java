@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.nexmo.sdk.core.client.ClientBuilderException;
+
+/**
+ * Command line entry point of the bulk engine.
+ * <pre>
+ * --app-id ID --secret KEY --device-id ID --input numbers.csv|numbers.jsonl
+ *     [--output results.jsonl] [--action verify|search|cancel|trigger_next_event|logout]
+ *     [--concurrency 200] [--rate 20] [--host https://api.nexmo.com/sdk/]
+ * </pre>
+ * Results are written as JSON lines to the output file, or to the standard output.
+ */
+public class BulkVerifyMain {
+
+    private BulkVerifyMain() {}
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = parse(args);
+        String input = options.get("input");
+        if (input == null || !options.containsKey("app-id") || !options.containsKey("secret") || !options.containsKey("device-id")) {
+            System.err.println("Usage: --app-id ID --secret KEY --device-id ID --input FILE [--output FILE] [--action verify|search|cancel|trigger_next_event|logout]"
+                    + " [--concurrency N] [--rate N] [--host URL]");
+            System.exit(2);
+            return;
+        }
+
+        BulkVerifier verifier;
+        try {
+            BulkVerifier.BulkVerifierBuilder builder = new BulkVerifier.BulkVerifierBuilder()
+                    .app(options.get("app-id"), options.get("secret"),
+                         options.containsKey("rate") ? Double.parseDouble(options.get("rate")) : BulkVerifier.DEFAULT_REQUESTS_PER_SECOND)
+                    .deviceId(options.get("device-id"));
+            if (options.containsKey("concurrency"))
+                builder.maxConcurrency(Integer.parseInt(options.get("concurrency")));
+            if (options.containsKey("host"))
+                builder.environmentHost(options.get("host"));
+            verifier = builder.build();
+        } catch (ClientBuilderException | NumberFormatException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        BulkAction action = BulkAction.valueOf(options.getOrDefault("action", "verify").toUpperCase());
+
+        BufferedWriter writer = (options.containsKey("output")
+                ? Files.newBufferedWriter(Paths.get(options.get("output")), StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+        try (TargetReader targets = TargetReader.open(Paths.get(input));
+             JsonLinesResultWriter results = new JsonLinesResultWriter(writer)) {
+            BulkSummary summary = verifier.run(targets, action, results);
+            System.err.println(summary + ", skipped lines=" + targets.getSkippedLines());
+        }
+    }
+
+    private static Map<String, String> parse(final String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--"))
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+}
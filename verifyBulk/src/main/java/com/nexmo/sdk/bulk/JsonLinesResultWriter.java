@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.gson.stream.JsonWriter;
+
+import com.nexmo.sdk.core.client.Protocol;
+
+/**
+ * Writes every result as one JSON line, as soon as it is received.
+ * <p>
+ * Lines carry the input line number, so the output can be joined back with the input even though
+ * results are written in completion order.
+ */
+public class JsonLinesResultWriter implements ResultSink, Flushable, Closeable {
+
+    private final Writer writer;
+    // Not a monitor: a virtual thread blocked on a monitor pins its carrier thread.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public JsonLinesResultWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void accept(final BulkResult result) {
+        this.lock.lock();
+        try {
+            JsonWriter json = new JsonWriter(this.writer);
+            json.beginObject();
+            json.name("line").value(result.getTarget().getLine());
+            json.name(Protocol.PARAM_COUNTRY_CODE).value(result.getTarget().getCountryCode());
+            json.name(Protocol.PARAM_NUMBER).value(result.getTarget().getPhoneNumber());
+            if (result.getTarget().getAppId() != null)
+                json.name(Protocol.PARAM_APP_ID).value(result.getTarget().getAppId());
+            json.name("action").value(result.getAction().name());
+            if (result.isAnswered()) {
+                json.name(Protocol.PARAM_RESULT_CODE).value(result.getResultCode());
+                json.name(Protocol.PARAM_RESULT_MESSAGE).value(result.getResultMessage());
+                if (result.getUserStatus() != null)
+                    json.name(Protocol.PARAM_RESULT_USER_STATUS).value(result.getUserStatus().name());
+            } else {
+                json.name("error").value(result.getError());
+            }
+            json.name("attempts").value(result.getAttempts());
+            json.name("latency_ms").value(result.getLatency());
+            json.endObject();
+            json.flush();
+            this.writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.lock.lock();
+        try {
+            this.writer.flush();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.lock.lock();
+        try {
+            this.writer.close();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+}
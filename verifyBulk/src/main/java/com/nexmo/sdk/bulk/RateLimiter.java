@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket that spaces out the requests of one application.
+ * <p>
+ * Permits are handed out in order of reservation: a caller reserves the next free slot under the lock
+ * and then sleeps until its slot, outside the lock. Sleeping is cheap on a virtual thread.
+ */
+public class RateLimiter {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long interval;
+    private final long maxBurst;
+    private long nextFree;
+
+    /**
+     * @param permitsPerSecond The sustained request rate.
+     * @param burst            The number of requests that may be sent at once after an idle period, at least 1.
+     */
+    public RateLimiter(final double permitsPerSecond, final int burst) {
+        if (permitsPerSecond <= 0)
+            throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+        this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.maxBurst = this.interval * Math.max(burst - 1, 0);
+        this.nextFree = System.nanoTime() - this.maxBurst;
+    }
+
+    /**
+     * Wait for a permit.
+     *
+     * @throws InterruptedException If the caller is interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        long wait = reserve(System.nanoTime());
+        if (wait > 0)
+            TimeUnit.NANOSECONDS.sleep(wait);
+    }
+
+    /**
+     * Reserve the next permit.
+     *
+     * @param now The current time in nanoseconds.
+     * @return The time to wait for the permit in nanoseconds, 0 if it is available now.
+     */
+    long reserve(final long now) {
+        this.lock.lock();
+        try {
+            // Idle time only accumulates up to the burst size.
+            long slot = Math.max(this.nextFree, now - this.maxBurst);
+            this.nextFree = slot + this.interval;
+            return Math.max(slot - now, 0);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+/**
+ * Receives the results of a bulk run as soon as each call completes.
+ * Results arrive from many threads at once and in completion order, not input order.
+ */
+public interface ResultSink {
+
+    /**
+     * @param result The result of one target.
+     */
+    void accept(BulkResult result);
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import com.nexmo.sdk.core.client.Protocol;
+import com.nexmo.sdk.core.platform.Platform;
+
+/**
+ * Streams the targets of a bulk input, one line at a time.
+ * <p>
+ * Two formats are read:
+ * <ul>
+ *     <li>CSV: {@code country,number[,app_id]}, an optional header line starting with {@code country}.</li>
+ *     <li>JSON lines: {@code {"country": "GB", "number": "447700900000", "app_id": "..."}}.</li>
+ * </ul>
+ * Blank lines and lines starting with {@code #} are ignored. Malformed lines are skipped and counted,
+ * so a single bad line does not stop a campaign.
+ */
+public class TargetReader implements Iterator<BulkTarget>, Closeable {
+
+    private static final String TAG = TargetReader.class.getSimpleName();
+    private static final String FIELD_APP_ID = "app_id";
+
+    /** Input format. */
+    public enum Format {
+        CSV,
+        JSON_LINES;
+
+        /**
+         * @param path The input file.
+         * @return {@link #JSON_LINES} for {@code .jsonl}, {@code .ndjson} and {@code .json} files, {@link #CSV} otherwise.
+         */
+        public static Format of(final Path path) {
+            String name = path.getFileName().toString().toLowerCase();
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json"))
+                return JSON_LINES;
+            return CSV;
+        }
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private long line;
+    private long skipped;
+    private boolean started;
+    private BulkTarget next;
+
+    public TargetReader(final Reader reader, final Format format) {
+        this.reader = (reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader));
+        this.format = format;
+    }
+
+    /**
+     * Open an input file, the format is picked from its extension.
+     *
+     * @param path The input file, UTF-8 encoded.
+     * @return The reader.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static TargetReader open(final Path path) throws IOException {
+        return new TargetReader(Files.newBufferedReader(path, StandardCharsets.UTF_8), Format.of(path));
+    }
+
+    /**
+     * @return The number of malformed lines skipped so far.
+     */
+    public long getSkippedLines() {
+        return this.skipped;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (this.next == null) {
+            String text;
+            try {
+                text = this.reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (text == null)
+                return false;
+            this.line++;
+            text = text.trim();
+            if (text.isEmpty() || text.startsWith("#"))
+                continue;
+            this.next = (this.format == Format.CSV ? parseCsv(text) : parseJson(text));
+        }
+        return true;
+    }
+
+    @Override
+    public BulkTarget next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        BulkTarget target = this.next;
+        this.next = null;
+        return target;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    private BulkTarget parseCsv(final String text) {
+        String[] fields = text.split(",", -1);
+        boolean first = !this.started;
+        this.started = true;
+        if (first && fields[0].trim().equalsIgnoreCase(Protocol.PARAM_COUNTRY_CODE))
+            return null;
+        if (fields.length < 2 || fields.length > 3)
+            return skip("expected country,number[,app_id]");
+        String appId = (fields.length == 3 ? fields[2].trim() : null);
+        return target(fields[0].trim(), fields[1].trim(), appId);
+    }
+
+    private BulkTarget parseJson(final String text) {
+        try {
+            JsonElement element = new JsonParser().parse(text);
+            if (!element.isJsonObject())
+                return skip("expected a json object");
+            JsonObject object = element.getAsJsonObject();
+            return target(getString(object, Protocol.PARAM_COUNTRY_CODE),
+                          getString(object, Protocol.PARAM_NUMBER),
+                          getString(object, FIELD_APP_ID));
+        } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+            return skip(e.getMessage());
+        }
+    }
+
+    private BulkTarget target(final String countryCode, final String phoneNumber, final String appId) {
+        if (phoneNumber == null || phoneNumber.isEmpty())
+            return skip("number missing");
+        return new BulkTarget(isEmpty(countryCode) ? null : countryCode,
+                              phoneNumber,
+                              isEmpty(appId) ? null : appId,
+                              this.line);
+    }
+
+    private BulkTarget skip(final String reason) {
+        this.skipped++;
+        Platform.get().log(TAG, "Line " + this.line + " skipped: " + reason);
+        return null;
+    }
+
+    private static String getString(final JsonObject object, final String name) {
+        JsonElement element = object.get(name);
+        return (element == null || element.isJsonNull() ? null : element.getAsString().trim());
+    }
+
+    private static boolean isEmpty(final String value) {
+        return (value == null || value.isEmpty());
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+import java.io.IOException;
+
+import com.nexmo.sdk.core.client.ResultCodes;
+
+/**
+ * The SDK service answered the token request with an error result code.
+ */
+class TokenRejectedException extends IOException {
+
+    private final int resultCode;
+    private final String resultMessage;
+
+    TokenRejectedException(final int resultCode, final String resultMessage) {
+        super("Token request rejected: " + resultCode + " " + resultMessage);
+        this.resultCode = resultCode;
+        this.resultMessage = resultMessage;
+    }
+
+    int getResultCode() {
+        return this.resultCode;
+    }
+
+    String getResultMessage() {
+        return this.resultMessage;
+    }
+
+    /**
+     * @return True if the credentials were refused, asking again cannot succeed.
+     */
+    boolean isCredentialsError() {
+        return (this.resultCode == ResultCodes.INVALID_CREDENTIALS || this.resultCode == ResultCodes.BAD_APP_ID);
+    }
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+import com.nexmo.sdk.core.client.Protocol;
+import com.nexmo.sdk.core.client.ResultCodes;
+import com.nexmo.sdk.verify.event.UserStatus;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BulkVerifierTest {
+
+    private static final String TAG = BulkVerifierTest.class.getSimpleName();
+    private static final String APP_ID = "app";
+    private static final String SECRET = "secret";
+
+    private HttpServer server;
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile int tokenResultCode = ResultCodes.RESULT_CODE_OK;
+    // Number of token requests answered with tokenResultCode, the next ones succeed.
+    private final AtomicInteger tokenRejections = new AtomicInteger(Integer.MAX_VALUE);
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/sdk/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                int current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+                try {
+                    respond(exchange);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop(0);
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        List<BulkTarget> targets = new ArrayList<>();
+        for (int i = 0; i < 50; i++)
+            targets.add(new BulkTarget("GB", "4477009000" + i, null, i + 1));
+        final ConcurrentLinkedQueue<BulkResult> results = new ConcurrentLinkedQueue<>();
+
+        BulkSummary summary = newVerifier(8).run(targets.iterator(), BulkAction.VERIFY, new ResultSink() {
+            @Override
+            public void accept(BulkResult result) {
+                results.add(result);
+            }
+        });
+
+        assertEquals(TAG + " Not every target processed.", 50, summary.getTotal());
+        assertEquals(TAG + " Not every call succeeded.", 50, summary.getSucceeded());
+        assertEquals(TAG + " Not every result streamed.", 50, results.size());
+        assertEquals(TAG + " Token not shared.", 1, tokenRequests.get());
+        assertTrue(TAG + " Concurrency bound exceeded: " + maxInFlight.get(), maxInFlight.get() <= 8);
+        BulkResult result = results.peek();
+        assertEquals(TAG + " Wrong user status.", UserStatus.USER_PENDING, result.getUserStatus());
+        assertNull(TAG + " Answered call has an error.", result.getError());
+    }
+
+    @Test
+    public void testUnknownApplication() throws Exception {
+        BulkResult result = newVerifier(1).execute(new BulkTarget("GB", "447700900000", "other", 1), BulkAction.SEARCH);
+        assertEquals(TAG + " Unknown application answered.", BulkResult.NO_RESULT, result.getResultCode());
+        assertEquals(TAG + " Request sent for an unknown application.", 0, tokenRequests.get());
+    }
+
+    @Test
+    public void testTokenRejected() throws Exception {
+        tokenResultCode = ResultCodes.BAD_APP_ID;
+        BulkResult result = newVerifier(1).execute(new BulkTarget("GB", "447700900000", null, 1), BulkAction.SEARCH);
+        assertEquals(TAG + " Token result code not reported.", ResultCodes.BAD_APP_ID, result.getResultCode());
+    }
+
+    @Test
+    public void testTokenRetried() throws Exception {
+        tokenResultCode = ResultCodes.REQUEST_REJECTED;
+        tokenRejections.set(1);
+        BulkResult result = newVerifier(1).execute(new BulkTarget("GB", "447700900000", null, 1), BulkAction.SEARCH);
+        assertEquals(TAG + " Throttled token request not retried.", ResultCodes.RESULT_CODE_OK, result.getResultCode());
+        assertEquals(TAG + " Unexpected token requests.", 2, tokenRequests.get());
+    }
+
+    @Test
+    public void testFailedSink() throws Exception {
+        List<BulkTarget> targets = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            targets.add(new BulkTarget("GB", "4477009000" + i, null, i + 1));
+
+        BulkSummary summary = newVerifier(2).run(targets.iterator(), BulkAction.SEARCH, new ResultSink() {
+            @Override
+            public void accept(BulkResult result) {
+                if (result.getTarget().getLine() % 2 == 0)
+                    throw new IllegalStateException("sink failure");
+            }
+        });
+
+        assertEquals(TAG + " Target missing from the summary.", 4, summary.getTotal());
+        assertEquals(TAG + " Lost results not counted as failed.", 2, summary.getFailed());
+        assertEquals(TAG + " Recorded results not counted.", 2, summary.getSucceeded());
+    }
+
+    private BulkVerifier newVerifier(final int maxConcurrency) throws Exception {
+        return new BulkVerifier.BulkVerifierBuilder()
+                .app(APP_ID, SECRET, 10000)
+                .deviceId("test")
+                .sourceIp("127.0.0.1")
+                .environmentHost("http://127.0.0.1:" + server.getAddress().getPort() + "/sdk/")
+                .maxConcurrency(maxConcurrency)
+                .build();
+    }
+
+    private void respond(final HttpExchange exchange) throws IOException {
+        Map<String, String> params = getParams(exchange.getRequestURI().getRawQuery());
+        String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+        String body;
+        if (exchange.getRequestURI().getPath().endsWith("/sdk/token/json")) {
+            tokenRequests.incrementAndGet();
+            int resultCode = (tokenRejections.getAndDecrement() > 0 ? tokenResultCode : ResultCodes.RESULT_CODE_OK);
+            body = "{\"result_code\":" + resultCode + ",\"timestamp\":\"" + timestamp + "\",\"token\":\"token-1\"}";
+        } else if (!"token-1".equals(params.get(Protocol.PARAM_TOKEN))) {
+            body = "{\"result_code\":" + ResultCodes.INVALID_TOKEN + "}";
+        } else {
+            try {
+                // Keep some calls in flight at the same time.
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            body = "{\"result_code\":0,\"timestamp\":\"" + timestamp + "\",\"user_status\":\"" + Protocol.USER_PENDING + "\"}";
+        }
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add(Protocol.RESPONSE_SIG, sign(content));
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(200, content.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(content);
+        out.close();
+    }
+
+    private static Map<String, String> getParams(final String query) throws IOException {
+        if (query == null)
+            return Collections.emptyMap();
+        Map<String, String> params = new HashMap<>();
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0)
+                params.put(URLDecoder.decode(pair.substring(0, separator), "UTF-8"), URLDecoder.decode(pair.substring(separator + 1), "UTF-8"));
+        }
+        return params;
+    }
+
+    private static String sign(final byte[] content) {
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            md5.update(content);
+            md5.update(SECRET.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : md5.digest())
+                hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
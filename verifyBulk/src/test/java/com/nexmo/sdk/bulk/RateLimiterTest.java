@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class RateLimiterTest {
+
+    private static final String TAG = RateLimiterTest.class.getSimpleName();
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testBurstThenRate() {
+        RateLimiter rateLimiter = new RateLimiter(10, 3);
+        long now = System.nanoTime() + SECOND;
+        assertEquals(TAG + " Burst permit delayed.", 0, rateLimiter.reserve(now));
+        assertEquals(TAG + " Burst permit delayed.", 0, rateLimiter.reserve(now));
+        assertEquals(TAG + " Burst permit delayed.", 0, rateLimiter.reserve(now));
+        assertEquals(TAG + " Permit after the burst not spaced.", SECOND / 10, rateLimiter.reserve(now));
+        assertEquals(TAG + " Permits not queued.", 2 * SECOND / 10, rateLimiter.reserve(now));
+    }
+
+    @Test
+    public void testIdleTimeCapped() {
+        RateLimiter rateLimiter = new RateLimiter(10, 2);
+        long now = System.nanoTime() + 60 * SECOND;
+        assertEquals(TAG + " Burst permit delayed.", 0, rateLimiter.reserve(now));
+        assertEquals(TAG + " Burst permit delayed.", 0, rateLimiter.reserve(now));
+        assertEquals(TAG + " Idle time accumulated beyond the burst.", SECOND / 10, rateLimiter.reserve(now));
+    }
+
+}
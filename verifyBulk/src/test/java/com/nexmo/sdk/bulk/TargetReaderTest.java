@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.bulk;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TargetReaderTest {
+
+    private static final String TAG = TargetReaderTest.class.getSimpleName();
+
+    @Test
+    public void testCsv() {
+        TargetReader reader = new TargetReader(new StringReader("# campaign\ncountry,number\nGB, 447700900000\n\n,+14155550100,app2\nbroken\n"),
+                                               TargetReader.Format.CSV);
+        BulkTarget first = reader.next();
+        assertEquals(TAG + " Wrong country.", "GB", first.getCountryCode());
+        assertEquals(TAG + " Number not trimmed.", "447700900000", first.getPhoneNumber());
+        assertNull(TAG + " Default app id not empty.", first.getAppId());
+        assertEquals(TAG + " Wrong line.", 3, first.getLine());
+        BulkTarget second = reader.next();
+        assertNull(TAG + " Empty country not null.", second.getCountryCode());
+        assertEquals(TAG + " Wrong app id.", "app2", second.getAppId());
+        assertFalse(TAG + " Malformed line returned.", reader.hasNext());
+        assertEquals(TAG + " Malformed line not counted.", 1, reader.getSkippedLines());
+    }
+
+    @Test
+    public void testJsonLines() {
+        TargetReader reader = new TargetReader(new StringReader("{\"country\":\"FR\",\"number\":\"33612345678\",\"app_id\":\"a\"}\n"
+                                                                 + "{\"country\":\"FR\"}\n[1]\nnot json\n{\"number\":123}\n"),
+                                               TargetReader.Format.JSON_LINES);
+        BulkTarget first = reader.next();
+        assertEquals(TAG + " Wrong country.", "FR", first.getCountryCode());
+        assertEquals(TAG + " Wrong app id.", "a", first.getAppId());
+        assertTrue(TAG + " Numeric number not read.", reader.hasNext());
+        assertEquals(TAG + " Wrong number.", "123", reader.next().getPhoneNumber());
+        assertFalse(TAG + " Unexpected target.", reader.hasNext());
+        assertEquals(TAG + " Malformed lines not counted.", 3, reader.getSkippedLines());
+    }
+
+    @Test
+    public void testFormatFromExtension() {
+        assertEquals(TAG + " jsonl not detected.", TargetReader.Format.JSON_LINES, TargetReader.Format.of(Paths.get("in.JSONL")));
+        assertEquals(TAG + " csv not detected.", TargetReader.Format.CSV, TargetReader.Format.of(Paths.get("in.csv")));
+    }
+
+}
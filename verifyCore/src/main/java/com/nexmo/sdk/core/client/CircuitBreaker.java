@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import java.net.SocketTimeoutException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.core.device.NoDeviceIdException;
+
+/**
+ * Circuit breaker keyed by request method, one of the {@link Protocol} METHOD values.
+ * <p>
+ * Each method keeps the outcome of its last requests. A request is bad if it failed because of the network
+ * or the SDK service, or if it took longer than the slow call threshold. Once the share of bad requests
+ * reaches the failure rate threshold, the circuit of the method opens: its requests fail fast without being
+ * sent, so a degraded service does not keep request threads busy and does not use up the account quota.
+ * <p>
+ * After the open duration the circuit is half open and lets a single probe request through.
+ * The circuit closes again if the probe succeeds, and opens for another open duration otherwise.
+ */
+public class CircuitBreaker {
+
+    /** Circuit state of a request method. */
+    public enum State {
+        /** Requests are sent. */
+        CLOSED,
+        /** Requests fail fast. */
+        OPEN,
+        /** A single probe request is sent, the others fail fast. */
+        HALF_OPEN
+    }
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallThreshold;
+    private final long openDuration;
+    private final Map<String, Circuit> circuits = new HashMap<>();
+
+    /**
+     * Circuit breaker with the default {@link Defaults#CIRCUIT_WINDOW_SIZE}, {@link Defaults#CIRCUIT_MINIMUM_CALLS},
+     * {@link Defaults#CIRCUIT_FAILURE_RATE}, {@link Defaults#CIRCUIT_SLOW_CALL_THRESHOLD} and
+     * {@link Defaults#CIRCUIT_OPEN_DURATION}.
+     */
+    public CircuitBreaker() {
+        this(Defaults.CIRCUIT_WINDOW_SIZE, Defaults.CIRCUIT_MINIMUM_CALLS, Defaults.CIRCUIT_FAILURE_RATE,
+             Defaults.CIRCUIT_SLOW_CALL_THRESHOLD, Defaults.CIRCUIT_OPEN_DURATION);
+    }
+
+    /**
+     * @param windowSize           The number of last requests whose outcome is kept per method.
+     * @param minimumCalls         The number of requests needed in the window before the circuit can open.
+     * @param failureRateThreshold The percentage of bad requests in the window that opens the circuit.
+     *                             Over 100 the circuit never opens.
+     * @param slowCallThreshold    Requests that take longer, in milliseconds, count as bad.
+     * @param openDuration         The time in milliseconds the circuit stays open before a probe is let through.
+     */
+    public CircuitBreaker(final int windowSize,
+                          final int minimumCalls,
+                          final int failureRateThreshold,
+                          final long slowCallThreshold,
+                          final long openDuration) {
+        this.windowSize = Math.max(windowSize, 1);
+        this.minimumCalls = Math.min(Math.max(minimumCalls, 1), this.windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThreshold = slowCallThreshold;
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * @return A circuit breaker that never opens.
+     */
+    public static CircuitBreaker disabled() {
+        return new CircuitBreaker(1, 1, 101, Long.MAX_VALUE, 0);
+    }
+
+    public int getWindowSize() {
+        return this.windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return this.minimumCalls;
+    }
+
+    public int getFailureRateThreshold() {
+        return this.failureRateThreshold;
+    }
+
+    public long getSlowCallThreshold() {
+        return this.slowCallThreshold;
+    }
+
+    public long getOpenDuration() {
+        return this.openDuration;
+    }
+
+    /**
+     * Checks if a request can be sent, it must then be followed by {@link #onResponse} or {@link #onFailure}.
+     *
+     * @param method The request method.
+     * @return False if the request must fail fast.
+     */
+    public boolean allowRequest(final String method) {
+        return getCircuit(method).allowRequest(now());
+    }
+
+    /**
+     * A response was received.
+     *
+     * @param method     The request method.
+     * @param resultCode The result code of the response.
+     * @param latency    The time in milliseconds the request took.
+     */
+    public void onResponse(final String method, final int resultCode, final long latency) {
+        boolean bad = (resultCode == ResultCodes.INTERNAL_ERROR || resultCode == ResultCodes.REQUEST_REJECTED
+                || latency > this.slowCallThreshold);
+        getCircuit(method).record(bad, now());
+    }
+
+    /**
+     * A request has failed without a response.
+     * Failures caused by the request itself, such as a cancellation or a client error status, are not recorded.
+     *
+     * @param method  The request method.
+     * @param failure The failure.
+     */
+    public void onFailure(final String method, final IOException failure) {
+        if (isServiceFailure(failure))
+            getCircuit(method).record(true, now());
+    }
+
+    /**
+     * @param method The request method.
+     * @return The circuit state of the method.
+     */
+    public State getState(final String method) {
+        return getCircuit(method).getState();
+    }
+
+    static boolean isServiceFailure(final IOException failure) {
+        if (failure instanceof HttpStatusException) {
+            int statusCode = ((HttpStatusException) failure).getStatusCode();
+            return (statusCode >= 500 || statusCode == HTTP_TOO_MANY_REQUESTS);
+        }
+        return !(failure instanceof NoDeviceIdException
+                || (failure instanceof InterruptedIOException && !(failure instanceof SocketTimeoutException)));
+    }
+
+    synchronized Circuit getCircuit(final String method) {
+        Circuit circuit = this.circuits.get(method);
+        if (circuit == null) {
+            circuit = new Circuit();
+            this.circuits.put(method, circuit);
+        }
+        return circuit;
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1000000;
+    }
+
+    /**
+     * Outcome window and state of a single method.
+     */
+    class Circuit {
+        private final boolean[] outcomes = new boolean[windowSize];
+        private int next;
+        private int count;
+        private int badCount;
+        private State state = State.CLOSED;
+        private long openedAt;
+        private long probeStartedAt;
+
+        synchronized State getState() {
+            return this.state;
+        }
+
+        synchronized boolean allowRequest(final long now) {
+            switch (this.state) {
+                case OPEN:
+                    if (now - this.openedAt < openDuration)
+                        return false;
+                    this.state = State.HALF_OPEN;
+                    this.probeStartedAt = now;
+                    return true;
+                case HALF_OPEN:
+                    // A probe that never reported back, such as a cancelled one, is replaced.
+                    if (now - this.probeStartedAt < openDuration)
+                        return false;
+                    this.probeStartedAt = now;
+                    return true;
+                default:
+                    return true;
+            }
+        }
+
+        synchronized void record(final boolean bad, final long now) {
+            switch (this.state) {
+                case HALF_OPEN:
+                    if (bad)
+                        open(now);
+                    else {
+                        this.state = State.CLOSED;
+                        reset();
+                    }
+                    break;
+                case CLOSED:
+                    if (this.count == this.outcomes.length) {
+                        if (this.outcomes[this.next])
+                            this.badCount--;
+                    } else
+                        this.count++;
+                    this.outcomes[this.next] = bad;
+                    if (bad)
+                        this.badCount++;
+                    this.next = (this.next + 1) % this.outcomes.length;
+                    if (this.count >= minimumCalls && this.badCount * 100 >= failureRateThreshold * this.count)
+                        open(now);
+                    break;
+                default:
+                    // Late outcome of a request sent before the circuit opened.
+                    break;
+            }
+        }
+
+        private void open(final long now) {
+            this.state = State.OPEN;
+            this.openedAt = now;
+            reset();
+        }
+
+        private void reset() {
+            this.next = 0;
+            this.count = 0;
+            this.badCount = 0;
+        }
+    }
+
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.nexmo.sdk.core.config.Config;
+import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.core.platform.Platform;
+import com.nexmo.sdk.core.request.QueryBuilder;
+import com.nexmo.sdk.core.request.RequestSigning;
+
+import com.nexmo.sdk.verify.client.InternalNetworkException;
+
+/**
+ * Client that handles network requests.
+ * <p>
+ * By default every parameter is sent in the url query of a GET request. A {@link Transport#POST_FORM} or
+ * {@link Transport#POST_JSON} client sends them in the request body instead, which keeps the token, number
+ * and signature out of the url. With compression enabled, gzip responses are accepted and request bodies of
+ * at least {@link Defaults#MIN_COMPRESSED_BODY_SIZE} bytes are gzipped; the service must support both.
+ */
+public class Client implements ConnectionClient {
+
+    /** Log tag, apps may override it. */
+    private static final String TAG = Client.class.getSimpleName();
+    private static final String CHARSET_PARAM = "charset=";
+    private static final ThreadLocal<byte[]> readBuffers = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[Defaults.RESPONSE_BUFFER_SIZE];
+        }
+    };
+
+    private final Transport transport;
+    private final boolean compression;
+
+    /**
+     * GET client without compression, supported by every SDK service release.
+     */
+    public Client() {
+        this(Transport.GET, false);
+    }
+
+    /**
+     * @param transport   How the request parameters are sent.
+     * @param compression Accept gzip responses, and gzip the larger request bodies.
+     */
+    public Client(final Transport transport, final boolean compression) {
+        this.transport = (transport != null ? transport : Transport.GET);
+        this.compression = compression;
+    }
+
+    public Transport getTransport() {
+        return this.transport;
+    }
+
+    public boolean isCompressionEnabled() {
+        return this.compression;
+    }
+
+    /**
+     * Prepare a new connection with necessary custom header fields.
+     * @param request The request object.
+     *
+     * @return A new url connection, with the body sent by {@link #execute(ClientConnection)}.
+     * @throws IOException if an error occurs while opening the connection.
+     */
+    public ClientConnection initConnection(Request request) throws IOException {
+        if (this.transport != Transport.GET)
+            return initPostConnection(request);
+
+        // Generate signature using pre-shared key, the url query is encoded in the same pass.
+        QueryBuilder query = QueryBuilder.get(request.getUrl(), request.getMethod());
+        RequestSigning.constructSignatureForRequestParameters(request.getParams(), request.getSecretKey(), query);
+
+        // Construct connection with necessary custom headers.
+        HttpURLConnection connection = openConnection(query.toString(), "GET");
+        connection.setDoOutput(true);
+        connection.addRequestProperty(Protocol.CONTENT_ENCODING, Config.PARAMS_ENCODING);
+        return new ClientConnection(connection, null);
+    }
+
+    /**
+     * Prepare a POST connection, the signed parameters are encoded in the body.
+     * The body is sent when the connection is executed.
+     */
+    private ClientConnection initPostConnection(Request request) throws IOException {
+        byte[] body;
+        String contentType;
+        if (this.transport == Transport.POST_FORM) {
+            QueryBuilder form = QueryBuilder.get();
+            RequestSigning.constructSignatureForRequestParameters(request.getParams(), request.getSecretKey(), form);
+            body = form.toString().getBytes(Config.PARAMS_ENCODING);
+            contentType = Protocol.CONTENT_TYPE_FORM;
+        } else {
+            RequestSigning.constructSignatureForRequestParameters(request.getParams(), request.getSecretKey());
+            body = toJson(request.getParams());
+            contentType = Protocol.CONTENT_TYPE_JSON;
+        }
+
+        // The method name ends with the '?' of the GET query.
+        String method = request.getMethod();
+        if (method.endsWith("?"))
+            method = method.substring(0, method.length() - 1);
+        HttpURLConnection connection = openConnection(request.getUrl() + method, "POST");
+        connection.setDoOutput(true);
+        connection.addRequestProperty(Protocol.CONTENT_TYPE, contentType);
+        connection.addRequestProperty(Protocol.ACCEPT, Protocol.CONTENT_TYPE_JSON);
+        if (this.compression && body.length >= Defaults.MIN_COMPRESSED_BODY_SIZE) {
+            body = gzip(body);
+            connection.addRequestProperty(Protocol.CONTENT_ENCODING, Protocol.ENCODING_GZIP);
+        }
+        connection.setFixedLengthStreamingMode(body.length);
+        return new ClientConnection(connection, body);
+    }
+
+    private HttpURLConnection openConnection(final String url, final String requestMethod) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(requestMethod);
+        connection.setReadTimeout(Defaults.CONNECTION_READ_TIMEOUT);
+        connection.setConnectTimeout(Defaults.CONNECTION_TIMEOUT);
+        connection.setDoInput(true);
+        if (this.compression)
+            connection.addRequestProperty(Protocol.ACCEPT_ENCODING, Protocol.ENCODING_GZIP);
+        connection.addRequestProperty(Protocol.OS_FAMILY, Config.OS_ANDROID);
+        connection.addRequestProperty(Protocol.OS_REVISION, Platform.get().getOsRevision());
+        connection.addRequestProperty(Protocol.SDK_REVISION, Config.SDK_REVISION_CODE);
+        return connection;
+    }
+
+    /**
+     * Executes a connection, and validates that the body was supplied.
+     *
+     * @param clientConnection A prepared connection.
+     *
+     * @return The response object.
+     * @throws IOException If an error occurs while connecting to the resource.
+     * @throws InternalNetworkException If an internal sdk error occurs while parsing the response.
+     */
+    @Override
+    public Response execute(ClientConnection clientConnection) throws IOException, InternalNetworkException {
+        HttpURLConnection connection = clientConnection.getConnection();
+        try{
+            // A few clock reads per request, the stage timings are kept on the response.
+            byte[] body = clientConnection.getBody();
+            long start = System.nanoTime();
+            connection.connect();
+            if (body != null) {
+                OutputStream outputStream = connection.getOutputStream();
+                outputStream.write(body);
+                outputStream.close();
+            }
+            long connected = System.nanoTime();
+
+            if (connection.getResponseCode() == HttpURLConnection.HTTP_OK) {
+                long firstByte = System.nanoTime();
+                Platform platform = Platform.get();
+                if (platform.isDebug())
+                    platform.log(TAG, connection.getURL().toString());
+                String signatureSupplied = connection.getHeaderField(Protocol.RESPONSE_SIG);
+                // The signature covers the uncompressed body.
+                byte[] content;
+                if (Protocol.ENCODING_GZIP.equalsIgnoreCase(connection.getContentEncoding()))
+                    content = readBody(new GZIPInputStream(connection.getInputStream()), -1);
+                else
+                    content = readBody(connection.getInputStream(), connection.getContentLength());
+                Response response = new Response(content, getCharset(connection.getContentType()), signatureSupplied);
+                response.setTimings(connected - start, firstByte - connected, System.nanoTime() - firstByte);
+
+                if (response.isEmpty())
+                    throw new InternalNetworkException(TAG + "Internal error. Body response missing.");
+                else
+                    return response;
+            }
+            else throw new HttpStatusException(TAG + " Internal error. Unable to connect to server. " + connection.getResponseCode(),
+                                               connection.getResponseCode(),
+                                               getRetryAfter(connection.getHeaderField(Protocol.RETRY_AFTER),
+                                                             connection.getHeaderFieldDate(Protocol.RETRY_AFTER, -1),
+                                                             System.currentTimeMillis()));
+        } finally {
+            release(connection);
+        }
+    }
+
+    /**
+     * Release the connection once the response has been consumed.
+     * The default implementation closes the underlying socket.
+     *
+     * @param connection The executed connection.
+     */
+    protected void release(HttpURLConnection connection) {
+        connection.disconnect();
+    }
+
+    /**
+     * Construct a Nexmo Url instance.
+     *
+     * @param requestParams The necessary http params.
+     * @param methodName The method name inside the API call.
+     *
+     * @throws MalformedURLException if an error occurs while opening the connection.
+     */
+    static URL constructUrlGetConnection(Map<String, String> requestParams,
+                                         final String methodName,
+                                         final String host) throws MalformedURLException {
+        QueryBuilder query = QueryBuilder.get(host, methodName);
+        for (Map.Entry<String, String> entry : requestParams.entrySet())
+            query.append(entry.getKey(), entry.getValue());
+        return new URL(query.toString());
+    }
+
+    /**
+     * Encode the request parameters as the string fields of a flat JSON object.
+     *
+     * @param params The signed request parameters.
+     * @return The UTF-8 body.
+     * @throws IOException If the body cannot be written.
+     */
+    static byte[] toJson(Map<String, String> params) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(Defaults.QUERY_BUFFER_SIZE);
+        JsonWriter writer = new JsonWriter(new OutputStreamWriter(body, Config.PARAMS_ENCODING));
+        writer.beginObject();
+        for (Map.Entry<String, String> param : params.entrySet())
+            writer.name(param.getKey()).value(param.getValue() != null ? param.getValue() : "");
+        writer.endObject();
+        writer.close();
+        return body.toByteArray();
+    }
+
+    static byte[] gzip(final byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2);
+        GZIPOutputStream gzipStream = new GZIPOutputStream(compressed);
+        gzipStream.write(content);
+        gzipStream.close();
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Read the whole response body in bulk.
+     * <p>
+     * When the Content-Length is known the body is read straight into an array of that size,
+     * otherwise it is read through a per-thread buffer that is reused between requests.
+     *
+     * @param inputStream   The response stream, it is closed once read.
+     * @param contentLength The Content-Length header value, -1 if unknown.
+     *
+     * @return The raw body.
+     * @throws IOException If the stream cannot be read or ends before the Content-Length.
+     */
+    static byte[] readBody(InputStream inputStream, final int contentLength) throws IOException {
+        try {
+            if (contentLength >= 0) {
+                byte[] content = new byte[contentLength];
+                int count = 0;
+                while (count < contentLength) {
+                    int read = inputStream.read(content, count, contentLength - count);
+                    if (read == -1)
+                        throw new EOFException(TAG + " Response body shorter than its Content-Length: " + count + "/" + contentLength);
+                    count += read;
+                }
+                return content;
+            }
+
+            byte[] buffer = readBuffers.get();
+            int count = 0;
+            int read;
+            while ((read = inputStream.read(buffer, count, buffer.length - count)) != -1) {
+                count += read;
+                if (count == buffer.length)
+                    // Bigger than usual, continue in a larger array that is not kept.
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            return Arrays.copyOf(buffer, count);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Get the delay asked by a Retry-After header, given either in seconds or as an HTTP date.
+     *
+     * @param value The header value, may be {@code null}.
+     * @param date  The header value parsed as a date, -1 if it is not one.
+     * @param now   The current time in milliseconds.
+     * @return The delay in milliseconds, or -1 if there is none.
+     */
+    static long getRetryAfter(final String value, final long date, final long now) {
+        if (value == null)
+            return -1;
+        try {
+            return Math.max(Long.parseLong(value.trim()), 0) * 1000;
+        } catch (NumberFormatException e) {
+            return (date > 0 ? Math.max(date - now, 0) : -1);
+        }
+    }
+
+    /**
+     * Get the charset parameter of a Content-Type header.
+     *
+     * @param contentType The Content-Type header value, may be {@code null}.
+     * @return The charset name, or {@code null} if none is declared.
+     */
+    static String getCharset(final String contentType) {
+        if (contentType == null)
+            return null;
+        for (String param : contentType.split(";")) {
+            param = param.trim();
+            if (param.regionMatches(true, 0, CHARSET_PARAM, 0, CHARSET_PARAM.length()))
+                return param.substring(CHARSET_PARAM.length()).replace("\"", "").trim();
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+import java.net.HttpURLConnection;
+
+/**
+ * A prepared connection and the request body it sends when executed, null for a GET request.
+ */
+public class ClientConnection {
+
+    private final HttpURLConnection connection;
+    private final byte[] body;
+
+    public ClientConnection(final HttpURLConnection connection, final byte[] body) {
+        this.connection = connection;
+        this.body = body;
+    }
+
+    public HttpURLConnection getConnection() {
+        return this.connection;
+    }
+
+    public byte[] getBody() {
+        return this.body;
+    }
+
+}
@@ -15,8 +15,6 @@ package com.nexmo.sdk.core.client;
 
 import java.io.IOException;
 
-import java.net.HttpURLConnection;
-
 import com.nexmo.sdk.verify.client.InternalNetworkException;
 
 /**
@@ -27,19 +25,19 @@ public interface ConnectionClient {
     /** Prepare a new connection with necessary custom header fields.
      * @param request The request object.
      *
-     * @return A new url connection.
+     * @return A new url connection, with the body it sends.
      * @throws IOException If an error occurs while opening the connection.
      */
-    public HttpURLConnection initConnection(Request request) throws IOException;
+    public ClientConnection initConnection(Request request) throws IOException;
 
     /**
      * Invokes an http request.
-     * @param connection The http connection.
+     * @param connection The http connection, as prepared by {@link #initConnection(Request)}.
      *
      * @return The response object.
      * @throws IOException If an error occurs while connecting to the resource.
      * @throws InternalNetworkException If an internal sdk error occurs while parsing the response.
      */
-    public Response execute(HttpURLConnection connection) throws IOException, InternalNetworkException;
+    public Response execute(ClientConnection connection) throws IOException, InternalNetworkException;
 
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+import java.util.Arrays;
+
+import com.nexmo.sdk.core.config.Defaults;
+
+/**
+ * Hedging of latency critical requests, used for PIN code checks.
+ * <p>
+ * If a hedged request has not returned after a percentile of the recent request latencies, a second signed
+ * request is sent over another connection. The first successful response wins and the other request is
+ * aborted. Until enough latencies have been recorded, the hedge is sent after {@link Defaults#HEDGE_DEFAULT_DELAY}.
+ * <p>
+ * Every request that reaches the SDK service counts as a PIN code attempt: a wrong PIN code that is hedged
+ * uses two of the attempts allowed before {@link ResultCodes#INVALID_CODE_TOO_MANY_TIMES}.
+ * <p>
+ * The hedge rate and the win rate tell whether the percentile is well chosen: hedges that rarely win only
+ * add load on the SDK service.
+ */
+public class HedgePolicy {
+
+    private static final int MIN_SAMPLES = 5;
+
+    private final int percentile;
+    private final long minDelay;
+    private final long[] latencies = new long[Defaults.HEDGE_WINDOW_SIZE];
+    private int next;
+    private int count;
+    private long requestCount;
+    private long hedgeCount;
+    private long hedgeWinCount;
+
+    /**
+     * Hedge policy with the default {@link Defaults#HEDGE_PERCENTILE} and {@link Defaults#HEDGE_MIN_DELAY}.
+     */
+    public HedgePolicy() {
+        this(Defaults.HEDGE_PERCENTILE, Defaults.HEDGE_MIN_DELAY);
+    }
+
+    /**
+     * @param percentile The percentile of the recent request latencies after which the hedge is sent, 1 to 100.
+     * @param minDelay   The shortest time in milliseconds before the hedge is sent.
+     */
+    public HedgePolicy(final int percentile, final long minDelay) {
+        this.percentile = Math.min(Math.max(percentile, 1), 100);
+        this.minDelay = Math.max(minDelay, 0);
+    }
+
+    public int getPercentile() {
+        return this.percentile;
+    }
+
+    public long getMinDelay() {
+        return this.minDelay;
+    }
+
+    /**
+     * Record the latency of a hedged request that got a response, requests of other methods are not recorded.
+     *
+     * @param latency The time in milliseconds the request took.
+     */
+    public synchronized void recordLatency(final long latency) {
+        this.latencies[this.next] = latency;
+        this.next = (this.next + 1) % this.latencies.length;
+        if (this.count < this.latencies.length)
+            this.count++;
+    }
+
+    /**
+     * @return The time in milliseconds after which a hedged request sends its hedge.
+     */
+    public synchronized long getHedgeDelay() {
+        if (this.count < MIN_SAMPLES)
+            return Math.max(Defaults.HEDGE_DEFAULT_DELAY, this.minDelay);
+        long[] sorted = Arrays.copyOf(this.latencies, this.count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(this.percentile / 100.0 * this.count) - 1;
+        return Math.max(sorted[Math.max(index, 0)], this.minDelay);
+    }
+
+    /** A hedged request has been started. */
+    public synchronized void onRequest() {
+        this.requestCount++;
+    }
+
+    /** A hedge has been sent. */
+    public synchronized void onHedge() {
+        this.hedgeCount++;
+    }
+
+    /** A hedge returned the winning response. */
+    public synchronized void onHedgeWin() {
+        this.hedgeWinCount++;
+    }
+
+    public synchronized long getRequestCount() {
+        return this.requestCount;
+    }
+
+    public synchronized long getHedgeCount() {
+        return this.hedgeCount;
+    }
+
+    public synchronized long getHedgeWinCount() {
+        return this.hedgeWinCount;
+    }
+
+    /**
+     * @return The share of hedged requests that have sent a hedge, from 0 to 1.
+     */
+    public synchronized float getHedgeRate() {
+        return (this.requestCount > 0 ? (float) this.hedgeCount / this.requestCount : 0);
+    }
+
+    /**
+     * @return The share of hedges that returned the winning response, from 0 to 1.
+     */
+    public synchronized float getWinRate() {
+        return (this.hedgeCount > 0 ? (float) this.hedgeWinCount / this.hedgeCount : 0);
+    }
+
+}
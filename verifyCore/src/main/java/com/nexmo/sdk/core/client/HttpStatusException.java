@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+import com.nexmo.sdk.verify.client.InternalNetworkException;
+
+/**
+ * The SDK service answered with an HTTP status other than 200.
+ */
+public class HttpStatusException extends InternalNetworkException {
+
+    private final int statusCode;
+    private final long retryAfter;
+
+    /**
+     * @param message    The detail message for this exception.
+     * @param statusCode The HTTP status code.
+     * @param retryAfter The delay in milliseconds asked by the Retry-After header, -1 if none.
+     */
+    public HttpStatusException(final String message, final int statusCode, final long retryAfter) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    public int getStatusCode() {
+        return this.statusCode;
+    }
+
+    /**
+     * @return The delay in milliseconds asked by the Retry-After header, -1 if none.
+     */
+    public long getRetryAfter() {
+        return this.retryAfter;
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.net.HttpURLConnection;
+
+import com.nexmo.sdk.core.config.Defaults;
+
+/**
+ * Client that keeps connections alive between requests.
+ * <p>
+ * Unlike {@link Client}, connections are not disconnected after each request: the response is fully consumed
+ * and the socket goes back to the {@link HttpURLConnection} keep-alive pool, so a token request and the
+ * verify/check request that follows it share a single TCP connection.
+ * HTTPS connections keep the default socket factory, including one installed by the application, whose
+ * TLS session cache already lets a new socket to the same host resume the previous session.
+ * <p>
+ * The keep-alive pool is owned by {@link HttpURLConnection} and is shared by the whole process, this client
+ * does not size it. The pool size and idle eviction time given to the constructor are only best-effort hints:
+ * they are set as the process wide {@code http.maxConnections} and {@code http.keepAliveDuration} system
+ * properties if the application has not set them, the first client sets them for all the others, and the
+ * platform HTTP stack ignores them once it has been initialized.
+ */
+public class PooledClient extends Client {
+
+    private static final int SKIP_BUFFER_SIZE = 1024;
+
+    /**
+     * Pooled client hinting the default {@link Defaults#MAX_POOLED_CONNECTIONS} pool size
+     * and {@link Defaults#CONNECTION_KEEP_ALIVE_DURATION} idle eviction time.
+     */
+    public PooledClient() {
+        this(Defaults.MAX_POOLED_CONNECTIONS, Defaults.CONNECTION_KEEP_ALIVE_DURATION);
+    }
+
+    /**
+     * @param maxConnections    The hinted maximum number of idle connections kept alive in the process.
+     * @param keepAliveDuration The hinted time in milliseconds an idle connection is kept before it is evicted.
+     */
+    public PooledClient(final int maxConnections, final long keepAliveDuration) {
+        this(maxConnections, keepAliveDuration, Transport.GET, false);
+    }
+
+    /**
+     * @param maxConnections    The hinted maximum number of idle connections kept alive in the process.
+     * @param keepAliveDuration The hinted time in milliseconds an idle connection is kept before it is evicted.
+     * @param transport         How the request parameters are sent.
+     * @param compression       Accept gzip responses, and gzip the larger request bodies.
+     */
+    public PooledClient(final int maxConnections, final long keepAliveDuration,
+                        final Transport transport, final boolean compression) {
+        super(transport, compression);
+        setPoolProperty("http.keepAlive", "true");
+        setPoolProperty("http.maxConnections", String.valueOf(maxConnections));
+        setPoolProperty("http.keepAliveDuration", String.valueOf(keepAliveDuration));
+    }
+
+    /**
+     * Return the socket to the keep-alive pool.
+     * The body has already been consumed for successful responses, error bodies are drained here.
+     *
+     * @param connection The executed connection.
+     */
+    @Override
+    protected void release(HttpURLConnection connection) {
+        InputStream errorStream = connection.getErrorStream();
+        if (errorStream == null)
+            return;
+        try {
+            byte[] buffer = new byte[SKIP_BUFFER_SIZE];
+            while (errorStream.read(buffer) != -1);
+            errorStream.close();
+        } catch (IOException e) {
+            // The socket cannot be reused.
+            connection.disconnect();
+        }
+    }
+
+    private static void setPoolProperty(final String name, final String value) {
+        if (System.getProperty(name) == null)
+            System.setProperty(name, value);
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+/**
+ * Names used on the wire by the SDK service: request methods, header fields, parameters and user statuses.
+ * <p>
+ * Kept free of any Android dependency so the request signing, the http client and the response classes
+ * can be used on a plain JVM. {@link com.nexmo.sdk.verify.core.service.BaseService} exposes the same values.
+ */
+public class Protocol {
+
+    /** HTTP request methods. */
+    public static final String METHOD_TOKEN = "token/json?";
+    public static final String METHOD_VERIFY = "verify/json?";
+    public static final String METHOD_VERIFY_STANDALONE = "verify/oneshot/json?";
+    public static final String METHOD_CHECK = "verify/check/json?";
+    public static final String METHOD_CHECK_STANDALONE = "verify/oneshot/check/json?";
+    public static final String METHOD_SEARCH = "verify/search/json?";
+    public static final String METHOD_LOGOUT = "verify/logout/json?";
+    public static final String METHOD_COMMAND = "verify/control/json?";
+
+    /** Custom HTTP header fields. */
+    public static final String OS_FAMILY = "X-NEXMO-SDK-OS-FAMILY";
+    public static final String OS_REVISION = "X-NEXMO-SDK-OS-REVISION";
+    public static final String SDK_REVISION = "X-NEXMO-SDK-REVISION";
+    public static final String RESPONSE_SIG = "X-NEXMO-RESPONSE-SIGNATURE";
+
+    /** Standard HTTP header fields. */
+    public static final String RETRY_AFTER = "Retry-After";
+    public static final String ACCEPT = "Accept";
+    public static final String CONTENT_TYPE = "Content-Type";
+    public static final String CONTENT_ENCODING = "Content-Encoding";
+    public static final String ACCEPT_ENCODING = "Accept-Encoding";
+
+    /** Content types and encodings. */
+    public static final String CONTENT_TYPE_JSON = "application/json; charset=UTF-8";
+    public static final String CONTENT_TYPE_FORM = "application/x-www-form-urlencoded; charset=UTF-8";
+    public static final String ENCODING_GZIP = "gzip";
+
+    /** HTTP request parameters. */
+    public static final String PARAM_DEVICE_ID = "device_id";
+    public static final String PARAM_SOURCE_IP = "source_ip_address";
+    public static final String PARAM_APP_ID = "app_id";
+    public static final String PARAM_NUMBER = "number";
+    public static final String PARAM_COUNTRY_CODE = "country";
+    public static final String PARAM_TIMESTAMP = "timestamp";
+    public static final String PARAM_LANGUAGE = "lg";
+    public static final String PARAM_SIGNATURE = "sig";
+    public static final String PARAM_COMMAND = "cmd";
+    public static final String PARAM_COMMAND_CANCEL = "cancel";
+    public static final String PARAM_COMMAND_SKIP = "trigger_next_event";
+    public static final String PARAM_GCM_REGISTRATION_TOKEN = "push_token";
+
+    /** HTTP response parameters. */
+    public static final String PARAM_TOKEN = "token";
+    public static final String PARAM_RESULT_CODE = "result_code";
+    public static final String PARAM_RESULT_MESSAGE = "result_message";
+    public static final String PARAM_RESULT_USER_STATUS = "user_status";
+
+    /** User status */
+    public static final String USER_NEW = "new";
+    public static final String USER_PENDING = "pending";
+    public static final String USER_VERIFIED = "verified";
+    public static final String USER_UNVERIFIED = "unverified";
+    public static final String USER_FAILED = "failed";
+    public static final String USER_EXPIRED = "expired";
+    public static final String USER_BLACKLISTED = "blacklisted";
+    public static final String USER_UNKNOWN = "unknown";
+
+    private Protocol() {
+    }
+
+}
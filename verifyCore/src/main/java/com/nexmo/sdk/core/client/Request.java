@@ -16,8 +16,6 @@ package com.nexmo.sdk.core.client;
 import java.util.Map;
 import java.util.TreeMap;
 
-import com.nexmo.sdk.NexmoClient;
-
 /**
  * Wrapper class to encapsulate all needed Http request data.
  */
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+
+import com.nexmo.sdk.core.config.Config;
+
+/**
+* Wrapper class that encapsulates the signature header and content of raw http responses.
+* <p>
+* The raw body bytes are kept as received: the signature is verified over them and the parser
+* reads them through {@link #getBodyReader()}, the body is only decoded to a String when asked for.
+*/
+public class Response {
+
+    private static final Charset DEFAULT_CHARSET = Charset.forName(Config.PARAMS_ENCODING);
+
+    private final String signature;
+    private final byte[] content;
+    private final Charset charset;
+    private String body;
+    private long connectTime = -1;
+    private long firstByteTime = -1;
+    private long bodyReadTime = -1;
+
+    public Response(String body, String signature) {
+        this.signature = signature;
+        this.body = body;
+        this.content = null;
+        this.charset = DEFAULT_CHARSET;
+    }
+
+    /**
+     * @param content   The raw response body.
+     * @param charset   The charset of the body, as declared by the Content-Type header.
+     *                  UTF-8 is used if it is {@code null} or not supported.
+     * @param signature The signature header.
+     */
+    public Response(byte[] content, String charset, String signature) {
+        this.signature = signature;
+        this.content = content;
+        this.charset = getCharset(charset);
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public String getBody() {
+        if (this.body == null && this.content != null)
+            this.body = new String(this.content, this.charset);
+        return this.body;
+    }
+
+    /**
+     * Get the raw response body.
+     * @return The body bytes, or {@code null} if there is no body.
+     */
+    public byte[] getContent() {
+        if (this.content == null && this.body != null)
+            return this.body.getBytes(this.charset);
+        return this.content;
+    }
+
+    /**
+     * Get a reader over the response body, without decoding it to a String first.
+     * @return The reader, or {@code null} if there is no body.
+     */
+    public Reader getBodyReader() {
+        if (this.content != null)
+            return new InputStreamReader(new ByteArrayInputStream(this.content), this.charset);
+        return (this.body != null ? new StringReader(this.body) : null);
+    }
+
+    /**
+     * Set how long the stages of the http exchange took, in nanoseconds.
+     */
+    void setTimings(final long connectTime, final long firstByteTime, final long bodyReadTime) {
+        this.connectTime = connectTime;
+        this.firstByteTime = firstByteTime;
+        this.bodyReadTime = bodyReadTime;
+    }
+
+    /**
+     * @return The connection set up time in nanoseconds, -1 if unknown.
+     */
+    public long getConnectTime() {
+        return this.connectTime;
+    }
+
+    /**
+     * @return The time in nanoseconds from the connection being ready to the response headers, -1 if unknown.
+     */
+    public long getFirstByteTime() {
+        return this.firstByteTime;
+    }
+
+    /**
+     * @return The body read time in nanoseconds, -1 if unknown.
+     */
+    public long getBodyReadTime() {
+        return this.bodyReadTime;
+    }
+
+    /**
+     * Checks if the response has no body.
+     */
+    public boolean isEmpty() {
+        return (this.content != null ? this.content.length == 0 : (this.body == null || this.body.length() == 0));
+    }
+
+    @Override
+    public String toString() {
+        String body = getBody();
+        return "Signature: " + (this.signature != null ? this.signature : "") + ". Content: " + (body != null ? body : "");
+    }
+
+    private static Charset getCharset(final String charsetName) {
+        if (charsetName != null)
+            try {
+                return Charset.forName(charsetName);
+            } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                // Fall back to the SDK service encoding.
+            }
+        return DEFAULT_CHARSET;
+    }
+
+}
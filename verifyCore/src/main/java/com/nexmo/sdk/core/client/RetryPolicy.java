@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+
+import java.util.Random;
+
+import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.core.device.NoDeviceIdException;
+
+/**
+ * Decides whether a failed request is sent again, and after how long.
+ * <p>
+ * Only idempotent requests, token and search, are retried after any transient failure. The other requests
+ * change the user state on the SDK service, such as verify, check or command, and are only retried when they
+ * certainly did not reach it: the host could not be resolved or connected to, or the request was turned away
+ * with HTTP 429/503 or {@link ResultCodes#REQUEST_REJECTED}.
+ * <p>
+ * Retries wait for an exponential backoff with full jitter, or longer if the server asks for it with a
+ * Retry-After header. A retry budget shared by all the requests using this policy stops retry storms:
+ * each failure takes one token out of the budget, each success puts back a tenth of one, and retries are
+ * only allowed while more than half of the budget is left.
+ */
+public class RetryPolicy {
+
+    private static final int TOKEN = 1000;
+    private static final int SUCCESS_CREDIT = TOKEN / 10;
+    private static final int HTTP_REQUEST_TIMEOUT = 408;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_SERVICE_UNAVAILABLE = 503;
+
+    private final int maxAttempts;
+    private final long baseDelay;
+    private final long maxDelay;
+    private final int retryBudget;
+    private final Random random = new Random();
+    private int budgetTokens;
+
+    /**
+     * Retry policy with the default {@link Defaults#MAX_REQUEST_ATTEMPTS}, {@link Defaults#RETRY_BASE_DELAY},
+     * {@link Defaults#RETRY_MAX_DELAY} and {@link Defaults#RETRY_BUDGET}.
+     */
+    public RetryPolicy() {
+        this(Defaults.MAX_REQUEST_ATTEMPTS, Defaults.RETRY_BASE_DELAY, Defaults.RETRY_MAX_DELAY, Defaults.RETRY_BUDGET);
+    }
+
+    /**
+     * @param maxAttempts The maximum number of times a request is sent, 1 disables retries.
+     * @param baseDelay   The backoff in milliseconds before the first retry, doubled for each following one.
+     * @param maxDelay    The longest backoff in milliseconds. A longer Retry-After fails the request instead.
+     * @param retryBudget The size of the retry budget, retries stop after half as many failures in a row.
+     */
+    public RetryPolicy(final int maxAttempts, final long baseDelay, final long maxDelay, final int retryBudget) {
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.baseDelay = Math.max(baseDelay, 0);
+        this.maxDelay = Math.max(maxDelay, this.baseDelay);
+        this.retryBudget = Math.max(retryBudget, 0);
+        this.budgetTokens = this.retryBudget * TOKEN;
+    }
+
+    /**
+     * @return A policy that never retries.
+     */
+    public static RetryPolicy noRetry() {
+        return new RetryPolicy(1, 0, 0, 0);
+    }
+
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    public long getBaseDelay() {
+        return this.baseDelay;
+    }
+
+    public long getMaxDelay() {
+        return this.maxDelay;
+    }
+
+    public int getRetryBudget() {
+        return this.retryBudget;
+    }
+
+    /**
+     * Checks if a request can be sent again without side effects on the SDK service.
+     *
+     * @param method The request method, one of the {@link Protocol} METHOD values.
+     */
+    public static boolean isIdempotent(final String method) {
+        return (Protocol.METHOD_TOKEN.equals(method) || Protocol.METHOD_SEARCH.equals(method));
+    }
+
+    /**
+     * A response was received.
+     *
+     * @param method     The request method.
+     * @param attempt    The attempt that got the response, starting at 1.
+     * @param resultCode The result code of the response.
+     * @param remaining  The time in milliseconds left before the call deadline.
+     * @return The delay in milliseconds before the request is sent again, -1 if it is not retried.
+     */
+    public long onResponse(final String method, final int attempt, final int resultCode, final long remaining) {
+        boolean retryable = (resultCode == ResultCodes.REQUEST_REJECTED
+                || (resultCode == ResultCodes.INTERNAL_ERROR && isIdempotent(method)));
+        if (!retryable) {
+            deposit();
+            return -1;
+        }
+        return getRetryDelay(attempt, -1, remaining);
+    }
+
+    /**
+     * A request has failed without a response.
+     *
+     * @param method    The request method.
+     * @param attempt   The attempt that has failed, starting at 1.
+     * @param failure   The failure.
+     * @param remaining The time in milliseconds left before the call deadline.
+     * @return The delay in milliseconds before the request is sent again, -1 if it is not retried.
+     */
+    public long onFailure(final String method, final int attempt, final IOException failure, final long remaining) {
+        if (!isRetryable(method, failure))
+            return -1;
+        long retryAfter = (failure instanceof HttpStatusException ? ((HttpStatusException) failure).getRetryAfter() : -1);
+        return getRetryDelay(attempt, retryAfter, remaining);
+    }
+
+    static boolean isRetryable(final String method, final IOException failure) {
+        if (failure instanceof HttpStatusException) {
+            int statusCode = ((HttpStatusException) failure).getStatusCode();
+            if (statusCode == HTTP_TOO_MANY_REQUESTS || statusCode == HTTP_SERVICE_UNAVAILABLE)
+                return true;
+            return (isIdempotent(method) && (statusCode >= 500 || statusCode == HTTP_REQUEST_TIMEOUT));
+        }
+        // The request never left the device.
+        if (failure instanceof UnknownHostException || failure instanceof ConnectException || failure instanceof NoRouteToHostException)
+            return true;
+        // Cancelled calls and missing device ids fail the same way on every attempt.
+        if (failure instanceof NoDeviceIdException
+                || (failure instanceof InterruptedIOException && !(failure instanceof SocketTimeoutException)))
+            return false;
+        return isIdempotent(method);
+    }
+
+    long getRetryDelay(final int attempt, final long retryAfter, final long remaining) {
+        if (!withdraw() || attempt >= this.maxAttempts || retryAfter > this.maxDelay)
+            return -1;
+        long delay = Math.max(getBackoff(attempt), retryAfter);
+        return (delay < remaining ? delay : -1);
+    }
+
+    /**
+     * Full jitter: a random delay between 0 and the exponential backoff of the attempt.
+     */
+    long getBackoff(final int attempt) {
+        long backoff = this.baseDelay << Math.min(attempt - 1, 30);
+        if (backoff <= 0 || backoff > this.maxDelay)
+            backoff = this.maxDelay;
+        synchronized (this.random) {
+            return (long) (this.random.nextDouble() * backoff);
+        }
+    }
+
+    private synchronized boolean withdraw() {
+        this.budgetTokens = Math.max(this.budgetTokens - TOKEN, 0);
+        return (this.budgetTokens > this.retryBudget * TOKEN / 2);
+    }
+
+    private synchronized void deposit() {
+        this.budgetTokens = Math.min(this.budgetTokens + SUCCESS_CREDIT, this.retryBudget * TOKEN);
+    }
+
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+/**
+ * How a {@link Client} sends the request parameters.
+ */
+public enum Transport {
+
+    /** GET request, the parameters are in the url query. The default, supported by every SDK service release. */
+    GET,
+    /**
+     * POST request, the parameters are in an {@code application/x-www-form-urlencoded} body:
+     * the token, number and signature no longer show in the url, and in proxy or server access logs.
+     */
+    POST_FORM,
+    /** POST request, the parameters are the string fields of an {@code application/json} body. */
+    POST_JSON
+
+}
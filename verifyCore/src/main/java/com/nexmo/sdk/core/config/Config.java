@@ -13,8 +13,6 @@
 
 package com.nexmo.sdk.core.config;
 
-import org.apache.http.protocol.HTTP;
-
 /**
  * General configurations.
  */
@@ -33,6 +31,6 @@ public class Config {
     public static final String OS_ANDROID = "ANDROID";
 
     /** Default encoding for GET and POST parameters. */
-    public static final String PARAMS_ENCODING = HTTP.UTF_8;
+    public static final String PARAMS_ENCODING = "UTF-8";
 
 }
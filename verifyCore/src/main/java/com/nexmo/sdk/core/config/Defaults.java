@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.config;
+
+/**
+ * Defaults.
+ */
+public class Defaults {
+
+    public static final int MAX_ALLOWABLE_TIME_DELTA = 5 * 60 * 1000;
+    public static final int CONNECTION_TIMEOUT = 15 * 1000;
+    public static final int CONNECTION_READ_TIMEOUT = 10 * 1000;
+    /** Maximum number of idle connections a {@link com.nexmo.sdk.core.client.PooledClient} hints for the process. */
+    public static final int MAX_POOLED_CONNECTIONS = 5;
+    /** Idle connections older than this are evicted. */
+    public static final long CONNECTION_KEEP_ALIVE_DURATION = 60 * 1000;
+    /** Size of the per-thread buffer used to read responses of unknown length. */
+    public static final int RESPONSE_BUFFER_SIZE = 2048;
+    /** Initial size of the per-thread buffer request urls are encoded into. */
+    public static final int QUERY_BUFFER_SIZE = 512;
+    /** Request bodies smaller than this are not worth compressing, the gzip framing alone takes 18 bytes. */
+    public static final int MIN_COMPRESSED_BODY_SIZE = 512;
+    public static final int MIN_CODE_LENGTH = 4;
+    public static final int MAX_CODE_LENGTH = 6;
+    public static final int MIN_PHONE_NUMBER_LENGTH = 2;
+    public static final int MAX_PHONE_NUMBER_LENGTH = 15;
+    /** Maximum number of requests running concurrently on the default {@link com.nexmo.sdk.core.executor.RequestExecutor}. */
+    public static final int REQUEST_POOL_SIZE = 4;
+    /** Idle request threads are released after this time. */
+    public static final long REQUEST_THREAD_KEEP_ALIVE = 30 * 1000;
+    /** Token lifetime, should not exceed the token expiration time configured on the Dashboard. */
+    public static final long TOKEN_TIME_TO_LIVE = 5 * 60 * 1000;
+    /** A new token is requested in the background when the cached one is this close to expiry. */
+    public static final long TOKEN_REFRESH_WINDOW = 60 * 1000;
+    /** Time allowed for a whole service call, token request included, before it fails with a timeout. */
+    public static final long REQUEST_DEADLINE = CONNECTION_TIMEOUT + CONNECTION_READ_TIMEOUT;
+    /** Maximum number of times a request is sent by the default {@link com.nexmo.sdk.core.client.RetryPolicy}. */
+    public static final int MAX_REQUEST_ATTEMPTS = 3;
+    /** Backoff before the first retry, doubled for each following one. */
+    public static final long RETRY_BASE_DELAY = 250;
+    /** Longest backoff between two attempts. */
+    public static final long RETRY_MAX_DELAY = 4 * 1000;
+    /** Size of the retry budget shared by all the requests of a {@link com.nexmo.sdk.NexmoClient}. */
+    public static final int RETRY_BUDGET = 10;
+    /** Number of last requests per method whose outcome is kept by the {@link com.nexmo.sdk.core.client.CircuitBreaker}. */
+    public static final int CIRCUIT_WINDOW_SIZE = 20;
+    /** Number of requests per method needed before the circuit can open. */
+    public static final int CIRCUIT_MINIMUM_CALLS = 5;
+    /** Percentage of failed or slow requests that opens the circuit of a method. */
+    public static final int CIRCUIT_FAILURE_RATE = 50;
+    /** Requests that take longer count as failed for the circuit breaker. */
+    public static final long CIRCUIT_SLOW_CALL_THRESHOLD = 5 * 1000;
+    /** Time an open circuit fails requests fast before it lets a probe request through. */
+    public static final long CIRCUIT_OPEN_DURATION = 30 * 1000;
+    /** Percentile of the recent request latencies after which a {@link com.nexmo.sdk.core.client.HedgePolicy} sends a hedge. */
+    public static final int HEDGE_PERCENTILE = 95;
+    /** Shortest time before a hedge is sent. */
+    public static final long HEDGE_MIN_DELAY = 200;
+    /** Time before a hedge is sent while too few request latencies are known. */
+    public static final long HEDGE_DEFAULT_DELAY = 1500;
+    /** Number of recent request latencies kept by a {@link com.nexmo.sdk.core.client.HedgePolicy}. */
+    public static final int HEDGE_WINDOW_SIZE = 50;
+    /** How long a cached {@link com.nexmo.sdk.verify.event.UserStatus#USER_VERIFIED} status is used instead of a search. */
+    public static final long VERIFIED_USER_FRESHNESS = 24 * 60 * 60 * 1000;
+    /** How long the other cached user statuses are used instead of a search. Pending verifications are never cached. */
+    public static final long USER_STATUS_FRESHNESS = 5 * 60 * 1000;
+    /** Number of users kept by a {@link com.nexmo.sdk.verify.core.cache.VerifiedUserCache}, the oldest are dropped first. */
+    public static final int MAX_CACHED_USERS = 16;
+    /** Name of the verified user cache file, in the application files directory. */
+    public static final String VERIFIED_USER_CACHE_FILE = "nexmo_verified_users";
+
+}
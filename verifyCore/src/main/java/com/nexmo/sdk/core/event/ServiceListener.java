@@ -22,17 +22,22 @@ import java.io.IOException;
 
 /**
  * SDK internal network response callbacks.
+ * <p>
+ * Each listener reports to the {@link BaseClientListener} it was created with, so requests of different
+ * {@link com.nexmo.sdk.verify.client.VerifyClient} instances never notify each other.
  * @param <T> expected response type.
  */
 public abstract class ServiceListener<T> implements GenericExceptionListener {
 
-    private static BaseClientListener clientListener;
+    private final BaseClientListener clientListener;
 
     public ServiceListener(final BaseClientListener clientListener) {
-        ServiceListener.clientListener = clientListener;
+        this.clientListener = clientListener;
     }
 
-    protected ServiceListener() {}
+    protected ServiceListener() {
+        this(null);
+    }
 
     public BaseClientListener getClientListener() {
         return this.clientListener;
@@ -78,7 +83,8 @@ public abstract class ServiceListener<T> implements GenericExceptionListener {
      */
     @Override
     public void onException(final IOException exception) {
-        getClientListener().handleNetworkException(exception);
+        if (this.clientListener != null)
+            this.clientListener.handleNetworkException(exception);
     }
 
 }
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.executor;
+
+/**
+ * A request that can be cancelled while in flight.
+ */
+public interface Cancellable {
+
+    /**
+     * Cancel the request. Has no effect if the request has already completed.
+     */
+    void cancel();
+
+}
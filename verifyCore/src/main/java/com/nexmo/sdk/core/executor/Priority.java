@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.executor;
+
+/**
+ * Execution lanes of the {@link RequestExecutor}.
+ * When all the worker threads are busy, queued requests with a higher priority are started first.
+ */
+public enum Priority {
+
+    /** Latency critical requests, such as PIN code checks and the token requests they depend on. */
+    HIGH,
+    /** Verify and command requests. */
+    NORMAL,
+    /** Background requests, such as user status searches. */
+    LOW
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.executor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.nexmo.sdk.core.config.Defaults;
+
+/**
+ * SDK owned executor for all the network requests.
+ * <p>
+ * Requests run on a bounded pool of worker threads, separate from the application AsyncTask executors,
+ * so a stalled connection does not block unrelated work. Queued requests are started according to
+ * their {@link Priority}: PIN code checks go ahead of user status searches.
+ * Idle worker threads are released after {@link Defaults#REQUEST_THREAD_KEEP_ALIVE} milliseconds.
+ * Requests are aborted on a thread of their own, never queued behind the workers they unblock.
+ */
+public class RequestExecutor {
+
+    private static RequestExecutor defaultInstance;
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+    private final ScheduledThreadPoolExecutor timer;
+    private final ThreadPoolExecutor closer;
+
+    /**
+     * Get the process wide executor, shared by all the clients that do not
+     * supply their own.
+     *
+     * @return The default executor, using {@link Defaults#REQUEST_POOL_SIZE} worker threads.
+     */
+    public static synchronized RequestExecutor getDefault() {
+        if (defaultInstance == null)
+            defaultInstance = new RequestExecutor(Defaults.REQUEST_POOL_SIZE);
+        return defaultInstance;
+    }
+
+    /**
+     * @param poolSize The maximum number of requests running concurrently.
+     */
+    public RequestExecutor(final int poolSize) {
+        this.threadPoolExecutor = new ThreadPoolExecutor(poolSize,
+                                                         poolSize,
+                                                         Defaults.REQUEST_THREAD_KEEP_ALIVE,
+                                                         TimeUnit.MILLISECONDS,
+                                                         new PriorityBlockingQueue<Runnable>(),
+                                                         new RequestThreadFactory());
+        this.threadPoolExecutor.allowCoreThreadTimeOut(true);
+        this.timer = new ScheduledThreadPoolExecutor(1, new RequestThreadFactory("NexmoTimer #"));
+        this.timer.setKeepAliveTime(Defaults.REQUEST_THREAD_KEEP_ALIVE, TimeUnit.MILLISECONDS);
+        this.timer.allowCoreThreadTimeOut(true);
+        this.closer = new ThreadPoolExecutor(1,
+                                             1,
+                                             Defaults.REQUEST_THREAD_KEEP_ALIVE,
+                                             TimeUnit.MILLISECONDS,
+                                             new LinkedBlockingQueue<Runnable>(),
+                                             new RequestThreadFactory("NexmoCloser #"));
+        this.closer.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queue a task for execution.
+     *
+     * @param task             The task.
+     * @param callbackExecutor The executor that receives the task {@link ServiceTask#onPostExecute(Object)} callback.
+     */
+    public void execute(final ServiceTask<?> task, final Executor callbackExecutor) {
+        task.setCallbackExecutor(callbackExecutor);
+        this.threadPoolExecutor.execute(task);
+    }
+
+    /**
+     * Abort requests in flight, such as disconnecting their connections.
+     * The action runs on the closer thread: the worker threads may all be blocked in the requests it aborts.
+     *
+     * @param action The action.
+     */
+    public void abort(final Runnable action) {
+        this.closer.execute(action);
+    }
+
+    /**
+     * Run a short action once a delay has elapsed, used for request deadlines.
+     * The action runs on a timer thread, it must not block.
+     *
+     * @param action The action.
+     * @param delay  The delay in milliseconds.
+     * @return The scheduled action, cancel it when no longer needed.
+     */
+    public ScheduledFuture<?> schedule(final Runnable action, final long delay) {
+        return this.timer.schedule(action, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop accepting new tasks, already queued tasks are still executed.
+     */
+    public void shutdown() {
+        this.threadPoolExecutor.shutdown();
+        this.timer.shutdown();
+        this.closer.shutdown();
+    }
+
+    private static class RequestThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger(1);
+        private final String namePrefix;
+
+        RequestThreadFactory() {
+            this("NexmoRequest #");
+        }
+
+        RequestThreadFactory(final String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, this.namePrefix + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.executor;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link Future} completed by a request callback.
+ * <p>
+ * Cancelling the future cancels the {@link Cancellable} request behind it, whether or not
+ * {@code mayInterruptIfRunning} is set: the request is never interrupted, its connection is aborted instead.
+ *
+ * @param <V> The result type.
+ */
+public class ResultFuture<V> implements Future<V> {
+
+    private final CountDownLatch completion = new CountDownLatch(1);
+
+    private boolean done;
+    private boolean cancelled;
+    private V result;
+    private Throwable exception;
+    private Cancellable cancellable;
+
+    /**
+     * Attach the request behind this future. If the future has been cancelled already the request is cancelled now.
+     *
+     * @param cancellable The request.
+     */
+    public void setCancellable(final Cancellable cancellable) {
+        synchronized (this) {
+            if (!this.cancelled) {
+                this.cancellable = cancellable;
+                return;
+            }
+        }
+        cancellable.cancel();
+    }
+
+    /**
+     * Complete the future with a result.
+     *
+     * @param result The result.
+     * @return False if the future was already completed or cancelled.
+     */
+    public boolean set(final V result) {
+        synchronized (this) {
+            if (this.done)
+                return false;
+            this.result = result;
+            complete();
+        }
+        return true;
+    }
+
+    /**
+     * Complete the future with an exception, reported as the cause of the {@link ExecutionException}.
+     *
+     * @param exception The exception.
+     * @return False if the future was already completed or cancelled.
+     */
+    public boolean setException(final Throwable exception) {
+        synchronized (this) {
+            if (this.done)
+                return false;
+            this.exception = exception;
+            complete();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        Cancellable request;
+        synchronized (this) {
+            if (this.done)
+                return false;
+            this.cancelled = true;
+            request = this.cancellable;
+            complete();
+        }
+        if (request != null)
+            request.cancel();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return this.done;
+    }
+
+    @Override
+    public V get() throws InterruptedException, ExecutionException {
+        this.completion.await();
+        return getResult();
+    }
+
+    @Override
+    public V get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!this.completion.await(timeout, unit))
+            throw new TimeoutException();
+        return getResult();
+    }
+
+    private void complete() {
+        this.done = true;
+        this.cancellable = null;
+        this.completion.countDown();
+    }
+
+    private synchronized V getResult() throws ExecutionException {
+        if (this.cancelled)
+            throw new CancellationException();
+        if (this.exception != null)
+            throw new ExecutionException(this.exception);
+        return this.result;
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.executor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit of work dispatched on a {@link RequestExecutor}.
+ * <p>
+ * {@link #doInBackground()} runs on one of the executor worker threads, then {@link #onPostExecute(Object)}
+ * is delivered on the callback executor chosen when the task was submitted.
+ * If {@link #doInBackground()} throws, {@link #onPostExecute(Object)} still runs with a null result and
+ * {@link #getException()} returns the failure, so waiting callers are always notified.
+ *
+ * @param <Result> The type of the result computed in the background.
+ */
+public abstract class ServiceTask<Result> implements Runnable, Comparable<ServiceTask<?>> {
+
+    private static final AtomicLong sequenceGenerator = new AtomicLong();
+
+    private final Priority priority;
+    private final long sequence;
+    private Executor callbackExecutor;
+    private RuntimeException exception;
+
+    protected ServiceTask(final Priority priority) {
+        this.priority = priority;
+        this.sequence = sequenceGenerator.getAndIncrement();
+    }
+
+    public Priority getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * Runs on a worker thread of the {@link RequestExecutor}.
+     *
+     * @return The result, passed to {@link #onPostExecute(Object)}.
+     */
+    protected abstract Result doInBackground();
+
+    /**
+     * Runs on the callback executor after {@link #doInBackground()}.
+     *
+     * @param result The result of the operation computed by {@link #doInBackground()}.
+     */
+    protected abstract void onPostExecute(Result result);
+
+    /**
+     * @return The exception thrown by {@link #doInBackground()}, or null if it returned normally.
+     */
+    protected RuntimeException getException() {
+        return this.exception;
+    }
+
+    void setCallbackExecutor(final Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    @Override
+    public final void run() {
+        Result background = null;
+        try {
+            background = doInBackground();
+        } catch (RuntimeException e) {
+            this.exception = e;
+        }
+        final Result result = background;
+        this.callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                onPostExecute(result);
+            }
+        });
+    }
+
+    /**
+     * Higher priority tasks first, then in submission order.
+     */
+    @Override
+    public int compareTo(final ServiceTask<?> another) {
+        int result = this.priority.compareTo(another.priority);
+        if (result == 0)
+            result = (this.sequence < another.sequence ? -1 : (this.sequence == another.sequence ? 0 : 1));
+        return result;
+    }
+
+}
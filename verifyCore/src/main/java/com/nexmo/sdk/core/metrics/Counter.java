@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.metrics;
+
+/**
+ * Events of a service call counted by {@link PipelineMetrics}.
+ */
+public enum Counter {
+
+    /** A request has been sent, retries and hedges included. */
+    REQUESTS,
+    /** A request has failed without a response. */
+    FAILURES,
+    /** A request has been sent again after a failure. */
+    RETRIES,
+    /** A request has failed fast because its circuit is open. */
+    CIRCUIT_REJECTIONS,
+    /** A hedge has been sent. */
+    HEDGES,
+    /** A hedge returned the winning response. */
+    HEDGE_WINS
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with HDR-style log-linear buckets.
+ * <p>
+ * Values are counted in buckets whose width doubles with each power of two, split into
+ * {@value #SUB_BUCKET_COUNT} linear sub-buckets: any recorded value is known within about 6%, from a
+ * single unit up to {@value #MAX_MAGNITUDE} powers of two, at a fixed memory cost.
+ * Recording is lock free, reads are not atomic with concurrent recordings.
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 40;
+    private static final long MAX_VALUE = (1L << MAX_MAGNITUDE) - 1;
+    private static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts;
+
+    public Histogram() {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+    }
+
+    private Histogram(final long[] counts) {
+        this.counts = new AtomicLongArray(counts);
+    }
+
+    /**
+     * Record a value, negative values count as zero and values over the range as the maximum.
+     *
+     * @param value The value.
+     */
+    public void record(final long value) {
+        this.counts.incrementAndGet(getIndex(Math.min(Math.max(value, 0), MAX_VALUE)));
+    }
+
+    /**
+     * @return The number of recorded values.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            count += this.counts.get(i);
+        return count;
+    }
+
+    /**
+     * @param percentile The percentile, from 0 to 100.
+     * @return The highest value of the bucket that holds the percentile, 0 if nothing is recorded.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        long[] snapshot = getCounts();
+        long total = 0;
+        for (long count : snapshot)
+            total += count;
+        if (total == 0)
+            return 0;
+        long rank = Math.max((long) Math.ceil(Math.min(percentile, 100) / 100 * total), 1);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank)
+                return getHighestValue(i);
+        }
+        return getHighestValue(snapshot.length - 1);
+    }
+
+    /**
+     * @return The highest value of the highest non empty bucket, 0 if nothing is recorded.
+     */
+    public long getMax() {
+        for (int i = BUCKET_COUNT - 1; i >= 0; i--)
+            if (this.counts.get(i) > 0)
+                return getHighestValue(i);
+        return 0;
+    }
+
+    /**
+     * @return The mean of the recorded values, taking the middle of each bucket.
+     */
+    public double getMean() {
+        long total = 0;
+        double sum = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = this.counts.get(i);
+            if (count > 0) {
+                total += count;
+                sum += count * (getLowestValue(i) + getHighestValue(i)) / 2.0;
+            }
+        }
+        return (total > 0 ? sum / total : 0);
+    }
+
+    /**
+     * @return A copy of this histogram.
+     */
+    public Histogram copy() {
+        return new Histogram(getCounts());
+    }
+
+    /**
+     * Add the values of another histogram to this one.
+     */
+    public void add(final Histogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count > 0)
+                this.counts.addAndGet(i, count);
+        }
+    }
+
+    /**
+     * Discard all the recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            this.counts.set(i, 0);
+    }
+
+    static int getIndex(final long value) {
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    static long getLowestValue(final int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return (long) (index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+    }
+
+    static long getHighestValue(final int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return getLowestValue(index) + (1L << shift) - 1;
+    }
+
+    private long[] getCounts() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            snapshot[i] = this.counts.get(i);
+        return snapshot;
+    }
+
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.metrics;
+
+import java.util.Map;
+
+/**
+ * Receives the metrics recorded by {@link PipelineMetrics} when they are exported.
+ */
+public interface MetricsExporter {
+
+    /**
+     * Export the metrics of a request method. Called once per method that has recorded anything.
+     *
+     * @param method    The request method, one of the {@link com.nexmo.sdk.core.client.Protocol} METHOD values.
+     * @param latencies Copies of the latency histograms per stage, in microseconds.
+     * @param counters  The counter values.
+     */
+    public void export(final String method, final Map<Stage, Histogram> latencies, final Map<Counter, Long> counters);
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.nexmo.sdk.core.client.Response;
+
+/**
+ * Latency histograms per stage and counters of the service calls, per request method.
+ * <p>
+ * Latencies are recorded in microseconds. The recorded metrics are handed to the {@link MetricsExporter}
+ * on each {@link #export()} call, for example when the application goes to the background.
+ * <p>
+ * The default instance of a {@link com.nexmo.sdk.NexmoClient} is {@link #disabled()}: the services check
+ * {@link #isEnabled()} before reading the clock, so it costs nothing.
+ * <pre>
+ *     PipelineMetrics metrics = new PipelineMetrics(new LogMetricsExporter());
+ *     NexmoClient nexmoClient = new NexmoClient.NexmoClientBuilder()
+ *                                  ...
+ *                                  .metrics(metrics)
+ *                                  .build();
+ *     ...
+ *     metrics.export();
+ * </pre>
+ */
+public class PipelineMetrics {
+
+    private static final PipelineMetrics DISABLED = new PipelineMetrics(null);
+
+    private final MetricsExporter exporter;
+    private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    /**
+     * @param exporter The exporter that receives the metrics on {@link #export()}.
+     */
+    public PipelineMetrics(final MetricsExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * @return Metrics that record nothing.
+     */
+    public static PipelineMetrics disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @return False if nothing is recorded, callers can then skip reading the clock.
+     */
+    public boolean isEnabled() {
+        return (this != DISABLED);
+    }
+
+    /**
+     * Record the latency of a stage.
+     *
+     * @param method The request method.
+     * @param stage  The stage.
+     * @param nanos  The latency in nanoseconds.
+     */
+    public void recordLatency(final String method, final Stage stage, final long nanos) {
+        if (this != DISABLED && method != null)
+            getMethodMetrics(method).latencies[stage.ordinal()].record(nanos / 1000);
+    }
+
+    /**
+     * Record the stages of an http exchange, as timed by the connection client.
+     *
+     * @param method   The request method.
+     * @param response The response.
+     */
+    public void recordExchange(final String method, final Response response) {
+        if (this == DISABLED || method == null)
+            return;
+        Histogram[] latencies = getMethodMetrics(method).latencies;
+        if (response.getConnectTime() >= 0)
+            latencies[Stage.CONNECT.ordinal()].record(response.getConnectTime() / 1000);
+        if (response.getFirstByteTime() >= 0)
+            latencies[Stage.TIME_TO_FIRST_BYTE.ordinal()].record(response.getFirstByteTime() / 1000);
+        if (response.getBodyReadTime() >= 0)
+            latencies[Stage.BODY_READ.ordinal()].record(response.getBodyReadTime() / 1000);
+    }
+
+    /**
+     * Count an event.
+     *
+     * @param method  The request method.
+     * @param counter The counter.
+     */
+    public void increment(final String method, final Counter counter) {
+        if (this != DISABLED && method != null)
+            getMethodMetrics(method).counters.incrementAndGet(counter.ordinal());
+    }
+
+    /**
+     * @param method The request method.
+     * @param stage  The stage.
+     * @return A copy of the latency histogram of the stage, in microseconds.
+     */
+    public Histogram getLatency(final String method, final Stage stage) {
+        MethodMetrics methodMetrics = this.methods.get(method);
+        return (methodMetrics != null ? methodMetrics.latencies[stage.ordinal()].copy() : new Histogram());
+    }
+
+    /**
+     * @param method  The request method.
+     * @param counter The counter.
+     * @return The counter value.
+     */
+    public long getCount(final String method, final Counter counter) {
+        MethodMetrics methodMetrics = this.methods.get(method);
+        return (methodMetrics != null ? methodMetrics.counters.get(counter.ordinal()) : 0);
+    }
+
+    /**
+     * Hand the metrics of every method to the exporter. The metrics keep accumulating, see {@link #reset()}.
+     */
+    public void export() {
+        if (this.exporter == null)
+            return;
+        for (Map.Entry<String, MethodMetrics> entry : this.methods.entrySet()) {
+            MethodMetrics methodMetrics = entry.getValue();
+            Map<Stage, Histogram> latencies = new EnumMap<>(Stage.class);
+            for (Stage stage : Stage.values())
+                latencies.put(stage, methodMetrics.latencies[stage.ordinal()].copy());
+            Map<Counter, Long> counters = new EnumMap<>(Counter.class);
+            for (Counter counter : Counter.values())
+                counters.put(counter, methodMetrics.counters.get(counter.ordinal()));
+            this.exporter.export(entry.getKey(), latencies, counters);
+        }
+    }
+
+    /**
+     * Discard all the recorded metrics.
+     */
+    public void reset() {
+        this.methods.clear();
+    }
+
+    private MethodMetrics getMethodMetrics(final String method) {
+        MethodMetrics methodMetrics = this.methods.get(method);
+        if (methodMetrics == null) {
+            MethodMetrics created = new MethodMetrics();
+            methodMetrics = this.methods.putIfAbsent(method, created);
+            if (methodMetrics == null)
+                methodMetrics = created;
+        }
+        return methodMetrics;
+    }
+
+    private static class MethodMetrics {
+        private final Histogram[] latencies = new Histogram[Stage.values().length];
+        private final AtomicLongArray counters = new AtomicLongArray(Counter.values().length);
+
+        MethodMetrics() {
+            for (int i = 0; i < this.latencies.length; i++)
+                this.latencies[i] = new Histogram();
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.metrics;
+
+/**
+ * Stages of a service call whose latency is recorded by {@link PipelineMetrics}.
+ */
+public enum Stage {
+
+    /** Wait for a token before the service request is sent, near zero when the cached token is used. */
+    TOKEN_WAIT,
+    /** Connection set up: DNS lookup, TCP connect and TLS handshake, unless a pooled connection is reused. */
+    CONNECT,
+    /** From the connection being ready until the response status and headers arrive. */
+    TIME_TO_FIRST_BYTE,
+    /** Read of the response body. */
+    BODY_READ,
+    /** Parse of the response body. */
+    PARSE,
+    /** Verification of the response signature. */
+    SIGNATURE,
+    /** Wait on the callback executor, the main thread by default, before the result is handled. */
+    DISPATCH,
+    /** Whole call, from its start until the listener is notified. */
+    TOTAL
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.platform;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runtime the core protocol classes run on.
+ * <p>
+ * The core classes do not depend on the Android runtime: the device revision and logging go through the
+ * installed {@link Platform}. On a plain JVM the default one reports the OS version and logs to
+ * {@link java.util.logging}, the Android SDK installs its own when the first {@code NexmoClient} is created.
+ */
+public class Platform {
+
+    private static final Logger logger = Logger.getLogger("com.nexmo.sdk");
+    private static volatile Platform platform = new Platform();
+
+    /**
+     * @return The installed platform.
+     */
+    public static Platform get() {
+        return platform;
+    }
+
+    /**
+     * Install the platform used by the core classes.
+     *
+     * @param platform The platform.
+     */
+    public static void install(final Platform platform) {
+        Platform.platform = platform;
+    }
+
+    /**
+     * @return The revision sent in the {@link com.nexmo.sdk.core.client.Protocol#OS_REVISION} header.
+     */
+    public String getOsRevision() {
+        return System.getProperty("os.version");
+    }
+
+    /**
+     * @return True if debug messages are logged.
+     */
+    public boolean isDebug() {
+        return logger.isLoggable(Level.FINE);
+    }
+
+    /**
+     * Log a debug message.
+     *
+     * @param tag     The log tag.
+     * @param message The message.
+     */
+    public void log(final String tag, final String message) {
+        logger.fine(tag + ": " + message);
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.request;
+
+import com.nexmo.sdk.core.config.Defaults;
+
+/**
+ * Builds a request url with its query string in a per-thread buffer that is reused between requests.
+ * <p>
+ * Parameters are percent-encoded as {@code application/x-www-form-urlencoded} UTF-8 while they are appended,
+ * with the same output as {@link java.net.URLEncoder}, but without the intermediate strings and byte arrays.
+ * <pre>
+ *     String url = QueryBuilder.get(host, Protocol.METHOD_VERIFY)
+ *                              .append(Protocol.PARAM_NUMBER, number)
+ *                              ...
+ *                              .toString();
+ * </pre>
+ * The same encoding is used for form request bodies, see {@link #get()}.
+ * A builder must not be kept after the url is built: the next {@link #get} call on the same thread reuses it.
+ */
+public final class QueryBuilder {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    /** A buffer grown past this size for an unusual request is not kept. */
+    private static final int MAX_KEPT_BUFFER_SIZE = 4 * Defaults.QUERY_BUFFER_SIZE;
+    private static final ThreadLocal<QueryBuilder> builders = new ThreadLocal<QueryBuilder>() {
+        @Override
+        protected QueryBuilder initialValue() {
+            return new QueryBuilder();
+        }
+    };
+
+    private StringBuilder buffer = new StringBuilder(Defaults.QUERY_BUFFER_SIZE);
+    private boolean empty;
+
+    private QueryBuilder() {}
+
+    /**
+     * Start a new url on the calling thread.
+     *
+     * @param host   The environment host, ending with '/'.
+     * @param method The method name, ending with '?'.
+     * @return The builder of the calling thread, reset.
+     */
+    public static QueryBuilder get(final String host, final String method) {
+        QueryBuilder builder = builders.get();
+        if (builder.buffer.capacity() > MAX_KEPT_BUFFER_SIZE)
+            builder.buffer = new StringBuilder(Defaults.QUERY_BUFFER_SIZE);
+        builder.buffer.setLength(0);
+        builder.buffer.append(host).append(method);
+        builder.empty = true;
+        return builder;
+    }
+
+    /**
+     * Start a new {@code application/x-www-form-urlencoded} request body on the calling thread.
+     *
+     * @return The builder of the calling thread, reset.
+     */
+    public static QueryBuilder get() {
+        return get("", "");
+    }
+
+    /**
+     * Append a parameter, percent-encoded.
+     *
+     * @param name  The parameter name.
+     * @param value The parameter value, null is sent as an empty value.
+     * @return This builder.
+     */
+    public QueryBuilder append(final String name, final String value) {
+        if (!this.empty)
+            this.buffer.append('&');
+        this.empty = false;
+        encode(name);
+        this.buffer.append('=');
+        if (value != null)
+            encode(value);
+        return this;
+    }
+
+    /**
+     * @return The url built so far.
+     */
+    @Override
+    public String toString() {
+        return this.buffer.toString();
+    }
+
+    private void encode(final String str) {
+        StringBuilder buffer = this.buffer;
+        int length = str.length();
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '.' || c == '-' || c == '*' || c == '_') {
+                buffer.append(c);
+            } else if (c == ' ') {
+                buffer.append('+');
+            } else if (c < 0x80) {
+                appendEscaped(c);
+            } else if (c < 0x800) {
+                appendEscaped(0xC0 | (c >> 6));
+                appendEscaped(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, str.charAt(++i));
+                appendEscaped(0xF0 | (codePoint >> 18));
+                appendEscaped(0x80 | ((codePoint >> 12) & 0x3F));
+                appendEscaped(0x80 | ((codePoint >> 6) & 0x3F));
+                appendEscaped(0x80 | (codePoint & 0x3F));
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                // Unpaired surrogate, encoded as '?' like URLEncoder.
+                appendEscaped('?');
+            } else {
+                appendEscaped(0xE0 | (c >> 12));
+                appendEscaped(0x80 | ((c >> 6) & 0x3F));
+                appendEscaped(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void appendEscaped(final int b) {
+        this.buffer.append('%').append(HEX_DIGITS[(b >> 4) & 0x0F]).append(HEX_DIGITS[b & 0x0F]);
+    }
+
+}
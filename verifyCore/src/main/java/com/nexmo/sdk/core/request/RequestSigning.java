@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.request;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.core.client.Response;
+import com.nexmo.sdk.core.client.Protocol;
+import com.nexmo.sdk.core.platform.Platform;
+
+/**
+ * Signing mechanism used for all the SDK service requests.
+ * <ul>
+ *     <li>Attach all request parameters together in a string.</li>
+ *     <li>Append the shared_secret and timestamp and apply an MD5 algorithm to compute the signature.</li>
+ *     <li>The signature together with the timestamp will be appended to the request parameters.</li>
+ * </ul>
+ * The signature is computed in a single pass: parameters are fed straight into a per-thread
+ * {@link MessageDigest}, without building the intermediate request string.
+ */
+public class RequestSigning {
+
+    private static final String TAG = RequestSigning.class.getName();
+    private static final String SIGN_ALGORITHM = "MD5";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final ThreadLocal<Signer> signers = new ThreadLocal<Signer>() {
+        @Override
+        protected Signer initialValue() {
+            try {
+                return new Signer(MessageDigest.getInstance(SIGN_ALGORITHM));
+            } catch (NoSuchAlgorithmException e) {
+                e.printStackTrace();
+            }
+            return null;
+        }
+    };
+
+    /**
+     * Signing mechanism used for all the SDK service requests.
+     * <p>
+     * Sign a set of request parameters, generating additional parameters to represent the timestamp
+     * and generated signature. Uses the supplied pre-shared secret key to generate the signature.</p>
+     *
+     * @param params Map containing name value pair parameters to be submitted as part of the url.
+     * @param secretKey the pre-shared secret key held by the merchant.
+     *
+     * @return String the fully constructed url complete with signature.
+     */
+    public static String constructSignatureForRequestParameters(Map<String, String> params, final String secretKey) {
+        return constructSignatureForRequestParameters(params, secretKey, null);
+    }
+
+    /**
+     * Same as {@link #constructSignatureForRequestParameters(Map, String)}, encoding the request parameters into
+     * the query of a url in the same pass: each parameter is read once, for both the signature and the query.
+     * The signature parameter is appended last.
+     *
+     * @param params Map containing name value pair parameters to be submitted as part of the url.
+     * @param secretKey the pre-shared secret key held by the merchant.
+     * @param query The url the parameters are appended to, may be null.
+     *
+     * @return String the generated signature.
+     */
+    public static String constructSignatureForRequestParameters(Map<String, String> params,
+                                                                final String secretKey,
+                                                                final QueryBuilder query) {
+        // Inject a 'timestamp=' parameter containing the current time in seconds since Jan 1st 1970
+        params.put(Protocol.PARAM_TIMESTAMP, "" + System.currentTimeMillis() / 1000);
+
+        // Now, append the secret key, and calculate an MD5 signature of the resultant string.
+        String md5 = computeSignature(params, secretKey, query);
+
+        Platform platform = Platform.get();
+        if (platform.isDebug())
+            platform.log(TAG, "SECURITY-KEY-GENERATION -- String [ " + constructRequestParamsString(params, secretKey) + " ] Signature [ " + md5 + " ] ");
+
+        params.put(Protocol.PARAM_SIGNATURE, md5);
+        if (query != null)
+            query.append(Protocol.PARAM_SIGNATURE, md5);
+
+        return md5;
+    }
+
+    public static boolean verifyRequestSignature(final String timestamp,
+                                                 final Response response,
+                                                 final String secretKey) {
+        boolean isSignatureValid = false;
+        if (timestampAllowed(timestamp)) {
+            String md5 = computeMD5Hash(response.getContent(), secretKey);
+            isSignatureValid = (md5.equals(response.getSignature()));
+        }
+
+        Platform platform = Platform.get();
+        if (platform.isDebug())
+            platform.log(TAG, "verifyRequestSignature result: " + isSignatureValid);
+        return isSignatureValid;
+    }
+
+    /**
+     * Server side check of a signed request, as done by the SDK service.
+     * @param params The received request parameters, signature and timestamp included.
+     * @param secretKey The pre-shared secret key.
+     *
+     * @return True if the signature matches and the timestamp is recent enough.
+     */
+    public static boolean verifyRequestParameters(final Map<String, String> params, final String secretKey) {
+        String signature = params.get(Protocol.PARAM_SIGNATURE);
+        String timestamp = params.get(Protocol.PARAM_TIMESTAMP);
+        if (signature == null || timestamp == null || !timestampAllowed(timestamp))
+            return false;
+        return signature.equals(computeSignature(params, secretKey, null));
+    }
+
+    /**
+     * Server side signature of a response body, sent in the {@link Protocol#RESPONSE_SIG} header.
+     * @param body The response body bytes.
+     * @param secretKey The pre-shared secret key.
+     *
+     * @return The MD5 signature.
+     */
+    public static String signResponse(final byte[] body, final String secretKey) {
+        return computeMD5Hash(body, secretKey);
+    }
+
+    /**
+     * Sign the parameters in their sorted order, excluding the signature and the empty values.
+     * @param params The request parameters.
+     * @param secretKey The pre-shared secret key.
+     * @param query Receives every parameter but the signature, empty values included, may be null.
+     *
+     * @return The MD5 signature.
+     */
+    private static String computeSignature(Map<String, String> params, final String secretKey, final QueryBuilder query) {
+        Signer signer = signers.get();
+        if (signer == null)
+            return null;
+        signer.reset();
+
+        // Request params are already kept in a TreeMap, sort only when given another map.
+        Map<String, String> sortedParams = params;
+        if (!(params instanceof SortedMap) || ((SortedMap<String, String>) params).comparator() != null)
+            sortedParams = new TreeMap<>(params);
+
+        for (Map.Entry<String, String> param: sortedParams.entrySet()) {
+            String name = param.getKey();
+            String value = param.getValue();
+            if (name.equals(Protocol.PARAM_SIGNATURE))
+                continue;
+            if (query != null)
+                query.append(name, value);
+            if (isBlank(value))
+                continue;
+            signer.update('&');
+            signer.updateClean(name);
+            signer.update('=');
+            signer.updateClean(value);
+        }
+        signer.update(secretKey);
+        return signer.digest();
+    }
+
+    /**
+     * Append all the parameters in a sorted order.
+     * @param params The request parameters.
+     * @param secretKey The pre-shared secret key.
+     *
+     * @return The resulting string.
+     */
+    private static String constructRequestParamsString(Map<String, String> params, final String secretKey) {
+        // construct a string from the sorted params, excluding the signature.
+        Map<String, String> sortedParams = new TreeMap<>();
+        for (Map.Entry<String, String> param: params.entrySet()) {
+            String name = param.getKey();
+            String value = param.getValue();
+            if (name.equals(Protocol.PARAM_SIGNATURE))
+                continue;
+            if (!isBlank(value))
+                sortedParams.put(name, value);
+        }
+
+        // Now, walk through the sorted list of parameters and construct a string
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> param: sortedParams.entrySet()) {
+            String name = param.getKey();
+            String value = param.getValue();
+            sb.append("&").append(clean(name)).append("=").append(clean(value));
+        }
+
+        sb.append(secretKey);
+        return sb.toString();
+    }
+
+    /**
+     * Verify if the timestamp is within 5minutes of 'current time'.
+     * @param timestamp The timestamp parameter.
+     *
+     * @return True if the timestamp is valid.
+     */
+    private static boolean timestampAllowed(final String timestamp) {
+        if (timestamp != null && timestamp.length() > 0){
+            long time = -1;
+            try {
+                time = Long.parseLong(timestamp) * 1000;
+            } catch (NumberFormatException e){
+                return false;
+            }
+            long diff = System.currentTimeMillis() - time;
+            if (diff > Defaults.MAX_ALLOWABLE_TIME_DELTA || diff < -Defaults.MAX_ALLOWABLE_TIME_DELTA) {
+                Platform platform = Platform.get();
+                if (platform.isDebug())
+                    platform.log(TAG, "SECURITY-KEY-VERIFICATION -- BAD-TIMESTAMP ... Timestamp [ " + time + " ] delta [ " + diff + " ] max allowed delta [ " + -Defaults.MAX_ALLOWABLE_TIME_DELTA + " ] ");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String computeMD5Hash(final byte[] body, final String secretKey) {
+        Signer signer = signers.get();
+        if (signer == null)
+            return null;
+        signer.reset();
+        // The signature covers the body bytes as received.
+        if (body == null)
+            signer.update("null");
+        else
+            signer.update(body);
+        signer.update(secretKey);
+        return signer.digest();
+    }
+
+    private static String clean(String str) {
+        return str == null ? null : str.replaceAll("[=&]", "_");
+    }
+
+    /**
+     * Same as {@code TextUtils.isEmpty(value) || TextUtils.isEmpty(value.trim())}, without the copy.
+     */
+    private static boolean isBlank(final String value) {
+        if (value == null)
+            return true;
+        for (int i = 0; i < value.length(); i++)
+            if (value.charAt(i) > ' ')
+                return false;
+        return true;
+    }
+
+    /**
+     * Per-thread MD5 state: the digest and the buffer used to UTF-8 encode the input.
+     */
+    private static final class Signer {
+        private static final int BUFFER_SIZE = 256;
+
+        private final MessageDigest digest;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private final char[] hex = new char[32];
+        private int position;
+
+        Signer(final MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        void reset() {
+            this.digest.reset();
+            this.position = 0;
+        }
+
+        void update(final String str) {
+            if (str == null)
+                update("null");
+            else
+                encode(str, false);
+        }
+
+        /** Same as {@link #update(String)}, replacing '=' and '&' with '_'. */
+        void updateClean(final String str) {
+            encode(str, true);
+        }
+
+        void update(final byte[] bytes) {
+            this.digest.update(this.buffer, 0, this.position);
+            this.position = 0;
+            this.digest.update(bytes);
+        }
+
+        void update(final char c) {
+            ensureCapacity(1);
+            this.buffer[this.position++] = (byte) c;
+        }
+
+        String digest() {
+            this.digest.update(this.buffer, 0, this.position);
+            this.position = 0;
+            byte[] messageDigest = this.digest.digest();
+            for (int i = 0; i < messageDigest.length; i++) {
+                this.hex[i * 2] = HEX_DIGITS[(messageDigest[i] >> 4) & 0x0F];
+                this.hex[i * 2 + 1] = HEX_DIGITS[messageDigest[i] & 0x0F];
+            }
+            return new String(this.hex, 0, messageDigest.length * 2);
+        }
+
+        private void encode(final String str, final boolean clean) {
+            int length = str.length();
+            for (int i = 0; i < length; i++) {
+                char c = str.charAt(i);
+                if (c < 0x80) {
+                    ensureCapacity(1);
+                    if (clean && (c == '=' || c == '&'))
+                        c = '_';
+                    this.buffer[this.position++] = (byte) c;
+                } else if (c < 0x800) {
+                    ensureCapacity(2);
+                    this.buffer[this.position++] = (byte) (0xC0 | (c >> 6));
+                    this.buffer[this.position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, str.charAt(++i));
+                    ensureCapacity(4);
+                    this.buffer[this.position++] = (byte) (0xF0 | (codePoint >> 18));
+                    this.buffer[this.position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    this.buffer[this.position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    this.buffer[this.position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                    // Unpaired surrogate, encoded as '?' like String.getBytes().
+                    ensureCapacity(1);
+                    this.buffer[this.position++] = '?';
+                } else {
+                    ensureCapacity(3);
+                    this.buffer[this.position++] = (byte) (0xE0 | (c >> 12));
+                    this.buffer[this.position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    this.buffer[this.position++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+
+        private void ensureCapacity(final int length) {
+            if (this.position + length > BUFFER_SIZE) {
+                this.digest.update(this.buffer, 0, this.position);
+                this.position = 0;
+            }
+        }
+    }
+
+}
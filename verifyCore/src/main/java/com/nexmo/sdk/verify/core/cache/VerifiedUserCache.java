@@ -0,0 +1,501 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.core.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.nexmo.sdk.core.config.Config;
+import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.core.platform.Platform;
+import com.nexmo.sdk.verify.event.UserStatus;
+
+/**
+ * Encrypted on-disk cache of the last known {@link UserStatus} of each (country code, phone number),
+ * so that an application asking for the user status on every launch does not pay a token and a search round trip.
+ * <p>
+ * A status is stored with the local time it was received and the timestamp of the signed response it came from.
+ * Statuses from a response whose timestamp is more than {@link Defaults#MAX_ALLOWABLE_TIME_DELTA} away from the
+ * local clock are not cached, and a cached status is only used while both times are within its freshness window:
+ * one window for {@link UserStatus#USER_VERIFIED}, one for the other statuses. Pending verifications are never cached.
+ * <p>
+ * The file is encrypted with AES and authenticated with an HMAC-SHA256, both keys derived from the shared secret key:
+ * a file that has been modified, or written for another application, is discarded.
+ * All the caches on the same file and secret key share their entries. The file is read and written on the given
+ * executor: until it has been read, users are not found and the changes are merged with its entries.
+ */
+public class VerifiedUserCache {
+
+    private static final String TAG = VerifiedUserCache.class.getSimpleName();
+    private static final int FILE_VERSION = 1;
+    private static final String CIPHER = "AES/CBC/PKCS5Padding";
+    private static final String CIPHER_KEY = "AES";
+    private static final String MAC = "HmacSHA256";
+    private static final int CIPHER_KEY_SIZE = 16;
+    private static final int IV_SIZE = 16;
+    private static final int MAC_SIZE = 32;
+    private static final String KEY_CONTEXT = "nexmo-verified-user-cache ";
+    private static final Map<String, Store> stores = new HashMap<>();
+    private static final Map<String, Object> fileLocks = new HashMap<>();
+
+    private final Store store;
+    private final long verifiedFreshness;
+    private final long statusFreshness;
+
+    /**
+     * @param file              The cache file, one per application.
+     * @param secretKey         The shared secret key of the application, the file keys are derived from it.
+     * @param verifiedFreshness How long a verified status is used, in milliseconds. 0 disables it.
+     * @param statusFreshness   How long the other statuses are used, in milliseconds. 0 disables them.
+     * @param writeExecutor     Runs the file reads and writes, {@code null} to read and write on the calling thread.
+     */
+    public VerifiedUserCache(final File file,
+                             final String secretKey,
+                             final long verifiedFreshness,
+                             final long statusFreshness,
+                             final Executor writeExecutor) {
+        this.store = getStore(file, secretKey, writeExecutor);
+        this.verifiedFreshness = verifiedFreshness;
+        this.statusFreshness = statusFreshness;
+    }
+
+    public File getFile() {
+        return this.store.file;
+    }
+
+    public long getVerifiedFreshness() {
+        return this.verifiedFreshness;
+    }
+
+    public long getStatusFreshness() {
+        return this.statusFreshness;
+    }
+
+    /**
+     * Get the cached status of a user.
+     *
+     * @param countryCode The country code.
+     * @param phoneNumber The phone number.
+     * @return The status, or {@code null} if it is not cached or no longer fresh.
+     */
+    public UserStatus get(final String countryCode, final String phoneNumber) {
+        return get(countryCode, phoneNumber, System.currentTimeMillis());
+    }
+
+    UserStatus get(final String countryCode, final String phoneNumber, final long now) {
+        Entry entry = this.store.get(getKey(countryCode, phoneNumber));
+        if (entry == null)
+            return null;
+        // A response older than it was received, e.g. replayed, does not extend the freshness.
+        long age = now - Math.min(entry.receivedAt, entry.serverTime);
+        return (now >= entry.receivedAt && age < getFreshness(entry.status) ? entry.status : null);
+    }
+
+    /**
+     * Store the status of a user from a successful response.
+     *
+     * @param countryCode The country code.
+     * @param phoneNumber The phone number.
+     * @param userStatus  The user status, a pending or missing status removes the user.
+     * @param timestamp   The response timestamp, in seconds.
+     */
+    public void put(final String countryCode, final String phoneNumber, final UserStatus userStatus, final String timestamp) {
+        put(countryCode, phoneNumber, userStatus, timestamp, System.currentTimeMillis());
+    }
+
+    void put(final String countryCode, final String phoneNumber, final UserStatus userStatus, final String timestamp, final long now) {
+        String key = getKey(countryCode, phoneNumber);
+        long serverTime = parseTimestamp(timestamp);
+        if (userStatus == null || userStatus == UserStatus.USER_PENDING || getFreshness(userStatus) <= 0
+                || Math.abs(now - serverTime) > Defaults.MAX_ALLOWABLE_TIME_DELTA) {
+            this.store.remove(key);
+            return;
+        }
+        this.store.put(key, new Entry(userStatus, now, serverTime));
+    }
+
+    /**
+     * Forget the status of a user, e.g. after a {@link com.nexmo.sdk.verify.event.Command#LOGOUT}.
+     *
+     * @param countryCode The country code.
+     * @param phoneNumber The phone number.
+     */
+    public void invalidate(final String countryCode, final String phoneNumber) {
+        this.store.remove(getKey(countryCode, phoneNumber));
+    }
+
+    /**
+     * Forget all the users.
+     */
+    public void clear() {
+        this.store.clear();
+    }
+
+    /**
+     * Drop the shared entries, the next cache reads its file again. Used by tests.
+     */
+    static void closeStores() {
+        synchronized (stores) {
+            stores.clear();
+            fileLocks.clear();
+        }
+    }
+
+    private long getFreshness(final UserStatus userStatus) {
+        return (userStatus == UserStatus.USER_VERIFIED ? this.verifiedFreshness : this.statusFreshness);
+    }
+
+    /**
+     * A store is shared by the caches with the same file and secret key. Stores with another key discard
+     * each other's file when they read it, the file lock keeps their writes apart.
+     */
+    private static Store getStore(final File file, final String secretKey, final Executor writeExecutor) {
+        synchronized (stores) {
+            String path = file.getAbsolutePath();
+            String id = path + '\n' + secretKey;
+            Store store = stores.get(id);
+            if (store == null) {
+                Object fileLock = fileLocks.get(path);
+                if (fileLock == null) {
+                    fileLock = new Object();
+                    fileLocks.put(path, fileLock);
+                }
+                store = new Store(file, secretKey, fileLock, writeExecutor);
+                stores.put(id, store);
+            }
+            return store;
+        }
+    }
+
+    /**
+     * Phone numbers are compared on their digits only.
+     */
+    static String getKey(final String countryCode, final String phoneNumber) {
+        StringBuilder key = new StringBuilder();
+        if (countryCode != null)
+            key.append(countryCode.trim().toUpperCase());
+        key.append('|');
+        if (phoneNumber != null)
+            for (int i = 0; i < phoneNumber.length(); i++)
+                if (Character.isDigit(phoneNumber.charAt(i)))
+                    key.append(phoneNumber.charAt(i));
+        return key.toString();
+    }
+
+    private static long parseTimestamp(final String timestamp) {
+        try {
+            return Long.parseLong(timestamp.trim()) * 1000;
+        } catch (NumberFormatException | NullPointerException e) {
+            return Long.MIN_VALUE / 2;
+        }
+    }
+
+    private static final class Entry {
+        final UserStatus status;
+        final long receivedAt;
+        final long serverTime;
+
+        Entry(final UserStatus status, final long receivedAt, final long serverTime) {
+            this.status = status;
+            this.receivedAt = receivedAt;
+            this.serverTime = serverTime;
+        }
+    }
+
+    /**
+     * The entries of a cache file, read once when the store is created.
+     */
+    private static final class Store {
+        private final File file;
+        private final Executor writeExecutor;
+        private final byte[] cipherKey;
+        private final byte[] macKey;
+        private final Object fileLock;
+        // Insertion ordered, the first entry is the oldest one.
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+        // The users changed before the file was read, their entries in the file are outdated.
+        private final Set<String> changedKeys = new HashSet<>();
+        private boolean loaded;
+        private boolean clearedBeforeLoad;
+        private boolean writePending;
+        private boolean writeScheduled;
+
+        Store(final File file, final String secretKey, final Object fileLock, final Executor writeExecutor) {
+            this.file = file;
+            this.writeExecutor = writeExecutor;
+            this.cipherKey = Arrays.copyOf(deriveKey(secretKey, "encryption"), CIPHER_KEY_SIZE);
+            this.macKey = deriveKey(secretKey, "authentication");
+            this.fileLock = fileLock;
+            if (!file.exists()) {
+                this.loaded = true;
+            } else if (writeExecutor == null) {
+                load();
+            } else {
+                writeExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        load();
+                    }
+                });
+            }
+        }
+
+        synchronized Entry get(final String key) {
+            return this.entries.get(key);
+        }
+
+        void put(final String key, final Entry entry) {
+            synchronized (this) {
+                onChange(key);
+                this.entries.remove(key);
+                this.entries.put(key, entry);
+                trim();
+            }
+            scheduleWrite();
+        }
+
+        void remove(final String key) {
+            synchronized (this) {
+                onChange(key);
+                if (this.entries.remove(key) == null && this.loaded)
+                    return;
+            }
+            scheduleWrite();
+        }
+
+        void clear() {
+            synchronized (this) {
+                if (!this.loaded)
+                    this.clearedBeforeLoad = true;
+                this.entries.clear();
+            }
+            scheduleWrite();
+        }
+
+        private void onChange(final String key) {
+            if (!this.loaded)
+                this.changedKeys.add(key);
+        }
+
+        private void trim() {
+            Iterator<String> oldest = this.entries.keySet().iterator();
+            while (this.entries.size() > Defaults.MAX_CACHED_USERS) {
+                oldest.next();
+                oldest.remove();
+            }
+        }
+
+        private void scheduleWrite() {
+            synchronized (this) {
+                // A write before the file is read would lose its entries, it is done once they are merged.
+                if (!this.loaded) {
+                    this.writePending = true;
+                    return;
+                }
+                // Writes not started yet are coalesced, the write saves the latest entries.
+                if (this.writeExecutor != null) {
+                    if (this.writeScheduled)
+                        return;
+                    this.writeScheduled = true;
+                }
+            }
+            if (this.writeExecutor == null) {
+                write();
+                return;
+            }
+            this.writeExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    write();
+                }
+            });
+        }
+
+        private void write() {
+            // The snapshot and the write are done under the file lock, so a write never replaces a newer one.
+            synchronized (this.fileLock) {
+                List<Map.Entry<String, Entry>> snapshot;
+                synchronized (this) {
+                    this.writeScheduled = false;
+                    snapshot = new ArrayList<>(this.entries.entrySet());
+                }
+                File tmpFile = new File(this.file.getPath() + ".tmp");
+                try {
+                    OutputStream out = new FileOutputStream(tmpFile);
+                    try {
+                        out.write(encrypt(serialize(snapshot)));
+                    } finally {
+                        out.close();
+                    }
+                    if (!tmpFile.renameTo(this.file))
+                        throw new IOException("Cannot replace " + this.file);
+                } catch (IOException | GeneralSecurityException e) {
+                    Platform.get().log(TAG, "User cache not saved. " + e.getMessage());
+                    tmpFile.delete();
+                }
+            }
+        }
+
+        /**
+         * Read the file and merge its entries, older than the changes made meanwhile.
+         */
+        private void load() {
+            LinkedHashMap<String, Entry> stored = read();
+            boolean pending;
+            synchronized (this) {
+                if (!this.clearedBeforeLoad) {
+                    stored.keySet().removeAll(this.changedKeys);
+                    stored.putAll(this.entries);
+                    this.entries.clear();
+                    this.entries.putAll(stored);
+                    trim();
+                }
+                this.changedKeys.clear();
+                this.loaded = true;
+                pending = this.writePending;
+                this.writePending = false;
+            }
+            if (pending)
+                scheduleWrite();
+        }
+
+        private LinkedHashMap<String, Entry> read() {
+            LinkedHashMap<String, Entry> stored = new LinkedHashMap<>();
+            synchronized (this.fileLock) {
+                if (!this.file.exists())
+                    return stored;
+                try {
+                    byte[] content = readFile(this.file);
+                    DataInputStream in = new DataInputStream(new ByteArrayInputStream(decrypt(content)));
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        String key = in.readUTF();
+                        String status = in.readUTF();
+                        Entry entry = new Entry(UserStatus.valueOf(status), in.readLong(), in.readLong());
+                        stored.put(key, entry);
+                    }
+                } catch (IOException | GeneralSecurityException | IllegalArgumentException e) {
+                    // Unreadable, modified or from another application: start over.
+                    Platform.get().log(TAG, "User cache discarded. " + e.getMessage());
+                    stored.clear();
+                    this.file.delete();
+                }
+            }
+            return stored;
+        }
+
+        private static byte[] serialize(final List<Map.Entry<String, Entry>> snapshot) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> entry : snapshot) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue().status.name());
+                out.writeLong(entry.getValue().receivedAt);
+                out.writeLong(entry.getValue().serverTime);
+            }
+            out.close();
+            return bytes.toByteArray();
+        }
+
+        /**
+         * @return The version, the IV, the encrypted content and the MAC of the three.
+         */
+        private byte[] encrypt(final byte[] content) throws GeneralSecurityException {
+            byte[] iv = new byte[IV_SIZE];
+            new SecureRandom().nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(this.cipherKey, CIPHER_KEY), new IvParameterSpec(iv));
+            byte[] encrypted = cipher.doFinal(content);
+
+            byte[] result = new byte[1 + IV_SIZE + encrypted.length + MAC_SIZE];
+            result[0] = FILE_VERSION;
+            System.arraycopy(iv, 0, result, 1, IV_SIZE);
+            System.arraycopy(encrypted, 0, result, 1 + IV_SIZE, encrypted.length);
+            Mac mac = Mac.getInstance(MAC);
+            mac.init(new SecretKeySpec(this.macKey, MAC));
+            mac.update(result, 0, result.length - MAC_SIZE);
+            System.arraycopy(mac.doFinal(), 0, result, result.length - MAC_SIZE, MAC_SIZE);
+            return result;
+        }
+
+        private byte[] decrypt(final byte[] content) throws GeneralSecurityException {
+            if (content.length < 1 + IV_SIZE + MAC_SIZE || content[0] != FILE_VERSION)
+                throw new GeneralSecurityException("Unknown file format.");
+            Mac mac = Mac.getInstance(MAC);
+            mac.init(new SecretKeySpec(this.macKey, MAC));
+            mac.update(content, 0, content.length - MAC_SIZE);
+            if (!MessageDigest.isEqual(mac.doFinal(), Arrays.copyOfRange(content, content.length - MAC_SIZE, content.length)))
+                throw new GeneralSecurityException("Authentication failed.");
+
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(this.cipherKey, CIPHER_KEY),
+                        new IvParameterSpec(content, 1, IV_SIZE));
+            return cipher.doFinal(content, 1 + IV_SIZE, content.length - 1 - IV_SIZE - MAC_SIZE);
+        }
+
+        private static byte[] deriveKey(final String secretKey, final String purpose) {
+            try {
+                Mac mac = Mac.getInstance(MAC);
+                mac.init(new SecretKeySpec(secretKey.getBytes(Config.PARAMS_ENCODING), MAC));
+                return mac.doFinal((KEY_CONTEXT + purpose).getBytes(Config.PARAMS_ENCODING));
+            } catch (GeneralSecurityException | IOException e) {
+                throw new IllegalStateException(TAG + " HmacSHA256 not available.", e);
+            }
+        }
+
+        private static byte[] readFile(final File file) throws IOException {
+            InputStream in = new FileInputStream(file);
+            try {
+                ByteArrayOutputStream content = new ByteArrayOutputStream((int) file.length());
+                byte[] buffer = new byte[1024];
+                int read;
+                while ((read = in.read(buffer)) != -1)
+                    content.write(buffer, 0, read);
+                return content.toByteArray();
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+}
@@ -15,7 +15,7 @@ package com.nexmo.sdk.verify.core.event;
 
 import java.io.IOException;
 
-import com.nexmo.sdk.verify.event.*;
+import com.nexmo.sdk.verify.event.UserStatus;
 import com.nexmo.sdk.verify.event.VerifyError;
 
 /**
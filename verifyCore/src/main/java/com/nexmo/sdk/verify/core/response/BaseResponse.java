@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.core.response;
+
+import java.io.IOException;
+
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import com.nexmo.sdk.core.client.ResultCodes;
+import com.nexmo.sdk.core.client.Protocol;
+import com.nexmo.sdk.verify.event.UserStatus;
+
+/**
+ * Generic class for handling all the responses from Nexmo Number SDK Service.
+ * Used for marshaling/un marshaling basic response JSons into PoJos.
+ */
+public class BaseResponse {
+
+    @SerializedName(Protocol.PARAM_RESULT_CODE)
+    private int resultCode;
+
+    @SerializedName(Protocol.PARAM_RESULT_MESSAGE)
+    private String resultMessage;
+
+    @SerializedName(Protocol.PARAM_TIMESTAMP)
+    private String timestamp;
+
+    public BaseResponse() {}
+
+    public int getResultCode() {
+        return this.resultCode;
+    }
+
+    public String getTimestamp() {
+        return this.timestamp;
+    }
+
+    public String getResultMessage() {
+        return this.resultMessage;
+    }
+
+    /**
+     * Read a single field of the response, used by {@link ResponseAdapter}.
+     *
+     * @param name The field name.
+     * @param in   The reader, positioned on the field value.
+     * @return True if the field value has been consumed, False if the field is unknown.
+     * @throws IOException If the value cannot be read.
+     */
+    boolean readField(final String name, final JsonReader in) throws IOException {
+        if (Protocol.PARAM_RESULT_CODE.equals(name))
+            this.resultCode = ResponseAdapter.nextInt(in, this.resultCode);
+        else if (Protocol.PARAM_RESULT_MESSAGE.equals(name))
+            this.resultMessage = ResponseAdapter.nextString(in);
+        else if (Protocol.PARAM_TIMESTAMP.equals(name))
+            this.timestamp = ResponseAdapter.nextString(in);
+        else
+            return false;
+        return true;
+    }
+
+    /**
+     * Write the response fields, used by {@link ResponseAdapter}.
+     */
+    void writeFields(final JsonWriter out) throws IOException {
+        out.name(Protocol.PARAM_RESULT_CODE).value(this.resultCode);
+        if (this.resultMessage != null)
+            out.name(Protocol.PARAM_RESULT_MESSAGE).value(this.resultMessage);
+        if (this.timestamp != null)
+            out.name(Protocol.PARAM_TIMESTAMP).value(this.timestamp);
+    }
+
+    /**
+     * Checks if the response result code is valid.
+     */
+    public boolean isValid(){
+        return (this.resultCode == ResultCodes.RESULT_CODE_OK);
+    }
+
+    @Override
+    public String toString() {
+        return Protocol.PARAM_RESULT_CODE + ": " + this.resultCode  + ", " +
+                Protocol.PARAM_RESULT_MESSAGE + ": " + (this.resultMessage != null ? this.resultMessage : "" ) + ", " +
+                Protocol.PARAM_TIMESTAMP + ": " + (this.timestamp != null ? this.timestamp : "");
+    }
+
+    public static UserStatus getUserStatus(final String userStatus) {
+        if (userStatus.equals(Protocol.USER_NEW))
+            return UserStatus.USER_NEW;
+        else if (userStatus.equals(Protocol.USER_PENDING))
+            return UserStatus.USER_PENDING;
+        else if(userStatus.equals(Protocol.USER_VERIFIED))
+            return UserStatus.USER_VERIFIED;
+        else if (userStatus.equals(Protocol.USER_FAILED))
+            return UserStatus.USER_FAILED;
+        else if(userStatus.equals(Protocol.USER_EXPIRED))
+            return UserStatus.USER_EXPIRED;
+        else if (userStatus.equals(Protocol.USER_BLACKLISTED))
+            return UserStatus.USER_BLACKLISTED;
+        else if (userStatus.equals(Protocol.USER_UNVERIFIED))
+            return UserStatus.USER_UNVERIFIED;
+        else return UserStatus.USER_UNKNOWN;
+    }
+
+}
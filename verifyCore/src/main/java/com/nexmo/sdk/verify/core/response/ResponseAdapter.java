@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.core.response;
+
+import java.io.IOException;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Streaming Gson adapter for the SDK service responses.
+ * <p>
+ * Reads the response fields straight from the {@link JsonReader} token stream, without the reflective
+ * field binding Gson otherwise builds for each response class. Each response class reads and writes its
+ * own fields, see {@link BaseResponse#readField(String, JsonReader)}; unknown fields are skipped.
+ *
+ * @param <T> The response type.
+ */
+public abstract class ResponseAdapter<T extends BaseResponse> extends TypeAdapter<T> {
+
+    /**
+     * Register the adapters of all the SDK service responses.
+     *
+     * @param builder The Gson builder.
+     * @return The same builder.
+     */
+    public static GsonBuilder registerAdapters(final GsonBuilder builder) {
+        return builder.registerTypeAdapter(VerifyResponse.class, new ResponseAdapter<VerifyResponse>() {
+                    @Override
+                    protected VerifyResponse newResponse() {
+                        return new VerifyResponse();
+                    }
+                })
+                .registerTypeAdapter(CheckResponse.class, new ResponseAdapter<CheckResponse>() {
+                    @Override
+                    protected CheckResponse newResponse() {
+                        return new CheckResponse();
+                    }
+                })
+                .registerTypeAdapter(SearchResponse.class, new ResponseAdapter<SearchResponse>() {
+                    @Override
+                    protected SearchResponse newResponse() {
+                        return new SearchResponse();
+                    }
+                })
+                .registerTypeAdapter(TokenResponse.class, new ResponseAdapter<TokenResponse>() {
+                    @Override
+                    protected TokenResponse newResponse() {
+                        return new TokenResponse();
+                    }
+                });
+    }
+
+    /**
+     * @return A new empty response.
+     */
+    protected abstract T newResponse();
+
+    @Override
+    public T read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        T response = newResponse();
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!response.readField(in.nextName(), in))
+                in.skipValue();
+        }
+        in.endObject();
+        return response;
+    }
+
+    @Override
+    public void write(final JsonWriter out, final T response) throws IOException {
+        if (response == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        response.writeFields(out);
+        out.endObject();
+    }
+
+    /**
+     * Read a string value, numbers are returned as their string representation.
+     */
+    static String nextString(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Read an int value, quoted numbers are accepted. A null value reads as {@code defaultValue}.
+     */
+    static int nextInt(final JsonReader in, final int defaultValue) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return defaultValue;
+        }
+        return in.nextInt();
+    }
+
+}
@@ -13,17 +13,20 @@
 
 package com.nexmo.sdk.verify.core.response;
 
+import java.io.IOException;
+
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
-import com.nexmo.sdk.verify.core.service.BaseService;
-import com.nexmo.sdk.verify.core.service.TokenService;
+import com.nexmo.sdk.core.client.Protocol;
 
 /**
  * Class for marshaling/unmarshaling response tokens JSons into PoJos.
  */
 public class TokenResponse extends BaseResponse {
 
-    @SerializedName(TokenService.PARAM_TOKEN)
+    @SerializedName(Protocol.PARAM_TOKEN)
     private String token;
 
     protected TokenResponse(){}
@@ -32,9 +35,25 @@ public class TokenResponse extends BaseResponse {
         return this.token;
     }
 
+    @Override
+    boolean readField(final String name, final JsonReader in) throws IOException {
+        if (Protocol.PARAM_TOKEN.equals(name)) {
+            this.token = ResponseAdapter.nextString(in);
+            return true;
+        }
+        return super.readField(name, in);
+    }
+
+    @Override
+    void writeFields(final JsonWriter out) throws IOException {
+        super.writeFields(out);
+        if (this.token != null)
+            out.name(Protocol.PARAM_TOKEN).value(this.token);
+    }
+
     @Override
     public String toString() {
-        return super.toString() + ", " + TokenService.PARAM_TOKEN + ": " + this.token;
+        return super.toString() + ", " + Protocol.PARAM_TOKEN + ": " + this.token;
     }
 
 }
@@ -13,9 +13,13 @@
 
 package com.nexmo.sdk.verify.core.response;
 
+import java.io.IOException;
+
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
-import com.nexmo.sdk.verify.core.service.BaseService;
+import com.nexmo.sdk.core.client.Protocol;
 import com.nexmo.sdk.verify.event.UserStatus;
 
 /**
@@ -23,7 +27,7 @@ import com.nexmo.sdk.verify.event.UserStatus;
  */
 public class VerifyResponse extends BaseResponse {
 
-    @SerializedName(BaseService.PARAM_RESULT_USER_STATUS)
+    @SerializedName(Protocol.PARAM_RESULT_USER_STATUS)
     private String userStatus;
 
     protected VerifyResponse() {}
@@ -37,9 +41,25 @@ public class VerifyResponse extends BaseResponse {
         return getUserStatus(this.userStatus);
     }
 
+    @Override
+    boolean readField(final String name, final JsonReader in) throws IOException {
+        if (Protocol.PARAM_RESULT_USER_STATUS.equals(name)) {
+            this.userStatus = ResponseAdapter.nextString(in);
+            return true;
+        }
+        return super.readField(name, in);
+    }
+
+    @Override
+    void writeFields(final JsonWriter out) throws IOException {
+        super.writeFields(out);
+        if (this.userStatus != null)
+            out.name(Protocol.PARAM_RESULT_USER_STATUS).value(this.userStatus);
+    }
+
     @Override
     public String toString() {
-        return super.toString() + ", " + BaseService.PARAM_RESULT_USER_STATUS + ": " + this.userStatus;
+        return super.toString() + ", " + Protocol.PARAM_RESULT_USER_STATUS + ": " + this.userStatus;
     }
 
 }
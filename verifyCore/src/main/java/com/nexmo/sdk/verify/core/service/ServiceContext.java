@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.core.service;
+
+import java.util.concurrent.Executor;
+
+import com.nexmo.sdk.core.client.CircuitBreaker;
+import com.nexmo.sdk.core.client.ConnectionClient;
+import com.nexmo.sdk.core.client.HedgePolicy;
+import com.nexmo.sdk.core.client.RetryPolicy;
+import com.nexmo.sdk.core.device.NoDeviceIdException;
+import com.nexmo.sdk.core.executor.RequestExecutor;
+import com.nexmo.sdk.core.metrics.PipelineMetrics;
+
+/**
+ * The client state the service calls run against: credentials, device identity, transport and policies.
+ * <p>
+ * Implemented by the Android {@code NexmoClient}, and by plain JVM clients such as the load test harness,
+ * so the token and service requests go through the same {@link ServiceEndpoint} and {@link TokenService} code.
+ */
+public interface ServiceContext {
+
+    /**
+     * @return The auto-generated id for the application.
+     */
+    String getApplicationId();
+
+    /**
+     * @return The pre-shared secret key generated by Nexmo.
+     */
+    String getSharedSecretKey();
+
+    /**
+     * @return The host the requests are sent to.
+     */
+    String getEnvironmentHost();
+
+    /**
+     * Runs on a request executor thread.
+     *
+     * @return The unique Id of the device.
+     * @throws NoDeviceIdException If the device ID is not available.
+     */
+    String getDeviceId() throws NoDeviceIdException;
+
+    /**
+     * Runs on a request executor thread.
+     *
+     * @return The IP address of the device, or {@code null} if not connected.
+     */
+    String getIPAddress();
+
+    /**
+     * @return The time in milliseconds allowed for a whole service call, token request included.
+     */
+    long getRequestDeadline();
+
+    RetryPolicy getRetryPolicy();
+
+    CircuitBreaker getCircuitBreaker();
+
+    /**
+     * @return The hedge policy, or {@code null} if requests are not hedged.
+     */
+    HedgePolicy getHedgePolicy();
+
+    PipelineMetrics getMetrics();
+
+    TokenCache getTokenCache();
+
+    ConnectionClient getConnectionClient();
+
+    RequestExecutor getRequestExecutor();
+
+    /**
+     * @return The executor on which the request callbacks are delivered.
+     */
+    Executor getCallbackExecutor();
+
+}
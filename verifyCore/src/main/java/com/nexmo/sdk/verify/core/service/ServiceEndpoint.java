@@ -0,0 +1,674 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.core.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+
+import com.nexmo.sdk.core.client.CircuitBreaker;
+import com.nexmo.sdk.core.client.ClientConnection;
+import com.nexmo.sdk.core.client.ConnectionClient;
+import com.nexmo.sdk.core.client.HedgePolicy;
+import com.nexmo.sdk.core.client.Request;
+import com.nexmo.sdk.core.client.Response;
+import com.nexmo.sdk.core.client.ResultCodes;
+import com.nexmo.sdk.core.client.RetryPolicy;
+
+import com.nexmo.sdk.core.event.ServiceListener;
+import com.nexmo.sdk.core.executor.Cancellable;
+import com.nexmo.sdk.core.executor.Priority;
+import com.nexmo.sdk.core.executor.RequestExecutor;
+import com.nexmo.sdk.core.executor.ServiceTask;
+import com.nexmo.sdk.core.metrics.Counter;
+import com.nexmo.sdk.core.metrics.PipelineMetrics;
+import com.nexmo.sdk.core.metrics.Stage;
+import com.nexmo.sdk.core.platform.Platform;
+import com.nexmo.sdk.core.request.RequestSigning;
+import com.nexmo.sdk.verify.client.InternalNetworkException;
+import com.nexmo.sdk.verify.core.event.token.BaseTokenServiceListener;
+import com.nexmo.sdk.verify.core.response.BaseResponse;
+import com.nexmo.sdk.verify.core.response.ResponseAdapter;
+import com.nexmo.sdk.verify.event.VerifyError;
+
+/**
+ * Sends the requests of one SDK service method.
+ * <p>
+ * A call waits for a token from the {@link TokenService}, then sends its request on the client
+ * {@link RequestExecutor} within the client deadline, retrying and hedging it as the client policies allow.
+ * The response is parsed and its signature validated before the listener is notified.
+ * Endpoints hold no per-request state: every {@link #start} call carries its own request, listener
+ * and token, so concurrent requests on the same endpoint never overwrite each other.
+ *
+ * @param <C> client type.
+ * @param <R> request type.
+ * @param <T> expected response type.
+ */
+public abstract class ServiceEndpoint<C extends ServiceContext, R, T extends BaseResponse> {
+
+    /** Shared Gson instance, the service responses are read by the streaming {@link ResponseAdapter}s. */
+    public static final Gson gson = ResponseAdapter.registerAdapters(new GsonBuilder()).create();
+
+    private final String tag;
+    private final Priority priority;
+
+    /**
+     * @param tag       The log tag of the service.
+     * @param priority  The priority of the service requests on the {@link RequestExecutor}.
+     */
+    protected ServiceEndpoint(final String tag, final Priority priority) {
+        this.tag = tag;
+        this.priority = priority;
+    }
+
+    /**
+     * Validate if the response signature was supplied and if it matches the expected value.
+     * Hashes the whole response body, runs on a request executor thread.
+     * @param context  The client that sends the request.
+     * @param response The http response parsed as a {@link BaseResponse}
+     * @param result The un-parsed response message.
+     *
+     * @return true if the signature is invalid, false otherwise.
+     */
+    public static boolean isSignatureInvalid(final ServiceContext context,
+                                             final BaseResponse response,
+                                             final Response result) {
+        if (response.getResultCode() == ResultCodes.INVALID_CREDENTIALS)
+            if (result.getSignature() == null || result.getSignature().isEmpty())
+                return true;
+        if (response.getResultCode() == ResultCodes.RESULT_CODE_OK)
+            if (!RequestSigning.verifyRequestSignature(response.getTimestamp(),
+                                                       result,
+                                                       context.getSharedSecretKey()))
+                return true;
+        return false;
+    }
+
+    /**
+     * Deserialize the specified Json into an object of the specified class.
+     * @param input The raw response body reader.
+     *
+     * @return An object of type {@link}T from the string. Returns {@code null} if {@link @param input} is {@code null}.
+     * @throws JsonSyntaxException If {@param input} is not a valid representation for an object of type {@link T}.
+     */
+    protected abstract T parseJson(final Reader input) throws JsonSyntaxException;
+
+    /**
+     * Build the http request for a service call.
+     * Runs on a request executor thread.
+     *
+     * @param context       The client that sends the request.
+     * @param request       The request object of this call.
+     * @param token         The authorization token.
+     * @return              The http request.
+     * @throws IOException  If the device properties cannot be read.
+     */
+    protected abstract Request buildRequest(final C context,
+                                            final R request,
+                                            final String token) throws IOException;
+
+    /**
+     * Checks if the requests of this service are hedged when the client has a {@link HedgePolicy}.
+     * Only latency critical requests should be, the default is False.
+     */
+    protected boolean isHedged() {
+        return false;
+    }
+
+    /**
+     * Called on the callback executor with the response of a call, before its listener, whoever started the call.
+     * The default implementation does nothing.
+     *
+     * @param context   The client that sent the request.
+     * @param request   The request of the call.
+     * @param response  The response.
+     */
+    protected void onResponse(final C context, final R request, final T response) {
+    }
+
+    /**
+     * Initiate the task that triggers the http request.
+     * @param context       The client that sends the request.
+     * @param request       The request object, it must not be changed until the listener is notified.
+     * @param listener      The internal listener.
+     * @return              True if the request has been initiated, False otherwise.
+     */
+    public boolean start(final C context,
+                         final R request,
+                         final ServiceListener<T> listener) {
+        return (submit(context, request, listener) != null);
+    }
+
+    /**
+     * Initiate the task that triggers the http request, the request can be cancelled while in flight.
+     * Once cancelled, the connection is aborted and the listener is no longer notified.
+     * @param context       The client that sends the request.
+     * @param request       The request object, it must not be changed until the listener is notified.
+     * @param listener      The internal listener.
+     * @return              The request, or {@code null} if it has not been initiated.
+     */
+    public Cancellable submit(final C context,
+                              final R request,
+                              final ServiceListener<T> listener) {
+        if (context == null || request == null || listener == null) {
+            if (Platform.get().isDebug())
+                Platform.get().log(this.tag, "Cannot start request, missing params.");
+            return null;
+        }
+
+        ServiceCall call = new ServiceCall(context, request, listener);
+        call.start();
+        return call;
+    }
+
+    /**
+     * A single service call: the request, the listener it reports to and the client that sends it.
+     * <p>
+     * The call has a deadline that spans the token request and the service request. Once the deadline
+     * expires or the call is cancelled, its connection is aborted, it stops waiting for a token and any late
+     * result is dropped. An expired call reports a {@link SocketTimeoutException}.
+     * <p>
+     * A hedged call may have two requests in flight. A failed outcome is then held until the other request
+     * completes, the first successful response wins and the other request is aborted.
+     */
+    private class ServiceCall implements BaseTokenServiceListener, Cancellable {
+        private final C context;
+        private final R request;
+        private final ServiceListener<T> listener;
+        private final long deadline;
+        private final long startedAt;
+        private long tokenWait;
+        private boolean finished;
+        private ScheduledFuture<?> deadlineTimer;
+        private final List<HttpURLConnection> connections = new ArrayList<>();
+        private int requestsInFlight;
+        private boolean hedgeScheduled;
+        private String token;
+        private ServiceRequestTask heldOutcome;
+
+        ServiceCall(final C context,
+                    final R request,
+                    final ServiceListener<T> listener) {
+            this.context = context;
+            this.request = request;
+            this.listener = listener;
+            this.deadline = now() + context.getRequestDeadline();
+            this.startedAt = (context.getMetrics().isEnabled() ? System.nanoTime() : 0);
+        }
+
+        void start() {
+            ScheduledFuture<?> timer = this.context.getRequestExecutor().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    expire();
+                }
+            }, this.context.getRequestDeadline());
+            synchronized (this) {
+                this.deadlineTimer = timer;
+            }
+            // Reuse the cached token when still valid, otherwise a new one is generated.
+            TokenService.getInstance().start(this.context, this);
+        }
+
+        /**
+         * Indicates there is a new token received, the request can now be initiated.
+         *
+         * @param token The new token response.
+         */
+        @Override
+        public void onToken(final String token) {
+            synchronized (this) {
+                if (this.finished)
+                    return;
+                this.token = token;
+                if (this.startedAt != 0)
+                    this.tokenWait = System.nanoTime() - this.startedAt;
+            }
+            send(new ServiceRequestTask(this, token, 1, false));
+            scheduleHedge();
+        }
+
+        /**
+         * The token request has been rejected.
+         *
+         * @param errorCode    The {@link VerifyError} codes to describe the error.
+         * @param errorMessage The message that describes the {@link VerifyError}.
+         */
+        @Override
+        public void onTokenError(final VerifyError errorCode,
+                                 final String errorMessage) {
+            if (finish())
+                this.listener.onFail(errorCode, errorMessage);
+        }
+
+        /**
+         * A request was timed out because of network connectivity exception.
+         * Triggered in case of network error, such as UnknownHostException or SocketTimeout exception.
+         *
+         * @param exception The exception.
+         */
+        @Override
+        public void onException(final IOException exception) {
+            // Network exception while getting a token.
+            if (finish())
+                this.listener.onException(exception);
+        }
+
+        /**
+         * Cancel the call, aborting its connection if the request is in flight.
+         * The listener is not notified.
+         */
+        @Override
+        public void cancel() {
+            if (finish())
+                leaveTokenWait();
+        }
+
+        /**
+         * The deadline has expired, abort the call and report a timeout.
+         * Runs on the request executor timer thread.
+         */
+        void expire() {
+            if (!finish())
+                return;
+            leaveTokenWait();
+            this.context.getCallbackExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    listener.onException(new SocketTimeoutException(tag + " Request deadline exceeded."));
+                }
+            });
+        }
+
+        /**
+         * Mark the call as finished, the caller then notifies the listener.
+         * The connections of the requests still in flight, such as the loser of a hedged call, are aborted.
+         *
+         * @return False if the call was already finished: completed, cancelled or expired.
+         */
+        boolean finish() {
+            final List<HttpURLConnection> inFlight;
+            synchronized (this) {
+                if (this.finished)
+                    return false;
+                this.finished = true;
+                if (this.deadlineTimer != null)
+                    this.deadlineTimer.cancel(false);
+                inFlight = new ArrayList<>(this.connections);
+                this.connections.clear();
+            }
+            if (!inFlight.isEmpty())
+                // Closing a socket may block, keep it off the caller and timer threads.
+                this.context.getRequestExecutor().abort(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (HttpURLConnection connection : inFlight)
+                            connection.disconnect();
+                    }
+                });
+            return true;
+        }
+
+        synchronized boolean isFinished() {
+            return this.finished;
+        }
+
+        /**
+         * @return The time in milliseconds left before the deadline.
+         */
+        long getRemaining() {
+            return this.deadline - now();
+        }
+
+        /**
+         * Track the connection of the request in flight, so that it can be aborted, and bound its
+         * timeouts by the time left before the deadline.
+         *
+         * @return False if the call is already finished.
+         * @throws SocketTimeoutException If the deadline has already expired.
+         */
+        synchronized boolean attach(final HttpURLConnection connection) throws SocketTimeoutException {
+            if (this.finished)
+                return false;
+            long remaining = this.deadline - now();
+            if (remaining <= 0)
+                throw new SocketTimeoutException(tag + " Request deadline exceeded.");
+            connection.setConnectTimeout((int) Math.min(connection.getConnectTimeout(), remaining));
+            connection.setReadTimeout((int) Math.min(connection.getReadTimeout(), remaining));
+            this.connections.add(connection);
+            return true;
+        }
+
+        /**
+         * The request is no longer in flight, its connection has been released.
+         */
+        synchronized void detach(final HttpURLConnection connection) {
+            this.connections.remove(connection);
+        }
+
+        /**
+         * Run a request of this call on the request executor.
+         */
+        void send(final ServiceRequestTask task) {
+            synchronized (this) {
+                this.requestsInFlight++;
+            }
+            this.context.getRequestExecutor().execute(task, this.context.getCallbackExecutor());
+        }
+
+        /**
+         * Send a hedge if the first request has not completed after the hedge delay.
+         * A call sends at most one hedge, with the latest token.
+         */
+        void scheduleHedge() {
+            final HedgePolicy hedgePolicy = this.context.getHedgePolicy();
+            if (hedgePolicy == null || !isHedged())
+                return;
+            synchronized (this) {
+                if (this.hedgeScheduled)
+                    return;
+                this.hedgeScheduled = true;
+            }
+            hedgePolicy.onRequest();
+            this.context.getRequestExecutor().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    String hedgeToken;
+                    synchronized (ServiceCall.this) {
+                        // Completed, or waiting for a retry.
+                        if (finished || requestsInFlight == 0)
+                            return;
+                        hedgeToken = token;
+                    }
+                    hedgePolicy.onHedge();
+                    send(new ServiceRequestTask(ServiceCall.this, hedgeToken, 1, true));
+                }
+            }, hedgePolicy.getHedgeDelay());
+        }
+
+        /**
+         * A request of this call has completed.
+         *
+         * @param task The completed request.
+         * @return The request whose outcome is delivered to the listener, or {@code null} while a failed
+         *         outcome is held for another request still in flight.
+         */
+        synchronized ServiceRequestTask complete(final ServiceRequestTask task) {
+            this.requestsInFlight--;
+            boolean success = task.isSuccess();
+            if (!success && this.requestsInFlight > 0) {
+                if (this.heldOutcome == null)
+                    this.heldOutcome = task;
+                return null;
+            }
+            // When both requests fail, the first request outcome is delivered.
+            ServiceRequestTask outcome = (!success && task.hedge && this.heldOutcome != null ? this.heldOutcome : task);
+            this.heldOutcome = null;
+            if (success && task.hedge && !this.finished) {
+                this.context.getHedgePolicy().onHedgeWin();
+                this.context.getMetrics().increment(task.method, Counter.HEDGE_WINS);
+            }
+            return outcome;
+        }
+
+        /**
+         * Send the request again once the retry delay has elapsed, unless the call has finished meanwhile.
+         *
+         * @param token   The token of the failed attempt.
+         * @param attempt The next attempt number.
+         * @param delay   The retry delay in milliseconds.
+         */
+        void retry(final String token, final int attempt, final long delay) {
+            if (Platform.get().isDebug())
+                Platform.get().log(tag, "Retrying in " + delay + "ms, attempt " + attempt);
+            final RequestExecutor requestExecutor = this.context.getRequestExecutor();
+            requestExecutor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (!isFinished())
+                        send(new ServiceRequestTask(ServiceCall.this, token, attempt, false));
+                }
+            }, delay);
+        }
+
+        /**
+         * Restart the call with a new token.
+         * If token continues to expire the service will send back a throttled error.
+         *
+         * @param rejectedToken The token of the rejected request.
+         */
+        void restart(final String rejectedToken) {
+            this.context.getTokenCache().invalidate(rejectedToken);
+            TokenService.getInstance().start(this.context, this);
+        }
+
+        /**
+         * Stop waiting for a token, if the call is still waiting for one.
+         */
+        private void leaveTokenWait() {
+            TokenService.getInstance().cancel(this.context, this);
+        }
+    }
+
+    /**
+     * Task that sends the request of a service call.
+     * The response is parsed and its signature validated on the worker thread, only the typed
+     * response reaches the callback executor. Failed attempts are retried as the client {@link RetryPolicy} allows.
+     */
+    private class ServiceRequestTask extends ServiceTask<T> {
+        private final ServiceCall call;
+        private final String token;
+        private final int attempt;
+        private final boolean hedge;
+        private long retryDelay = -1;
+        private boolean circuitOpen;
+        private T response;
+        private String method;
+        private long completedAt;
+        private boolean invalidSignature;
+        private InternalNetworkException internalException;
+        private IOException networkException;
+
+        ServiceRequestTask(final ServiceCall call, final String token, final int attempt, final boolean hedge) {
+            super(priority);
+            this.call = call;
+            this.token = token;
+            this.attempt = attempt;
+            this.hedge = hedge;
+        }
+
+        @Override
+        protected T doInBackground() {
+            if (this.call.isFinished())
+                return null;
+            T response = sendRequest();
+            if (this.call.context.getMetrics().isEnabled())
+                this.completedAt = System.nanoTime();
+            return response;
+        }
+
+        private T sendRequest() {
+            RetryPolicy retryPolicy = this.call.context.getRetryPolicy();
+            CircuitBreaker circuitBreaker = this.call.context.getCircuitBreaker();
+            PipelineMetrics metrics = this.call.context.getMetrics();
+            try {
+                Request request = buildRequest(this.call.context, this.call.request, this.token);
+                this.method = request.getMethod();
+                if (!circuitBreaker.allowRequest(request.getMethod())) {
+                    this.circuitOpen = true;
+                    metrics.increment(this.method, Counter.CIRCUIT_REJECTIONS);
+                    return null;
+                }
+                if (metrics.isEnabled()) {
+                    metrics.increment(this.method, Counter.REQUESTS);
+                    if (this.hedge)
+                        metrics.increment(this.method, Counter.HEDGES);
+                    else if (this.attempt > 1)
+                        metrics.increment(this.method, Counter.RETRIES);
+                    else
+                        metrics.recordLatency(this.method, Stage.TOKEN_WAIT, this.call.tokenWait);
+                }
+                long start = now();
+                Response result;
+                try {
+                    result = ServiceEndpoint.this.sendRequest(this.call, request);
+                } catch (IOException e) {
+                    Platform.get().log(tag, " Error network issue " + e);
+                    // Requests aborted by a cancellation, the deadline or a winning hedge are not service failures.
+                    if (!this.call.isFinished()) {
+                        metrics.increment(this.method, Counter.FAILURES);
+                        circuitBreaker.onFailure(request.getMethod(), e);
+                        this.retryDelay = retryPolicy.onFailure(request.getMethod(), this.attempt, e, this.call.getRemaining());
+                    }
+                    throw new IOException(tag + " Error establishing connection " + e);
+                }
+                long latency = now() - start;
+                HedgePolicy hedgePolicy = this.call.context.getHedgePolicy();
+                // The hedge delay is a percentile of the hedged method latencies only.
+                if (hedgePolicy != null && isHedged())
+                    hedgePolicy.recordLatency(latency);
+                metrics.recordExchange(this.method, result);
+                long parseStart = (metrics.isEnabled() ? System.nanoTime() : 0);
+                T response = parseResponse(result);
+                long signatureStart = (metrics.isEnabled() ? System.nanoTime() : 0);
+                // Check if the signature is set on the response header.
+                boolean signatureInvalid = (response != null && isSignatureInvalid(this.call.context, response, result));
+                if (metrics.isEnabled()) {
+                    metrics.recordLatency(this.method, Stage.PARSE, signatureStart - parseStart);
+                    metrics.recordLatency(this.method, Stage.SIGNATURE, System.nanoTime() - signatureStart);
+                }
+                if (signatureInvalid) {
+                    this.invalidSignature = true;
+                    return null;
+                }
+                if (response != null) {
+                    circuitBreaker.onResponse(request.getMethod(), response.getResultCode(), latency);
+                    this.retryDelay = retryPolicy.onResponse(request.getMethod(), this.attempt, response.getResultCode(), this.call.getRemaining());
+                }
+                return response;
+            } catch (InternalNetworkException e) {
+                this.internalException = e;
+            } catch (IOException e) {
+                this.networkException = e;
+            }
+            return null;
+        }
+
+        /**
+         * <p>Runs on the callback executor after {@link #doInBackground}. The
+         * specified result is the value returned by {@link #doInBackground}.</p>
+         *
+         * @param result The result of the operation computed by {@link #doInBackground}.
+         *
+         * @see #doInBackground
+         */
+        @Override
+        protected void onPostExecute(T response) {
+            if (this.completedAt != 0)
+                this.call.context.getMetrics().recordLatency(this.method, Stage.DISPATCH, System.nanoTime() - this.completedAt);
+            this.response = response;
+            ServiceRequestTask outcome = this.call.complete(this);
+            if (outcome != null)
+                outcome.deliver();
+        }
+
+        /**
+         * @return True if the request got a valid response that completed successfully.
+         */
+        boolean isSuccess() {
+            return (this.response != null && !this.invalidSignature && this.response.getResultCode() == ResultCodes.RESULT_CODE_OK);
+        }
+
+        /**
+         * Retry the request, or notify the listener of its outcome.
+         */
+        void deliver() {
+            ServiceListener<T> listener = this.call.listener;
+            if (getException() != null) {
+                if (this.call.finish())
+                    listener.onFail(VerifyError.INTERNAL_ERR, tag + " Request failed " + getException());
+                return;
+            }
+            if (this.retryDelay >= 0) {
+                if (!this.call.isFinished())
+                    this.call.retry(this.token, this.attempt + 1, this.retryDelay);
+                return;
+            }
+            if (!this.invalidSignature && response != null && response.getResultCode() == ResultCodes.INVALID_TOKEN) {
+                if (!this.call.isFinished())
+                    this.call.restart(this.token);
+                return;
+            }
+            // Late result of a cancelled or expired call.
+            if (!this.call.finish())
+                return;
+            if (this.call.startedAt != 0)
+                this.call.context.getMetrics().recordLatency(this.method, Stage.TOTAL, System.nanoTime() - this.call.startedAt);
+            if (this.invalidSignature)
+                listener.onFail(VerifyError.INVALID_CREDENTIALS, "Invalid credentials.");
+            else if (this.circuitOpen)
+                listener.onFail(VerifyError.SERVICE_UNAVAILABLE, tag + " Service unavailable, request not sent.");
+            else if (response != null) {
+                onResponse(this.call.context, this.call.request, response);
+                listener.onResponse(response);
+            }
+            else if (this.internalException != null)
+                listener.onFail(VerifyError.INTERNAL_ERR, this.internalException.getMessage());
+            else if (this.networkException != null)
+                listener.onException(this.networkException);
+            else
+                listener.onFail(VerifyError.INTERNAL_ERR, tag + "No response found.");
+        }
+    }
+
+    private Response sendRequest(final ServiceCall call, final Request request) throws IOException {
+        ConnectionClient client = call.context.getConnectionClient();
+        ClientConnection connection = client.initConnection(request);
+        if (!call.attach(connection.getConnection()))
+            throw new InterruptedIOException("Request cancelled.");
+        Response response;
+        try {
+            response = client.execute(connection);
+        } finally {
+            call.detach(connection.getConnection());
+        }
+        if (Platform.get().isDebug())
+            Platform.get().log(this.tag, "raw response: " + response);
+        return response;
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1000000;
+    }
+
+    private T parseResponse(final Response response) throws InternalNetworkException {
+        try {
+            return parseJson(response.getBodyReader());
+        } catch (JsonIOException | JsonSyntaxException e) {
+            Platform.get().log(this.tag, " Error parsing " + e);
+            throw new InternalNetworkException(this.tag + " Error parsing response " + e);
+        }
+    }
+
+}
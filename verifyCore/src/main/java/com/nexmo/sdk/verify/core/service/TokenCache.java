@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.core.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.nexmo.sdk.core.executor.Cancellable;
+import com.nexmo.sdk.verify.core.event.token.BaseTokenServiceListener;
+
+/**
+ * Per client token holder, see {@link ServiceContext#getTokenCache()}.
+ * <p>
+ * Keeps the last token generated by the SDK service together with its lifetime, so that consecutive
+ * verify/check/search/command requests do not need a token round trip each.
+ * Concurrent token requests are coalesced: only the first caller triggers a new token request,
+ * the others are queued and notified once the token arrives. When every waiting caller has been cancelled,
+ * the token request is cancelled as well.
+ */
+public class TokenCache {
+
+    private final long timeToLive;
+    private final long refreshWindow;
+
+    private String token;
+    private long expiresAt;
+    private long refreshAt;
+    private boolean refreshInProgress;
+    private Cancellable tokenRequest;
+    private final List<BaseTokenServiceListener> pendingListeners = new ArrayList<>();
+
+    /**
+     * @param timeToLive    The token lifetime in milliseconds, as configured on the Dashboard.
+     * @param refreshWindow The amount of milliseconds before expiry when a proactive refresh is started.
+     */
+    public TokenCache(final long timeToLive, final long refreshWindow) {
+        this.timeToLive = timeToLive;
+        this.refreshWindow = Math.min(refreshWindow, timeToLive);
+    }
+
+    /**
+     * Get the cached token.
+     *
+     * @return The token, or {@code null} if there is no token or it has expired.
+     */
+    public synchronized String getToken() {
+        return getToken(now());
+    }
+
+    synchronized String getToken(final long now) {
+        if (this.token == null || now >= this.expiresAt)
+            return null;
+        return this.token;
+    }
+
+    /**
+     * Checks if the cached token is close enough to expiry that a new one should be requested.
+     *
+     * @return True if a proactive refresh is due and no other refresh is in progress.
+     */
+    public synchronized boolean isRefreshDue() {
+        return isRefreshDue(now());
+    }
+
+    synchronized boolean isRefreshDue(final long now) {
+        return (this.token != null && !this.refreshInProgress && now >= this.refreshAt);
+    }
+
+    /**
+     * Queue a listener waiting for a token.
+     *
+     * @param listener The token listener, may be {@code null} for a background refresh.
+     * @return True if the caller is the first one waiting and needs to request a new token,
+     *         False if a token request is already in flight.
+     */
+    public synchronized boolean enqueue(final BaseTokenServiceListener listener) {
+        if (listener != null)
+            this.pendingListeners.add(listener);
+        if (this.refreshInProgress)
+            return false;
+        this.refreshInProgress = true;
+        return true;
+    }
+
+    /**
+     * Track the token request in flight, started after {@link #enqueue} returned True.
+     *
+     * @param tokenRequest The token request.
+     */
+    public synchronized void setTokenRequest(final Cancellable tokenRequest) {
+        this.tokenRequest = tokenRequest;
+    }
+
+    /**
+     * Replace the token request in flight by its retry.
+     *
+     * @param current The failed token request.
+     * @param retry   The token request that replaces it.
+     * @return False if the failed token request has been cancelled meanwhile, the retry must not be sent.
+     */
+    public synchronized boolean replaceTokenRequest(final Cancellable current, final Cancellable retry) {
+        if (this.tokenRequest != current)
+            return false;
+        this.tokenRequest = retry;
+        return true;
+    }
+
+    /**
+     * Stop waiting for a token.
+     *
+     * @param listener The token listener.
+     * @return The token request in flight if nobody is waiting for it anymore, to be cancelled by the caller.
+     *         The next caller starts a new token request.
+     */
+    public synchronized Cancellable cancel(final BaseTokenServiceListener listener) {
+        if (!this.pendingListeners.remove(listener) || !this.pendingListeners.isEmpty() || this.tokenRequest == null)
+            return null;
+        Cancellable request = this.tokenRequest;
+        drain();
+        return request;
+    }
+
+    /**
+     * Store a newly generated token.
+     *
+     * @param token The new token.
+     * @return The listeners that were waiting for this token.
+     */
+    public synchronized List<BaseTokenServiceListener> update(final String token) {
+        return update(token, now());
+    }
+
+    synchronized List<BaseTokenServiceListener> update(final String token, final long now) {
+        this.token = token;
+        this.expiresAt = now + this.timeToLive;
+        this.refreshAt = this.expiresAt - this.refreshWindow;
+        return drain();
+    }
+
+    /**
+     * The token request has failed, the cached token stays as is until it expires.
+     *
+     * @return The listeners that were waiting for the token.
+     */
+    public synchronized List<BaseTokenServiceListener> fail() {
+        return drain();
+    }
+
+    /**
+     * Discard the cached token. Used when the SDK service rejects the token as invalid.
+     * A late rejection of an older token keeps the token another caller has refreshed meanwhile.
+     *
+     * @param rejectedToken The token the service rejected.
+     */
+    public synchronized void invalidate(final String rejectedToken) {
+        if (this.token == null || !this.token.equals(rejectedToken))
+            return;
+        this.token = null;
+        this.expiresAt = 0;
+        this.refreshAt = 0;
+    }
+
+    private List<BaseTokenServiceListener> drain() {
+        this.refreshInProgress = false;
+        this.tokenRequest = null;
+        List<BaseTokenServiceListener> listeners = new ArrayList<>(this.pendingListeners);
+        this.pendingListeners.clear();
+        return listeners;
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1000000;
+    }
+
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.core.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+
+import com.nexmo.sdk.core.client.CircuitBreaker;
+import com.nexmo.sdk.core.client.ClientConnection;
+import com.nexmo.sdk.core.client.ConnectionClient;
+import com.nexmo.sdk.core.client.Protocol;
+import com.nexmo.sdk.core.client.Request;
+import com.nexmo.sdk.core.client.RetryPolicy;
+import com.nexmo.sdk.core.executor.Cancellable;
+import com.nexmo.sdk.core.executor.Priority;
+import com.nexmo.sdk.core.executor.RequestExecutor;
+import com.nexmo.sdk.core.executor.ServiceTask;
+import com.nexmo.sdk.core.metrics.Counter;
+import com.nexmo.sdk.core.metrics.PipelineMetrics;
+import com.nexmo.sdk.core.metrics.Stage;
+import com.nexmo.sdk.core.platform.Platform;
+import com.nexmo.sdk.core.client.Response;
+import com.nexmo.sdk.core.device.NoDeviceIdException;
+import com.nexmo.sdk.verify.core.event.token.BaseTokenServiceListener;
+import com.nexmo.sdk.verify.core.response.TokenResponse;
+
+import com.nexmo.sdk.verify.client.InternalNetworkException;
+import com.nexmo.sdk.verify.event.VerifyError;
+
+/**
+ * Service that triggers a new token request against the SDK Service.
+ */
+public class TokenService {
+
+    /** Log tag, apps may override it. */
+    private static final String TAG = TokenService.class.getSimpleName();
+
+    /** HTTP response parameters. */
+    public static final String PARAM_TOKEN = Protocol.PARAM_TOKEN;
+    private static TokenService instance = new TokenService();
+
+    public static TokenService getInstance() {
+        return instance;
+    }
+
+    private TokenService(){
+    }
+
+    public boolean start(final ServiceContext context,
+                         final BaseTokenServiceListener listener) {
+        if (context == null || listener == null) {
+            if (Platform.get().isDebug())
+                Platform.get().log(TAG, "Cannot start request, missing params.");
+            return false;
+        }
+
+        TokenCache tokenCache = context.getTokenCache();
+        String token = tokenCache.getToken();
+        if (token != null) {
+            // Refresh ahead of expiry, while the current token is still served.
+            if (tokenCache.isRefreshDue() && tokenCache.enqueue(null))
+                execute(context);
+            listener.onToken(token);
+        }
+        // Only one token request at a time, concurrent callers wait for the same response.
+        else if (tokenCache.enqueue(listener))
+            execute(context);
+        return true;
+    }
+
+    /**
+     * Stop waiting for a token, the token request is cancelled if nobody else is waiting for it.
+     *
+     * @param context  The client that sends the request.
+     * @param listener The token listener given to {@link #start}.
+     */
+    public void cancel(final ServiceContext context,
+                       final BaseTokenServiceListener listener) {
+        Cancellable tokenRequest = context.getTokenCache().cancel(listener);
+        if (tokenRequest != null)
+            tokenRequest.cancel();
+    }
+
+    private void execute(final ServiceContext context) {
+        TokenTask task = new TokenTask(context, 1);
+        context.getTokenCache().setTokenRequest(task);
+        context.getRequestExecutor().execute(task, context.getCallbackExecutor());
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1000000;
+    }
+
+    private TokenResponse parseJson(final Reader input) throws JsonSyntaxException {
+        return ServiceEndpoint.gson.fromJson(input, TokenResponse.class);
+    }
+
+    /**
+     * Token Task requests a new token generation.
+     * The response is parsed and its signature validated on the worker thread.
+     * Failed attempts are retried as the client {@link RetryPolicy} allows, the waiting listeners are only
+     * notified of the final outcome.
+     */
+    private class TokenTask extends ServiceTask<TokenResponse> implements Cancellable {
+        private boolean cancelled;
+        private HttpURLConnection connection;
+        private boolean invalidSignature;
+        private IOException network_exception;
+        private InternalNetworkException internal_exception;
+        private NoDeviceIdException deviceId_exception;
+        private final ServiceContext context;
+        private final int attempt;
+        private long retryDelay = -1;
+        private boolean circuitOpen;
+
+        public TokenTask(final ServiceContext context, final int attempt) {
+            // Every other request waits for the token, keep it ahead of the queue.
+            super(Priority.HIGH);
+            this.context = context;
+            this.attempt = attempt;
+        }
+
+        @Override
+        protected TokenResponse doInBackground() {
+            if (isCancelled())
+                return null;
+            CircuitBreaker circuitBreaker = this.context.getCircuitBreaker();
+            PipelineMetrics metrics = this.context.getMetrics();
+            if (!circuitBreaker.allowRequest(Protocol.METHOD_TOKEN)) {
+                this.circuitOpen = true;
+                metrics.increment(Protocol.METHOD_TOKEN, Counter.CIRCUIT_REJECTIONS);
+                return null;
+            }
+            metrics.increment(Protocol.METHOD_TOKEN, Counter.REQUESTS);
+            if (this.attempt > 1)
+                metrics.increment(Protocol.METHOD_TOKEN, Counter.RETRIES);
+            try {
+                long start = now();
+                Response result = getTokenRequest();
+                long latency = now() - start;
+                metrics.recordExchange(Protocol.METHOD_TOKEN, result);
+                long parseStart = (metrics.isEnabled() ? System.nanoTime() : 0);
+                TokenResponse response = parseResponse(result);
+                long signatureStart = (metrics.isEnabled() ? System.nanoTime() : 0);
+                // Check if the signature is set on the response header.
+                boolean signatureInvalid = (response != null && ServiceEndpoint.isSignatureInvalid(this.context, response, result));
+                if (metrics.isEnabled()) {
+                    metrics.recordLatency(Protocol.METHOD_TOKEN, Stage.PARSE, signatureStart - parseStart);
+                    metrics.recordLatency(Protocol.METHOD_TOKEN, Stage.SIGNATURE, System.nanoTime() - signatureStart);
+                }
+                if (signatureInvalid) {
+                    this.invalidSignature = true;
+                    return null;
+                }
+                if (response != null) {
+                    circuitBreaker.onResponse(Protocol.METHOD_TOKEN, response.getResultCode(), latency);
+                    this.retryDelay = this.context.getRetryPolicy().onResponse(Protocol.METHOD_TOKEN, this.attempt,
+                                                                                   response.getResultCode(), Long.MAX_VALUE);
+                }
+                return response;
+            } catch (InternalNetworkException e) {
+                this.internal_exception = e;
+            }
+            catch (NoDeviceIdException e) {
+                this.deviceId_exception = e;
+            }
+            catch (IOException e) {
+                this.network_exception = e;
+            }
+            return null;
+        }
+
+        /**
+         * <p>Runs on the callback executor after {@link #doInBackground}. The
+         * specified result is the value returned by {@link #doInBackground}.</p>
+         *
+         * @param result The result of the operation computed by {@link #doInBackground}.
+         *
+         * @see #doInBackground
+         */
+        @Override
+        protected void onPostExecute(TokenResponse newToken) {
+            // Nobody is waiting for this token anymore, a later request may already be in flight.
+            if (isCancelled())
+                return;
+            TokenCache tokenCache = this.context.getTokenCache();
+            if (getException() != null) {
+                // Unexpected failure, release the waiting callers instead of retrying it.
+                notifyTokenError(tokenCache.fail(), VerifyError.INTERNAL_ERR, TAG + " Token request failed " + getException());
+                return;
+            }
+            if (this.retryDelay >= 0) {
+                retry();
+                return;
+            }
+            if (this.invalidSignature)
+                notifyTokenError(tokenCache.fail(), VerifyError.INVALID_CREDENTIALS, "Invalid credentials.");
+            else if (this.circuitOpen)
+                notifyTokenError(tokenCache.fail(), VerifyError.SERVICE_UNAVAILABLE, TAG + " Service unavailable, request not sent.");
+            else if (newToken != null) {
+                List<BaseTokenServiceListener> listeners = tokenCache.update(newToken.getToken());
+                for (BaseTokenServiceListener listener : listeners)
+                    listener.onToken(newToken.getToken());
+            }
+            else if (this.internal_exception != null)
+                notifyTokenError(tokenCache.fail(), VerifyError.INTERNAL_ERR, this.internal_exception.getMessage());
+            else if (this.network_exception != null) {
+                for (BaseTokenServiceListener listener : tokenCache.fail())
+                    listener.onException(this.network_exception);
+            }
+            else if (this.deviceId_exception != null) {
+                notifyTokenError(tokenCache.fail(), VerifyError.DEVICE_ID_NOT_FOUND, this.deviceId_exception.getMessage());
+            } else
+                notifyTokenError(tokenCache.fail(), VerifyError.INTERNAL_ERR, TAG + "No response found.");
+        }
+
+        /**
+         * Cancel the token request, aborting its connection if in flight.
+         */
+        @Override
+        public void cancel() {
+            HttpURLConnection inFlight;
+            synchronized (this) {
+                this.cancelled = true;
+                inFlight = this.connection;
+                this.connection = null;
+            }
+            if (inFlight != null)
+                inFlight.disconnect();
+        }
+
+        /**
+         * Send the token request again once the retry delay has elapsed.
+         * The retry takes over this request in the token cache, so that it is cancelled with the waiting callers.
+         */
+        private void retry() {
+            final TokenTask retry = new TokenTask(this.context, this.attempt + 1);
+            if (!this.context.getTokenCache().replaceTokenRequest(this, retry))
+                return;
+            if (Platform.get().isDebug())
+                Platform.get().log(TAG, "Retrying token request in " + this.retryDelay + "ms, attempt " + retry.attempt);
+            final RequestExecutor requestExecutor = this.context.getRequestExecutor();
+            requestExecutor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (!retry.isCancelled())
+                        requestExecutor.execute(retry, context.getCallbackExecutor());
+                }
+            }, this.retryDelay);
+        }
+
+        private synchronized boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        private synchronized boolean attach(final HttpURLConnection connection) {
+            this.connection = connection;
+            return !this.cancelled;
+        }
+
+        private void notifyTokenError(final List<BaseTokenServiceListener> listeners,
+                                      final VerifyError errorCode,
+                                      final String errorMessage) {
+            for (BaseTokenServiceListener listener : listeners)
+                listener.onTokenError(errorCode, errorMessage);
+        }
+
+        /**
+         * Generate an access token for the current device used to sign all communications from your
+         * Android application to Nexmo.
+         * <p>
+         * The token has a limited lifetime to protect your Nexmo account from abuse.
+         * The token expiration time can be configured from the Dashboard.
+         * <p>
+         * For the security of your Nexmo account, you should not embed your sharedSecretKey or your
+         * Nexmo authorization token as strings in the app you submit to the Google Play Store.
+         *
+         * @return Request response, that also contains a short-lived new authorization token.
+         * @throws IOException If the request cannot be sent or the device properties cannot be read.
+         */
+        private Response getTokenRequest() throws IOException {
+            Map<String, String> requestParams = new TreeMap<>();
+            requestParams.put(Protocol.PARAM_APP_ID, context.getApplicationId());
+            try {
+                requestParams.put(Protocol.PARAM_DEVICE_ID, context.getDeviceId());
+            } catch (NoDeviceIdException e) {
+                Platform.get().log(TAG, e.getMessage());
+                throw new NoDeviceIdException(TAG + " Error parsing response " + e);
+            }
+            requestParams.put(Protocol.PARAM_SOURCE_IP, context.getIPAddress());
+
+            ConnectionClient client = context.getConnectionClient();
+            try {
+                ClientConnection connection = client.initConnection(new Request(context.getEnvironmentHost(),
+                                                                                context.getSharedSecretKey(),
+                                                                                Protocol.METHOD_TOKEN,
+                                                                                requestParams));
+                if (!attach(connection.getConnection()))
+                    throw new InterruptedIOException("Token request cancelled.");
+                Response response;
+                try {
+                    response = client.execute(connection);
+                } finally {
+                    attach(null);
+                }
+                if (Platform.get().isDebug())
+                    Platform.get().log(TAG, "Token raw response: " + response);
+                return response;
+            } catch (IOException e) {
+                Platform.get().log(TAG, " Error network issue " + e);
+                // A cancelled token request is not a service failure.
+                if (!isCancelled()) {
+                    this.context.getMetrics().increment(Protocol.METHOD_TOKEN, Counter.FAILURES);
+                    this.context.getCircuitBreaker().onFailure(Protocol.METHOD_TOKEN, e);
+                    this.retryDelay = this.context.getRetryPolicy().onFailure(Protocol.METHOD_TOKEN, this.attempt, e, Long.MAX_VALUE);
+                }
+                throw new IOException(TAG + " Error establishing connection " + e);
+            }
+        }
+
+        private TokenResponse parseResponse(final Response response) throws InternalNetworkException {
+            try {
+                return parseJson(response.getBodyReader());
+            } catch (JsonIOException | JsonSyntaxException e) {
+                Platform.get().log(TAG, " Error parsing " + e);
+                throw new InternalNetworkException(TAG + " Error parsing response " + e);
+            }
+        }
+    }
+
+}
@@ -13,7 +13,7 @@
 
 package com.nexmo.sdk.verify.event;
 
-import com.nexmo.sdk.verify.core.service.BaseService;
+import com.nexmo.sdk.core.client.Protocol;
 
 /**
  * User status codes.
@@ -27,18 +27,18 @@ import com.nexmo.sdk.verify.core.service.BaseService;
  */
 public enum UserStatus {
 
-    USER_NEW(BaseService.USER_NEW),
+    USER_NEW(Protocol.USER_NEW),
     /** When user is in pending state, the verify flow has been initiated. However, this doesn't ensure the token remains valid. */
-    USER_PENDING(BaseService.USER_PENDING),
-    USER_VERIFIED(BaseService.USER_VERIFIED),
+    USER_PENDING(Protocol.USER_PENDING),
+    USER_VERIFIED(Protocol.USER_VERIFIED),
     /** User is in {@link UserStatus#USER_UNVERIFIED} status only when an explicit {@link com.nexmo.sdk.verify.client.VerifyClient#command(String, String, Command, CommandListener)}
      * with {@link com.nexmo.sdk.verify.event.Command#LOGOUT} action was invoked for an already verified user.
      */
-    USER_UNVERIFIED(BaseService.USER_UNVERIFIED),
-    USER_FAILED(BaseService.USER_FAILED),
-    USER_EXPIRED(BaseService.USER_EXPIRED),
-    USER_BLACKLISTED(BaseService.USER_BLACKLISTED),
-    USER_UNKNOWN(BaseService.USER_UNKNOWN);
+    USER_UNVERIFIED(Protocol.USER_UNVERIFIED),
+    USER_FAILED(Protocol.USER_FAILED),
+    USER_EXPIRED(Protocol.USER_EXPIRED),
+    USER_BLACKLISTED(Protocol.USER_BLACKLISTED),
+    USER_UNKNOWN(Protocol.USER_UNKNOWN);
 
     private String value;
 
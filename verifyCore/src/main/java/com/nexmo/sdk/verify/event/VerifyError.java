@@ -13,7 +13,7 @@
 
 package com.nexmo.sdk.verify.event;
 
-import com.nexmo.sdk.verify.client.VerifyClient;
+import com.nexmo.sdk.core.client.ResultCodes;
 
 /**
  * Verify error codes.
@@ -98,7 +98,7 @@ public enum VerifyError {
      * Stateless verification not allowed. User must be in {@link UserStatus#USER_VERIFIED} state in order to perform
      * {@link com.nexmo.sdk.verify.client.VerifyClient#verifyStandalone(String, String)}
      * Please perform a {@link com.nexmo.sdk.verify.client.VerifyClient#getVerifiedUser(String, String)} or
-     * {@link VerifyClient#getVerifiedUserFromDefaultManagedUI()}} before doing any stateless verifications.
+     * {@link com.nexmo.sdk.verify.client.VerifyClient#getVerifiedUserFromDefaultManagedUI()} before doing any stateless verifications.
      */
     INVALID_USER_STATUS_FOR_STATELESS_VERIFICATION,
     /** The SDK revision is not supported anymore. */
@@ -106,6 +106,46 @@ public enum VerifyError {
     /** Current Android OS version is not supported. */
     OS_NOT_SUPPORTED,
     /** Generic internal error, the service might be down for the moment. Please try again later. */
-    INTERNAL_ERR
+    INTERNAL_ERR,
+    /**
+     * The request was not sent: the SDK service has been failing or too slow lately and is given time to recover.
+     * Please try again later.
+     */
+    SERVICE_UNAVAILABLE;
+
+    /**
+     * Map the result code of a rejected verify or check request.
+     * @param resultCode The response code.
+     *
+     * @return The matching error, {@link #INTERNAL_ERR} for unknown result codes.
+     */
+    public static VerifyError fromResultCode(final int resultCode) {
+        switch(resultCode) {
+            case ResultCodes.INVALID_NUMBER:
+                return INVALID_NUMBER;
+            case ResultCodes.INVALID_CREDENTIALS:
+            case ResultCodes.BAD_APP_ID:
+                return INVALID_CREDENTIALS;
+            case ResultCodes.INVALID_CODE_TOO_MANY_TIMES:
+                return INVALID_CODE_TOO_MANY_TIMES;
+            case ResultCodes.INVALID_PIN_CODE:
+            case ResultCodes.INVALID_CODE:
+                return INVALID_PIN_CODE;
+            case ResultCodes.REQUEST_REJECTED:
+                return THROTTLED;
+            case ResultCodes.QUOTA_EXCEEDED:
+                return QUOTA_EXCEEDED;
+            case ResultCodes.CANNOT_PERFORM_CHECK:
+                return CANNOT_PERFORM_CHECK;
+            case ResultCodes.SDK_NOT_SUPPORTED:
+                return SDK_REVISION_NOT_SUPPORTED;
+            case ResultCodes.OS_NOT_SUPPORTED:
+                return OS_NOT_SUPPORTED;
+            case ResultCodes.INVALID_USER_STATUS_FOR_STATELESS_VERIFICATION_REQUEST:
+                return INVALID_USER_STATUS_FOR_STATELESS_VERIFICATION;
+            default:
+                return INTERNAL_ERR;
+        }
+    }
 
 }
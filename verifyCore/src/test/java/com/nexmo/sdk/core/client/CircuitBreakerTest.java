@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+
+public class CircuitBreakerTest {
+
+    private static final String TAG = CircuitBreakerTest.class.getSimpleName();
+    private CircuitBreaker circuitBreaker;
+    private CircuitBreaker.Circuit circuit;
+
+    @Before
+    public void setUp() throws Exception {
+        circuitBreaker = new CircuitBreaker(4, 2, 50, 1000, 100);
+        circuit = circuitBreaker.getCircuit(Protocol.METHOD_VERIFY);
+    }
+
+    @Test
+    public void testOpensOnFailureRate() {
+        circuit.record(false, 0);
+        circuit.record(false, 0);
+        circuit.record(true, 0);
+        assertEquals(TAG + " Circuit opened under the failure rate.", CircuitBreaker.State.CLOSED, circuit.getState());
+        circuit.record(true, 0);
+        assertEquals(TAG + " Circuit not opened at the failure rate.", CircuitBreaker.State.OPEN, circuit.getState());
+        assertFalse(TAG + " Open circuit let a request through.", circuit.allowRequest(99));
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        CircuitBreaker.Circuit window = new CircuitBreaker(4, 4, 75, 1000, 100).getCircuit(Protocol.METHOD_CHECK);
+        window.record(true, 0);
+        window.record(true, 0);
+        window.record(false, 0);
+        window.record(false, 0);
+        window.record(false, 0);
+        window.record(false, 0);
+        window.record(true, 0);
+        window.record(true, 0);
+        assertEquals(TAG + " Circuit opened under the failure rate of the window.", CircuitBreaker.State.CLOSED, window.getState());
+        // The first failures have left the window, the last four outcomes are 75% bad.
+        window.record(true, 0);
+        assertEquals(TAG + " Circuit not opened at the failure rate of the window.", CircuitBreaker.State.OPEN, window.getState());
+    }
+
+    @Test
+    public void testHalfOpenProbe() {
+        circuit.record(true, 0);
+        circuit.record(true, 0);
+        assertTrue(TAG + " Probe not let through after the open duration.", circuit.allowRequest(100));
+        assertEquals(TAG + " Circuit not half open.", CircuitBreaker.State.HALF_OPEN, circuit.getState());
+        assertFalse(TAG + " Second probe let through.", circuit.allowRequest(101));
+        circuit.record(true, 102);
+        assertEquals(TAG + " Failed probe did not reopen the circuit.", CircuitBreaker.State.OPEN, circuit.getState());
+        assertTrue(TAG + " Probe not let through after the open duration.", circuit.allowRequest(202));
+        circuit.record(false, 203);
+        assertEquals(TAG + " Successful probe did not close the circuit.", CircuitBreaker.State.CLOSED, circuit.getState());
+    }
+
+    @Test
+    public void testLostProbe() {
+        circuit.record(true, 0);
+        circuit.record(true, 0);
+        assertTrue(TAG + " Probe not let through.", circuit.allowRequest(100));
+        assertTrue(TAG + " Lost probe not replaced.", circuit.allowRequest(200));
+    }
+
+    @Test
+    public void testMethodsAreIndependent() {
+        circuitBreaker.onFailure(Protocol.METHOD_SEARCH, new SocketTimeoutException());
+        circuitBreaker.onFailure(Protocol.METHOD_SEARCH, new SocketTimeoutException());
+        assertEquals(TAG + " Search circuit not opened.", CircuitBreaker.State.OPEN, circuitBreaker.getState(Protocol.METHOD_SEARCH));
+        assertTrue(TAG + " Verify requests blocked by the search circuit.", circuitBreaker.allowRequest(Protocol.METHOD_VERIFY));
+    }
+
+    @Test
+    public void testFailureClassification() {
+        assertTrue(TAG + " Timeout not recorded.", CircuitBreaker.isServiceFailure(new SocketTimeoutException()));
+        assertTrue(TAG + " Server error not recorded.", CircuitBreaker.isServiceFailure(new HttpStatusException(null, 502, -1)));
+        assertFalse(TAG + " Client error recorded.", CircuitBreaker.isServiceFailure(new HttpStatusException(null, 404, -1)));
+        assertFalse(TAG + " Cancellation recorded.", CircuitBreaker.isServiceFailure(new InterruptedIOException()));
+        circuitBreaker.onResponse(Protocol.METHOD_CHECK, ResultCodes.RESULT_CODE_OK, 2000);
+        circuitBreaker.onResponse(Protocol.METHOD_CHECK, ResultCodes.RESULT_CODE_OK, 2000);
+        assertEquals(TAG + " Slow responses not recorded.", CircuitBreaker.State.OPEN, circuitBreaker.getState(Protocol.METHOD_CHECK));
+    }
+
+    @Test
+    public void testDisabled() {
+        CircuitBreaker disabled = CircuitBreaker.disabled();
+        for (int i = 0; i < 10; i++)
+            disabled.onFailure(Protocol.METHOD_TOKEN, new SocketTimeoutException());
+        assertTrue(TAG + " Disabled circuit breaker opened.", disabled.allowRequest(Protocol.METHOD_TOKEN));
+    }
+
+}
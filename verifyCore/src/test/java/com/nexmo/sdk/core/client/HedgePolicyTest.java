@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+import com.nexmo.sdk.core.config.Defaults;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HedgePolicyTest {
+
+    private static final String TAG = HedgePolicyTest.class.getSimpleName();
+
+    @Test
+    public void testDefaultDelay() {
+        HedgePolicy hedgePolicy = new HedgePolicy(90, 0);
+        hedgePolicy.recordLatency(100);
+        assertEquals(TAG + " Delay not defaulted without enough latencies.", Defaults.HEDGE_DEFAULT_DELAY, hedgePolicy.getHedgeDelay());
+    }
+
+    @Test
+    public void testPercentileDelay() {
+        HedgePolicy hedgePolicy = new HedgePolicy(90, 0);
+        for (int i = 10; i > 0; i--)
+            hedgePolicy.recordLatency(i * 100);
+        assertEquals(TAG + " Wrong percentile delay.", 900, hedgePolicy.getHedgeDelay());
+        for (int i = 0; i < Defaults.HEDGE_WINDOW_SIZE; i++)
+            hedgePolicy.recordLatency(50);
+        assertEquals(TAG + " Old latencies still in the window.", 50, hedgePolicy.getHedgeDelay());
+    }
+
+    @Test
+    public void testMinDelay() {
+        HedgePolicy hedgePolicy = new HedgePolicy(50, 300);
+        for (int i = 0; i < 10; i++)
+            hedgePolicy.recordLatency(100);
+        assertEquals(TAG + " Delay under the minimum.", 300, hedgePolicy.getHedgeDelay());
+    }
+
+    @Test
+    public void testRates() {
+        HedgePolicy hedgePolicy = new HedgePolicy();
+        for (int i = 0; i < 4; i++)
+            hedgePolicy.onRequest();
+        hedgePolicy.onHedge();
+        hedgePolicy.onHedge();
+        hedgePolicy.onHedgeWin();
+        assertEquals(TAG + " Wrong hedge rate.", 0.5f, hedgePolicy.getHedgeRate(), 0.001f);
+        assertEquals(TAG + " Wrong win rate.", 0.5f, hedgePolicy.getWinRate(), 0.001f);
+    }
+
+}
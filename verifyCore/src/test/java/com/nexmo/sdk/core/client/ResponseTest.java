@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResponseTest {
+
+    private static final String TAG = ResponseTest.class.getSimpleName();
+    private static final String BODY = "{\"result_code\":0,\"result_message\":\"OK\",\"user_status\":\"pending\"}";
+
+    @Test
+    public void testReadBodyWithContentLength() throws Exception {
+        byte[] body = BODY.getBytes("UTF-8");
+        assertArrayEquals(TAG + " Body not read.", body, Client.readBody(new ByteArrayInputStream(body), body.length));
+    }
+
+    @Test
+    public void testReadBodyWithoutContentLength() throws Exception {
+        byte[] body = new byte[5000];
+        Arrays.fill(body, (byte) 'a');
+        assertArrayEquals(TAG + " Body larger than the read buffer not read.", body, Client.readBody(new ByteArrayInputStream(body), -1));
+        assertEquals(TAG + " Empty body not read.", 0, Client.readBody(new ByteArrayInputStream(new byte[0]), -1).length);
+    }
+
+    @Test
+    public void testReadTruncatedBody() throws Exception {
+        try {
+            Client.readBody(new ByteArrayInputStream(new byte[10]), 20);
+            fail(TAG + " Truncated body accepted.");
+        } catch (EOFException e) {
+            assertTrue(TAG + " Truncated body", true);
+        }
+    }
+
+    @Test
+    public void testContentTypeCharset() {
+        assertEquals(TAG + " Charset not found.", "ISO-8859-1", Client.getCharset("application/json; charset=ISO-8859-1"));
+        assertEquals(TAG + " Quoted charset not found.", "utf-8", Client.getCharset("application/json;Charset=\"utf-8\""));
+        assertNull(TAG + " Charset found without parameter.", Client.getCharset("application/json"));
+        assertNull(TAG + " Charset found without header.", Client.getCharset(null));
+    }
+
+    @Test
+    public void testResponseBodyDecoding() throws Exception {
+        String text = "{\"result_message\":\"café\"}";
+        Response response = new Response(text.getBytes("ISO-8859-1"), "ISO-8859-1", null);
+        assertEquals(TAG + " Body not decoded with its charset.", text, response.getBody());
+        assertEquals(TAG + " Body reader not decoded with its charset.", text, read(response.getBodyReader()));
+        assertArrayEquals(TAG + " Raw body changed.", text.getBytes("ISO-8859-1"), response.getContent());
+
+        Response fallback = new Response(text.getBytes("UTF-8"), "unknown-charset", null);
+        assertEquals(TAG + " Body not decoded as UTF-8.", text, fallback.getBody());
+    }
+
+    private static String read(final Reader reader) throws Exception {
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[16];
+        int read;
+        while ((read = reader.read(buffer)) != -1)
+            builder.append(buffer, 0, read);
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.client;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+
+public class RetryPolicyTest {
+
+    private static final String TAG = RetryPolicyTest.class.getSimpleName();
+
+    @Test
+    public void testIdempotentMethods() {
+        assertTrue(TAG + " Read timeout not retried for search.",
+                   RetryPolicy.isRetryable(Protocol.METHOD_SEARCH, new SocketTimeoutException()));
+        assertFalse(TAG + " Read timeout retried for check.",
+                    RetryPolicy.isRetryable(Protocol.METHOD_CHECK, new SocketTimeoutException()));
+        assertTrue(TAG + " Unresolved host not retried for check.",
+                   RetryPolicy.isRetryable(Protocol.METHOD_CHECK, new UnknownHostException()));
+        assertFalse(TAG + " Cancelled request retried.",
+                    RetryPolicy.isRetryable(Protocol.METHOD_TOKEN, new InterruptedIOException()));
+    }
+
+    @Test
+    public void testHttpStatus() {
+        assertTrue(TAG + " 503 not retried for verify.",
+                   RetryPolicy.isRetryable(Protocol.METHOD_VERIFY, new HttpStatusException(null, 503, -1)));
+        assertFalse(TAG + " 500 retried for verify.",
+                    RetryPolicy.isRetryable(Protocol.METHOD_VERIFY, new HttpStatusException(null, 500, -1)));
+        assertTrue(TAG + " 500 not retried for token.",
+                   RetryPolicy.isRetryable(Protocol.METHOD_TOKEN, new HttpStatusException(null, 500, -1)));
+        assertFalse(TAG + " 404 retried for token.",
+                    RetryPolicy.isRetryable(Protocol.METHOD_TOKEN, new HttpStatusException(null, 404, -1)));
+    }
+
+    @Test
+    public void testResultCodes() {
+        RetryPolicy retryPolicy = new RetryPolicy(3, 100, 1000, 10);
+        assertTrue(TAG + " Rejected request not retried.",
+                   retryPolicy.onResponse(Protocol.METHOD_CHECK, 1, ResultCodes.REQUEST_REJECTED, 10000) >= 0);
+        assertEquals(TAG + " Internal error retried for check.",
+                     -1, retryPolicy.onResponse(Protocol.METHOD_CHECK, 1, ResultCodes.INTERNAL_ERROR, 10000));
+        assertEquals(TAG + " Successful response retried.",
+                     -1, retryPolicy.onResponse(Protocol.METHOD_SEARCH, 1, ResultCodes.RESULT_CODE_OK, 10000));
+    }
+
+    @Test
+    public void testBackoff() {
+        RetryPolicy retryPolicy = new RetryPolicy(5, 100, 1000, 10);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(TAG + " First backoff too long.", retryPolicy.getBackoff(1) < 100);
+            assertTrue(TAG + " Third backoff too long.", retryPolicy.getBackoff(3) < 400);
+            assertTrue(TAG + " Backoff over the maximum delay.", retryPolicy.getBackoff(30) < 1000);
+        }
+    }
+
+    @Test
+    public void testAttemptsAndDeadline() {
+        RetryPolicy retryPolicy = new RetryPolicy(2, 100, 1000, 10);
+        IOException failure = new UnknownHostException();
+        assertTrue(TAG + " First attempt not retried.", retryPolicy.onFailure(Protocol.METHOD_SEARCH, 1, failure, 10000) >= 0);
+        assertEquals(TAG + " Retried past the maximum attempts.", -1, retryPolicy.onFailure(Protocol.METHOD_SEARCH, 2, failure, 10000));
+        assertEquals(TAG + " Retried past the deadline.", -1, retryPolicy.onFailure(Protocol.METHOD_SEARCH, 1, failure, 0));
+    }
+
+    @Test
+    public void testRetryAfter() {
+        RetryPolicy retryPolicy = new RetryPolicy(3, 100, 1000, 10);
+        assertEquals(TAG + " Retry-After not honored.", 800,
+                     retryPolicy.onFailure(Protocol.METHOD_SEARCH, 1, new HttpStatusException(null, 503, 800), 10000));
+        assertEquals(TAG + " Retry-After over the maximum delay retried.", -1,
+                     retryPolicy.onFailure(Protocol.METHOD_SEARCH, 1, new HttpStatusException(null, 503, 5000), 10000));
+    }
+
+    @Test
+    public void testRetryBudget() {
+        RetryPolicy retryPolicy = new RetryPolicy(3, 0, 0, 4);
+        IOException failure = new UnknownHostException();
+        assertEquals(TAG + " First failure not retried.", 0, retryPolicy.onFailure(Protocol.METHOD_SEARCH, 1, failure, 10000));
+        assertEquals(TAG + " Retried with half the budget spent.", -1, retryPolicy.onFailure(Protocol.METHOD_SEARCH, 1, failure, 10000));
+        for (int i = 0; i < 20; i++)
+            retryPolicy.onResponse(Protocol.METHOD_SEARCH, 1, ResultCodes.RESULT_CODE_OK, 10000);
+        assertEquals(TAG + " Budget not refilled by successful responses.", 0,
+                     retryPolicy.onFailure(Protocol.METHOD_SEARCH, 1, failure, 10000));
+    }
+
+}
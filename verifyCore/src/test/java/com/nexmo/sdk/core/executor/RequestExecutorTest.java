@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.executor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RequestExecutorTest {
+
+    private static final String TAG = RequestExecutorTest.class.getSimpleName();
+    private RequestExecutor requestExecutor;
+    private final List<Priority> completed = new ArrayList<>();
+    private final Executor directExecutor = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        requestExecutor = new RequestExecutor(1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        requestExecutor.shutdown();
+    }
+
+    @Test
+    public void testPriorityOrder() throws Exception {
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(4);
+
+        // Keep the only worker busy while the other tasks are queued.
+        requestExecutor.execute(new RecordingTask(Priority.NORMAL, blocker, done), directExecutor);
+        requestExecutor.execute(new RecordingTask(Priority.LOW, null, done), directExecutor);
+        requestExecutor.execute(new RecordingTask(Priority.NORMAL, null, done), directExecutor);
+        requestExecutor.execute(new RecordingTask(Priority.HIGH, null, done), directExecutor);
+        blocker.countDown();
+
+        assertTrue(TAG + " Tasks did not complete.", done.await(5, TimeUnit.SECONDS));
+        synchronized (completed) {
+            assertEquals(TAG + " Unexpected execution order.", Priority.HIGH, completed.get(1));
+            assertEquals(TAG + " Unexpected execution order.", Priority.NORMAL, completed.get(2));
+            assertEquals(TAG + " Unexpected execution order.", Priority.LOW, completed.get(3));
+        }
+    }
+
+    @Test
+    public void testFailedTaskStillDelivered() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        final List<RuntimeException> failures = new ArrayList<>();
+        requestExecutor.execute(new ServiceTask<String>(Priority.NORMAL) {
+            @Override
+            protected String doInBackground() {
+                throw new IllegalStateException("failed");
+            }
+
+            @Override
+            protected void onPostExecute(String result) {
+                assertNull(TAG + " Unexpected result.", result);
+                failures.add(getException());
+                done.countDown();
+            }
+        }, directExecutor);
+
+        assertTrue(TAG + " Failed task was not delivered.", done.await(5, TimeUnit.SECONDS));
+        assertTrue(TAG + " Missing task failure.", failures.get(0) instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testAbortNotQueuedBehindRequests() throws Exception {
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        // The only worker is stalled, like a request blocked in a read.
+        requestExecutor.execute(new RecordingTask(Priority.NORMAL, blocker, done), directExecutor);
+        requestExecutor.abort(new Runnable() {
+            @Override
+            public void run() {
+                blocker.countDown();
+            }
+        });
+
+        assertTrue(TAG + " Abort waited for the stalled worker.", blocker.await(1, TimeUnit.SECONDS));
+        assertTrue(TAG + " Stalled task not released.", done.await(5, TimeUnit.SECONDS));
+    }
+
+    private class RecordingTask extends ServiceTask<Priority> {
+        private final CountDownLatch blocker;
+        private final CountDownLatch done;
+
+        RecordingTask(final Priority priority, final CountDownLatch blocker, final CountDownLatch done) {
+            super(priority);
+            this.blocker = blocker;
+            this.done = done;
+        }
+
+        @Override
+        protected Priority doInBackground() {
+            try {
+                if (this.blocker != null)
+                    this.blocker.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return getPriority();
+        }
+
+        @Override
+        protected void onPostExecute(Priority priority) {
+            synchronized (completed) {
+                completed.add(priority);
+            }
+            this.done.countDown();
+        }
+    }
+
+}
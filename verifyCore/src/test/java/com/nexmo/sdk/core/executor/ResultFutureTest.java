@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.executor;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResultFutureTest {
+
+    private static final String TAG = ResultFutureTest.class.getSimpleName();
+
+    private final AtomicInteger cancelCount = new AtomicInteger();
+    private final Cancellable request = new Cancellable() {
+        @Override
+        public void cancel() {
+            cancelCount.incrementAndGet();
+        }
+    };
+
+    @Test
+    public void testResult() throws Exception {
+        ResultFuture<String> future = new ResultFuture<>();
+        future.setCancellable(this.request);
+        assertTrue(TAG + " Result not set.", future.set("result"));
+        assertFalse(TAG + " Result set twice.", future.set("other"));
+        assertEquals(TAG + " Wrong result.", "result", future.get());
+        assertFalse(TAG + " Completed future cancelled.", future.cancel(true));
+        assertEquals(TAG + " Completed request cancelled.", 0, this.cancelCount.get());
+    }
+
+    @Test
+    public void testException() throws Exception {
+        ResultFuture<String> future = new ResultFuture<>();
+        IOException exception = new IOException();
+        future.setException(exception);
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            fail(TAG + " Exception not reported.");
+        } catch (ExecutionException e) {
+            assertEquals(TAG + " Wrong cause.", exception, e.getCause());
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        ResultFuture<String> future = new ResultFuture<>();
+        future.setCancellable(this.request);
+        assertTrue(TAG + " Future not cancelled.", future.cancel(false));
+        assertTrue(TAG + " Future not done.", future.isDone() && future.isCancelled());
+        assertEquals(TAG + " Request not cancelled.", 1, this.cancelCount.get());
+        assertFalse(TAG + " Late result accepted.", future.set("late"));
+        try {
+            future.get();
+            fail(TAG + " Cancellation not reported.");
+        } catch (CancellationException e) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void testCancelBeforeStart() {
+        ResultFuture<String> future = new ResultFuture<>();
+        future.cancel(true);
+        future.setCancellable(this.request);
+        assertEquals(TAG + " Request not cancelled on start.", 1, this.cancelCount.get());
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void testTimeout() throws Exception {
+        new ResultFuture<String>().get(10, TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HistogramTest {
+
+    private static final String TAG = HistogramTest.class.getSimpleName();
+    private Histogram histogram;
+
+    @Before
+    public void setUp() throws Exception {
+        histogram = new Histogram();
+    }
+
+    @Test
+    public void testBucketBounds() {
+        long[] values = {0, 1, 15, 16, 17, 100, 1000, 123456, 987654321L};
+        for (long value : values) {
+            int index = Histogram.getIndex(value);
+            assertTrue(TAG + " Value below its bucket: " + value, Histogram.getLowestValue(index) <= value);
+            assertTrue(TAG + " Value above its bucket: " + value, Histogram.getHighestValue(index) >= value);
+            assertTrue(TAG + " Bucket wider than 1/16 of its value: " + value,
+                    Histogram.getHighestValue(index) - Histogram.getLowestValue(index) <= Math.max(value / 16, 0) + 1);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        for (int i = 1; i <= 100; i++)
+            histogram.record(i * 10);
+        assertEquals(TAG + " Wrong count.", 100, histogram.getCount());
+        assertWithin(" Wrong p50.", 500, histogram.getValueAtPercentile(50));
+        assertWithin(" Wrong p99.", 990, histogram.getValueAtPercentile(99));
+        assertWithin(" Wrong max.", 1000, histogram.getMax());
+        assertWithin(" Wrong mean.", 505, (long) histogram.getMean());
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(TAG + " Empty histogram has a percentile.", 0, histogram.getValueAtPercentile(99));
+        assertEquals(TAG + " Empty histogram has a max.", 0, histogram.getMax());
+    }
+
+    @Test
+    public void testCopyAndReset() {
+        histogram.record(42);
+        Histogram copy = histogram.copy();
+        histogram.reset();
+        assertEquals(TAG + " Reset histogram not empty.", 0, histogram.getCount());
+        assertEquals(TAG + " Copy changed by reset.", 1, copy.getCount());
+        histogram.add(copy);
+        histogram.add(copy);
+        assertEquals(TAG + " Histograms not added.", 2, histogram.getCount());
+    }
+
+    private static void assertWithin(final String message, final long expected, final long actual) {
+        assertTrue(TAG + message + " Expected " + expected + " got " + actual,
+                Math.abs(actual - expected) <= expected / 16 + 1);
+    }
+
+}
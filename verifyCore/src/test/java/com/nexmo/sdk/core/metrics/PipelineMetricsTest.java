@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PipelineMetricsTest {
+
+    private static final String TAG = PipelineMetricsTest.class.getSimpleName();
+    private static final String METHOD = "verify";
+    private final Map<String, Map<Counter, Long>> exported = new HashMap<>();
+    private PipelineMetrics metrics;
+
+    @Before
+    public void setUp() throws Exception {
+        metrics = new PipelineMetrics(new MetricsExporter() {
+            @Override
+            public void export(String method, Map<Stage, Histogram> latencies, Map<Counter, Long> counters) {
+                exported.put(method, counters);
+            }
+        });
+    }
+
+    @Test
+    public void testDisabled() {
+        PipelineMetrics disabled = PipelineMetrics.disabled();
+        assertFalse(TAG + " Disabled metrics are enabled.", disabled.isEnabled());
+        disabled.increment(METHOD, Counter.REQUESTS);
+        disabled.recordLatency(METHOD, Stage.TOTAL, 1000000);
+        assertEquals(TAG + " Disabled metrics counted.", 0, disabled.getCount(METHOD, Counter.REQUESTS));
+        assertEquals(TAG + " Disabled metrics recorded.", 0, disabled.getLatency(METHOD, Stage.TOTAL).getCount());
+    }
+
+    @Test
+    public void testRecord() {
+        assertTrue(TAG + " Metrics are disabled.", metrics.isEnabled());
+        metrics.increment(METHOD, Counter.REQUESTS);
+        metrics.increment(METHOD, Counter.REQUESTS);
+        metrics.increment(METHOD, Counter.RETRIES);
+        metrics.recordLatency(METHOD, Stage.TOTAL, 2000000);
+        assertEquals(TAG + " Requests not counted.", 2, metrics.getCount(METHOD, Counter.REQUESTS));
+        assertEquals(TAG + " Retries not counted.", 1, metrics.getCount(METHOD, Counter.RETRIES));
+        assertEquals(TAG + " Other method counted.", 0, metrics.getCount("check", Counter.REQUESTS));
+        Histogram total = metrics.getLatency(METHOD, Stage.TOTAL);
+        assertEquals(TAG + " Latency not recorded.", 1, total.getCount());
+        assertTrue(TAG + " Latency not in microseconds.", Math.abs(total.getMax() - 2000) <= 2000 / 16);
+    }
+
+    @Test
+    public void testExport() {
+        metrics.increment(METHOD, Counter.FAILURES);
+        metrics.export();
+        assertEquals(TAG + " Failures not exported.", Long.valueOf(1), exported.get(METHOD).get(Counter.FAILURES));
+        assertEquals(TAG + " Hedges not exported.", Long.valueOf(0), exported.get(METHOD).get(Counter.HEDGES));
+        metrics.reset();
+        assertEquals(TAG + " Metrics not reset.", 0, metrics.getCount(METHOD, Counter.FAILURES));
+    }
+
+}
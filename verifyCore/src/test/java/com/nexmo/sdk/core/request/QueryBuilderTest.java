@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.request;
+
+import com.nexmo.sdk.core.client.Protocol;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.message.BasicNameValuePair;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QueryBuilderTest {
+
+    private static final String TAG = QueryBuilderTest.class.getSimpleName();
+    private static final String HOST = "https://api.nexmo.com/sdk/";
+
+    @Test
+    public void testMatchesURLEncodedUtils() {
+        String[][] params = {
+                {Protocol.PARAM_APP_ID, "0b1c2d3e-4f5a-6b7c"},
+                {Protocol.PARAM_NUMBER, "+44 7700 900000"},
+                {"reserved", "a=b&c/d?e#f%g~h'i!j(k)l*m.n_o"},
+                {"unicode", "\u00e9\u20ac\ud83d\ude00"},
+                {"unpaired", "x\ud83dy"},
+                {"empty", ""},
+                {"ctrl", "\t\n"}};
+        QueryBuilder query = QueryBuilder.get(HOST, Protocol.METHOD_VERIFY);
+        List<NameValuePair> reference = new ArrayList<>();
+        for (String[] param : params) {
+            query.append(param[0], param[1]);
+            reference.add(new BasicNameValuePair(param[0], param[1]));
+        }
+        assertEquals(TAG + " Query differs from URLEncodedUtils.",
+                     HOST + Protocol.METHOD_VERIFY + URLEncodedUtils.format(reference, "UTF-8"), query.toString());
+    }
+
+    @Test
+    public void testNullValue() {
+        assertEquals(TAG, HOST + Protocol.METHOD_TOKEN + "a=&b=c",
+                     QueryBuilder.get(HOST, Protocol.METHOD_TOKEN).append("a", null).append("b", "c").toString());
+    }
+
+    @Test
+    public void testFormBody() {
+        QueryBuilder.get(HOST, Protocol.METHOD_TOKEN).append("a", "b");
+        assertEquals(TAG + " Form body has no url prefix.", "a=b+c&d=", QueryBuilder.get().append("a", "b c").append("d", "").toString());
+    }
+
+    @Test
+    public void testBufferReused() {
+        assertEquals(TAG, HOST + Protocol.METHOD_TOKEN + "a=b", QueryBuilder.get(HOST, Protocol.METHOD_TOKEN).append("a", "b").toString());
+        assertEquals(TAG + " Builder not reset.", HOST + Protocol.METHOD_SEARCH, QueryBuilder.get(HOST, Protocol.METHOD_SEARCH).toString());
+
+        StringBuilder large = new StringBuilder();
+        while (large.length() < 10000)
+            large.append("0123456789");
+        String url = QueryBuilder.get(HOST, Protocol.METHOD_TOKEN).append("large", large.toString()).toString();
+        assertTrue(TAG, url.endsWith(large.toString()));
+        assertEquals(TAG, HOST + Protocol.METHOD_TOKEN + "a=b", QueryBuilder.get(HOST, Protocol.METHOD_TOKEN).append("a", "b").toString());
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.request;
+
+import com.nexmo.sdk.core.client.Response;
+import com.nexmo.sdk.core.client.Protocol;
+
+import org.junit.Test;
+
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RequestSigningTest {
+
+    private static final String TAG = RequestSigningTest.class.getSimpleName();
+    private static final String SECRET = "secret";
+
+    @Test
+    public void testSignatureMatchesReference() throws Exception {
+        Map<String, String> params = new TreeMap<>();
+        params.put(Protocol.PARAM_APP_ID, "app");
+        params.put(Protocol.PARAM_NUMBER, "07700900000");
+        params.put(Protocol.PARAM_COUNTRY_CODE, "GB");
+        assertSignature(params);
+    }
+
+    @Test
+    public void testSignatureEscapesSeparators() throws Exception {
+        Map<String, String> params = new TreeMap<>();
+        params.put("a=b", "c&d=e");
+        params.put("token", "==&&");
+        assertSignature(params);
+    }
+
+    @Test
+    public void testSignatureSkipsBlankValues() throws Exception {
+        Map<String, String> params = new TreeMap<>();
+        params.put("empty", "");
+        params.put("blank", " \t");
+        params.put(Protocol.PARAM_SIGNATURE, "previous");
+        params.put("value", " padded ");
+        assertSignature(params);
+    }
+
+    @Test
+    public void testSignatureEncodesUtf8() throws Exception {
+        Map<String, String> params = new TreeMap<>();
+        params.put(Protocol.PARAM_LANGUAGE, "fr-é中😀");
+        params.put("unpaired", "x\ud83dy");
+        StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 200; i++)
+            longValue.append("éa");
+        params.put("long", longValue.toString());
+        assertSignature(params);
+    }
+
+    @Test
+    public void testSignatureOfUnsortedParams() throws Exception {
+        Map<String, String> params = new HashMap<>();
+        for (int i = 0; i < 20; i++)
+            params.put("key" + i, "value" + i);
+        assertSignature(params);
+    }
+
+    @Test
+    public void testVerifyResponseSignature() throws Exception {
+        String body = "{\"result_code\":0,\"timestamp\":\"1\"}";
+        String timestamp = "" + System.currentTimeMillis() / 1000;
+        assertTrue(TAG + " Valid response signature rejected.",
+                   RequestSigning.verifyRequestSignature(timestamp, new Response(body, md5(body + SECRET)), SECRET));
+        assertFalse(TAG + " Invalid response signature accepted.",
+                    RequestSigning.verifyRequestSignature(timestamp, new Response(body, md5(body)), SECRET));
+    }
+
+    @Test
+    public void testServerSideSigning() throws Exception {
+        Map<String, String> params = new TreeMap<>();
+        params.put(Protocol.PARAM_APP_ID, "app");
+        params.put(Protocol.PARAM_NUMBER, "07700900000");
+        RequestSigning.constructSignatureForRequestParameters(params, SECRET);
+        assertTrue(TAG + " Signed request rejected.", RequestSigning.verifyRequestParameters(params, SECRET));
+        assertFalse(TAG + " Request signed with another key accepted.", RequestSigning.verifyRequestParameters(params, "other"));
+        params.put(Protocol.PARAM_NUMBER, "07700900001");
+        assertFalse(TAG + " Tampered request accepted.", RequestSigning.verifyRequestParameters(params, SECRET));
+
+        String body = "{\"result_code\":0}";
+        assertEquals(TAG + " Response signature differs from the reference.", md5(body + SECRET),
+                     RequestSigning.signResponse(body.getBytes("UTF-8"), SECRET));
+    }
+
+    @Test
+    public void testSignatureWithQuery() throws Exception {
+        Map<String, String> params = new TreeMap<>();
+        params.put(Protocol.PARAM_APP_ID, "app");
+        params.put(Protocol.PARAM_NUMBER, "+44 7700 900000");
+        params.put("empty", "");
+        QueryBuilder query = QueryBuilder.get("https://host/sdk/", Protocol.METHOD_VERIFY);
+        String signature = RequestSigning.constructSignatureForRequestParameters(params, SECRET, query);
+        assertEquals(TAG + " Signature differs from the reference implementation.", referenceSignature(params), signature);
+        assertEquals(TAG + " Query not encoded in the signing pass.",
+                     "https://host/sdk/verify/json?app_id=app&empty=&number=%2B44+7700+900000&timestamp="
+                             + params.get(Protocol.PARAM_TIMESTAMP) + "&sig=" + signature,
+                     query.toString());
+    }
+
+    private static void assertSignature(final Map<String, String> params) throws Exception {
+        String signature = RequestSigning.constructSignatureForRequestParameters(params, SECRET);
+        assertEquals(TAG + " Signature parameter not set.", signature, params.get(Protocol.PARAM_SIGNATURE));
+        assertEquals(TAG + " Signature differs from the reference implementation.", referenceSignature(params), signature);
+    }
+
+    /** The original string based signing algorithm. */
+    private static String referenceSignature(final Map<String, String> params) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> param : new TreeMap<>(params).entrySet()) {
+            String value = param.getValue();
+            if (param.getKey().equals(Protocol.PARAM_SIGNATURE) || value.trim().isEmpty())
+                continue;
+            sb.append("&").append(param.getKey().replaceAll("[=&]", "_")).append("=").append(value.replaceAll("[=&]", "_"));
+        }
+        return md5(sb.append(SECRET).toString());
+    }
+
+    private static String md5(final String input) throws Exception {
+        byte[] messageDigest = MessageDigest.getInstance("MD5").digest(input.getBytes("UTF-8"));
+        StringBuilder hash = new StringBuilder();
+        for (byte b : messageDigest) {
+            String h = Integer.toHexString(0xFF & b);
+            hash.append(h.length() < 2 ? "0" + h : h);
+        }
+        return hash.toString();
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.core.cache;
+
+import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.verify.event.UserStatus;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class VerifiedUserCacheTest {
+
+    private static final String TAG = VerifiedUserCacheTest.class.getSimpleName();
+    private static final String SECRET = "secret";
+    private static final long HOUR = 60 * 60 * 1000;
+    private static final long NOW = 1450000000000L;
+    private static final String TIMESTAMP = String.valueOf(NOW / 1000);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private File file;
+
+    @Before
+    public void setUp() {
+        this.file = new File(this.folder.getRoot(), Defaults.VERIFIED_USER_CACHE_FILE);
+    }
+
+    @After
+    public void tearDown() {
+        VerifiedUserCache.closeStores();
+    }
+
+    @Test
+    public void testFreshness() {
+        VerifiedUserCache cache = newCache();
+        cache.put("GB", "447700900000", UserStatus.USER_VERIFIED, TIMESTAMP, NOW);
+        cache.put("GB", "447700900001", UserStatus.USER_EXPIRED, TIMESTAMP, NOW);
+
+        assertEquals(TAG, UserStatus.USER_VERIFIED, cache.get("gb", "+44 7700 900000", NOW + HOUR));
+        assertEquals(TAG, UserStatus.USER_EXPIRED, cache.get("GB", "447700900001", NOW + 1000));
+        assertNull(TAG + " other status still fresh.", cache.get("GB", "447700900001", NOW + HOUR));
+        assertNull(TAG + " verified status still fresh.", cache.get("GB", "447700900000", NOW + 24 * HOUR));
+        assertNull(TAG + " clock set back.", cache.get("GB", "447700900000", NOW - 1000));
+        assertNull(TAG, cache.get("US", "447700900000", NOW));
+    }
+
+    @Test
+    public void testNotCached() {
+        VerifiedUserCache cache = newCache();
+        cache.put("GB", "447700900000", UserStatus.USER_VERIFIED, TIMESTAMP, NOW);
+        cache.put("GB", "447700900000", UserStatus.USER_PENDING, TIMESTAMP, NOW);
+        assertNull(TAG + " pending replaces the status.", cache.get("GB", "447700900000", NOW));
+
+        cache.put("GB", "447700900000", UserStatus.USER_VERIFIED, String.valueOf(NOW / 1000 - 3600), NOW);
+        assertNull(TAG + " old response cached.", cache.get("GB", "447700900000", NOW));
+        cache.put("GB", "447700900000", UserStatus.USER_VERIFIED, "not a time", NOW);
+        assertNull(TAG + " bad timestamp cached.", cache.get("GB", "447700900000", NOW));
+
+        cache.put("GB", "447700900000", UserStatus.USER_VERIFIED, TIMESTAMP, NOW);
+        cache.invalidate("GB", "447700900000");
+        assertNull(TAG + " invalidated.", cache.get("GB", "447700900000", NOW));
+
+        VerifiedUserCache verifiedOnly = new VerifiedUserCache(this.file, SECRET, HOUR, 0, null);
+        verifiedOnly.put("GB", "447700900001", UserStatus.USER_FAILED, TIMESTAMP, NOW);
+        assertNull(TAG + " disabled status cached.", verifiedOnly.get("GB", "447700900001", NOW));
+    }
+
+    @Test
+    public void testPersisted() throws Exception {
+        newCache().put("GB", "447700900000", UserStatus.USER_VERIFIED, TIMESTAMP, NOW);
+        assertTrue(TAG, this.file.exists());
+        assertFalse(TAG + " plain text number.", new String(readFile(), "ISO-8859-1").contains("447700900000"));
+
+        VerifiedUserCache.closeStores();
+        assertEquals(TAG + " not reloaded.", UserStatus.USER_VERIFIED, newCache().get("GB", "447700900000", NOW));
+
+        VerifiedUserCache.closeStores();
+        assertNull(TAG + " read with another key.",
+                   new VerifiedUserCache(this.file, "other", HOUR, HOUR, null).get("GB", "447700900000", NOW));
+        assertFalse(TAG + " unreadable file kept.", this.file.exists());
+    }
+
+    @Test
+    public void testTamperedFile() throws Exception {
+        newCache().put("GB", "447700900000", UserStatus.USER_VERIFIED, TIMESTAMP, NOW);
+        RandomAccessFile content = new RandomAccessFile(this.file, "rw");
+        content.seek(20);
+        int b = content.read();
+        content.seek(20);
+        content.write(b ^ 1);
+        content.close();
+
+        VerifiedUserCache.closeStores();
+        assertNull(TAG + " tampered file read.", newCache().get("GB", "447700900000", NOW));
+    }
+
+    @Test
+    public void testSharedAndBounded() {
+        final List<Runnable> writes = new ArrayList<>();
+        VerifiedUserCache cache = new VerifiedUserCache(this.file, SECRET, 24 * HOUR, HOUR, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                writes.add(command);
+            }
+        });
+        for (int i = 0; i <= Defaults.MAX_CACHED_USERS; i++)
+            cache.put("GB", "4477009000" + (10 + i), UserStatus.USER_VERIFIED, TIMESTAMP, NOW);
+        assertEquals(TAG + " writes not coalesced.", 1, writes.size());
+        assertFalse(TAG + " written on the calling thread.", this.file.exists());
+        assertNull(TAG + " oldest user kept.", cache.get("GB", "447700900010", NOW));
+        assertEquals(TAG + " not shared.", UserStatus.USER_VERIFIED, newCache().get("GB", "447700900011", NOW));
+
+        writes.get(0).run();
+        VerifiedUserCache.closeStores();
+        assertEquals(TAG + " latest user not written.", UserStatus.USER_VERIFIED,
+                     newCache().get("GB", "4477009000" + (10 + Defaults.MAX_CACHED_USERS), NOW));
+    }
+
+    @Test
+    public void testLoadedOnExecutor() {
+        newCache().put("GB", "447700900000", UserStatus.USER_VERIFIED, TIMESTAMP, NOW);
+        newCache().put("GB", "447700900001", UserStatus.USER_VERIFIED, TIMESTAMP, NOW);
+        VerifiedUserCache.closeStores();
+
+        final List<Runnable> tasks = new ArrayList<>();
+        VerifiedUserCache cache = new VerifiedUserCache(this.file, SECRET, 24 * HOUR, HOUR, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        });
+        assertEquals(TAG + " file not read on the executor.", 1, tasks.size());
+        assertNull(TAG + " user found before the file is read.", cache.get("GB", "447700900000", NOW));
+        cache.put("GB", "447700900002", UserStatus.USER_VERIFIED, TIMESTAMP, NOW);
+        cache.invalidate("GB", "447700900001");
+        assertEquals(TAG + " written before the file is read.", 1, tasks.size());
+
+        tasks.get(0).run();
+        assertEquals(TAG + " stored user not merged.", UserStatus.USER_VERIFIED, cache.get("GB", "447700900000", NOW));
+        assertEquals(TAG + " new user lost.", UserStatus.USER_VERIFIED, cache.get("GB", "447700900002", NOW));
+        assertNull(TAG + " invalidated user restored.", cache.get("GB", "447700900001", NOW));
+        assertEquals(TAG + " merged entries not written.", 2, tasks.size());
+
+        tasks.get(1).run();
+        VerifiedUserCache.closeStores();
+        assertEquals(TAG, UserStatus.USER_VERIFIED, newCache().get("GB", "447700900002", NOW));
+        assertNull(TAG + " invalidated user written.", newCache().get("GB", "447700900001", NOW));
+    }
+
+    @Test
+    public void testSecretKeyNotShared() {
+        VerifiedUserCache cache = newCache();
+        cache.put("GB", "447700900000", UserStatus.USER_VERIFIED, TIMESTAMP, NOW);
+        assertNull(TAG + " shared with another key.",
+                   new VerifiedUserCache(this.file, "other", HOUR, HOUR, null).get("GB", "447700900000", NOW));
+        assertEquals(TAG, UserStatus.USER_VERIFIED, cache.get("GB", "447700900000", NOW));
+    }
+
+    private VerifiedUserCache newCache() {
+        return new VerifiedUserCache(this.file, SECRET, 24 * HOUR, 5 * 60 * 1000, null);
+    }
+
+    private byte[] readFile() throws Exception {
+        RandomAccessFile content = new RandomAccessFile(this.file, "r");
+        byte[] bytes = new byte[(int) content.length()];
+        content.readFully(bytes);
+        content.close();
+        return bytes;
+    }
+
+}
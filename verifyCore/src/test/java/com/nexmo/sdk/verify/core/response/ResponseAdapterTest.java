@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.core.response;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import com.nexmo.sdk.verify.event.UserStatus;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ResponseAdapterTest {
+
+    private static final String TAG = ResponseAdapterTest.class.getSimpleName();
+    private final Gson reflectiveGson = new GsonBuilder().create();
+    private final Gson gson = ResponseAdapter.registerAdapters(new GsonBuilder()).create();
+
+    private static final String[] VERIFY_RESPONSES = {
+            "{\"result_code\":0,\"result_message\":\"OK\",\"timestamp\":\"1444405474\",\"user_status\":\"pending\"}",
+            "{\"user_status\":\"verified\",\"timestamp\":1444405474,\"result_code\":\"3\"}",
+            "{\"result_code\":null,\"result_message\":null,\"extra\":{\"a\":[1,2,{\"b\":null}]},\"user_status\":\"failed\"}",
+            "{}"
+    };
+
+    @Test
+    public void testSameAsReflective() {
+        for (String json : VERIFY_RESPONSES) {
+            assertEquals(TAG + " Verify response differs for " + json,
+                    reflectiveGson.fromJson(json, VerifyResponse.class).toString(),
+                    gson.fromJson(json, VerifyResponse.class).toString());
+            assertEquals(TAG + " Check response differs for " + json,
+                    reflectiveGson.fromJson(json, CheckResponse.class).toString(),
+                    gson.fromJson(json, CheckResponse.class).toString());
+            assertEquals(TAG + " Search response differs for " + json,
+                    reflectiveGson.fromJson(json, SearchResponse.class).toString(),
+                    gson.fromJson(json, SearchResponse.class).toString());
+        }
+    }
+
+    @Test
+    public void testReadFields() {
+        VerifyResponse response = gson.fromJson(VERIFY_RESPONSES[0], VerifyResponse.class);
+        assertEquals(TAG + " Wrong result code.", 0, response.getResultCode());
+        assertEquals(TAG + " Wrong result message.", "OK", response.getResultMessage());
+        assertEquals(TAG + " Wrong timestamp.", "1444405474", response.getTimestamp());
+        assertEquals(TAG + " Wrong user status.", UserStatus.USER_PENDING, response.getUserStatus());
+
+        TokenResponse token = gson.fromJson("{\"result_code\":0,\"token\":\"abc\",\"ignored\":true}", TokenResponse.class);
+        assertEquals(TAG + " Wrong token.", "abc", token.getToken());
+        assertNull(TAG + " Null body not read as null.", gson.fromJson("null", TokenResponse.class));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        TokenResponse token = gson.fromJson("{\"result_code\":0,\"timestamp\":\"1\",\"token\":\"abc\"}", TokenResponse.class);
+        assertEquals(TAG + " Wrong serialized response.",
+                "{\"result_code\":0,\"timestamp\":\"1\",\"token\":\"abc\"}", gson.toJson(token));
+    }
+
+}
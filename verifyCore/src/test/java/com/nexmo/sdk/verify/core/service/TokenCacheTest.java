@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.core.service;
+
+import com.nexmo.sdk.core.executor.Cancellable;
+import com.nexmo.sdk.verify.core.event.token.BaseTokenServiceListener;
+import com.nexmo.sdk.verify.event.VerifyError;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TokenCacheTest {
+
+    private static final String TAG = TokenCacheTest.class.getSimpleName();
+    private TokenCache tokenCache;
+    private final BaseTokenServiceListener listener = new NoOpListener();
+
+    @Before
+    public void setUp() throws Exception {
+        tokenCache = new TokenCache(1000, 200);
+    }
+
+    @Test
+    public void testEmptyCache() {
+        assertNull(TAG + " Empty cache returned a token.", tokenCache.getToken(0));
+        assertFalse(TAG + " Empty cache requested a refresh.", tokenCache.isRefreshDue(0));
+    }
+
+    @Test
+    public void testTokenExpiry() {
+        tokenCache.update("token", 0);
+        assertEquals(TAG + " Valid token not returned.", "token", tokenCache.getToken(999));
+        assertNull(TAG + " Expired token returned.", tokenCache.getToken(1000));
+    }
+
+    @Test
+    public void testRefreshWindow() {
+        tokenCache.update("token", 0);
+        assertFalse(TAG + " Refresh due too early.", tokenCache.isRefreshDue(799));
+        assertTrue(TAG + " Refresh not due inside the refresh window.", tokenCache.isRefreshDue(800));
+    }
+
+    @Test
+    public void testSingleFlight() {
+        assertTrue(TAG + " First caller did not start the token request.", tokenCache.enqueue(listener));
+        assertFalse(TAG + " Second caller started another token request.", tokenCache.enqueue(listener));
+        assertEquals(TAG + " Waiting listeners not notified.", 2, tokenCache.update("token", 0).size());
+        assertTrue(TAG + " Token request not restarted after completion.", tokenCache.enqueue(listener));
+    }
+
+    @Test
+    public void testCancelLastWaiter() {
+        Cancellable tokenRequest = new Cancellable() {
+            @Override
+            public void cancel() {
+            }
+        };
+        BaseTokenServiceListener other = new NoOpListener();
+        assertTrue(TAG + " First caller did not start the token request.", tokenCache.enqueue(listener));
+        tokenCache.enqueue(other);
+        tokenCache.setTokenRequest(tokenRequest);
+        assertNull(TAG + " Token request cancelled while a caller still waits.", tokenCache.cancel(listener));
+        assertSame(TAG + " Token request not returned for the last waiter.", tokenRequest, tokenCache.cancel(other));
+        assertTrue(TAG + " Token request not restarted after cancellation.", tokenCache.enqueue(listener));
+    }
+
+    @Test
+    public void testInvalidate() {
+        tokenCache.update("token", 0);
+        tokenCache.invalidate("token");
+        assertNull(TAG + " Invalidated token returned.", tokenCache.getToken(1));
+    }
+
+    @Test
+    public void testStaleInvalidate() {
+        tokenCache.update("old", 0);
+        tokenCache.update("new", 1);
+        tokenCache.invalidate("old");
+        assertEquals(TAG + " Refreshed token discarded by a late rejection.", "new", tokenCache.getToken(2));
+    }
+
+    private static class NoOpListener implements BaseTokenServiceListener {
+        @Override
+        public void onToken(String token) {
+        }
+
+        @Override
+        public void onTokenError(VerifyError errorCode, String errorMessage) {
+        }
+
+        @Override
+        public void onException(IOException exception) {
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.load;
+
+/**
+ * User journeys replayed by the load test, each one on a number of its own.
+ */
+public enum Flow {
+
+    /** verify, check a wrong code, check the right code, search. */
+    VERIFY_CHECK,
+    /** verify, cancel. */
+    VERIFY_CANCEL,
+    /** verify, check the right code, logout. */
+    VERIFY_LOGOUT,
+    /** search a number that was never verified. */
+    SEARCH
+
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.load;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import com.google.gson.JsonSyntaxException;
+
+import com.nexmo.sdk.core.client.CircuitBreaker;
+import com.nexmo.sdk.core.client.ConnectionClient;
+import com.nexmo.sdk.core.client.HedgePolicy;
+import com.nexmo.sdk.core.client.Protocol;
+import com.nexmo.sdk.core.client.Request;
+import com.nexmo.sdk.core.client.ResultCodes;
+import com.nexmo.sdk.core.client.RetryPolicy;
+import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.core.event.ServiceListener;
+import com.nexmo.sdk.core.executor.Priority;
+import com.nexmo.sdk.core.executor.RequestExecutor;
+import com.nexmo.sdk.core.executor.ResultFuture;
+import com.nexmo.sdk.core.metrics.PipelineMetrics;
+import com.nexmo.sdk.verify.core.response.BaseResponse;
+import com.nexmo.sdk.verify.core.response.CheckResponse;
+import com.nexmo.sdk.verify.core.response.SearchResponse;
+import com.nexmo.sdk.verify.core.response.VerifyResponse;
+import com.nexmo.sdk.verify.core.service.ServiceContext;
+import com.nexmo.sdk.verify.core.service.ServiceEndpoint;
+import com.nexmo.sdk.verify.core.service.TokenCache;
+import com.nexmo.sdk.verify.event.VerifyError;
+
+/**
+ * Replays the {@link Flow}s through the service layer of the SDK.
+ * <p>
+ * Every request is a {@link ServiceEndpoint} call, like the ones of the Android services: it waits on the shared
+ * {@link TokenCache} single-flight refresh, runs on the {@link RequestExecutor} within the call deadline, and goes
+ * through the circuit breaker, retry policy, hedging, response parsing and signature check, recording the same
+ * {@link PipelineMetrics} stages and counters. Shared by all the load test workers, each blocks on its own calls.
+ */
+class FlowClient implements ServiceContext {
+
+    private static final String PARAM_CODE = "code";
+    private static final String WRONG_CODE = "0000";
+    private static final String SOURCE_IP = "127.0.0.1";
+    /** The callbacks only complete the future a worker waits on, they run on the request threads. */
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    private static final FlowEndpoint<VerifyResponse> VERIFY =
+            new FlowEndpoint<>(Protocol.METHOD_VERIFY, VerifyResponse.class, Priority.NORMAL, false);
+    private static final FlowEndpoint<CheckResponse> CHECK =
+            new FlowEndpoint<>(Protocol.METHOD_CHECK, CheckResponse.class, Priority.HIGH, true);
+    private static final FlowEndpoint<SearchResponse> SEARCH =
+            new FlowEndpoint<>(Protocol.METHOD_SEARCH, SearchResponse.class, Priority.LOW, false);
+    private static final FlowEndpoint<VerifyResponse> COMMAND =
+            new FlowEndpoint<>(Protocol.METHOD_COMMAND, VerifyResponse.class, Priority.NORMAL, false);
+    private static final FlowEndpoint<VerifyResponse> LOGOUT =
+            new FlowEndpoint<>(Protocol.METHOD_LOGOUT, VerifyResponse.class, Priority.NORMAL, false);
+
+    private final String host;
+    private final String appId;
+    private final String sharedSecretKey;
+    private final String deviceId;
+    private final String pinCode;
+    private final ConnectionClient connectionClient;
+    private final RequestExecutor requestExecutor;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final HedgePolicy hedgePolicy;
+    private final PipelineMetrics metrics;
+    private final TokenCache tokenCache = new TokenCache(Defaults.TOKEN_TIME_TO_LIVE, Defaults.TOKEN_REFRESH_WINDOW);
+
+    FlowClient(final String host, final String appId, final String sharedSecretKey, final String deviceId, final String pinCode,
+               final ConnectionClient connectionClient, final RequestExecutor requestExecutor, final RetryPolicy retryPolicy,
+               final CircuitBreaker circuitBreaker, final HedgePolicy hedgePolicy, final PipelineMetrics metrics) {
+        this.host = host;
+        this.appId = appId;
+        this.sharedSecretKey = sharedSecretKey;
+        this.deviceId = deviceId;
+        this.pinCode = pinCode;
+        this.connectionClient = connectionClient;
+        this.requestExecutor = requestExecutor;
+        this.retryPolicy = retryPolicy;
+        this.circuitBreaker = circuitBreaker;
+        this.hedgePolicy = hedgePolicy;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Run a flow to its end.
+     *
+     * @param flow        The flow.
+     * @param countryCode The country of the number.
+     * @param phoneNumber A number used by no other flow.
+     * @return True if every request of the flow got the expected result code.
+     * @throws IOException If a request failed without a response, after its retries.
+     */
+    boolean run(final Flow flow, final String countryCode, final String phoneNumber) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        params.put(Protocol.PARAM_COUNTRY_CODE, countryCode);
+        params.put(Protocol.PARAM_NUMBER, phoneNumber);
+        switch (flow) {
+            case VERIFY_CHECK:
+                return (expect(VERIFY, params, ResultCodes.RESULT_CODE_OK)
+                        && expect(CHECK, withParam(params, PARAM_CODE, WRONG_CODE), ResultCodes.INVALID_PIN_CODE)
+                        && expect(CHECK, withParam(params, PARAM_CODE, this.pinCode), ResultCodes.RESULT_CODE_OK)
+                        && expect(SEARCH, params, ResultCodes.RESULT_CODE_OK));
+            case VERIFY_CANCEL:
+                return (expect(VERIFY, params, ResultCodes.RESULT_CODE_OK)
+                        && expect(COMMAND, withParam(params, Protocol.PARAM_COMMAND, Protocol.PARAM_COMMAND_CANCEL), ResultCodes.RESULT_CODE_OK));
+            case VERIFY_LOGOUT:
+                return (expect(VERIFY, params, ResultCodes.RESULT_CODE_OK)
+                        && expect(CHECK, withParam(params, PARAM_CODE, this.pinCode), ResultCodes.RESULT_CODE_OK)
+                        && expect(LOGOUT, params, ResultCodes.RESULT_CODE_OK));
+            default:
+                return expect(SEARCH, params, ResultCodes.RESULT_CODE_OK);
+        }
+    }
+
+    private boolean expect(final FlowEndpoint<?> endpoint, final Map<String, String> params, final int expectedResultCode) throws IOException {
+        BaseResponse response = call(endpoint, params);
+        return (response != null && response.getResultCode() == expectedResultCode);
+    }
+
+    /**
+     * Make a service call and wait for its outcome.
+     *
+     * @return The response, null if the call failed with a {@link VerifyError}, such as an open circuit.
+     * @throws IOException If the request failed without a response, after its retries.
+     */
+    private <T extends BaseResponse> T call(final FlowEndpoint<T> endpoint, final Map<String, String> params) throws IOException {
+        final ResultFuture<T> result = new ResultFuture<>();
+        result.setCancellable(endpoint.submit(this, params, new ServiceListener<T>() {
+            @Override
+            public void onResponse(final T response) {
+                result.set(response);
+            }
+
+            @Override
+            public void onFail(final VerifyError errorCode, final String reasonMessage) {
+                result.set(null);
+            }
+
+            @Override
+            public void onException(final IOException exception) {
+                result.setException(exception);
+            }
+        }));
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Load test interrupted.");
+        } catch (ExecutionException e) {
+            throw (IOException) e.getCause();
+        }
+    }
+
+    @Override
+    public String getApplicationId() {
+        return this.appId;
+    }
+
+    @Override
+    public String getSharedSecretKey() {
+        return this.sharedSecretKey;
+    }
+
+    @Override
+    public String getEnvironmentHost() {
+        return this.host;
+    }
+
+    @Override
+    public String getDeviceId() {
+        return this.deviceId;
+    }
+
+    @Override
+    public String getIPAddress() {
+        return SOURCE_IP;
+    }
+
+    @Override
+    public long getRequestDeadline() {
+        return Defaults.REQUEST_DEADLINE;
+    }
+
+    @Override
+    public RetryPolicy getRetryPolicy() {
+        return this.retryPolicy;
+    }
+
+    @Override
+    public CircuitBreaker getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    @Override
+    public HedgePolicy getHedgePolicy() {
+        return this.hedgePolicy;
+    }
+
+    @Override
+    public PipelineMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    @Override
+    public TokenCache getTokenCache() {
+        return this.tokenCache;
+    }
+
+    @Override
+    public ConnectionClient getConnectionClient() {
+        return this.connectionClient;
+    }
+
+    @Override
+    public RequestExecutor getRequestExecutor() {
+        return this.requestExecutor;
+    }
+
+    @Override
+    public Executor getCallbackExecutor() {
+        return DIRECT_EXECUTOR;
+    }
+
+    private static Map<String, String> withParam(final Map<String, String> params, final String name, final String value) {
+        Map<String, String> copy = new HashMap<>(params);
+        copy.put(name, value);
+        return copy;
+    }
+
+    /**
+     * One SDK service method, its request carries the flow params plus the token and the device identity.
+     */
+    private static class FlowEndpoint<T extends BaseResponse> extends ServiceEndpoint<FlowClient, Map<String, String>, T> {
+        private final String method;
+        private final Class<T> responseType;
+        private final boolean hedged;
+
+        FlowEndpoint(final String method, final Class<T> responseType, final Priority priority, final boolean hedged) {
+            super(method, priority);
+            this.method = method;
+            this.responseType = responseType;
+            this.hedged = hedged;
+        }
+
+        @Override
+        protected T parseJson(final Reader input) throws JsonSyntaxException {
+            return gson.fromJson(input, this.responseType);
+        }
+
+        @Override
+        protected Request buildRequest(final FlowClient client, final Map<String, String> params, final String token) {
+            Map<String, String> requestParams = new TreeMap<>(params);
+            requestParams.put(Protocol.PARAM_TOKEN, token);
+            requestParams.put(Protocol.PARAM_APP_ID, client.getApplicationId());
+            requestParams.put(Protocol.PARAM_DEVICE_ID, client.getDeviceId());
+            requestParams.put(Protocol.PARAM_SOURCE_IP, client.getIPAddress());
+            return new Request(client.getEnvironmentHost(), client.getSharedSecretKey(), this.method, requestParams);
+        }
+
+        @Override
+        protected boolean isHedged() {
+            return this.hedged;
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Relative weights of the {@link Flow}s replayed by the load test, e.g. {@code verify_check=70,search=30}.
+ */
+public class FlowMix {
+
+    /** Mostly complete verifications, as seen from a sign-up screen. */
+    public static final String DEFAULT_MIX = "verify_check=60,search=25,verify_cancel=10,verify_logout=5";
+
+    private final Flow[] flows;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private FlowMix(final Map<Flow, Integer> weights) {
+        this.flows = new Flow[weights.size()];
+        this.cumulativeWeights = new int[weights.size()];
+        int total = 0;
+        int i = 0;
+        for (Map.Entry<Flow, Integer> weight : weights.entrySet()) {
+            total += weight.getValue();
+            this.flows[i] = weight.getKey();
+            this.cumulativeWeights[i++] = total;
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * @param mix Comma separated {@code flow=weight} pairs, flow names are case insensitive.
+     * @return The mix.
+     * @throws IllegalArgumentException If a flow is unknown, a weight is negative or all the weights are 0.
+     */
+    public static FlowMix parse(final String mix) {
+        Map<Flow, Integer> weights = new LinkedHashMap<>();
+        for (String pair : mix.split(",")) {
+            String[] parts = pair.trim().split("=");
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Invalid flow weight: " + pair);
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0)
+                throw new IllegalArgumentException("Negative flow weight: " + pair);
+            if (weight > 0)
+                weights.put(Flow.valueOf(parts[0].trim().toUpperCase()), weight);
+        }
+        if (weights.isEmpty())
+            throw new IllegalArgumentException("Empty flow mix: " + mix);
+        return new FlowMix(weights);
+    }
+
+    /**
+     * @param random The random source of the calling worker.
+     * @return A flow drawn according to the weights.
+     */
+    public Flow next(final Random random) {
+        int draw = random.nextInt(this.totalWeight);
+        for (int i = 0; i < this.flows.length; i++)
+            if (draw < this.cumulativeWeights[i])
+                return this.flows[i];
+        return this.flows[this.flows.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder mix = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < this.flows.length; i++) {
+            if (i > 0)
+                mix.append(',');
+            mix.append(this.flows[i].name().toLowerCase()).append('=').append(this.cumulativeWeights[i] - previous);
+            previous = this.cumulativeWeights[i];
+        }
+        return mix.toString();
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.load;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Outcome of a load test run, written as JSON so that a later run can be compared to it.
+ * Latencies are the {@link com.nexmo.sdk.core.metrics.Stage#TOTAL} service call latencies, in microseconds.
+ */
+public class LoadReport {
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    @SerializedName("flow_mix")
+    String flowMix;
+    @SerializedName("concurrency")
+    int concurrency;
+    @SerializedName("flows")
+    long flows;
+    @SerializedName("failed_flows")
+    long failedFlows;
+    @SerializedName("duration_ms")
+    long duration;
+    @SerializedName("flows_per_second")
+    double flowsPerSecond;
+    @SerializedName("requests_per_second")
+    double requestsPerSecond;
+    @SerializedName("peak_threads")
+    int peakThreads;
+    @SerializedName("peak_server_threads")
+    int peakServerThreads;
+    @SerializedName("peak_heap_bytes")
+    long peakHeap;
+    @SerializedName("peak_open_files")
+    long peakOpenFiles;
+    @SerializedName("methods")
+    Map<String, MethodReport> methods = new TreeMap<>();
+
+    public long getFlows() {
+        return this.flows;
+    }
+
+    public long getFailedFlows() {
+        return this.failedFlows;
+    }
+
+    public double getFlowsPerSecond() {
+        return this.flowsPerSecond;
+    }
+
+    /**
+     * @param method The method, without the trailing '?' of the {@link com.nexmo.sdk.core.client.Protocol} constant.
+     * @return The method figures, null if the method was not called.
+     */
+    public MethodReport getMethod(final String method) {
+        return this.methods.get(method);
+    }
+
+    public Map<String, MethodReport> getMethods() {
+        return this.methods;
+    }
+
+    /**
+     * @return The fraction of the flows that did not complete as expected.
+     */
+    public double getFlowErrorRate() {
+        return (this.flows > 0 ? (double) this.failedFlows / this.flows : 0);
+    }
+
+    public void write(final Writer writer) throws IOException {
+        gson.toJson(this, writer);
+        writer.flush();
+    }
+
+    public static LoadReport read(final Reader reader) {
+        return gson.fromJson(reader, LoadReport.class);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%d flows (%d failed) in %d ms, %.1f flows/s, %.1f requests/s, concurrency %d, mix %s%n",
+                                    this.flows, this.failedFlows, this.duration, this.flowsPerSecond, this.requestsPerSecond,
+                                    this.concurrency, this.flowMix));
+        report.append(String.format("peaks: %d threads (%d server), %d MB heap, %d open files%n",
+                                    this.peakThreads, this.peakServerThreads, this.peakHeap >> 20, this.peakOpenFiles));
+        report.append(String.format("%-20s %9s %9s %9s %9s %10s %10s %10s %10s%n",
+                                    "method", "requests", "failures", "retries", "rejected", "p50 us", "p99 us", "p999 us", "max us"));
+        for (Map.Entry<String, MethodReport> method : this.methods.entrySet()) {
+            MethodReport figures = method.getValue();
+            report.append(String.format("%-20s %9d %9d %9d %9d %10d %10d %10d %10d%n", method.getKey(),
+                                        figures.requests, figures.failures, figures.retries, figures.circuitRejections,
+                                        figures.p50, figures.p99, figures.p999, figures.max));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Figures of one request method.
+     */
+    public static class MethodReport {
+
+        @SerializedName("requests")
+        long requests;
+        @SerializedName("failures")
+        long failures;
+        @SerializedName("retries")
+        long retries;
+        @SerializedName("circuit_rejections")
+        long circuitRejections;
+        @SerializedName("p50_us")
+        long p50;
+        @SerializedName("p99_us")
+        long p99;
+        @SerializedName("p999_us")
+        long p999;
+        @SerializedName("max_us")
+        long max;
+
+        public long getRequests() {
+            return this.requests;
+        }
+
+        public long getFailures() {
+            return this.failures;
+        }
+
+        public long getP50() {
+            return this.p50;
+        }
+
+        public long getP99() {
+            return this.p99;
+        }
+
+        public long getP999() {
+            return this.p999;
+        }
+
+    }
+
+}
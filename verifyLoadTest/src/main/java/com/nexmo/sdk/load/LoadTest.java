@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.load;
+
+import java.io.IOException;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.nexmo.sdk.core.client.CircuitBreaker;
+import com.nexmo.sdk.core.client.Client;
+import com.nexmo.sdk.core.client.ClientBuilderException;
+import com.nexmo.sdk.core.client.ConnectionClient;
+import com.nexmo.sdk.core.client.HedgePolicy;
+import com.nexmo.sdk.core.client.PooledClient;
+import com.nexmo.sdk.core.client.Transport;
+import com.nexmo.sdk.core.client.Protocol;
+import com.nexmo.sdk.core.client.RetryPolicy;
+import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.core.executor.RequestExecutor;
+import com.nexmo.sdk.core.metrics.Counter;
+import com.nexmo.sdk.core.metrics.Histogram;
+import com.nexmo.sdk.core.metrics.PipelineMetrics;
+import com.nexmo.sdk.core.metrics.Stage;
+import com.nexmo.sdk.mock.Fault;
+import com.nexmo.sdk.mock.MockNexmoServer;
+
+/**
+ * Replays concurrent verification flows against an in-process {@link MockNexmoServer}, on a plain JVM.
+ * <p>
+ * Each worker thread plays one user after the other: it draws a {@link Flow} from the {@link FlowMix} and runs it
+ * to its end on a fresh number, through the SDK service layer and its {@link RequestExecutor}. A warm-up run precedes
+ * the measured run.
+ * <pre>
+ *     LoadReport report = new LoadTest.LoadTestBuilder()
+ *             .flows(20000)
+ *             .concurrency(500)
+ *             .flowMix(FlowMix.parse("verify_check=80,search=20"))
+ *             .serverLatency(20, 10)
+ *             .build()
+ *             .run();
+ * </pre>
+ */
+public class LoadTest {
+
+    public static final int DEFAULT_FLOWS = 10000;
+    public static final int DEFAULT_CONCURRENCY = 200;
+
+    private static final String APP_ID = "load-test";
+    private static final String SHARED_SECRET_KEY = "load-test-secret";
+    private static final String DEVICE_ID = "load-test-device";
+    private static final String COUNTRY_CODE = "GB";
+    private static final String NUMBER_PREFIX = "447";
+    private static final String[] METHODS = {Protocol.METHOD_TOKEN, Protocol.METHOD_VERIFY, Protocol.METHOD_CHECK,
+            Protocol.METHOD_SEARCH, Protocol.METHOD_COMMAND, Protocol.METHOD_LOGOUT};
+
+    private final int flows;
+    private final int warmupFlows;
+    private final int concurrency;
+    private final long rampUp;
+    private final FlowMix flowMix;
+    private final long serverLatency;
+    private final long serverJitter;
+    private final Fault fault;
+    private final double faultRate;
+    private final boolean pooledConnections;
+    private final Transport transport;
+    private final boolean compression;
+    private final boolean hedging;
+    private final long seed;
+
+    private LoadTest(final LoadTestBuilder builder) {
+        this.flows = builder.flows;
+        this.warmupFlows = builder.warmupFlows;
+        this.concurrency = builder.concurrency;
+        this.rampUp = builder.rampUp;
+        this.flowMix = builder.flowMix;
+        this.serverLatency = builder.serverLatency;
+        this.serverJitter = builder.serverJitter;
+        this.fault = builder.fault;
+        this.faultRate = builder.faultRate;
+        this.pooledConnections = builder.pooledConnections;
+        this.transport = builder.transport;
+        this.compression = builder.compression;
+        this.hedging = builder.hedging;
+        this.seed = builder.seed;
+    }
+
+    /**
+     * Start the mock server, run the warm-up and measured flows, and stop the server.
+     *
+     * @return The figures of the measured run.
+     * @throws IOException If the mock server cannot start.
+     * @throws InterruptedException If the caller is interrupted.
+     */
+    public LoadReport run() throws IOException, InterruptedException {
+        MockNexmoServer server = new MockNexmoServer();
+        server.addApp(APP_ID, SHARED_SECRET_KEY);
+        if (this.serverLatency > 0 || this.serverJitter > 0)
+            server.setLatency(MockNexmoServer.ANY_METHOD, this.serverLatency, this.serverJitter);
+        if (this.fault != null && this.faultRate > 0)
+            server.injectFault(MockNexmoServer.ANY_METHOD, this.fault, this.faultRate);
+        server.start(0);
+        // Each worker blocks on one call at a time, a hedged call may run a second request.
+        RequestExecutor requestExecutor = new RequestExecutor(this.hedging ? 2 * this.concurrency : this.concurrency);
+        try {
+            ConnectionClient connectionClient = (this.pooledConnections
+                    ? new PooledClient(this.concurrency, Defaults.CONNECTION_KEEP_ALIVE_DURATION, this.transport, this.compression)
+                    : new Client(this.transport, this.compression));
+            if (this.warmupFlows > 0)
+                runFlows(newFlowClient(server, connectionClient, requestExecutor, new PipelineMetrics(null)), this.warmupFlows, this.flows);
+
+            PipelineMetrics metrics = new PipelineMetrics(null);
+            FlowClient flowClient = newFlowClient(server, connectionClient, requestExecutor, metrics);
+            ResourceMonitor monitor = new ResourceMonitor();
+            monitor.start();
+            long start = System.nanoTime();
+            long failedFlows = runFlows(flowClient, this.flows, 0);
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            monitor.stop();
+
+            LoadReport report = new LoadReport();
+            report.flowMix = this.flowMix.toString();
+            report.concurrency = this.concurrency;
+            report.flows = this.flows;
+            report.failedFlows = failedFlows;
+            report.duration = duration;
+            report.peakThreads = monitor.getPeakThreads();
+            report.peakServerThreads = server.getPeakThreads();
+            report.peakHeap = monitor.getPeakHeap();
+            report.peakOpenFiles = monitor.getPeakOpenFiles();
+            long requests = 0;
+            for (String method : METHODS) {
+                LoadReport.MethodReport figures = getMethodReport(metrics, method);
+                if (figures != null) {
+                    report.methods.put(method.substring(0, method.length() - 1), figures);
+                    requests += figures.requests;
+                }
+            }
+            double seconds = Math.max(duration, 1) / 1000.0;
+            report.flowsPerSecond = this.flows / seconds;
+            report.requestsPerSecond = requests / seconds;
+            return report;
+        } finally {
+            requestExecutor.shutdown();
+            server.stop();
+        }
+    }
+
+    private FlowClient newFlowClient(final MockNexmoServer server, final ConnectionClient connectionClient,
+                                     final RequestExecutor requestExecutor, final PipelineMetrics metrics) {
+        return new FlowClient(server.getEndpoint(), APP_ID, SHARED_SECRET_KEY, DEVICE_ID, MockNexmoServer.DEFAULT_PIN_CODE,
+                              connectionClient, requestExecutor, new RetryPolicy(), new CircuitBreaker(),
+                              (this.hedging ? new HedgePolicy() : null), metrics);
+    }
+
+    /**
+     * Run flows on the worker threads until the count is reached.
+     *
+     * @param numberOffset The first number index, so that no two runs share a number.
+     * @return The number of failed flows.
+     */
+    private long runFlows(final FlowClient flowClient, final int count, final int numberOffset) throws InterruptedException {
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicLong failed = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch(this.concurrency);
+        ExecutorService workers = Executors.newFixedThreadPool(this.concurrency, new ThreadFactory() {
+            private final AtomicInteger threads = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "LoadTest-worker-" + this.threads.incrementAndGet());
+            }
+        });
+        try {
+            for (int worker = 0; worker < this.concurrency; worker++) {
+                final Random random = new Random(this.seed + numberOffset + worker);
+                final long startDelay = this.rampUp * worker / this.concurrency;
+                workers.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            if (startDelay > 0)
+                                Thread.sleep(startDelay);
+                            int index;
+                            while ((index = next.getAndIncrement()) < count) {
+                                Flow flow = LoadTest.this.flowMix.next(random);
+                                try {
+                                    if (!flowClient.run(flow, COUNTRY_CODE, getPhoneNumber(numberOffset + index)))
+                                        failed.incrementAndGet();
+                                } catch (IOException e) {
+                                    failed.incrementAndGet();
+                                }
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            done.countDown();
+                        }
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            workers.shutdownNow();
+        }
+        return failed.get();
+    }
+
+    private static LoadReport.MethodReport getMethodReport(final PipelineMetrics metrics, final String method) {
+        long requests = metrics.getCount(method, Counter.REQUESTS);
+        if (requests == 0 && metrics.getCount(method, Counter.CIRCUIT_REJECTIONS) == 0)
+            return null;
+        Histogram latency = metrics.getLatency(method, Stage.TOTAL);
+        LoadReport.MethodReport figures = new LoadReport.MethodReport();
+        figures.requests = requests;
+        figures.failures = metrics.getCount(method, Counter.FAILURES);
+        figures.retries = metrics.getCount(method, Counter.RETRIES);
+        figures.circuitRejections = metrics.getCount(method, Counter.CIRCUIT_REJECTIONS);
+        figures.p50 = latency.getValueAtPercentile(50);
+        figures.p99 = latency.getValueAtPercentile(99);
+        figures.p999 = latency.getValueAtPercentile(99.9);
+        figures.max = latency.getMax();
+        return figures;
+    }
+
+    static String getPhoneNumber(final int index) {
+        return NUMBER_PREFIX + String.format("%09d", index);
+    }
+
+    /**
+     * Builder of a load test run. Only the defaults of the mock server apply, see {@link MockNexmoServer}.
+     */
+    public static class LoadTestBuilder {
+
+        private int flows = DEFAULT_FLOWS;
+        private int warmupFlows = -1;
+        private int concurrency = DEFAULT_CONCURRENCY;
+        private long rampUp;
+        private FlowMix flowMix = FlowMix.parse(FlowMix.DEFAULT_MIX);
+        private long serverLatency;
+        private long serverJitter;
+        private Fault fault;
+        private double faultRate;
+        private boolean pooledConnections = true;
+        private Transport transport = Transport.GET;
+        private boolean compression;
+        private boolean hedging;
+        private long seed = 1;
+
+        /**
+         * @param flows The number of measured flows.
+         */
+        public LoadTestBuilder flows(final int flows) {
+            this.flows = flows;
+            return this;
+        }
+
+        /**
+         * @param warmupFlows The number of flows run before the measured ones, a tenth of them by default.
+         */
+        public LoadTestBuilder warmupFlows(final int warmupFlows) {
+            this.warmupFlows = warmupFlows;
+            return this;
+        }
+
+        /**
+         * @param concurrency The number of flows running at once, one thread each.
+         */
+        public LoadTestBuilder concurrency(final int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * @param rampUp The time in milliseconds over which the workers start, so that they do not all
+         *               connect at once. All start together by default.
+         */
+        public LoadTestBuilder rampUp(final long rampUp) {
+            this.rampUp = rampUp;
+            return this;
+        }
+
+        public LoadTestBuilder flowMix(final FlowMix flowMix) {
+            this.flowMix = flowMix;
+            return this;
+        }
+
+        /**
+         * @param latency The fixed server latency in milliseconds.
+         * @param jitter  The maximum random server latency in milliseconds added to the fixed one.
+         */
+        public LoadTestBuilder serverLatency(final long latency, final long jitter) {
+            this.serverLatency = latency;
+            this.serverJitter = jitter;
+            return this;
+        }
+
+        /**
+         * @param fault The failure the server injects.
+         * @param rate  The fraction of the requests that fail.
+         */
+        public LoadTestBuilder fault(final Fault fault, final double rate) {
+            this.fault = fault;
+            this.faultRate = rate;
+            return this;
+        }
+
+        /**
+         * @param pooledConnections True to keep the connections alive with a {@link PooledClient}, the default.
+         */
+        public LoadTestBuilder pooledConnections(final boolean pooledConnections) {
+            this.pooledConnections = pooledConnections;
+            return this;
+        }
+
+        /**
+         * @param transport   How the requests send their parameters, {@link Transport#GET} by default.
+         * @param compression True to gzip the responses and the larger request bodies.
+         */
+        public LoadTestBuilder transport(final Transport transport, final boolean compression) {
+            this.transport = transport;
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * @param hedging True to hedge the slow check requests, like a client with a {@link HedgePolicy}.
+         */
+        public LoadTestBuilder hedging(final boolean hedging) {
+            this.hedging = hedging;
+            return this;
+        }
+
+        /**
+         * @param seed The seed of the flow draws, runs with the same seed replay the same flows.
+         */
+        public LoadTestBuilder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public LoadTest build() throws ClientBuilderException {
+            if (this.flows <= 0 || this.concurrency <= 0)
+                throw new ClientBuilderException("Building a LoadTest instance has failed: flows and concurrency must be positive.");
+            if (this.faultRate < 0 || this.faultRate > 1)
+                throw new ClientBuilderException("Building a LoadTest instance has failed: the fault rate must be between 0 and 1.");
+            if (this.warmupFlows < 0)
+                this.warmupFlows = this.flows / 10;
+            return new LoadTest(this);
+        }
+
+    }
+
+}
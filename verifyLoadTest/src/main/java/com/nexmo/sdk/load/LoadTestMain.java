@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.load;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+
+import java.nio.charset.Charset;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.nexmo.sdk.core.client.ClientBuilderException;
+import com.nexmo.sdk.core.client.Transport;
+import com.nexmo.sdk.mock.Fault;
+
+/**
+ * Command line entry point of the load test.
+ * <pre>
+ * [--flows 10000] [--warmup 1000] [--concurrency 200] [--ramp-up 1000] [--mix verify_check=60,search=40]
+ *     [--latency 20] [--jitter 10] [--fault service_unavailable] [--fault-rate 0.01] [--pooled true]
+ *     [--transport post_form] [--gzip true] [--hedge true] [--seed 1]
+ *     [--report report.json] [--baseline baseline.json] [--tolerance 0.5] [--update-baseline true]
+ * </pre>
+ * The summary goes to the standard output. With a baseline the process exits with status 1 on regressions,
+ * or writes the run as the new baseline with {@code --update-baseline true}.
+ */
+public class LoadTestMain {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private LoadTestMain() {}
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = parse(args);
+        LoadTest loadTest;
+        try {
+            LoadTest.LoadTestBuilder builder = new LoadTest.LoadTestBuilder();
+            if (options.containsKey("flows"))
+                builder.flows(Integer.parseInt(options.get("flows")));
+            if (options.containsKey("warmup"))
+                builder.warmupFlows(Integer.parseInt(options.get("warmup")));
+            if (options.containsKey("concurrency"))
+                builder.concurrency(Integer.parseInt(options.get("concurrency")));
+            if (options.containsKey("ramp-up"))
+                builder.rampUp(Long.parseLong(options.get("ramp-up")));
+            if (options.containsKey("mix"))
+                builder.flowMix(FlowMix.parse(options.get("mix")));
+            if (options.containsKey("latency") || options.containsKey("jitter"))
+                builder.serverLatency(getLong(options, "latency"), getLong(options, "jitter"));
+            if (options.containsKey("fault"))
+                builder.fault(Fault.valueOf(options.get("fault").toUpperCase()),
+                              options.containsKey("fault-rate") ? Double.parseDouble(options.get("fault-rate")) : 0.01);
+            if (options.containsKey("pooled"))
+                builder.pooledConnections(Boolean.parseBoolean(options.get("pooled")));
+            if (options.containsKey("transport") || options.containsKey("gzip"))
+                builder.transport(options.containsKey("transport") ? Transport.valueOf(options.get("transport").toUpperCase()) : Transport.GET,
+                                  Boolean.parseBoolean(options.get("gzip")));
+            if (options.containsKey("hedge"))
+                builder.hedging(Boolean.parseBoolean(options.get("hedge")));
+            if (options.containsKey("seed"))
+                builder.seed(Long.parseLong(options.get("seed")));
+            loadTest = builder.build();
+        } catch (ClientBuilderException | IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        LoadReport report = loadTest.run();
+        System.out.print(report);
+        if (options.containsKey("report"))
+            write(report, new File(options.get("report")));
+
+        if (!options.containsKey("baseline"))
+            return;
+        File baselineFile = new File(options.get("baseline"));
+        if (Boolean.parseBoolean(options.get("update-baseline")) || !baselineFile.exists()) {
+            write(report, baselineFile);
+            System.out.println("Baseline written to " + baselineFile);
+            return;
+        }
+        LoadReport baseline;
+        try (Reader reader = new InputStreamReader(new FileInputStream(baselineFile), UTF_8)) {
+            baseline = LoadReport.read(reader);
+        }
+        double tolerance = (options.containsKey("tolerance") ? Double.parseDouble(options.get("tolerance")) : RegressionCheck.DEFAULT_TOLERANCE);
+        List<String> regressions = new RegressionCheck(baseline, tolerance).check(report);
+        if (regressions.isEmpty()) {
+            System.out.println("No regression against " + baselineFile);
+            return;
+        }
+        System.err.println(regressions.size() + " regression(s) against " + baselineFile + ":");
+        for (String regression : regressions)
+            System.err.println("  " + regression);
+        System.exit(1);
+    }
+
+    private static void write(final LoadReport report, final File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+            throw new IOException("Cannot create " + parent);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), UTF_8)) {
+            report.write(writer);
+        }
+    }
+
+    private static long getLong(final Map<String, String> options, final String name) {
+        return (options.containsKey(name) ? Long.parseLong(options.get(name)) : 0);
+    }
+
+    private static Map<String, String> parse(final String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--"))
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+}
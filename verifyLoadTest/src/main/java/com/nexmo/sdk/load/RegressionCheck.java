@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a load test run to a baseline run.
+ * <p>
+ * A figure regresses when it is worse than the baseline by more than the tolerance, e.g. 0.5 for 50%.
+ * Latency changes below {@link #LATENCY_FLOOR} microseconds, error rates below {@link #ERROR_RATE_FLOOR}
+ * and the percentiles of methods called less than {@link #MIN_REQUESTS} times are ignored,
+ * they are noise on a shared build machine.
+ */
+public class RegressionCheck {
+
+    /** Default tolerance, generous enough for CI machines. */
+    public static final double DEFAULT_TOLERANCE = 0.5;
+    /** Latency increase in microseconds under which no regression is reported. */
+    public static final long LATENCY_FLOOR = 5000;
+    /** Flow error rate under which no regression is reported. */
+    public static final double ERROR_RATE_FLOOR = 0.001;
+    /** Requests of a method under which its percentiles are not compared. */
+    public static final long MIN_REQUESTS = 100;
+
+    private final LoadReport baseline;
+    private final double tolerance;
+
+    public RegressionCheck(final LoadReport baseline, final double tolerance) {
+        this.baseline = baseline;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @param current The run to check.
+     * @return The regressions found, empty if there is none.
+     */
+    public List<String> check(final LoadReport current) {
+        List<String> regressions = new ArrayList<>();
+        if (current.flowsPerSecond < this.baseline.flowsPerSecond * (1 - this.tolerance))
+            regressions.add(String.format("throughput %.1f flows/s, baseline %.1f", current.flowsPerSecond, this.baseline.flowsPerSecond));
+        double errorRate = current.getFlowErrorRate();
+        if (errorRate > ERROR_RATE_FLOOR && errorRate > this.baseline.getFlowErrorRate() * (1 + this.tolerance))
+            regressions.add(String.format("flow error rate %.4f, baseline %.4f", errorRate, this.baseline.getFlowErrorRate()));
+        checkPeak(regressions, "peak threads", current.peakThreads, this.baseline.peakThreads);
+        checkPeak(regressions, "peak heap bytes", current.peakHeap, this.baseline.peakHeap);
+        if (current.peakOpenFiles >= 0 && this.baseline.peakOpenFiles >= 0)
+            checkPeak(regressions, "peak open files", current.peakOpenFiles, this.baseline.peakOpenFiles);
+
+        for (Map.Entry<String, LoadReport.MethodReport> method : this.baseline.methods.entrySet()) {
+            LoadReport.MethodReport expected = method.getValue();
+            LoadReport.MethodReport actual = current.getMethod(method.getKey());
+            if (actual == null) {
+                regressions.add(method.getKey() + " was not called");
+                continue;
+            }
+            if (expected.requests < MIN_REQUESTS)
+                continue;
+            checkLatency(regressions, method.getKey() + " p50", actual.p50, expected.p50);
+            checkLatency(regressions, method.getKey() + " p99", actual.p99, expected.p99);
+            checkLatency(regressions, method.getKey() + " p999", actual.p999, expected.p999);
+        }
+        return regressions;
+    }
+
+    private void checkPeak(final List<String> regressions, final String name, final long actual, final long expected) {
+        if (actual > expected * (1 + this.tolerance))
+            regressions.add(name + " " + actual + ", baseline " + expected);
+    }
+
+    private void checkLatency(final List<String> regressions, final String name, final long actual, final long expected) {
+        if (actual - expected > LATENCY_FLOOR && actual > expected * (1 + this.tolerance))
+            regressions.add(name + " " + actual + " us, baseline " + expected + " us");
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Peak resource usage of the process during a load test: threads, heap and open files (sockets included).
+ * <p>
+ * Thread and heap peaks are tracked by the JVM itself, open files are sampled.
+ */
+class ResourceMonitor implements Runnable {
+
+    private static final long SAMPLE_INTERVAL = 20;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    private volatile boolean running;
+    private volatile long peakOpenFiles = -1;
+    private Thread sampler;
+
+    void start() {
+        this.threads.resetPeakThreadCount();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP)
+                pool.resetPeakUsage();
+        this.running = true;
+        this.sampler = new Thread(this, "LoadTest-monitor");
+        this.sampler.setDaemon(true);
+        this.sampler.start();
+    }
+
+    void stop() throws InterruptedException {
+        this.running = false;
+        this.sampler.join();
+    }
+
+    @Override
+    public void run() {
+        while (this.running) {
+            long openFiles = getOpenFiles();
+            if (openFiles > this.peakOpenFiles)
+                this.peakOpenFiles = openFiles;
+            try {
+                Thread.sleep(SAMPLE_INTERVAL);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    int getPeakThreads() {
+        return this.threads.getPeakThreadCount();
+    }
+
+    /**
+     * @return The sum of the peak usage of each heap pool, an upper bound of the peak heap usage.
+     */
+    long getPeakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP)
+                peak += pool.getPeakUsage().getUsed();
+        return peak;
+    }
+
+    /**
+     * @return The peak number of open file descriptors, -1 if the platform does not report it.
+     */
+    long getPeakOpenFiles() {
+        return this.peakOpenFiles;
+    }
+
+    private long getOpenFiles() {
+        if (this.os instanceof com.sun.management.UnixOperatingSystemMXBean)
+            return ((com.sun.management.UnixOperatingSystemMXBean) this.os).getOpenFileDescriptorCount();
+        return -1;
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.load;
+
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FlowMixTest {
+
+    private static final String TAG = FlowMixTest.class.getSimpleName();
+
+    @Test
+    public void testWeights() {
+        FlowMix mix = FlowMix.parse("VERIFY_CHECK=3, search=1, verify_cancel=0");
+        Map<Flow, Integer> draws = new EnumMap<>(Flow.class);
+        Random random = new Random(1);
+        for (int i = 0; i < 40000; i++) {
+            Flow flow = mix.next(random);
+            draws.put(flow, (draws.containsKey(flow) ? draws.get(flow) : 0) + 1);
+        }
+        assertFalse(TAG + " zero weight", draws.containsKey(Flow.VERIFY_CANCEL));
+        assertTrue(TAG + " verify_check share " + draws, Math.abs(draws.get(Flow.VERIFY_CHECK) - 30000) < 600);
+        assertEquals(TAG, "verify_check=3,search=1", mix.toString());
+    }
+
+    @Test
+    public void testDefaultMix() {
+        assertEquals(TAG, FlowMix.DEFAULT_MIX, FlowMix.parse(FlowMix.DEFAULT_MIX).toString());
+    }
+
+    @Test
+    public void testInvalidMix() {
+        for (String mix : new String[] {"", "verify_check", "unknown=1", "search=-1", "search=0"}) {
+            try {
+                FlowMix.parse(mix);
+                fail(TAG + " invalid mix accepted: " + mix);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.load;
+
+import com.nexmo.sdk.core.client.ClientBuilderException;
+import com.nexmo.sdk.core.client.Transport;
+import com.nexmo.sdk.mock.Fault;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LoadTestTest {
+
+    private static final String TAG = LoadTestTest.class.getSimpleName();
+
+    @Test
+    public void testRun() throws Exception {
+        LoadReport report = new LoadTest.LoadTestBuilder()
+                .flows(400)
+                .concurrency(20)
+                .flowMix(FlowMix.parse("verify_check=1,verify_cancel=1,verify_logout=1,search=1"))
+                .build()
+                .run();
+        assertEquals(TAG + " " + report, 0, report.getFailedFlows());
+        assertEquals(TAG, 400, report.getFlows());
+        assertTrue(TAG, report.getFlowsPerSecond() > 0);
+        for (String method : new String[] {"verify/json", "verify/check/json", "verify/search/json", "verify/control/json", "verify/logout/json"}) {
+            LoadReport.MethodReport figures = report.getMethod(method);
+            assertNotNull(TAG + " " + method, figures);
+            assertTrue(TAG + " " + method, figures.getRequests() > 0);
+            assertTrue(TAG + " " + method, figures.getP50() > 0 && figures.getP50() <= figures.getP99() && figures.getP99() <= figures.getP999());
+        }
+        assertTrue(TAG + " peak threads", report.peakThreads >= 20);
+    }
+
+    @Test
+    public void testRunWithFaults() throws Exception {
+        LoadReport report = new LoadTest.LoadTestBuilder()
+                .flows(200)
+                .concurrency(10)
+                .flowMix(FlowMix.parse("search=1"))
+                .fault(Fault.SERVICE_UNAVAILABLE, 0.05)
+                .build()
+                .run();
+        LoadReport.MethodReport search = report.getMethod("verify/search/json");
+        assertTrue(TAG + " failures", search.getFailures() > 0);
+        assertTrue(TAG + " retries", search.retries > 0);
+        assertNull(TAG, report.getMethod("verify/json"));
+    }
+
+    @Test
+    public void testRunPost() throws Exception {
+        LoadReport report = new LoadTest.LoadTestBuilder()
+                .flows(100)
+                .concurrency(5)
+                .transport(Transport.POST_JSON, true)
+                .build()
+                .run();
+        assertEquals(TAG + " " + report, 0, report.getFailedFlows());
+    }
+
+    @Test
+    public void testBuilder() {
+        try {
+            new LoadTest.LoadTestBuilder().concurrency(0).build();
+            fail(TAG + " zero concurrency accepted");
+        } catch (ClientBuilderException expected) {
+        }
+    }
+
+    @Test
+    public void testPhoneNumbers() {
+        assertEquals(TAG, "447000000042", LoadTest.getPhoneNumber(42));
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.load;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RegressionCheckTest {
+
+    private static final String TAG = RegressionCheckTest.class.getSimpleName();
+
+    @Test
+    public void testNoRegression() throws Exception {
+        LoadReport baseline = newReport(1000, 10000, 50000);
+        assertTrue(TAG, new RegressionCheck(baseline, 0.5).check(newReport(700, 14000, 70000)).isEmpty());
+        // Small latency changes are noise.
+        assertTrue(TAG, new RegressionCheck(baseline, 0.5).check(newReport(1000, 10000 + RegressionCheck.LATENCY_FLOOR, 50000)).isEmpty());
+
+        // So are the percentiles of a handful of requests.
+        LoadReport.MethodReport token = new LoadReport.MethodReport();
+        token.requests = 1;
+        token.p50 = token.p99 = token.p999 = 5000;
+        baseline.methods.put("token/json", token);
+        LoadReport current = newReport(1000, 10000, 50000);
+        LoadReport.MethodReport slowToken = new LoadReport.MethodReport();
+        slowToken.requests = 1;
+        slowToken.p50 = slowToken.p99 = slowToken.p999 = 50000;
+        current.methods.put("token/json", slowToken);
+        assertTrue(TAG, new RegressionCheck(baseline, 0.5).check(current).isEmpty());
+    }
+
+    @Test
+    public void testRegressions() throws Exception {
+        LoadReport baseline = newReport(1000, 10000, 50000);
+        LoadReport current = newReport(400, 30000, 50000);
+        current.peakThreads = 1000;
+        current.failedFlows = 100;
+        List<String> regressions = new RegressionCheck(baseline, 0.5).check(current);
+        assertEquals(TAG + " " + regressions, 4, regressions.size());
+
+        current.methods.clear();
+        assertEquals(TAG + " missing method", 4, new RegressionCheck(baseline, 0.5).check(current).size());
+    }
+
+    @Test
+    public void testJson() throws Exception {
+        LoadReport report = newReport(1000, 10000, 50000);
+        StringWriter json = new StringWriter();
+        report.write(json);
+        assertTrue(TAG, json.toString().contains("\"p999_us\": 50000"));
+        LoadReport read = LoadReport.read(new StringReader(json.toString()));
+        assertEquals(TAG, 50000, read.getMethod("verify/json").getP999());
+        assertTrue(TAG, new RegressionCheck(report, 0).check(read).isEmpty());
+    }
+
+    private static LoadReport newReport(final double flowsPerSecond, final long p99, final long p999) {
+        LoadReport report = new LoadReport();
+        report.flows = 10000;
+        report.flowsPerSecond = flowsPerSecond;
+        report.peakThreads = 250;
+        report.peakHeap = 64 << 20;
+        report.peakOpenFiles = 600;
+        LoadReport.MethodReport verify = new LoadReport.MethodReport();
+        verify.requests = 10000;
+        verify.p50 = 2000;
+        verify.p99 = p99;
+        verify.p999 = p999;
+        verify.max = p999;
+        report.methods.put("verify/json", verify);
+        return report;
+    }
+
+}
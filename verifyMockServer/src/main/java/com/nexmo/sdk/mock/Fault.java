@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.mock;
+
+/**
+ * Failures the {@link MockNexmoServer} can inject instead of a normal answer.
+ */
+public enum Fault {
+
+    /** The connection is closed without a response. */
+    DROP_CONNECTION,
+    /** HTTP 503 with a {@code Retry-After: 1} header. */
+    SERVICE_UNAVAILABLE,
+    /** HTTP 500 without a body. */
+    HTTP_ERROR,
+    /** A signed {@link com.nexmo.sdk.core.client.ResultCodes#INTERNAL_ERROR} answer. */
+    INTERNAL_ERROR,
+    /** A signed {@link com.nexmo.sdk.core.client.ResultCodes#REQUEST_REJECTED} answer. */
+    THROTTLED,
+    /** The normal answer, with a signature that does not match. */
+    BAD_SIGNATURE,
+    /** A truncated JSON body. */
+    MALFORMED_BODY
+
+}
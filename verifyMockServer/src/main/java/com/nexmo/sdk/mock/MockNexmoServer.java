@@ -0,0 +1,573 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+
+import java.nio.charset.Charset;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import com.nexmo.sdk.core.client.Protocol;
+import com.nexmo.sdk.core.client.ResultCodes;
+import com.nexmo.sdk.core.config.Config;
+import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.core.request.RequestSigning;
+import com.nexmo.sdk.verify.event.UserStatus;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process stand-in for the SDK service endpoints, for offline tests.
+ * <p>
+ * Implements {@code token/json}, {@code verify/json}, {@code verify/check/json}, {@code verify/search/json},
+ * {@code verify/control/json} and {@code verify/logout/json} the way the SDK expects them:
+ * requests must be signed with the shared secret key of a registered application, answers carry a
+ * {@link Protocol#RESPONSE_SIG} header, tokens expire, and every number follows the {@link UserStatus}
+ * life cycle described in {@link UserRecord}. The PIN code of every verification is {@link #setPinCode fixed}.
+ * Parameters are read from the url query and, for POST requests, from a form or JSON body, gzipped or not;
+ * answers are gzipped when the client accepts it.
+ * <p>
+ * Latency and failures can be injected per method, while the server runs:
+ * <pre>
+ *     MockNexmoServer server = new MockNexmoServer();
+ *     server.addApp("app", "secret");
+ *     server.setLatency(Protocol.METHOD_VERIFY, 50, 20);
+ *     server.injectFault(MockNexmoServer.ANY_METHOD, Fault.SERVICE_UNAVAILABLE, 0.01);
+ *     server.start(0);
+ *     ... new NexmoClient.NexmoClientBuilder().environmentHost(server.getEndpoint()) ...
+ *     server.stop();
+ * </pre>
+ */
+public class MockNexmoServer {
+
+    /** Method key matching every method, for {@link #setLatency} and {@link #injectFault}. */
+    public static final String ANY_METHOD = "*";
+    /** Path of the endpoints, as in {@link Config#ENDPOINT_PRODUCTION}. */
+    public static final String PATH = "/sdk/";
+    /** Default PIN code of every verification. */
+    public static final String DEFAULT_PIN_CODE = "1234";
+    /** Default PIN code lifetime, in milliseconds. */
+    public static final long DEFAULT_PIN_TIME_TO_LIVE = 5 * 60 * 1000;
+    /** Default number of wrong PIN codes before the verification fails. */
+    public static final int DEFAULT_MAX_PIN_ATTEMPTS = 3;
+    /** Pending connections queued by the socket and idle keep-alive connections kept, sized for load tests. */
+    public static final int MAX_CONNECTIONS = 4096;
+
+    private static final String[] METHODS = {Protocol.METHOD_TOKEN, Protocol.METHOD_VERIFY, Protocol.METHOD_CHECK,
+            Protocol.METHOD_SEARCH, Protocol.METHOD_COMMAND, Protocol.METHOD_LOGOUT};
+    private static final Charset UTF_8 = Charset.forName(Config.PARAMS_ENCODING);
+    private static final String PARAM_CODE = "code";
+    private static final String MAX_IDLE_CONNECTIONS = "sun.net.httpserver.maxIdleConnections";
+    private static final int READ_BUFFER_SIZE = 1024;
+
+    static {
+        // The JDK server closes keep-alive connections past 200 idle ones, which turns
+        // every request of a large load test into a new connection.
+        if (System.getProperty(MAX_IDLE_CONNECTIONS) == null)
+            System.setProperty(MAX_IDLE_CONNECTIONS, String.valueOf(MAX_CONNECTIONS));
+    }
+
+    private final Map<String, String> apps = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TokenGrant> tokens = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, UserRecord> users = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> blacklist = new ConcurrentHashMap<>();
+    private final Map<String, long[]> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Map<Fault, Double>> faults = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+    private final Random random = new Random();
+
+    private volatile String pinCode = DEFAULT_PIN_CODE;
+    private volatile long tokenTimeToLive = Defaults.TOKEN_TIME_TO_LIVE;
+    private volatile long pinTimeToLive = DEFAULT_PIN_TIME_TO_LIVE;
+    private volatile long verifiedTimeToLive;
+    private volatile long commandLockout;
+    private volatile int maxPinAttempts = DEFAULT_MAX_PIN_ATTEMPTS;
+
+    private HttpServer server;
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Register an application.
+     *
+     * @param appId           The application id.
+     * @param sharedSecretKey The shared secret key requests are signed with.
+     */
+    public void addApp(final String appId, final String sharedSecretKey) {
+        this.apps.put(appId, sharedSecretKey);
+    }
+
+    /**
+     * Numbers in the blacklist stay {@link UserStatus#USER_BLACKLISTED}.
+     *
+     * @param phoneNumber The phone number, as sent by the client.
+     */
+    public void blacklist(final String phoneNumber) {
+        this.blacklist.put(phoneNumber, Boolean.TRUE);
+    }
+
+    public void setPinCode(final String pinCode) {
+        this.pinCode = pinCode;
+    }
+
+    /**
+     * @param tokenTimeToLive The token lifetime in milliseconds.
+     */
+    public void setTokenTimeToLive(final long tokenTimeToLive) {
+        this.tokenTimeToLive = tokenTimeToLive;
+    }
+
+    /**
+     * @param pinTimeToLive The time in milliseconds before a pending verification expires.
+     */
+    public void setPinTimeToLive(final long pinTimeToLive) {
+        this.pinTimeToLive = pinTimeToLive;
+    }
+
+    /**
+     * @param verifiedTimeToLive The time in milliseconds after which a verified user is verified again,
+     *                           0 for never.
+     */
+    public void setVerifiedTimeToLive(final long verifiedTimeToLive) {
+        this.verifiedTimeToLive = verifiedTimeToLive;
+    }
+
+    /**
+     * @param commandLockout The time in milliseconds after a verify during which commands are refused.
+     *                       The SDK service uses 30 seconds, the mock none by default.
+     */
+    public void setCommandLockout(final long commandLockout) {
+        this.commandLockout = commandLockout;
+    }
+
+    public void setMaxPinAttempts(final int maxPinAttempts) {
+        this.maxPinAttempts = maxPinAttempts;
+    }
+
+    /**
+     * Delay the answers of a method.
+     *
+     * @param method The {@link Protocol} method, or {@link #ANY_METHOD}.
+     * @param delay  The fixed delay in milliseconds.
+     * @param jitter The maximum random delay in milliseconds added to the fixed one.
+     */
+    public void setLatency(final String method, final long delay, final long jitter) {
+        this.latencies.put(method, new long[] {delay, jitter});
+    }
+
+    /**
+     * Answer a fraction of the requests of a method with a failure.
+     * Faults of a method are drawn before the {@link #ANY_METHOD} ones.
+     *
+     * @param method      The {@link Protocol} method, or {@link #ANY_METHOD}.
+     * @param fault       The failure.
+     * @param probability The fraction of the requests that fail, 0 to remove the fault.
+     */
+    public void injectFault(final String method, final Fault fault, final double probability) {
+        Map<Fault, Double> methodFaults = this.faults.get(method);
+        if (methodFaults == null) {
+            methodFaults = new ConcurrentHashMap<>();
+            this.faults.put(method, methodFaults);
+        }
+        if (probability > 0)
+            methodFaults.put(fault, probability);
+        else
+            methodFaults.remove(fault);
+    }
+
+    /**
+     * Remove all the injected latencies and faults.
+     */
+    public void clearInjections() {
+        this.latencies.clear();
+        this.faults.clear();
+    }
+
+    /**
+     * @param method The {@link Protocol} method.
+     * @return The number of requests received for the method.
+     */
+    public long getRequestCount(final String method) {
+        AtomicLong count = this.requestCounts.get(method);
+        return (count != null ? count.get() : 0);
+    }
+
+    /**
+     * @return The highest number of threads the server has used at once, to tell them apart from the
+     * client threads when both run in the same process.
+     */
+    public synchronized int getPeakThreads() {
+        return (this.executor != null ? this.executor.getLargestPoolSize() : 0);
+    }
+
+    /**
+     * @return The current status of a number, {@link UserStatus#USER_NEW} if it is unknown.
+     */
+    public UserStatus getUserStatus(final String appId, final String countryCode, final String phoneNumber) {
+        UserRecord record = this.users.get(getUserKey(appId, countryCode, phoneNumber));
+        return (record != null ? record.getStatus(System.currentTimeMillis(), this.pinTimeToLive) : UserStatus.USER_NEW);
+    }
+
+    /**
+     * Start listening on the loopback interface.
+     *
+     * @param port The port, 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public synchronized void start(final int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), MAX_CONNECTIONS);
+        this.executor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+        this.server.setExecutor(this.executor);
+        this.server.createContext(PATH, new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    MockNexmoServer.this.handle(exchange);
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+        this.server.start();
+    }
+
+    /**
+     * Stop the server, requests in flight are dropped.
+     */
+    public synchronized void stop() {
+        if (this.server != null) {
+            this.server.stop(0);
+            this.executor.shutdownNow();
+            this.server = null;
+        }
+    }
+
+    /**
+     * @return The environment host to give to the client, e.g. {@code http://127.0.0.1:port/sdk/}.
+     */
+    public synchronized String getEndpoint() {
+        InetSocketAddress address = this.server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort() + PATH;
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        String method = getMethod(exchange.getRequestURI().getPath());
+        if (method == null) {
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_FOUND, -1);
+            return;
+        }
+        AtomicLong count = this.requestCounts.get(method);
+        if (count == null) {
+            this.requestCounts.putIfAbsent(method, new AtomicLong());
+            count = this.requestCounts.get(method);
+        }
+        count.incrementAndGet();
+
+        try {
+            delay(method);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        Fault fault = drawFault(method);
+        if (fault == Fault.DROP_CONNECTION) {
+            // Closing the exchange before the headers are sent closes the socket.
+            return;
+        } else if (fault == Fault.SERVICE_UNAVAILABLE) {
+            exchange.getResponseHeaders().add(Protocol.RETRY_AFTER, "1");
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_UNAVAILABLE, -1);
+            return;
+        } else if (fault == Fault.HTTP_ERROR) {
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_INTERNAL_ERROR, -1);
+            return;
+        }
+
+        Map<String, String> params = getRequestParams(exchange);
+        String appId = params.get(Protocol.PARAM_APP_ID);
+        String secretKey = (appId != null ? this.apps.get(appId) : null);
+        Map<String, Object> fields = new TreeMap<>();
+        int resultCode;
+        if (fault == Fault.INTERNAL_ERROR)
+            resultCode = ResultCodes.INTERNAL_ERROR;
+        else if (fault == Fault.THROTTLED)
+            resultCode = ResultCodes.REQUEST_REJECTED;
+        else if (secretKey == null)
+            resultCode = ResultCodes.BAD_APP_ID;
+        else if (!RequestSigning.verifyRequestParameters(params, secretKey))
+            resultCode = ResultCodes.INVALID_CREDENTIALS;
+        else if (Protocol.METHOD_TOKEN.equals(method))
+            resultCode = grantToken(appId, fields);
+        else if (!isTokenValid(appId, params.get(Protocol.PARAM_TOKEN)))
+            resultCode = ResultCodes.INVALID_TOKEN;
+        else
+            resultCode = dispatch(method, appId, params, fields);
+
+        byte[] body = getBody(resultCode, fields, fault == Fault.MALFORMED_BODY);
+        String signature = RequestSigning.signResponse(body, secretKey != null ? secretKey : "");
+        if (fault == Fault.BAD_SIGNATURE)
+            signature = RequestSigning.signResponse(body, UUID.randomUUID().toString());
+        exchange.getResponseHeaders().add(Protocol.RESPONSE_SIG, signature);
+        exchange.getResponseHeaders().add("Content-Type", Protocol.CONTENT_TYPE_JSON);
+        // The signature covers the uncompressed body.
+        String acceptEncoding = exchange.getRequestHeaders().getFirst(Protocol.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains(Protocol.ENCODING_GZIP)) {
+            body = gzip(body);
+            exchange.getResponseHeaders().add("Content-Encoding", Protocol.ENCODING_GZIP);
+        }
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+    }
+
+    private int grantToken(final String appId, final Map<String, Object> fields) {
+        String token = UUID.randomUUID().toString();
+        this.tokens.put(token, new TokenGrant(appId, System.currentTimeMillis() + this.tokenTimeToLive));
+        fields.put(Protocol.PARAM_TOKEN, token);
+        return ResultCodes.RESULT_CODE_OK;
+    }
+
+    private boolean isTokenValid(final String appId, final String token) {
+        if (token == null)
+            return false;
+        TokenGrant grant = this.tokens.get(token);
+        if (grant == null)
+            return false;
+        if (System.currentTimeMillis() >= grant.expiresAt) {
+            this.tokens.remove(token);
+            return false;
+        }
+        return grant.appId.equals(appId);
+    }
+
+    private int dispatch(final String method, final String appId, final Map<String, String> params, final Map<String, Object> fields) {
+        String phoneNumber = params.get(Protocol.PARAM_NUMBER);
+        if (!isPhoneNumberValid(phoneNumber))
+            return ResultCodes.INVALID_NUMBER;
+        String key = getUserKey(appId, params.get(Protocol.PARAM_COUNTRY_CODE), phoneNumber);
+        UserRecord record = this.users.get(key);
+        if (record == null) {
+            this.users.putIfAbsent(key, new UserRecord(this.blacklist.containsKey(phoneNumber)));
+            record = this.users.get(key);
+        }
+
+        long now = System.currentTimeMillis();
+        int resultCode;
+        synchronized (record) {
+            if (Protocol.METHOD_VERIFY.equals(method))
+                resultCode = record.verify(now, this.pinTimeToLive, this.verifiedTimeToLive);
+            else if (Protocol.METHOD_CHECK.equals(method))
+                resultCode = record.check(params.get(PARAM_CODE), this.pinCode, this.maxPinAttempts, now, this.pinTimeToLive);
+            else if (Protocol.METHOD_COMMAND.equals(method))
+                resultCode = record.command(params.get(Protocol.PARAM_COMMAND), now, this.pinTimeToLive, this.commandLockout);
+            else if (Protocol.METHOD_LOGOUT.equals(method))
+                resultCode = record.logout(now, this.pinTimeToLive);
+            else
+                resultCode = ResultCodes.RESULT_CODE_OK;
+            fields.put(Protocol.PARAM_RESULT_USER_STATUS, record.getStatus(now, this.pinTimeToLive).toString());
+        }
+        return resultCode;
+    }
+
+    private void delay(final String method) throws InterruptedException {
+        long[] latency = this.latencies.get(method);
+        if (latency == null)
+            latency = this.latencies.get(ANY_METHOD);
+        if (latency == null)
+            return;
+        long jitter = (latency[1] > 0 ? (long) (this.random.nextDouble() * latency[1]) : 0);
+        TimeUnit.MILLISECONDS.sleep(latency[0] + jitter);
+    }
+
+    private Fault drawFault(final String method) {
+        Fault fault = drawFault(this.faults.get(method));
+        return (fault != null ? fault : drawFault(this.faults.get(ANY_METHOD)));
+    }
+
+    private Fault drawFault(final Map<Fault, Double> methodFaults) {
+        if (methodFaults == null)
+            return null;
+        for (Map.Entry<Fault, Double> fault : methodFaults.entrySet())
+            if (this.random.nextDouble() < fault.getValue())
+                return fault.getKey();
+        return null;
+    }
+
+    private static byte[] getBody(final int resultCode, final Map<String, Object> fields, final boolean truncate) throws IOException {
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject();
+        json.name(Protocol.PARAM_RESULT_CODE).value(resultCode);
+        json.name(Protocol.PARAM_RESULT_MESSAGE).value(resultCode == ResultCodes.RESULT_CODE_OK ? "OK" : "Error " + resultCode);
+        json.name(Protocol.PARAM_TIMESTAMP).value(String.valueOf(System.currentTimeMillis() / 1000));
+        for (Map.Entry<String, Object> field : fields.entrySet())
+            json.name(field.getKey()).value(String.valueOf(field.getValue()));
+        json.endObject();
+        json.close();
+        String body = out.toString();
+        if (truncate)
+            body = body.substring(0, body.length() / 2);
+        return body.getBytes(UTF_8);
+    }
+
+    private static byte[] gzip(final byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        GZIPOutputStream gzipStream = new GZIPOutputStream(compressed);
+        gzipStream.write(content);
+        gzipStream.close();
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Get the parameters of the url query, merged with those of a POST body.
+     */
+    private static Map<String, String> getRequestParams(final HttpExchange exchange) throws IOException {
+        Map<String, String> params = new TreeMap<>(getParams(exchange.getRequestURI().getRawQuery()));
+        if (!"POST".equals(exchange.getRequestMethod()))
+            return params;
+
+        InputStream in = exchange.getRequestBody();
+        if (Protocol.ENCODING_GZIP.equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding")))
+            in = new GZIPInputStream(in);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1)
+            body.write(buffer, 0, read);
+        in.close();
+
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.startsWith("application/json"))
+            params.putAll(getJsonParams(body.toByteArray()));
+        else
+            params.putAll(getParams(new String(body.toByteArray(), UTF_8)));
+        return params;
+    }
+
+    /**
+     * @param body A flat JSON object, as sent by a {@code POST_JSON} client.
+     * @return Its fields, as strings.
+     */
+    static Map<String, String> getJsonParams(final byte[] body) throws IOException {
+        Map<String, String> params = new TreeMap<>();
+        JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), UTF_8));
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                    params.put(name, "");
+                } else if (reader.peek() == JsonToken.BOOLEAN) {
+                    params.put(name, String.valueOf(reader.nextBoolean()));
+                } else if (reader.peek() == JsonToken.STRING || reader.peek() == JsonToken.NUMBER) {
+                    params.put(name, reader.nextString());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException e) {
+            // Not a JSON object, the request fails the signature check.
+        } finally {
+            reader.close();
+        }
+        return params;
+    }
+
+    /**
+     * @param path The request path, e.g. {@code /sdk/verify/json}.
+     * @return The matching {@link Protocol} method, {@code null} if there is none.
+     */
+    static String getMethod(final String path) {
+        if (path == null || !path.startsWith(PATH))
+            return null;
+        String name = path.substring(PATH.length()) + "?";
+        for (String method : METHODS)
+            if (method.equals(name))
+                return method;
+        return null;
+    }
+
+    static Map<String, String> getParams(final String query) throws UnsupportedEncodingException {
+        if (query == null || query.isEmpty())
+            return Collections.emptyMap();
+        Map<String, String> params = new TreeMap<>();
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0)
+                params.put(URLDecoder.decode(pair.substring(0, separator), Config.PARAMS_ENCODING),
+                           URLDecoder.decode(pair.substring(separator + 1), Config.PARAMS_ENCODING));
+        }
+        return params;
+    }
+
+    private static boolean isPhoneNumberValid(final String phoneNumber) {
+        if (phoneNumber == null)
+            return false;
+        String digits = (phoneNumber.startsWith("+") ? phoneNumber.substring(1) : phoneNumber);
+        if (digits.length() < Defaults.MIN_PHONE_NUMBER_LENGTH || digits.length() > Defaults.MAX_PHONE_NUMBER_LENGTH)
+            return false;
+        for (int i = 0; i < digits.length(); i++)
+            if (!Character.isDigit(digits.charAt(i)))
+                return false;
+        return true;
+    }
+
+    private static String getUserKey(final String appId, final String countryCode, final String phoneNumber) {
+        return appId + '|' + (countryCode != null ? countryCode : "") + '|' + phoneNumber;
+    }
+
+    private static class TokenGrant {
+        final String appId;
+        final long expiresAt;
+
+        TokenGrant(final String appId, final long expiresAt) {
+            this.appId = appId;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.mock;
+
+import java.io.IOException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line entry point of the mock server.
+ * <pre>
+ * --app-id ID --secret KEY [--port 8080] [--pin 1234] [--latency 50] [--jitter 20]
+ * </pre>
+ * The server runs until the process is stopped.
+ */
+public class MockNexmoServerMain {
+
+    private MockNexmoServerMain() {}
+
+    public static void main(final String[] args) throws IOException {
+        Map<String, String> options = parse(args);
+        if (!options.containsKey("app-id") || !options.containsKey("secret")) {
+            System.err.println("Usage: --app-id ID --secret KEY [--port N] [--pin CODE] [--latency MS] [--jitter MS]");
+            System.exit(2);
+            return;
+        }
+
+        final MockNexmoServer server = new MockNexmoServer();
+        server.addApp(options.get("app-id"), options.get("secret"));
+        if (options.containsKey("pin"))
+            server.setPinCode(options.get("pin"));
+        if (options.containsKey("latency") || options.containsKey("jitter"))
+            server.setLatency(MockNexmoServer.ANY_METHOD,
+                              options.containsKey("latency") ? Long.parseLong(options.get("latency")) : 0,
+                              options.containsKey("jitter") ? Long.parseLong(options.get("jitter")) : 0);
+        server.start(options.containsKey("port") ? Integer.parseInt(options.get("port")) : 8080);
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                server.stop();
+            }
+        });
+        System.err.println("Listening on " + server.getEndpoint());
+    }
+
+    private static Map<String, String> parse(final String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--"))
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.mock;
+
+import com.nexmo.sdk.core.client.Protocol;
+import com.nexmo.sdk.core.client.ResultCodes;
+import com.nexmo.sdk.verify.event.UserStatus;
+
+/**
+ * Verification state of one number, following the {@link UserStatus} life cycle:
+ * <ul>
+ *     <li>{@link UserStatus#USER_NEW} -- verify --&gt; {@link UserStatus#USER_PENDING}, a PIN code is "sent".</li>
+ *     <li>{@link UserStatus#USER_PENDING} -- check with the right code --&gt; {@link UserStatus#USER_VERIFIED}.</li>
+ *     <li>{@link UserStatus#USER_PENDING} -- too many wrong codes --&gt; {@link UserStatus#USER_FAILED}.</li>
+ *     <li>{@link UserStatus#USER_PENDING} -- PIN lifetime elapsed --&gt; {@link UserStatus#USER_EXPIRED}.</li>
+ *     <li>{@link UserStatus#USER_PENDING} -- cancel --&gt; {@link UserStatus#USER_NEW}.</li>
+ *     <li>{@link UserStatus#USER_VERIFIED} -- logout --&gt; {@link UserStatus#USER_UNVERIFIED}.</li>
+ * </ul>
+ * A verify request from any status but pending, verified or blacklisted starts a new verification.
+ * Times are in milliseconds.
+ */
+class UserRecord {
+
+    private UserStatus status;
+    private long pendingSince;
+    private long verifiedAt;
+    private int pinAttempts;
+    private int events;
+
+    UserRecord(final boolean blacklisted) {
+        this.status = (blacklisted ? UserStatus.USER_BLACKLISTED : UserStatus.USER_NEW);
+    }
+
+    synchronized UserStatus getStatus(final long now, final long pinTimeToLive) {
+        if (this.status == UserStatus.USER_PENDING && now - this.pendingSince >= pinTimeToLive)
+            this.status = UserStatus.USER_EXPIRED;
+        return this.status;
+    }
+
+    /**
+     * @return The number of verification events (SMS, voice call) triggered for the pending verification.
+     */
+    synchronized int getEvents() {
+        return this.events;
+    }
+
+    synchronized int verify(final long now, final long pinTimeToLive, final long verifiedTimeToLive) {
+        switch (getStatus(now, pinTimeToLive)) {
+            case USER_PENDING:
+            case USER_BLACKLISTED:
+                return ResultCodes.RESULT_CODE_OK;
+            case USER_VERIFIED:
+                if (verifiedTimeToLive <= 0 || now - this.verifiedAt < verifiedTimeToLive)
+                    return ResultCodes.RESULT_CODE_OK;
+                startVerification(now);
+                return ResultCodes.VERIFICATION_EXPIRED_RESTARTED;
+            default:
+                startVerification(now);
+                return ResultCodes.RESULT_CODE_OK;
+        }
+    }
+
+    synchronized int check(final String code, final String expectedCode, final int maxPinAttempts,
+                           final long now, final long pinTimeToLive) {
+        if (getStatus(now, pinTimeToLive) != UserStatus.USER_PENDING)
+            return ResultCodes.CANNOT_PERFORM_CHECK;
+        if (expectedCode.equals(code)) {
+            this.status = UserStatus.USER_VERIFIED;
+            this.verifiedAt = now;
+            return ResultCodes.RESULT_CODE_OK;
+        }
+        if (++this.pinAttempts >= maxPinAttempts) {
+            this.status = UserStatus.USER_FAILED;
+            return ResultCodes.INVALID_CODE_TOO_MANY_TIMES;
+        }
+        return ResultCodes.INVALID_PIN_CODE;
+    }
+
+    synchronized int command(final String command, final long now, final long pinTimeToLive, final long commandLockout) {
+        boolean cancel = Protocol.PARAM_COMMAND_CANCEL.equals(command);
+        if (!cancel && !Protocol.PARAM_COMMAND_SKIP.equals(command))
+            return ResultCodes.COMMAND_NOT_SUPPORTED;
+        if (getStatus(now, pinTimeToLive) != UserStatus.USER_PENDING)
+            return ResultCodes.INVALID_USER_STATUS_FOR_COMMAND;
+        if (now - this.pendingSince < commandLockout)
+            return ResultCodes.COMMAND_NOT_SUPPORTED;
+        if (cancel)
+            this.status = UserStatus.USER_NEW;
+        else
+            this.events++;
+        return ResultCodes.RESULT_CODE_OK;
+    }
+
+    synchronized int logout(final long now, final long pinTimeToLive) {
+        if (getStatus(now, pinTimeToLive) != UserStatus.USER_VERIFIED)
+            return ResultCodes.INVALID_USER_STATUS_FOR_LOGOUT;
+        this.status = UserStatus.USER_UNVERIFIED;
+        return ResultCodes.RESULT_CODE_OK;
+    }
+
+    private void startVerification(final long now) {
+        this.status = UserStatus.USER_PENDING;
+        this.pendingSince = now;
+        this.pinAttempts = 0;
+        this.events = 1;
+    }
+
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.mock;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import com.nexmo.sdk.core.client.Client;
+import com.nexmo.sdk.core.client.HttpStatusException;
+import com.nexmo.sdk.core.client.Protocol;
+import com.nexmo.sdk.core.client.Request;
+import com.nexmo.sdk.core.client.Response;
+import com.nexmo.sdk.core.client.ResultCodes;
+import com.nexmo.sdk.core.client.Transport;
+import com.nexmo.sdk.core.request.QueryBuilder;
+import com.nexmo.sdk.core.request.RequestSigning;
+import com.nexmo.sdk.verify.client.InternalNetworkException;
+import com.nexmo.sdk.verify.core.response.BaseResponse;
+import com.nexmo.sdk.verify.core.response.CheckResponse;
+import com.nexmo.sdk.verify.core.response.ResponseAdapter;
+import com.nexmo.sdk.verify.core.response.SearchResponse;
+import com.nexmo.sdk.verify.core.response.TokenResponse;
+import com.nexmo.sdk.verify.core.response.VerifyResponse;
+import com.nexmo.sdk.verify.event.UserStatus;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MockNexmoServerTest {
+
+    private static final String TAG = MockNexmoServerTest.class.getSimpleName();
+    private static final String APP_ID = "app";
+    private static final String SECRET = "secret";
+    private static final String COUNTRY = "GB";
+    private static final String NUMBER = "447700900000";
+    private static final Gson gson = ResponseAdapter.registerAdapters(new GsonBuilder()).create();
+
+    private Client client = new Client();
+    private MockNexmoServer server;
+    private String lastSignature;
+
+    @Before
+    public void setUp() throws Exception {
+        this.server = new MockNexmoServer();
+        this.server.addApp(APP_ID, SECRET);
+        this.server.start(0);
+    }
+
+    @After
+    public void tearDown() {
+        this.server.stop();
+    }
+
+    @Test
+    public void testVerificationFlow() throws Exception {
+        String token = getToken();
+
+        VerifyResponse verify = send(Protocol.METHOD_VERIFY, userParams(token), VerifyResponse.class);
+        assertEquals(TAG + " verify", ResultCodes.RESULT_CODE_OK, verify.getResultCode());
+        assertEquals(TAG + " verify", UserStatus.USER_PENDING, verify.getUserStatus());
+
+        Map<String, String> check = userParams(token);
+        check.put("code", "0000");
+        CheckResponse wrong = send(Protocol.METHOD_CHECK, check, CheckResponse.class);
+        assertEquals(TAG + " wrong code", ResultCodes.INVALID_PIN_CODE, wrong.getResultCode());
+
+        check.put("code", MockNexmoServer.DEFAULT_PIN_CODE);
+        CheckResponse right = send(Protocol.METHOD_CHECK, check, CheckResponse.class);
+        assertEquals(TAG + " right code", ResultCodes.RESULT_CODE_OK, right.getResultCode());
+        assertEquals(TAG + " right code", UserStatus.USER_VERIFIED, right.getUserStatus());
+
+        SearchResponse search = send(Protocol.METHOD_SEARCH, userParams(token), SearchResponse.class);
+        assertEquals(TAG + " search", UserStatus.USER_VERIFIED, search.getUserStatus());
+
+        BaseResponse logout = send(Protocol.METHOD_LOGOUT, userParams(token), SearchResponse.class);
+        assertEquals(TAG + " logout", ResultCodes.RESULT_CODE_OK, logout.getResultCode());
+        assertEquals(TAG + " logout", UserStatus.USER_UNVERIFIED, this.server.getUserStatus(APP_ID, COUNTRY, NUMBER));
+
+        assertEquals(TAG + " request count", 2, this.server.getRequestCount(Protocol.METHOD_CHECK));
+    }
+
+    @Test
+    public void testCommand() throws Exception {
+        String token = getToken();
+        send(Protocol.METHOD_VERIFY, userParams(token), VerifyResponse.class);
+
+        Map<String, String> command = userParams(token);
+        command.put(Protocol.PARAM_COMMAND, Protocol.PARAM_COMMAND_CANCEL);
+        BaseResponse cancel = send(Protocol.METHOD_COMMAND, command, VerifyResponse.class);
+        assertEquals(TAG + " cancel", ResultCodes.RESULT_CODE_OK, cancel.getResultCode());
+        assertEquals(TAG + " cancel", UserStatus.USER_NEW, this.server.getUserStatus(APP_ID, COUNTRY, NUMBER));
+    }
+
+    @Test
+    public void testRejectedRequests() throws Exception {
+        assertEquals(TAG + " no token", ResultCodes.INVALID_TOKEN,
+                     send(Protocol.METHOD_VERIFY, userParams("unknown"), VerifyResponse.class).getResultCode());
+
+        Map<String, String> badNumber = userParams(getToken());
+        badNumber.put(Protocol.PARAM_NUMBER, "44-77");
+        assertEquals(TAG + " bad number", ResultCodes.INVALID_NUMBER,
+                     send(Protocol.METHOD_VERIFY, badNumber, VerifyResponse.class).getResultCode());
+
+        Map<String, String> badApp = appParams();
+        badApp.put(Protocol.PARAM_APP_ID, "other");
+        // Unknown apps have no secret key to sign the answer with.
+        assertEquals(TAG + " bad app", ResultCodes.BAD_APP_ID,
+                     gson.fromJson(execute(Protocol.METHOD_TOKEN, badApp, SECRET).getBodyReader(), TokenResponse.class).getResultCode());
+
+        assertEquals(TAG + " bad signature", ResultCodes.INVALID_CREDENTIALS,
+                     gson.fromJson(execute(Protocol.METHOD_TOKEN, appParams(), "wrong").getBodyReader(), TokenResponse.class).getResultCode());
+    }
+
+    @Test
+    public void testTokenExpiry() throws Exception {
+        this.server.setTokenTimeToLive(50);
+        String token = getToken();
+        Thread.sleep(100);
+        assertEquals(TAG, ResultCodes.INVALID_TOKEN,
+                     send(Protocol.METHOD_SEARCH, userParams(token), SearchResponse.class).getResultCode());
+    }
+
+    @Test
+    public void testFaults() throws Exception {
+        this.server.injectFault(Protocol.METHOD_TOKEN, Fault.THROTTLED, 1);
+        assertEquals(TAG + " throttled", ResultCodes.REQUEST_REJECTED,
+                     send(Protocol.METHOD_TOKEN, appParams(), TokenResponse.class).getResultCode());
+
+        this.server.clearInjections();
+        this.server.injectFault(MockNexmoServer.ANY_METHOD, Fault.SERVICE_UNAVAILABLE, 1);
+        try {
+            send(Protocol.METHOD_TOKEN, appParams(), TokenResponse.class);
+            fail(TAG + " 503 expected");
+        } catch (HttpStatusException e) {
+            assertEquals(TAG, 503, e.getStatusCode());
+            assertEquals(TAG + " retry after", 1000, e.getRetryAfter());
+        }
+
+        this.server.clearInjections();
+        this.server.injectFault(Protocol.METHOD_TOKEN, Fault.DROP_CONNECTION, 1);
+        try {
+            send(Protocol.METHOD_TOKEN, appParams(), TokenResponse.class);
+            fail(TAG + " dropped connection expected");
+        } catch (IOException expected) {
+        }
+
+        this.server.clearInjections();
+        this.server.injectFault(Protocol.METHOD_TOKEN, Fault.BAD_SIGNATURE, 1);
+        try {
+            send(Protocol.METHOD_TOKEN, appParams(), TokenResponse.class);
+            fail(TAG + " bad signature expected");
+        } catch (InternalNetworkException expected) {
+        }
+    }
+
+    @Test
+    public void testLatency() throws Exception {
+        this.server.setLatency(Protocol.METHOD_TOKEN, 100, 0);
+        long start = System.nanoTime();
+        getToken();
+        assertTrue(TAG + " latency", System.nanoTime() - start >= 100 * 1000000L);
+    }
+
+    @Test
+    public void testMethods() {
+        assertEquals(TAG, Protocol.METHOD_CHECK, MockNexmoServer.getMethod("/sdk/verify/check/json"));
+        assertEquals(TAG, null, MockNexmoServer.getMethod("/sdk/verify/unknown/json"));
+        assertEquals(TAG, null, MockNexmoServer.getMethod("/other/token/json"));
+    }
+
+    @Test
+    public void testPostForm() throws Exception {
+        this.client = new Client(Transport.POST_FORM, false);
+        String token = getToken();
+        VerifyResponse verify = send(Protocol.METHOD_VERIFY, userParams(token), VerifyResponse.class);
+        assertEquals(TAG + " form", UserStatus.USER_PENDING, verify.getUserStatus());
+        Map<String, String> params = userParams(token);
+        params.put("code", MockNexmoServer.DEFAULT_PIN_CODE);
+        CheckResponse check = send(Protocol.METHOD_CHECK, params, CheckResponse.class);
+        assertEquals(TAG + " form", UserStatus.USER_VERIFIED, check.getUserStatus());
+    }
+
+    @Test
+    public void testPostJsonCompressed() throws Exception {
+        this.client = new Client(Transport.POST_JSON, true);
+        String token = getToken();
+        VerifyResponse verify = send(Protocol.METHOD_VERIFY, userParams(token), VerifyResponse.class);
+        assertEquals(TAG + " json", UserStatus.USER_PENDING, verify.getUserStatus());
+
+        // A bad signature is still rejected.
+        Response response = execute(Protocol.METHOD_SEARCH, userParams(token), "wrong");
+        assertEquals(TAG + " json", ResultCodes.INVALID_CREDENTIALS,
+                     gson.fromJson(response.getBodyReader(), SearchResponse.class).getResultCode());
+    }
+
+    @Test
+    public void testGzipBody() throws Exception {
+        Map<String, String> params = new TreeMap<>(appParams());
+        QueryBuilder form = QueryBuilder.get();
+        RequestSigning.constructSignatureForRequestParameters(params, SECRET, form);
+        byte[] body = form.toString().getBytes("UTF-8");
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        GZIPOutputStream gzipStream = new GZIPOutputStream(compressed);
+        gzipStream.write(body);
+        gzipStream.close();
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(this.server.getEndpoint() + "token/json").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", Protocol.CONTENT_TYPE_FORM);
+        connection.setRequestProperty("Content-Encoding", Protocol.ENCODING_GZIP);
+        connection.setRequestProperty(Protocol.ACCEPT_ENCODING, Protocol.ENCODING_GZIP);
+        OutputStream out = connection.getOutputStream();
+        out.write(compressed.toByteArray());
+        out.close();
+
+        assertEquals(TAG + " gzip", HttpURLConnection.HTTP_OK, connection.getResponseCode());
+        assertEquals(TAG + " gzip", Protocol.ENCODING_GZIP, connection.getContentEncoding());
+        InputStream in = new GZIPInputStream(connection.getInputStream());
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[256];
+        int read;
+        while ((read = in.read(buffer)) != -1)
+            content.write(buffer, 0, read);
+        in.close();
+        assertEquals(TAG + " gzip", RequestSigning.signResponse(content.toByteArray(), SECRET),
+                     connection.getHeaderField(Protocol.RESPONSE_SIG));
+        TokenResponse token = gson.fromJson(content.toString("UTF-8"), TokenResponse.class);
+        assertEquals(TAG + " gzip", ResultCodes.RESULT_CODE_OK, token.getResultCode());
+    }
+
+    @Test
+    public void testJsonParams() throws Exception {
+        Map<String, String> params = MockNexmoServer.getJsonParams("{\"a\":\"x y\",\"b\":12,\"c\":null,\"d\":{\"e\":1}}".getBytes("UTF-8"));
+        assertEquals(TAG + " json", "x y", params.get("a"));
+        assertEquals(TAG + " json", "12", params.get("b"));
+        assertEquals(TAG + " json", "", params.get("c"));
+        assertFalse(TAG + " json", params.containsKey("d"));
+        assertTrue(TAG + " json", MockNexmoServer.getJsonParams("[1]".getBytes("UTF-8")).isEmpty());
+    }
+
+    private String getToken() throws Exception {
+        TokenResponse response = send(Protocol.METHOD_TOKEN, appParams(), TokenResponse.class);
+        assertEquals(TAG + " token", ResultCodes.RESULT_CODE_OK, response.getResultCode());
+        assertNotNull(TAG + " token", response.getToken());
+        assertFalse(TAG + " signature", this.lastSignature.isEmpty());
+        return response.getToken();
+    }
+
+    private Map<String, String> appParams() {
+        Map<String, String> params = new HashMap<>();
+        params.put(Protocol.PARAM_APP_ID, APP_ID);
+        params.put(Protocol.PARAM_DEVICE_ID, "device");
+        params.put(Protocol.PARAM_SOURCE_IP, "127.0.0.1");
+        return params;
+    }
+
+    private Map<String, String> userParams(final String token) {
+        Map<String, String> params = appParams();
+        params.put(Protocol.PARAM_TOKEN, token);
+        params.put(Protocol.PARAM_COUNTRY_CODE, COUNTRY);
+        params.put(Protocol.PARAM_NUMBER, NUMBER);
+        return params;
+    }
+
+    private <T extends BaseResponse> T send(final String method, final Map<String, String> params, final Class<T> type)
+            throws IOException, InternalNetworkException {
+        Response response = execute(method, params, SECRET);
+        T result = gson.fromJson(response.getBodyReader(), type);
+        if (!RequestSigning.verifyRequestSignature(result.getTimestamp(), response, SECRET))
+            throw new InternalNetworkException(TAG + " Response signature invalid.");
+        this.lastSignature = response.getSignature();
+        return result;
+    }
+
+    private Response execute(final String method, final Map<String, String> params, final String secretKey)
+            throws IOException, InternalNetworkException {
+        Request request = new Request(this.server.getEndpoint(), secretKey, method, params);
+        return this.client.execute(this.client.initConnection(request));
+    }
+
+}
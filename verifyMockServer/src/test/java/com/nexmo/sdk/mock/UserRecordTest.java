@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.mock;
+
+import com.nexmo.sdk.core.client.Protocol;
+import com.nexmo.sdk.core.client.ResultCodes;
+import com.nexmo.sdk.verify.event.UserStatus;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class UserRecordTest {
+
+    private static final String TAG = UserRecordTest.class.getSimpleName();
+    private static final long PIN_TTL = 1000;
+
+    @Test
+    public void testVerifyAndCheck() {
+        UserRecord record = new UserRecord(false);
+        assertEquals(TAG + " new", UserStatus.USER_NEW, record.getStatus(0, PIN_TTL));
+        assertEquals(TAG + " verify", ResultCodes.RESULT_CODE_OK, record.verify(0, PIN_TTL, 0));
+        assertEquals(TAG + " pending", UserStatus.USER_PENDING, record.getStatus(0, PIN_TTL));
+        assertEquals(TAG + " wrong code", ResultCodes.INVALID_PIN_CODE, record.check("0000", "1234", 3, 10, PIN_TTL));
+        assertEquals(TAG + " right code", ResultCodes.RESULT_CODE_OK, record.check("1234", "1234", 3, 20, PIN_TTL));
+        assertEquals(TAG + " verified", UserStatus.USER_VERIFIED, record.getStatus(30, PIN_TTL));
+        assertEquals(TAG + " check again", ResultCodes.CANNOT_PERFORM_CHECK, record.check("1234", "1234", 3, 40, PIN_TTL));
+        assertEquals(TAG + " logout", ResultCodes.RESULT_CODE_OK, record.logout(50, PIN_TTL));
+        assertEquals(TAG + " unverified", UserStatus.USER_UNVERIFIED, record.getStatus(60, PIN_TTL));
+        assertEquals(TAG + " logout again", ResultCodes.INVALID_USER_STATUS_FOR_LOGOUT, record.logout(70, PIN_TTL));
+    }
+
+    @Test
+    public void testTooManyWrongCodes() {
+        UserRecord record = new UserRecord(false);
+        record.verify(0, PIN_TTL, 0);
+        assertEquals(TAG, ResultCodes.INVALID_PIN_CODE, record.check("1", "1234", 2, 0, PIN_TTL));
+        assertEquals(TAG, ResultCodes.INVALID_CODE_TOO_MANY_TIMES, record.check("2", "1234", 2, 0, PIN_TTL));
+        assertEquals(TAG, UserStatus.USER_FAILED, record.getStatus(0, PIN_TTL));
+        assertEquals(TAG + " verify restarts", ResultCodes.RESULT_CODE_OK, record.verify(0, PIN_TTL, 0));
+        assertEquals(TAG + " attempts reset", ResultCodes.INVALID_PIN_CODE, record.check("1", "1234", 2, 0, PIN_TTL));
+    }
+
+    @Test
+    public void testExpiry() {
+        UserRecord record = new UserRecord(false);
+        record.verify(0, PIN_TTL, 0);
+        assertEquals(TAG, UserStatus.USER_PENDING, record.getStatus(PIN_TTL - 1, PIN_TTL));
+        assertEquals(TAG, UserStatus.USER_EXPIRED, record.getStatus(PIN_TTL, PIN_TTL));
+        assertEquals(TAG, ResultCodes.CANNOT_PERFORM_CHECK, record.check("1234", "1234", 3, PIN_TTL, PIN_TTL));
+
+        record.verify(2 * PIN_TTL, PIN_TTL, 500);
+        record.check("1234", "1234", 3, 2 * PIN_TTL, PIN_TTL);
+        assertEquals(TAG + " still verified", ResultCodes.RESULT_CODE_OK, record.verify(2 * PIN_TTL + 499, PIN_TTL, 500));
+        assertEquals(TAG + " verification expired", ResultCodes.VERIFICATION_EXPIRED_RESTARTED, record.verify(2 * PIN_TTL + 500, PIN_TTL, 500));
+        assertEquals(TAG, UserStatus.USER_PENDING, record.getStatus(2 * PIN_TTL + 500, PIN_TTL));
+    }
+
+    @Test
+    public void testCommands() {
+        UserRecord record = new UserRecord(false);
+        assertEquals(TAG + " not pending", ResultCodes.INVALID_USER_STATUS_FOR_COMMAND, record.command(Protocol.PARAM_COMMAND_CANCEL, 0, PIN_TTL, 0));
+        record.verify(0, PIN_TTL, 0);
+        assertEquals(TAG + " unknown", ResultCodes.COMMAND_NOT_SUPPORTED, record.command("reboot", 0, PIN_TTL, 0));
+        assertEquals(TAG + " locked out", ResultCodes.COMMAND_NOT_SUPPORTED, record.command(Protocol.PARAM_COMMAND_SKIP, 10, PIN_TTL, 30));
+        assertEquals(TAG + " skip", ResultCodes.RESULT_CODE_OK, record.command(Protocol.PARAM_COMMAND_SKIP, 30, PIN_TTL, 30));
+        assertEquals(TAG + " events", 2, record.getEvents());
+        assertEquals(TAG + " cancel", ResultCodes.RESULT_CODE_OK, record.command(Protocol.PARAM_COMMAND_CANCEL, 40, PIN_TTL, 30));
+        assertEquals(TAG, UserStatus.USER_NEW, record.getStatus(50, PIN_TTL));
+    }
+
+    @Test
+    public void testBlacklisted() {
+        UserRecord record = new UserRecord(true);
+        assertEquals(TAG, ResultCodes.RESULT_CODE_OK, record.verify(0, PIN_TTL, 0));
+        assertEquals(TAG, UserStatus.USER_BLACKLISTED, record.getStatus(0, PIN_TTL));
+        assertEquals(TAG, ResultCodes.CANNOT_PERFORM_CHECK, record.check("1234", "1234", 3, 0, PIN_TTL));
+    }
+
+}
@@ -13,16 +13,25 @@
 
 package com.nexmo.sdk;
 
+import android.os.Parcel;
 import android.test.mock.MockContext;
 
 import com.nexmo.sdk.core.client.ClientBuilderException;
+import com.nexmo.sdk.core.client.HedgePolicy;
+import com.nexmo.sdk.core.client.PooledClient;
+import com.nexmo.sdk.core.client.Transport;
 import com.nexmo.sdk.core.config.Config;
+import com.nexmo.sdk.core.config.Defaults;
+
+import java.io.File;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class NexmoClientTest {
@@ -83,6 +92,42 @@ public class NexmoClientTest {
         }
     }
 
+    @Test
+    public void testParcelledClientKeepsSettings() throws Exception {
+        final File filesDir = new File(System.getProperty("java.io.tmpdir"));
+        MockContext context = new MockContext() {
+            @Override
+            public File getFilesDir() {
+                return filesDir;
+            }
+        };
+        NexmoClient client = new NexmoClient.NexmoClientBuilder()
+                .context(context)
+                .applicationId("app_dummy")
+                .sharedSecretKey("secret_dummy")
+                .hedgePolicy(new HedgePolicy(90, 100))
+                .connectionClient(new PooledClient(Defaults.MAX_POOLED_CONNECTIONS, Defaults.CONNECTION_KEEP_ALIVE_DURATION,
+                                                   Transport.POST_JSON, true))
+                .verifiedUserCache(60 * 60 * 1000, 60 * 1000)
+                .build();
+        Parcel parcel = Parcel.obtain();
+        client.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+        NexmoClient activityClient = NexmoClient.CREATOR.createFromParcel(parcel);
+        parcel.recycle();
+        activityClient.setContext(context);
+
+        assertSame(TAG + " context not attached.", context, activityClient.getContext());
+        assertTrue(TAG + " pooled client lost.", activityClient.getConnectionClient() instanceof PooledClient);
+        PooledClient connectionClient = (PooledClient) activityClient.getConnectionClient();
+        assertEquals(TAG + " transport lost.", Transport.POST_JSON, connectionClient.getTransport());
+        assertTrue(TAG + " compression lost.", connectionClient.isCompressionEnabled());
+        assertEquals(TAG + " hedge policy lost.", 90, activityClient.getHedgePolicy().getPercentile());
+        assertNotNull(TAG + " user cache lost.", activityClient.getVerifiedUserCache());
+        assertEquals(TAG + " user cache file changed.", client.getVerifiedUserCache().getFile(),
+                     activityClient.getVerifiedUserCache().getFile());
+    }
+
     @Test
     public void testGetVersion() throws Exception {
         assertEquals(TAG + " testGetVersion", nexmoClient.getVersion(), Config.SDK_REVISION_CODE);
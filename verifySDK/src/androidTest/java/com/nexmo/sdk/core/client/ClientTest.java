@@ -26,7 +26,6 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
-import java.net.HttpURLConnection;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -34,7 +33,7 @@ public class ClientTest {
     private static final String TAG = ClientTest.class.getSimpleName();
     private Client client;
     private MockNexmoClient mockNexmoClient;
-    private HttpURLConnection connection;
+    private ClientConnection connection;
     Map<String, String> requestParams = new TreeMap<>();
 
     @Before
@@ -63,18 +62,25 @@ public class ClientTest {
         }
     }
 
+    @Test
+    public void testRetryAfter() {
+        assertEquals(TAG + " Retry-After seconds not parsed.", 120000, Client.getRetryAfter(" 120", -1, 0));
+        assertEquals(TAG + " Retry-After date not parsed.", 5000, Client.getRetryAfter("Wed, 21 Oct 2015 07:28:05 GMT", 10000, 5000));
+        assertEquals(TAG + " Missing Retry-After parsed.", -1, Client.getRetryAfter(null, -1, 0));
+    }
+
     @Test
     public void testOSFamilyHeader() throws Exception{
-        assertEquals(BaseService.OS_FAMILY + " invalid", connection.getHeaderField(BaseService.OS_FAMILY), Config.OS_ANDROID);
+        assertEquals(BaseService.OS_FAMILY + " invalid", connection.getConnection().getHeaderField(BaseService.OS_FAMILY), Config.OS_ANDROID);
     }
 
     @Test
     public void testOSRevisionHeader() throws Exception{
-        assertEquals(BaseService.OS_REVISION + " invalid", connection.getHeaderField(BaseService.OS_REVISION), DeviceProperties.getApiLevel());
+        assertEquals(BaseService.OS_REVISION + " invalid", connection.getConnection().getHeaderField(BaseService.OS_REVISION), DeviceProperties.getApiLevel());
     }
     @Test
     public void testSDKRevisionHeader() throws Exception{
-        assertEquals(BaseService.SDK_REVISION + " invalid", connection.getHeaderField(BaseService.SDK_REVISION), Config.SDK_REVISION_CODE);
+        assertEquals(BaseService.SDK_REVISION + " invalid", connection.getConnection().getHeaderField(BaseService.SDK_REVISION), Config.SDK_REVISION_CODE);
     }
 
 }
\ No newline at end of file
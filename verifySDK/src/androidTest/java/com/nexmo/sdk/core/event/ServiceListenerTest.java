@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.event;
+
+import com.nexmo.sdk.verify.core.event.BaseClientListener;
+import com.nexmo.sdk.verify.core.event.VerifyServiceListener;
+import com.nexmo.sdk.verify.event.UserStatus;
+import com.nexmo.sdk.verify.event.VerifyError;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ServiceListenerTest {
+
+    private static final String TAG = ServiceListenerTest.class.getSimpleName();
+
+    @Test
+    public void testClientListenerPerRequest() {
+        RecordingClientListener first = new RecordingClientListener();
+        RecordingClientListener second = new RecordingClientListener();
+        VerifyServiceListener firstListener = new VerifyServiceListener(first);
+        VerifyServiceListener secondListener = new VerifyServiceListener(second);
+
+        assertSame(TAG + " Client listener replaced by a later listener.", first, firstListener.getClientListener());
+        firstListener.onException(new IOException());
+        secondListener.onException(new IOException());
+        assertEquals(TAG + " Exception not routed to its own client.", 1, first.networkExceptions);
+        assertEquals(TAG + " Exception not routed to its own client.", 1, second.networkExceptions);
+    }
+
+    private static class RecordingClientListener implements BaseClientListener {
+        private int networkExceptions;
+
+        @Override
+        public void handleErrorResult(int resultCode) {
+        }
+
+        @Override
+        public void notifyErrorListeners(VerifyError verifyError) {
+        }
+
+        @Override
+        public void handleUserStateChanged(UserStatus userStatus) {
+        }
+
+        @Override
+        public void handleNetworkException(IOException exception) {
+            this.networkExceptions++;
+        }
+    }
+
+}
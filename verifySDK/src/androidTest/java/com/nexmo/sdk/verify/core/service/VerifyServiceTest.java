@@ -27,15 +27,14 @@ public class VerifyServiceTest {
     @Test
     public void testNullParamsStart() {
         assertFalse(TAG + " Service able to start without params.",
-                    VerifyService.getInstance().start(null, null));
+                    VerifyService.getInstance().start(null, null, null));
     }
 
     @Test
     public void testMissingRequestObjectStart() {
         VerifyService verifyService = VerifyService.getInstance();
-        verifyService.init(null);
         assertFalse(TAG + " Service able to start without params.",
-                    verifyService.start(null, new ServiceListener<VerifyResponse>() {
+                    verifyService.start(null, null, new ServiceListener<VerifyResponse>() {
             @Override
             public void onResponse(VerifyResponse response) {
             }
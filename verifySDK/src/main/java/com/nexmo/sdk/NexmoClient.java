@@ -18,10 +18,35 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import android.text.TextUtils;
 
+import java.io.File;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.nexmo.sdk.core.client.CircuitBreaker;
+import com.nexmo.sdk.core.client.Client;
 import com.nexmo.sdk.core.client.ClientBuilderException;
+import com.nexmo.sdk.core.client.ConnectionClient;
+import com.nexmo.sdk.core.client.HedgePolicy;
+import com.nexmo.sdk.core.client.PooledClient;
+import com.nexmo.sdk.core.client.RetryPolicy;
+import com.nexmo.sdk.core.client.Transport;
 import com.nexmo.sdk.core.config.Config;
+import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.core.device.DeviceContextCache;
+import com.nexmo.sdk.core.device.NoDeviceIdException;
+import com.nexmo.sdk.core.executor.MainThreadExecutor;
+import com.nexmo.sdk.core.metrics.PipelineMetrics;
+import com.nexmo.sdk.core.executor.RequestExecutor;
+import com.nexmo.sdk.core.platform.AndroidPlatform;
+import com.nexmo.sdk.core.platform.Platform;
+import com.nexmo.sdk.verify.core.cache.VerifiedUserCache;
 import com.nexmo.sdk.verify.core.request.VerifyRequest;
 import com.nexmo.sdk.verify.core.service.BaseService;
+import com.nexmo.sdk.verify.core.service.ServiceContext;
+import com.nexmo.sdk.verify.core.service.TokenCache;
 
 /**
  * The {@link com.nexmo.sdk.NexmoClient} is the Nexmo SDK entry point.
@@ -56,7 +81,12 @@ import com.nexmo.sdk.verify.core.service.BaseService;
  *     }
  * </pre>
  */
-public class NexmoClient implements Parcelable {
+public class NexmoClient implements Parcelable, ServiceContext {
+
+    static {
+        // The protocol classes are shared with the JVM, route their logging and device revision through Android.
+        Platform.install(new AndroidPlatform());
+    }
 
     /** Environment endpoint: production or sandbox. */
     public enum ENVIRONMENT_HOST {
@@ -71,17 +101,45 @@ public class NexmoClient implements Parcelable {
     private final String sharedSecretKey;
     private String environmentHost;
     private String GcmRegistrationToken;
-
-    private NexmoClient(final Context context, final String appId, final String secretKey, final String environmentHost, final String GcmRegistrationToken) {
+    private final long tokenTimeToLive;
+    private final long requestDeadline;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final HedgePolicy hedgePolicy;
+    private final PipelineMetrics metrics;
+    private final TokenCache tokenCache;
+    private final ConnectionClient connectionClient;
+    private final RequestExecutor requestExecutor;
+    private final Executor callbackExecutor;
+    private final VerifiedUserCache verifiedUserCache;
+    // Writes the verified user caches of the process, its thread stops when idle.
+    private static Executor cacheWriteExecutor;
+
+    private NexmoClient(final Context context, final String appId, final String secretKey, final String environmentHost, final String GcmRegistrationToken, final long tokenTimeToLive,
+                        final long requestDeadline, final RetryPolicy retryPolicy, final CircuitBreaker circuitBreaker, final HedgePolicy hedgePolicy,
+                        final PipelineMetrics metrics, final ConnectionClient connectionClient, final RequestExecutor requestExecutor, final Executor callbackExecutor,
+                        final VerifiedUserCache verifiedUserCache) {
         this.context = context;
         this.appId = appId;
         this.sharedSecretKey = secretKey;
         this.environmentHost = environmentHost;
         this.GcmRegistrationToken = GcmRegistrationToken;
+        this.tokenTimeToLive = tokenTimeToLive;
+        this.requestDeadline = requestDeadline;
+        this.retryPolicy = retryPolicy;
+        this.circuitBreaker = circuitBreaker;
+        this.hedgePolicy = hedgePolicy;
+        this.metrics = metrics;
+        this.tokenCache = new TokenCache(tokenTimeToLive, Defaults.TOKEN_REFRESH_WINDOW);
+        this.connectionClient = connectionClient;
+        this.requestExecutor = requestExecutor;
+        this.callbackExecutor = callbackExecutor;
+        this.verifiedUserCache = verifiedUserCache;
     }
 
     private NexmoClient(final Context context, final String appId, final String secretKey, final ENVIRONMENT_HOST environmentHost, final String GcmRegistrationToken) {
-        this(context, appId, secretKey, (environmentHost == ENVIRONMENT_HOST.PRODUCTION ? Config.ENDPOINT_PRODUCTION : null), GcmRegistrationToken);
+        this(context, appId, secretKey, (environmentHost == ENVIRONMENT_HOST.PRODUCTION ? Config.ENDPOINT_PRODUCTION : null), GcmRegistrationToken, Defaults.TOKEN_TIME_TO_LIVE,
+             Defaults.REQUEST_DEADLINE, new RetryPolicy(), new CircuitBreaker(), null, PipelineMetrics.disabled(), new Client(), RequestExecutor.getDefault(), new MainThreadExecutor(), null);
     }
 
     @Override
@@ -110,6 +168,17 @@ public class NexmoClient implements Parcelable {
         }
     }
 
+    /**
+     * Attach a context to a client read from a parcel, such as the application context of the activity
+     * it was passed to. The client keeps every other setting it was built with.
+     * @param context The application context.
+     */
+    public void setContext(final Context context) {
+        synchronized(this) {
+            this.context = context;
+        }
+    }
+
     /**
      * Returns the context used for this {@link com.nexmo.sdk.NexmoClient} instance.
      * @return The context.
@@ -142,6 +211,25 @@ public class NexmoClient implements Parcelable {
         return this.environmentHost;
     }
 
+    /**
+     * Returns the unique device ID, see {@link DeviceContextCache#getDeviceId(Context)}.
+     * @return The unique Id of the device.
+     * @throws NoDeviceIdException If the device ID is not available.
+     */
+    @Override
+    public String getDeviceId() throws NoDeviceIdException {
+        return DeviceContextCache.getDeviceId(this.context);
+    }
+
+    /**
+     * Returns the IP address of the current device, see {@link DeviceContextCache#getIPAddress(Context)}.
+     * @return The IP address of the current device, or {@code null} if not connected.
+     */
+    @Override
+    public String getIPAddress() {
+        return DeviceContextCache.getIPAddress(this.context);
+    }
+
     /**
      * Returns the provided GCM registration token value for this project.
      * This value should be set prior to any verification start......
@@ -151,6 +239,85 @@ public class NexmoClient implements Parcelable {
         return this.GcmRegistrationToken;
     }
 
+    /**
+     * @return The time in milliseconds allowed for a whole service call, token request included.
+     */
+    public long getRequestDeadline() {
+        return this.requestDeadline;
+    }
+
+    /**
+     * Returns the retry policy of the requests made with this {@link com.nexmo.sdk.NexmoClient} instance.
+     * @return The retry policy, by default a {@link com.nexmo.sdk.core.client.RetryPolicy} with the default settings.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return this.retryPolicy;
+    }
+
+    /**
+     * Returns the circuit breaker of the requests made with this {@link com.nexmo.sdk.NexmoClient} instance.
+     * @return The circuit breaker, by default a {@link com.nexmo.sdk.core.client.CircuitBreaker} with the default settings.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    /**
+     * Returns the hedge policy of the PIN code checks made with this {@link com.nexmo.sdk.NexmoClient} instance.
+     * @return The hedge policy, or {@code null} if checks are not hedged, which is the default.
+     */
+    public HedgePolicy getHedgePolicy() {
+        return this.hedgePolicy;
+    }
+
+    /**
+     * Returns the metrics recorded for the requests made with this {@link com.nexmo.sdk.NexmoClient} instance.
+     * @return The metrics, by default {@link com.nexmo.sdk.core.metrics.PipelineMetrics#disabled()}.
+     */
+    public PipelineMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Returns the token cache shared by all the requests made with this {@link com.nexmo.sdk.NexmoClient} instance.
+     * @return The token cache.
+     */
+    public TokenCache getTokenCache() {
+        return this.tokenCache;
+    }
+
+    /**
+     * Returns the cache of the user statuses, consulted by {@link com.nexmo.sdk.verify.client.VerifyClient} before a search.
+     * @return The verified user cache, or {@code null} if it is disabled, which is the default.
+     */
+    public VerifiedUserCache getVerifiedUserCache() {
+        return this.verifiedUserCache;
+    }
+
+    /**
+     * Returns the connection client used for all the requests made with this {@link com.nexmo.sdk.NexmoClient} instance.
+     * @return The connection client, by default a {@link com.nexmo.sdk.core.client.Client}.
+     */
+    public ConnectionClient getConnectionClient() {
+        return this.connectionClient;
+    }
+
+    /**
+     * Returns the executor that runs all the requests made with this {@link com.nexmo.sdk.NexmoClient} instance.
+     * @return The request executor, by default {@link com.nexmo.sdk.core.executor.RequestExecutor#getDefault()}.
+     */
+    public RequestExecutor getRequestExecutor() {
+        return this.requestExecutor;
+    }
+
+    /**
+     * Returns the executor on which the request callbacks are delivered.
+     * @return The callback executor, by default a {@link com.nexmo.sdk.core.executor.MainThreadExecutor}.
+     */
+    public Executor getCallbackExecutor() {
+        return this.callbackExecutor;
+    }
+
     /**
      * Returns the current version of the Nexmo SDK library.
      *
@@ -184,6 +351,7 @@ public class NexmoClient implements Parcelable {
      *                                      .sharedSecretKey("...")
      *                                      .applicationId("...")
      *                                      .GcmRegistrationId("...") // optional, for push integration only.
+     *                                      .connectionClient(new PooledClient()) // optional, reuses connections between requests.
      *                                      .build();
      *     } catch (ClientBuilderException e) {
      *         e.printStackTrace();
@@ -197,6 +365,17 @@ public class NexmoClient implements Parcelable {
         private String sharedSecretKey;
         private String environmentHost = Config.ENDPOINT_PRODUCTION;
         private String GcmRegistrationToken;
+        private long tokenTimeToLive = Defaults.TOKEN_TIME_TO_LIVE;
+        private long requestDeadline = Defaults.REQUEST_DEADLINE;
+        private RetryPolicy retryPolicy;
+        private CircuitBreaker circuitBreaker;
+        private HedgePolicy hedgePolicy;
+        private PipelineMetrics metrics;
+        private ConnectionClient connectionClient;
+        private RequestExecutor requestExecutor;
+        private Executor callbackExecutor;
+        private long verifiedUserFreshness;
+        private long userStatusFreshness;
 
         /**
          * Acquire a NexmoClient, based on the following mandatory parameters:
@@ -221,12 +400,34 @@ public class NexmoClient implements Parcelable {
                 ClientBuilderException.appendExceptionCause(stringBuilder, BaseService.PARAM_APP_ID);
             if(TextUtils.isEmpty(this.environmentHost))
                 ClientBuilderException.appendExceptionCause(stringBuilder, "environmentHost");
+            if(this.tokenTimeToLive <= 0)
+                ClientBuilderException.appendExceptionCause(stringBuilder, "tokenTimeToLive");
+            if(this.requestDeadline <= 0)
+                ClientBuilderException.appendExceptionCause(stringBuilder, "requestDeadline");
+            if(this.verifiedUserFreshness < 0 || this.userStatusFreshness < 0)
+                ClientBuilderException.appendExceptionCause(stringBuilder, "verifiedUserCache");
 
             String missingParameters = stringBuilder.toString();
             if(!TextUtils.isEmpty(missingParameters))
                 throw new ClientBuilderException("Building a NexmoClient instance has failed due to missing parameters: " + missingParameters);
             else
-                return new NexmoClient(this.context, this.appId, this.sharedSecretKey, this.environmentHost, this.GcmRegistrationToken);
+                return new NexmoClient(this.context, this.appId, this.sharedSecretKey, this.environmentHost, this.GcmRegistrationToken, this.tokenTimeToLive,
+                                       this.requestDeadline,
+                                       this.retryPolicy != null ? this.retryPolicy : new RetryPolicy(),
+                                       this.circuitBreaker != null ? this.circuitBreaker : new CircuitBreaker(),
+                                       this.hedgePolicy,
+                                       this.metrics != null ? this.metrics : PipelineMetrics.disabled(),
+                                       this.connectionClient != null ? this.connectionClient : new Client(),
+                                       this.requestExecutor != null ? this.requestExecutor : RequestExecutor.getDefault(),
+                                       this.callbackExecutor != null ? this.callbackExecutor : new MainThreadExecutor(),
+                                       buildVerifiedUserCache());
+        }
+
+        private VerifiedUserCache buildVerifiedUserCache() {
+            if (this.verifiedUserFreshness <= 0 && this.userStatusFreshness <= 0)
+                return null;
+            return newVerifiedUserCache(new File(this.context.getFilesDir(), getCacheFileName(this.appId)),
+                                        this.sharedSecretKey, this.verifiedUserFreshness, this.userStatusFreshness);
         }
 
         public NexmoClientBuilder context(final Context context) {
@@ -258,6 +459,110 @@ public class NexmoClient implements Parcelable {
             this.GcmRegistrationToken = GcmRegistrationToken;
             return this;
         }
+
+        /**
+         * Set how long a generated token is reused, in milliseconds.
+         * Should match the token expiration time configured on the Dashboard, by default {@link Defaults#TOKEN_TIME_TO_LIVE}.
+         */
+        public NexmoClientBuilder tokenTimeToLive(final long tokenTimeToLive) {
+            this.tokenTimeToLive = tokenTimeToLive;
+            return this;
+        }
+
+        /**
+         * Set the time allowed for a whole service call, token request included, in milliseconds.
+         * Calls still running past this deadline have their connection aborted and fail with a
+         * {@link java.net.SocketTimeoutException}. By default {@link Defaults#REQUEST_DEADLINE}.
+         */
+        public NexmoClientBuilder requestDeadline(final long requestDeadline) {
+            this.requestDeadline = requestDeadline;
+            return this;
+        }
+
+        /**
+         * Set how failed requests are retried, by default a {@link com.nexmo.sdk.core.client.RetryPolicy}
+         * with the default settings. Use {@link RetryPolicy#noRetry()} to disable retries.
+         */
+        public NexmoClientBuilder retryPolicy(final RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Set when requests of a method stop being sent because the SDK service keeps failing, by default a
+         * {@link com.nexmo.sdk.core.client.CircuitBreaker} with the default settings.
+         * Requests rejected by an open circuit fail with {@link com.nexmo.sdk.verify.event.VerifyError#SERVICE_UNAVAILABLE}.
+         * Use {@link CircuitBreaker#disabled()} to always send requests.
+         */
+        public NexmoClientBuilder circuitBreaker(final CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * Hedge the PIN code checks, to cut their tail latency: a check that has not returned after a percentile
+         * of the recent request latencies is sent a second time, and the first successful response wins.
+         * Checks are not hedged by default. See {@link com.nexmo.sdk.core.client.HedgePolicy} for the trade-offs.
+         */
+        public NexmoClientBuilder hedgePolicy(final HedgePolicy hedgePolicy) {
+            this.hedgePolicy = hedgePolicy;
+            return this;
+        }
+
+        /**
+         * Record latency histograms per stage and counters of every request, by default nothing is recorded.
+         * The same {@link com.nexmo.sdk.core.metrics.PipelineMetrics} instance may be shared by several clients.
+         */
+        public NexmoClientBuilder metrics(final PipelineMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Set the connection client used to send requests, by default a {@link com.nexmo.sdk.core.client.Client}
+         * that opens a new connection per request.
+         * Use a {@link com.nexmo.sdk.core.client.PooledClient} to reuse connections and TLS sessions between requests.
+         * Either can send the parameters in a POST body, with gzip compression, when the service supports it:
+         * {@code new PooledClient(maxConnections, keepAliveDuration, Transport.POST_FORM, true)}.
+         */
+        public NexmoClientBuilder connectionClient(final ConnectionClient connectionClient) {
+            this.connectionClient = connectionClient;
+            return this;
+        }
+
+        /**
+         * Keep the user statuses in an encrypted file, so that {@link com.nexmo.sdk.verify.client.VerifyClient#getUserStatus}
+         * answers from it instead of a token and a search round trip, e.g. on every application launch.
+         * The cache is disabled by default: a status changed on the SDK service by another device is only seen
+         * once the cached one is no longer fresh. Users are removed from it when logged out.
+         *
+         * @param verifiedFreshness How long a {@link com.nexmo.sdk.verify.event.UserStatus#USER_VERIFIED} status is used,
+         *                          in milliseconds, e.g. {@link Defaults#VERIFIED_USER_FRESHNESS}. 0 disables it.
+         * @param statusFreshness   How long the other statuses are used, in milliseconds, e.g.
+         *                          {@link Defaults#USER_STATUS_FRESHNESS}. 0 disables them.
+         */
+        public NexmoClientBuilder verifiedUserCache(final long verifiedFreshness, final long statusFreshness) {
+            this.verifiedUserFreshness = verifiedFreshness;
+            this.userStatusFreshness = statusFreshness;
+            return this;
+        }
+
+        /**
+         * Set the executor that runs the requests, by default {@link com.nexmo.sdk.core.executor.RequestExecutor#getDefault()}
+         * which is shared by all the {@link NexmoClient} instances.
+         */
+        public NexmoClientBuilder requestExecutor(final RequestExecutor requestExecutor) {
+            this.requestExecutor = requestExecutor;
+            return this;
+        }
+
+        /**
+         * Set the executor on which all the listeners are notified, by default the main thread.
+         */
+        public NexmoClientBuilder callbackExecutor(final Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
     }
 
     private NexmoClient(Parcel input) {
@@ -265,6 +570,57 @@ public class NexmoClient implements Parcelable {
         this.sharedSecretKey = input.readString();
         this.environmentHost = input.readString();
         this.GcmRegistrationToken = input.readString();
+        this.tokenTimeToLive = input.readLong();
+        this.requestDeadline = input.readLong();
+        // The retry budget, the circuit states and the hedge statistics are not carried over, only the settings.
+        this.retryPolicy = new RetryPolicy(input.readInt(), input.readLong(), input.readLong(), input.readInt());
+        this.circuitBreaker = new CircuitBreaker(input.readInt(), input.readInt(), input.readInt(), input.readLong(), input.readLong());
+        this.hedgePolicy = (input.readInt() == 1 ? new HedgePolicy(input.readInt(), input.readLong()) : null);
+        // Metrics stay with the process that records them.
+        this.metrics = PipelineMetrics.disabled();
+        this.tokenCache = new TokenCache(this.tokenTimeToLive, Defaults.TOKEN_REFRESH_WINDOW);
+        // Only the transport settings can be carried over, a custom connection client falls back to the default one.
+        // The pool hints are process wide, they have been applied by the parcelled client already.
+        int clientType = input.readInt();
+        if (clientType == 1)
+            this.connectionClient = new PooledClient(Defaults.MAX_POOLED_CONNECTIONS, Defaults.CONNECTION_KEEP_ALIVE_DURATION,
+                                                     Transport.values()[input.readInt()], input.readInt() == 1);
+        else if (clientType == 2)
+            this.connectionClient = new Client(Transport.values()[input.readInt()], input.readInt() == 1);
+        else
+            this.connectionClient = new Client();
+        this.requestExecutor = RequestExecutor.getDefault();
+        this.callbackExecutor = new MainThreadExecutor();
+        // The cache file is shared with the instance this one was written from.
+        if (input.readInt() == 1)
+            this.verifiedUserCache = newVerifiedUserCache(new File(input.readString()), this.sharedSecretKey, input.readLong(), input.readLong());
+        else
+            this.verifiedUserCache = null;
+    }
+
+    private static String getCacheFileName(final String appId) {
+        return Defaults.VERIFIED_USER_CACHE_FILE + "_" + Integer.toHexString(appId.hashCode());
+    }
+
+    private static VerifiedUserCache newVerifiedUserCache(final File file, final String secretKey,
+                                                          final long verifiedFreshness, final long statusFreshness) {
+        if (verifiedFreshness <= 0 && statusFreshness <= 0)
+            return null;
+        return new VerifiedUserCache(file, secretKey, verifiedFreshness, statusFreshness, getCacheWriteExecutor());
+    }
+
+    private static synchronized Executor getCacheWriteExecutor() {
+        if (cacheWriteExecutor == null)
+            cacheWriteExecutor = new ThreadPoolExecutor(0, 1, Defaults.REQUEST_THREAD_KEEP_ALIVE, TimeUnit.MILLISECONDS,
+                                                        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "NexmoUserCache");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        return cacheWriteExecutor;
     }
 
     @Override
@@ -273,6 +629,42 @@ public class NexmoClient implements Parcelable {
         out.writeString(this.sharedSecretKey);
         out.writeString(this.environmentHost);
         out.writeString(this.GcmRegistrationToken);
+        out.writeLong(this.tokenTimeToLive);
+        out.writeLong(this.requestDeadline);
+        out.writeInt(this.retryPolicy.getMaxAttempts());
+        out.writeLong(this.retryPolicy.getBaseDelay());
+        out.writeLong(this.retryPolicy.getMaxDelay());
+        out.writeInt(this.retryPolicy.getRetryBudget());
+        out.writeInt(this.circuitBreaker.getWindowSize());
+        out.writeInt(this.circuitBreaker.getMinimumCalls());
+        out.writeInt(this.circuitBreaker.getFailureRateThreshold());
+        out.writeLong(this.circuitBreaker.getSlowCallThreshold());
+        out.writeLong(this.circuitBreaker.getOpenDuration());
+        if (this.hedgePolicy != null) {
+            out.writeInt(1);
+            out.writeInt(this.hedgePolicy.getPercentile());
+            out.writeLong(this.hedgePolicy.getMinDelay());
+        } else
+            out.writeInt(0);
+        if (this.connectionClient instanceof PooledClient) {
+            PooledClient pooledClient = (PooledClient) this.connectionClient;
+            out.writeInt(1);
+            out.writeInt(pooledClient.getTransport().ordinal());
+            out.writeInt(pooledClient.isCompressionEnabled() ? 1 : 0);
+        } else if (this.connectionClient.getClass() == Client.class) {
+            Client client = (Client) this.connectionClient;
+            out.writeInt(2);
+            out.writeInt(client.getTransport().ordinal());
+            out.writeInt(client.isCompressionEnabled() ? 1 : 0);
+        } else
+            out.writeInt(0);
+        if (this.verifiedUserCache != null) {
+            out.writeInt(1);
+            out.writeString(this.verifiedUserCache.getFile().getPath());
+            out.writeLong(this.verifiedUserCache.getVerifiedFreshness());
+            out.writeLong(this.verifiedUserCache.getStatusFreshness());
+        } else
+            out.writeInt(0);
     }
 
 }
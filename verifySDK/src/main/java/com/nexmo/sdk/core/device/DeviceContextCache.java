@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.device;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+
+/**
+ * Process wide cache of the device properties sent with every request.
+ * <p>
+ * The device ID does not change for the lifetime of the process, so it is looked up once.
+ * The IP address is kept as a snapshot that is dropped whenever the connectivity changes, and looked up
+ * again by the next request. Building the request params is then a memory read instead of several
+ * binder calls and a network interface enumeration.
+ */
+public class DeviceContextCache {
+
+    private static final Object lock = new Object();
+    private static volatile String deviceId;
+    private static volatile String ipAddress;
+    private static int networkGeneration;
+    private static BroadcastReceiver connectivityReceiver;
+
+    private DeviceContextCache() {
+    }
+
+    /**
+     * Get the unique device ID, see {@link DeviceProperties#getDeviceId(Context)}.
+     * A missing device ID is not cached, so that it can be retrieved once the permission is granted.
+     *
+     * @param context The context of the sender activity.
+     * @return The unique Id of the device, or {@code null} if the context is not supplied.
+     * @throws NoDeviceIdException If the device ID is not available.
+     */
+    public static String getDeviceId(final Context context) throws NoDeviceIdException {
+        String id = deviceId;
+        if (id == null && context != null) {
+            id = DeviceProperties.getDeviceId(context);
+            deviceId = id;
+        }
+        return id;
+    }
+
+    /**
+     * Get the IP address of the current device, see {@link DeviceProperties#getIPAddress(Context)}.
+     *
+     * @param context The context of the sender activity.
+     * @return The IP address of the current device, or {@code null} if not connected or the context is not supplied.
+     */
+    public static String getIPAddress(final Context context) {
+        String address = ipAddress;
+        if (address != null || context == null)
+            return address;
+
+        int generation;
+        synchronized (lock) {
+            registerConnectivityReceiver(context.getApplicationContext());
+            generation = networkGeneration;
+        }
+        address = DeviceProperties.getIPAddress(context);
+        synchronized (lock) {
+            // Do not keep an address looked up while the network was changing.
+            if (generation == networkGeneration)
+                ipAddress = address;
+        }
+        return address;
+    }
+
+    /**
+     * Drop the IP address snapshot, the next request looks it up again.
+     */
+    public static void onNetworkChanged() {
+        synchronized (lock) {
+            networkGeneration++;
+            ipAddress = null;
+        }
+    }
+
+    private static void registerConnectivityReceiver(final Context appContext) {
+        if (connectivityReceiver != null)
+            return;
+        connectivityReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                // The sticky broadcast delivered on registration is the state the snapshot was taken in.
+                if (!isInitialStickyBroadcast())
+                    onNetworkChanged();
+            }
+        };
+        appContext.registerReceiver(connectivityReceiver, new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+    }
+
+}
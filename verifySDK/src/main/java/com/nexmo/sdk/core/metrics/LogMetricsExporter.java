@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.metrics;
+
+import java.util.Map;
+
+import android.util.Log;
+
+/**
+ * Exporter that logs the p50, p99 and max latency of every stage and the counters, one line per method.
+ */
+public class LogMetricsExporter implements MetricsExporter {
+
+    /** Log tag, apps may override it. */
+    private static final String TAG = LogMetricsExporter.class.getSimpleName();
+
+    @Override
+    public void export(final String method, final Map<Stage, Histogram> latencies, final Map<Counter, Long> counters) {
+        StringBuilder stringBuilder = new StringBuilder(method);
+        for (Map.Entry<Stage, Histogram> entry : latencies.entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getCount() == 0)
+                continue;
+            stringBuilder.append(' ').append(entry.getKey().name())
+                         .append("[p50=").append(histogram.getValueAtPercentile(50))
+                         .append("us p99=").append(histogram.getValueAtPercentile(99))
+                         .append("us max=").append(histogram.getMax()).append("us]");
+        }
+        for (Map.Entry<Counter, Long> entry : counters.entrySet())
+            stringBuilder.append(' ').append(entry.getKey().name()).append('=').append(entry.getValue());
+        Log.i(TAG, stringBuilder.toString());
+    }
+
+}
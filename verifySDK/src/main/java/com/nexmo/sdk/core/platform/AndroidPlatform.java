@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.core.platform;
+
+import android.util.Log;
+
+import com.nexmo.sdk.BuildConfig;
+import com.nexmo.sdk.core.device.DeviceProperties;
+
+/**
+ * Android {@link Platform}: reports the OS release and logs debug builds to logcat.
+ */
+public class AndroidPlatform extends Platform {
+
+    @Override
+    public String getOsRevision() {
+        return DeviceProperties.getApiLevel();
+    }
+
+    @Override
+    public boolean isDebug() {
+        return BuildConfig.DEBUG;
+    }
+
+    @Override
+    public void log(final String tag, final String message) {
+        Log.d(tag, message);
+    }
+
+}
@@ -13,21 +13,15 @@
 
 package com.nexmo.sdk.util;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-
 import android.content.Context;
 import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
-import android.telephony.TelephonyManager;
 import android.text.TextUtils;
-import android.util.Log;
-
-import com.nexmo.sdk.BuildConfig;
 
 /**
 * Utility class for getting the handset properties.
 * Used to check whether the handset uses a SIM card, or it is WiiFi only.
+* The SIM details are read from the cached {@link TelephonySnapshot}.
 */
 public class DeviceUtil {
 
@@ -41,14 +35,8 @@ public class DeviceUtil {
      * @return The country code of the current SIM card, {@code null} if the context supplied was {@code null}.
      */
     public static String getCountryCode(Context context) {
-        if (context != null) {
-            Context appContext = context.getApplicationContext();
-            TelephonyManager manager  = (TelephonyManager) appContext.getSystemService(Context.TELEPHONY_SERVICE);
-            String simCountryCode = manager.getSimCountryIso();
-            if (!TextUtils.isEmpty(simCountryCode))
-                return simCountryCode.toUpperCase();
-        }
-        return null;
+        TelephonySnapshot snapshot = TelephonySnapshot.getInstance(context);
+        return (snapshot != null ? snapshot.getDefaultSimCard().getCountryCode() : null);
     }
 
     /**
@@ -75,12 +63,8 @@ public class DeviceUtil {
      * @return The phone number, or  {@code null} if it is unavailable.
      */
     public static String getPhoneNumber(Context context) {
-        if (context != null) {
-            Context appContext = context.getApplicationContext();
-            TelephonyManager manager = (TelephonyManager) appContext.getSystemService(Context.TELEPHONY_SERVICE);
-            return manager.getLine1Number();
-        }
-        return null;
+        TelephonySnapshot snapshot = TelephonySnapshot.getInstance(context);
+        return (snapshot != null ? snapshot.getDefaultSimCard().getPhoneNumber() : null);
     }
 
     /**
@@ -91,14 +75,8 @@ public class DeviceUtil {
      *         False if the handset has no SIM or it is WifiOnly.
      */
     public static boolean isSIMAvailable(Context context) {
-        if (context != null) {
-            Context appContext = context.getApplicationContext();
-            TelephonyManager manager  = (TelephonyManager) appContext.getSystemService(Context.TELEPHONY_SERVICE);
-            return (TelephonyManager.SIM_STATE_READY == manager.getSimState() &&
-                    !TextUtils.isEmpty(manager.getLine1Number()) &&
-                    !TextUtils.isEmpty(manager.getSimCountryIso()));
-        }
-        return false;
+        TelephonySnapshot snapshot = TelephonySnapshot.getInstance(context);
+        return (snapshot != null && snapshot.getDefaultSimCard().isAvailable());
     }
 
     /**
@@ -108,29 +86,8 @@ public class DeviceUtil {
      * @return True if the handset if dualSim, false otherwise.
      */
     public static boolean isPhoneDualSIM(Context context) {
-        if (context != null) {
-            Context appContext = context.getApplicationContext();
-            TelephonyManager telephonyManager = ((TelephonyManager) appContext.getSystemService(Context.TELEPHONY_SERVICE));
-
-            try {
-                Class<?> telephonyClass = Class.forName(telephonyManager.getClass().getName());
-                Class<?>[] parameter = new Class[1];
-                parameter[0] = int.class;
-
-                Method getSimStateMethod = telephonyClass.getMethod("getSimState", parameter);
-                Object[] objectParam = new Object[1];
-                // Get Sim state for slotId 1.
-                objectParam[0] = 1;
-
-                Object objectDevice = getSimStateMethod.invoke(telephonyManager, objectParam);
-                if (objectDevice != null && Integer.parseInt(objectDevice.toString()) == TelephonyManager.SIM_STATE_READY)
-                    return true;
-            } catch(NoClassDefFoundError| ClassNotFoundException | NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-                if (BuildConfig.DEBUG)
-                    Log.i(TAG, "isPhoneDualSIM: not available");
-            }
-        }
-        return false;
+        TelephonySnapshot snapshot = TelephonySnapshot.getInstance(context);
+        return (snapshot != null && snapshot.isDualSIM());
     }
 
     /**
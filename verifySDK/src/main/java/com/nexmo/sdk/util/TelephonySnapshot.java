@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.telephony.TelephonyManager;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.nexmo.sdk.BuildConfig;
+
+/**
+ * Process wide snapshot of the handset SIM cards.
+ * <p>
+ * The {@link TelephonyManager} is fetched once and the hidden per slot {@link TelephonyManager} getSimState(int)
+ * method is resolved once, instead of on every probe. The SIM cards are read on first use and kept
+ * until a SIM state change broadcast is received.
+ * A ready SIM card without a known phone number, for instance before READ_PHONE_STATE is granted,
+ * is not kept: it is read again on next use.
+ */
+public class TelephonySnapshot {
+
+    /** Log tag. */
+    private static final String TAG = TelephonySnapshot.class.getSimpleName();
+
+    /** Hidden TelephonyIntents.ACTION_SIM_STATE_CHANGED broadcast action. */
+    private static final String ACTION_SIM_STATE_CHANGED = "android.intent.action.SIM_STATE_CHANGED";
+    /** Number of SIM slots probed. */
+    private static final int MAX_SIM_SLOTS = 2;
+
+    private static TelephonySnapshot instance;
+
+    private final TelephonyManager telephonyManager;
+    private final Method getSimStateMethod;
+    private volatile List<SimCard> simCards;
+
+    /**
+     * Get the SIM snapshot, created and registered for SIM state changes on first use.
+     * @param context The context of the sender activity.
+     *
+     * @return The SIM snapshot, {@code null} if the context supplied was {@code null}.
+     */
+    public static synchronized TelephonySnapshot getInstance(final Context context) {
+        if (instance == null && context != null) {
+            // Use the Application context to prevent memory leaks when referencing activities that are being killed.
+            Context appContext = context.getApplicationContext();
+            instance = new TelephonySnapshot((TelephonyManager) appContext.getSystemService(Context.TELEPHONY_SERVICE));
+            appContext.registerReceiver(new BroadcastReceiver() {
+                @Override
+                public void onReceive(Context context, Intent intent) {
+                    // The sticky broadcast delivered on registration does not change anything.
+                    if (!isInitialStickyBroadcast())
+                        instance.invalidate();
+                }
+            }, new IntentFilter(ACTION_SIM_STATE_CHANGED));
+        }
+        return instance;
+    }
+
+    private TelephonySnapshot(final TelephonyManager telephonyManager) {
+        this.telephonyManager = telephonyManager;
+        this.getSimStateMethod = resolveGetSimState(telephonyManager);
+    }
+
+    /**
+     * Get the SIM cards of the handset, one per slot, in slot order.
+     * The first card is the default SIM, the other slots are only known on dual SIM handsets.
+     *
+     * @return The SIM cards of the handset.
+     */
+    public List<SimCard> getSimCards() {
+        List<SimCard> cards = this.simCards;
+        if (cards == null) {
+            cards = readSimCards();
+            SimCard defaultCard = cards.get(0);
+            if (!defaultCard.isReady() || !TextUtils.isEmpty(defaultCard.getPhoneNumber()))
+                this.simCards = cards;
+        }
+        return cards;
+    }
+
+    /**
+     * Get the default SIM card.
+     *
+     * @return The default SIM card.
+     */
+    public SimCard getDefaultSimCard() {
+        return getSimCards().get(0);
+    }
+
+    /**
+     * Check if a second SIM card is ready.
+     *
+     * @return True if the handset if dual SIM, false otherwise.
+     */
+    public boolean isDualSIM() {
+        List<SimCard> cards = getSimCards();
+        return (cards.size() > 1 && cards.get(1).isReady());
+    }
+
+    /**
+     * Drop the SIM cards, they are read again on next use.
+     */
+    public void invalidate() {
+        this.simCards = null;
+    }
+
+    private List<SimCard> readSimCards() {
+        List<SimCard> cards = new ArrayList<>(MAX_SIM_SLOTS);
+        String countryCode = this.telephonyManager.getSimCountryIso();
+        String phoneNumber = null;
+        try {
+            phoneNumber = this.telephonyManager.getLine1Number();
+        } catch (SecurityException e) {
+            if (BuildConfig.DEBUG)
+                Log.i(TAG, "Phone number not available, READ_PHONE_STATE not granted.");
+        }
+        cards.add(new SimCard(0,
+                              this.telephonyManager.getSimState(),
+                              phoneNumber,
+                              (TextUtils.isEmpty(countryCode) ? null : countryCode.toUpperCase())));
+        if (this.getSimStateMethod != null) {
+            for (int slot = 1; slot < MAX_SIM_SLOTS; slot++) {
+                try {
+                    Object state = this.getSimStateMethod.invoke(this.telephonyManager, slot);
+                    if (state != null)
+                        cards.add(new SimCard(slot, Integer.parseInt(state.toString()), null, null));
+                } catch (InvocationTargetException | IllegalAccessException | NumberFormatException e) {
+                    if (BuildConfig.DEBUG)
+                        Log.i(TAG, "SIM state not available for slot " + slot);
+                }
+            }
+        }
+        return Collections.unmodifiableList(cards);
+    }
+
+    private static Method resolveGetSimState(final TelephonyManager telephonyManager) {
+        try {
+            return telephonyManager.getClass().getMethod("getSimState", int.class);
+        } catch (NoClassDefFoundError | NoSuchMethodException e) {
+            if (BuildConfig.DEBUG)
+                Log.i(TAG, "Dual SIM state: not available");
+        }
+        return null;
+    }
+
+    /**
+     * The SIM card of a slot, as read when the snapshot was taken.
+     */
+    public static class SimCard {
+        private final int slot;
+        private final int state;
+        private final String phoneNumber;
+        private final String countryCode;
+
+        SimCard(final int slot, final int state, final String phoneNumber, final String countryCode) {
+            this.slot = slot;
+            this.state = state;
+            this.phoneNumber = phoneNumber;
+            this.countryCode = countryCode;
+        }
+
+        public int getSlot() {
+            return this.slot;
+        }
+
+        /**
+         * @return One of the {@link TelephonyManager} SIM_STATE values.
+         */
+        public int getState() {
+            return this.state;
+        }
+
+        /**
+         * @return The line 1 phone number, or {@code null} if it is unavailable.
+         */
+        public String getPhoneNumber() {
+            return this.phoneNumber;
+        }
+
+        /**
+         * @return The upper case ISO country code of the SIM provider, or {@code null} if it is unavailable.
+         */
+        public String getCountryCode() {
+            return this.countryCode;
+        }
+
+        public boolean isReady() {
+            return (this.state == TelephonyManager.SIM_STATE_READY);
+        }
+
+        /**
+         * Checks if the SIM card is ready and both its phone number and country code are known.
+         */
+        public boolean isAvailable() {
+            return (isReady() && !TextUtils.isEmpty(this.phoneNumber) && !TextUtils.isEmpty(this.countryCode));
+        }
+    }
+
+}
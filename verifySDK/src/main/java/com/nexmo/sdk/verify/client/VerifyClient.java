@@ -27,16 +27,26 @@ import android.util.Log;
 import com.nexmo.sdk.NexmoClient;
 import com.nexmo.sdk.core.client.ResultCodes;
 import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.core.executor.Cancellable;
+import com.nexmo.sdk.core.executor.ResultFuture;
 import com.nexmo.sdk.core.gcm.VerifyGcmListenerService;
-import com.nexmo.sdk.util.DeviceUtil;
+import com.nexmo.sdk.util.TelephonySnapshot;
+import com.nexmo.sdk.verify.core.cache.VerifiedUserCache;
 import com.nexmo.sdk.verify.core.event.BaseClientListener;
 import com.nexmo.sdk.verify.core.event.CheckServiceListener;
 import com.nexmo.sdk.verify.core.event.CommandServiceListener;
+import com.nexmo.sdk.verify.core.event.FutureServiceListener;
 import com.nexmo.sdk.verify.core.event.SearchServiceListener;
 import com.nexmo.sdk.verify.core.event.VerifyServiceListener;
+import com.nexmo.sdk.verify.core.request.BaseRequest;
 import com.nexmo.sdk.verify.core.request.CommandRequest;
 import com.nexmo.sdk.verify.core.request.SearchRequest;
 import com.nexmo.sdk.verify.core.request.VerifyRequest;
+import com.nexmo.sdk.verify.core.response.BaseResponse;
+import com.nexmo.sdk.verify.core.response.CheckResponse;
+import com.nexmo.sdk.verify.core.response.SearchResponse;
+import com.nexmo.sdk.verify.core.response.VerifyResponse;
+import com.nexmo.sdk.verify.core.service.BaseService;
 import com.nexmo.sdk.verify.core.service.CheckService;
 import com.nexmo.sdk.verify.core.service.CommandService;
 import com.nexmo.sdk.verify.core.service.SearchService;
@@ -52,7 +62,9 @@ import com.nexmo.sdk.verify.ui.VerifyPhoneNumberActivity;
 import com.nexmo.sdk.verify.ui.response.ManagedVerifyResponse;
 
 import java.io.IOException;
-import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Future;
 
 /**
  * The {@link com.nexmo.sdk.verify.client.VerifyClient} provides the entry point to verification flow provided by the Nexmo SDK.
@@ -138,6 +150,22 @@ import java.util.HashSet;
  *         }
  *     }
  * </pre>
+ *
+ * <p> When the {@link NexmoClient} has a {@link VerifiedUserCache}, user statuses received from the SDK service are cached,
+ * and a search for a user with a fresh cached status is answered without a request.
+ * A {@link com.nexmo.sdk.verify.event.Command#LOGOUT} removes the user from the cache.
+ *
+ * <p> Every request is also available as a {@link Future}, for composing requests or waiting for them with a timeout.
+ * Rejected requests fail with a {@link VerifyException}, network errors with an {@link IOException}.
+ * Cancelling a future aborts its request. The futures are completed on the {@link NexmoClient} callback executor,
+ * the main thread by default, so do not wait for them on that thread.
+ * <p> Example usage, searching two users in parallel from a background thread:
+ * <pre>
+ *     Future&lt;UserStatus&gt; first = myVerifyClient.getUserStatusAsync(myCountryCode, myPhoneNo);
+ *     Future&lt;UserStatus&gt; second = myVerifyClient.getUserStatusAsync(otherCountryCode, otherPhoneNo);
+ *     UserStatus firstStatus = first.get(10, TimeUnit.SECONDS);
+ *     UserStatus secondStatus = second.get(10, TimeUnit.SECONDS);
+ * </pre>
  */
 public class VerifyClient implements BaseClientListener {
 
@@ -146,7 +174,8 @@ public class VerifyClient implements BaseClientListener {
     public static final String MESSAGE_KEY_TIMER_STATE_DONE = "timer_state_done";
     private NexmoClient nexmoClient;
     private VerifyRequest verifyRequest = new VerifyRequest();
-    private HashSet<VerifyClientListener> verifyClientListeners;
+    // Listeners are notified without locking, registration copies the set.
+    private final Set<VerifyClientListener> verifyClientListeners = new CopyOnWriteArraySet<>();
     // when userStatus becomes PENDING wait for 30s before enabling all the commands.
     private Handler commandsHandler = new Handler();
     private final Runnable commandsRunnable = new Runnable() {
@@ -156,9 +185,6 @@ public class VerifyClient implements BaseClientListener {
         }
     };
     // Internal listeners.
-    private VerifyServiceListener verifyServiceListener;
-    private CheckServiceListener checkServiceListener;
-    private SearchServiceListener searchServiceListener;
     private BroadcastReceiver gcmPayloadBroadcastReceiver;
     private BroadcastReceiver managedVerifyUIReceiver;
 
@@ -168,7 +194,6 @@ public class VerifyClient implements BaseClientListener {
      * @param nexmoClient The {@link NexmoClient NexmoClient} is the Nexmo SDK entry point.
      */
     public VerifyClient(final NexmoClient nexmoClient) {
-        this.verifyClientListeners = new HashSet<>();
         this.nexmoClient = nexmoClient;
         setGcmBroadcastReceiver();
     }
@@ -179,10 +204,7 @@ public class VerifyClient implements BaseClientListener {
      * @param verifyClientListener A verify client listener.
      */
     public void addVerifyListener(final VerifyClientListener verifyClientListener) {
-        if(!this.verifyClientListeners.contains(verifyClientListener))
-            synchronized(this) {
-                this.verifyClientListeners.add(verifyClientListener);
-            }
+        this.verifyClientListeners.add(verifyClientListener);
     }
 
     /**
@@ -192,18 +214,14 @@ public class VerifyClient implements BaseClientListener {
      * @return {@code true} if the object was removed, {@code false} otherwise.
      */
     public boolean removeVerifyListener(final VerifyClientListener verifyClientListener) {
-        synchronized(this) {
-            return this.verifyClientListeners.remove(verifyClientListener);
-        }
+        return this.verifyClientListeners.remove(verifyClientListener);
     }
 
     /**
      * Remove all verify client listeners associated to this {@link VerifyClient} instance.
      */
     public void removeVerifyListeners() {
-        synchronized(this) {
-            this.verifyClientListeners.clear();
-        }
+        this.verifyClientListeners.clear();
     }
 
     /**
@@ -217,17 +235,20 @@ public class VerifyClient implements BaseClientListener {
      * Otherwise, please call {@link VerifyClient#getVerifiedUser(String, String)} with values provided by the user.
      */
     public void getVerifiedUser() {
-        Context appContext = this.nexmoClient.getContext();
+        TelephonySnapshot snapshot = TelephonySnapshot.getInstance(this.nexmoClient.getContext());
+        // Use the first SIM card with a readable phone number and country code.
+        if (snapshot != null)
+            for (TelephonySnapshot.SimCard simCard : snapshot.getSimCards())
+                if (simCard.isAvailable()) {
+                    getVerifiedUser(simCard.getCountryCode(), simCard.getPhoneNumber());
+                    return;
+                }
 
-        if (DeviceUtil.isSIMAvailable(appContext))
-            getVerifiedUser(DeviceUtil.getCountryCode(appContext), DeviceUtil.getPhoneNumber(appContext));
-        else {
-            warnIfMissingListener();
-            if (BuildConfig.DEBUG)
-                Log.d(TAG, "SIM card cannot be read. Please use the VerifyClient.getVerifiedUser method and supply params " +
-                        "for phone number and country code for the verification to be initiated.");
-            notifyErrorListeners(VerifyError.NUMBER_REQUIRED);
-        }
+        warnIfMissingListener();
+        if (BuildConfig.DEBUG)
+            Log.d(TAG, "SIM card cannot be read. Please use the VerifyClient.getVerifiedUser method and supply params " +
+                    "for phone number and country code for the verification to be initiated.");
+        notifyErrorListeners(VerifyError.NUMBER_REQUIRED);
     }
 
     /**
@@ -299,11 +320,20 @@ public class VerifyClient implements BaseClientListener {
                         "Please set it to the getVerifiedUser to be able to receive search events.");
         }
         else {
-            setupSearchListener(searchListener);
-            SearchService service = SearchService.getInstance();
-            service.init(new SearchRequest(countryCode, phoneNumber));
-            service.start(this.nexmoClient,
-                    this.searchServiceListener);
+            final UserStatus cachedStatus = getCachedUserStatus(countryCode, phoneNumber);
+            if (cachedStatus != null) {
+                // Answered as a response would be, never from within this call.
+                this.nexmoClient.getCallbackExecutor().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        searchListener.onUserStatus(cachedStatus);
+                    }
+                });
+                return;
+            }
+            SearchService.getInstance().start(this.nexmoClient,
+                    new SearchRequest(countryCode, phoneNumber),
+                    new SearchServiceListener(searchListener, this));
         }
     }
 
@@ -352,16 +382,133 @@ public class VerifyClient implements BaseClientListener {
                         "Please set it to the command method.");
         }
         else {
+            invalidateCachedUserStatus(countryCode, phoneNumber, command);
             CommandServiceListener commandServiceListener = new CommandServiceListener(command,
                     commandListener,
                     this);
-            CommandService service = CommandService.getInstance();
-            service.init(new CommandRequest(countryCode, phoneNumber, command));
-            service.start(this.nexmoClient,
+            CommandService.getInstance().start(this.nexmoClient,
+                    new CommandRequest(countryCode, phoneNumber, command),
                     commandServiceListener);
         }
     }
 
+    /**
+     * Verify the user of the current handset, see {@link #getVerifiedUser(String, String)}.
+     * <p> The result is only reported through the returned future, the {@link VerifyClientListener}s are not notified.
+     * A PIN code can then be checked with {@link #checkPinCodeAsync(String)} or {@link #checkPinCode(String)}.
+     *
+     * @param countryCode The country code of the current SIM card.
+     * @param phoneNumber The phone number of the current handset. Only mobile numbers are accepted.
+     * @return The future user status, {@link UserStatus#USER_PENDING} while the PIN code is being delivered.
+     */
+    public Future<UserStatus> getVerifiedUserAsync(final String countryCode,
+                                                   final String phoneNumber) {
+        if (isVerifyMissingInput(countryCode, phoneNumber))
+            return failedFuture(VerifyError.NUMBER_REQUIRED, "Phone number and country code are required.");
+
+        updateVerifyRequest(countryCode, phoneNumber, false);
+        return submit(VerifyService.getInstance(),
+                      new VerifyRequest(countryCode, phoneNumber, false),
+                      new FutureServiceListener<VerifyResponse, UserStatus>(new ResultFuture<UserStatus>()) {
+                          @Override
+                          protected UserStatus getResult(final VerifyResponse response) {
+                              return response.getUserStatus();
+                          }
+
+                          @Override
+                          protected boolean isSuccess(final int resultCode) {
+                              return (resultCode == ResultCodes.RESULT_CODE_OK ||
+                                      resultCode == ResultCodes.VERIFICATION_RESTARTED ||
+                                      resultCode == ResultCodes.VERIFICATION_EXPIRED_RESTARTED);
+                          }
+
+                          @Override
+                          protected VerifyError getError(final int resultCode) {
+                              return VerifyError.fromResultCode(resultCode);
+                          }
+                      });
+    }
+
+    /**
+     * Check the PIN code of the ongoing verification, see {@link #checkPinCode(String)}.
+     * <p> The result is only reported through the returned future, the {@link VerifyClientListener}s are not notified.
+     *
+     * @param pinCode PIN code your end user has provided into your application (min 4 digits).
+     * @return The future user status, {@link UserStatus#USER_VERIFIED} if the PIN code matches.
+     */
+    public Future<UserStatus> checkPinCodeAsync(final String pinCode) {
+        if (TextUtils.isEmpty(pinCode) || pinCode.length() < Defaults.MIN_CODE_LENGTH)
+            return failedFuture(VerifyError.INVALID_PIN_CODE, "Supplied PIN code has an invalid length.");
+        if (!this.verifyRequest.isPinCheckAvailable())
+            return failedFuture(VerifyError.VERIFICATION_NOT_STARTED, "There is no verification in progress.");
+
+        final VerifyRequest checkRequest = updateVerifyRequestPin(pinCode);
+        return submit(CheckService.getInstance(),
+                      checkRequest,
+                      new FutureServiceListener<CheckResponse, UserStatus>(new ResultFuture<UserStatus>()) {
+                          @Override
+                          protected UserStatus getResult(final CheckResponse response) {
+                              return response.getUserStatus();
+                          }
+
+                          @Override
+                          protected VerifyError getError(final int resultCode) {
+                              return VerifyError.fromResultCode(resultCode);
+                          }
+                      });
+    }
+
+    /**
+     * Get/Search the current state of the user, see {@link #getUserStatus(String, String, SearchListener)}.
+     * Several searches can run in parallel.
+     *
+     * @param countryCode The country code of the current SIM card.
+     * @param phoneNumber The phone number of the current handset. Only mobile numbers are accepted.
+     * @return The future user status.
+     */
+    public Future<UserStatus> getUserStatusAsync(final String countryCode,
+                                                 final String phoneNumber) {
+        UserStatus cachedStatus = getCachedUserStatus(countryCode, phoneNumber);
+        if (cachedStatus != null) {
+            ResultFuture<UserStatus> future = new ResultFuture<>();
+            future.set(cachedStatus);
+            return future;
+        }
+        return submit(SearchService.getInstance(),
+                      new SearchRequest(countryCode, phoneNumber),
+                      new FutureServiceListener<SearchResponse, UserStatus>(new ResultFuture<UserStatus>()) {
+                          @Override
+                          protected UserStatus getResult(final SearchResponse response) {
+                              return response.getUserStatus();
+                          }
+                      });
+    }
+
+    /**
+     * Initiate a command for the current user, see {@link #command(String, String, Command, CommandListener)}.
+     *
+     * @param countryCode The country code of the current SIM card.
+     * @param phoneNumber The phone number of the current handset. Only mobile numbers are accepted.
+     * @param command     The {@link com.nexmo.sdk.verify.event.Command} action to perform. The command is mandatory.
+     * @return The future command, completed once the command has been performed.
+     */
+    public Future<Command> commandAsync(final String countryCode,
+                                        final String phoneNumber,
+                                        final Command command) {
+        if (command == null)
+            return failedFuture(VerifyError.COMMAND_NOT_SUPPORTED, "The command action is missing.");
+
+        invalidateCachedUserStatus(countryCode, phoneNumber, command);
+        return submit(CommandService.getInstance(),
+                      new CommandRequest(countryCode, phoneNumber, command),
+                      new FutureServiceListener<VerifyResponse, Command>(new ResultFuture<Command>()) {
+                          @Override
+                          protected Command getResult(final VerifyResponse response) {
+                              return command;
+                          }
+                      });
+    }
+
     /**
      * Start the verify flow with the pre-defined UI inflated.
      * Use this method instead of {@link VerifyClient#getVerifiedUser(String, String)} when you don't want to setup any UI in place.
@@ -388,50 +535,7 @@ public class VerifyClient implements BaseClientListener {
      */
     @Override
     public void handleErrorResult(final int resultCode) {
-        switch(resultCode) {
-            case ResultCodes.INVALID_NUMBER: {
-                notifyErrorListeners(VerifyError.INVALID_NUMBER);
-                break;
-            }
-            case ResultCodes.INVALID_CREDENTIALS:
-            case ResultCodes.BAD_APP_ID:{
-                notifyErrorListeners(VerifyError.INVALID_CREDENTIALS);
-                break;
-            }
-            case ResultCodes.INVALID_CODE_TOO_MANY_TIMES: {
-                notifyErrorListeners(VerifyError.INVALID_CODE_TOO_MANY_TIMES);
-                break;
-            }
-            case ResultCodes.INVALID_PIN_CODE:
-            case ResultCodes.INVALID_CODE: {
-                notifyErrorListeners(VerifyError.INVALID_PIN_CODE);
-                break;
-            }
-            case ResultCodes.REQUEST_REJECTED: {
-                notifyErrorListeners(VerifyError.THROTTLED);
-                break;
-            }
-            case ResultCodes.QUOTA_EXCEEDED: {
-                notifyErrorListeners(VerifyError.QUOTA_EXCEEDED);
-                break;
-            }
-            case ResultCodes.CANNOT_PERFORM_CHECK: {
-                notifyErrorListeners(VerifyError.CANNOT_PERFORM_CHECK);
-                break;
-            }
-            case ResultCodes.SDK_NOT_SUPPORTED: {
-                notifyErrorListeners(VerifyError.SDK_REVISION_NOT_SUPPORTED);
-                break;
-            }
-            case ResultCodes.OS_NOT_SUPPORTED: {
-                notifyErrorListeners(VerifyError.OS_NOT_SUPPORTED);
-                break;
-            }
-            default: {
-                notifyErrorListeners(VerifyError.INTERNAL_ERR);
-                break;
-            }
-        }
+        notifyErrorListeners(VerifyError.fromResultCode(resultCode));
     }
 
     /**
@@ -494,13 +598,32 @@ public class VerifyClient implements BaseClientListener {
             notifyErrorListeners(VerifyError.NUMBER_REQUIRED);
         else {
             updateVerifyRequest(countryCode, phoneNumber, isStandalone);
-            setupVerifyClientListeners();
-            VerifyService service = VerifyService.getInstance();
-            service.init(this.verifyRequest);
-            service.start(this.nexmoClient, this.verifyServiceListener);
+            VerifyService.getInstance().start(this.nexmoClient,
+                    new VerifyRequest(countryCode, phoneNumber, isStandalone),
+                    new VerifyServiceListener(this));
         }
     }
 
+    /**
+     * Start a request that completes the future of its listener, cancelling the future cancels the request.
+     */
+    private <R extends BaseRequest, T extends BaseResponse, V> Future<V> submit(final BaseService<R, T> service,
+                                                                               final R request,
+                                                                               final FutureServiceListener<T, V> listener) {
+        Cancellable call = service.submit(this.nexmoClient, request, listener);
+        if (call != null)
+            listener.getFuture().setCancellable(call);
+        else
+            listener.onFail(VerifyError.INTERNAL_ERR, "Request cannot be initiated.");
+        return listener.getFuture();
+    }
+
+    private static <V> Future<V> failedFuture(final VerifyError verifyError, final String message) {
+        ResultFuture<V> future = new ResultFuture<>();
+        future.setException(new VerifyException(verifyError, message));
+        return future;
+    }
+
     /**
      * Handle the GCM notifications broadcast receiver, enable it to automatically trigger the check request
      * for the ongoing verify.
@@ -583,25 +706,33 @@ public class VerifyClient implements BaseClientListener {
             notifyErrorListeners(VerifyError.VERIFICATION_NOT_STARTED);
         }
         else {
-            updateVerifyRequestPin(pinCode);
-            CheckService service = CheckService.getInstance();
-            service.init(this.verifyRequest);
-            service.start(this.nexmoClient,
-                    this.checkServiceListener);
+            CheckService.getInstance().start(this.nexmoClient,
+                    updateVerifyRequestPin(pinCode),
+                    new CheckServiceListener(this));
         }
     }
 
-    /**
-     * Setup the search related listeners. Used only when the search functionality is requested.
-     * @param searchListener The provided search listener.
-     */
-    private void setupSearchListener(final SearchListener searchListener) {
-        this.searchServiceListener = new SearchServiceListener(searchListener, this);
+
+    private UserStatus getCachedUserStatus(final String countryCode, final String phoneNumber) {
+        VerifiedUserCache cache = this.nexmoClient.getVerifiedUserCache();
+        if (cache == null || TextUtils.isEmpty(phoneNumber))
+            return null;
+        UserStatus userStatus = cache.get(countryCode, phoneNumber);
+        if (userStatus != null && BuildConfig.DEBUG)
+            Log.d(TAG, "User status from the cache: " + userStatus);
+        return userStatus;
     }
 
-    private void setupVerifyClientListeners(){
-        this.verifyServiceListener = new VerifyServiceListener(this);
-        this.checkServiceListener = new CheckServiceListener(this);
+    /**
+     * Remove a user from the cache as soon as a logout is requested, the {@link CommandService} removes it
+     * once any command has been performed.
+     *
+     * @param command The command about to be sent.
+     */
+    private void invalidateCachedUserStatus(final String countryCode, final String phoneNumber, final Command command) {
+        VerifiedUserCache cache = this.nexmoClient.getVerifiedUserCache();
+        if (cache != null && command == Command.LOGOUT)
+            cache.invalidate(countryCode, phoneNumber);
     }
 
     private void updateVerifyRequest(final String countryCode,
@@ -618,9 +749,19 @@ public class VerifyClient implements BaseClientListener {
         }
     }
 
-    private void updateVerifyRequestPin(final String pinCode) {
+    /**
+     * Store the PIN code on the ongoing verify request.
+     * @param pinCode The PIN code.
+     * @return A copy of the verify request for the check call, so later updates do not change a check in flight.
+     */
+    private VerifyRequest updateVerifyRequestPin(final String pinCode) {
         synchronized(this) {
             this.verifyRequest.setPinCode(pinCode);
+            VerifyRequest checkRequest = new VerifyRequest(this.verifyRequest.getCountryCode(),
+                                                           this.verifyRequest.getPhoneNumber(),
+                                                           pinCode);
+            checkRequest.setStandalone(this.verifyRequest.isStandalone());
+            return checkRequest;
         }
     }
 
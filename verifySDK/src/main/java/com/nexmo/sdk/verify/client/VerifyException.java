@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.client;
+
+import com.nexmo.sdk.verify.event.VerifyError;
+
+/**
+ * A verify request was rejected, reported by the futures returned from {@link VerifyClient}.
+ */
+public class VerifyException extends Exception {
+
+    private final VerifyError verifyError;
+
+    /**
+     * Constructs a new VerifyException with the current stack trace, the specified error code and detail message.
+     *
+     * @param verifyError The {@link VerifyError} code that describes the error.
+     * @param message     The detail message for this exception. Accepts null.
+     */
+    public VerifyException(final VerifyError verifyError, final String message) {
+        super(message);
+        this.verifyError = verifyError;
+    }
+
+    /**
+     * @return The {@link VerifyError} code that describes the error.
+     */
+    public VerifyError getVerifyError() {
+        return this.verifyError;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + " " + this.verifyError;
+    }
+
+}
@@ -17,7 +17,6 @@ import com.nexmo.sdk.core.client.ResultCodes;
 import com.nexmo.sdk.core.event.ServiceListener;
 
 import com.nexmo.sdk.verify.core.response.CheckResponse;
-import com.nexmo.sdk.verify.core.service.CheckService;
 
 public class CheckServiceListener extends ServiceListener<CheckResponse> {
 
@@ -32,11 +31,6 @@ public class CheckServiceListener extends ServiceListener<CheckResponse> {
                 getClientListener().handleUserStateChanged(response.getUserStatus());
                 break;
             }
-            case ResultCodes.INVALID_TOKEN: {
-                // Restart check and request for a new token.
-                CheckService.getInstance().start(CheckService.getInstance().getNexmoClient(), this);
-                break;
-            }
             default: {
                 getClientListener().handleErrorResult(response.getResultCode());
                 break;
@@ -17,7 +17,6 @@ import com.nexmo.sdk.core.client.ResultCodes;
 import com.nexmo.sdk.core.event.ServiceListener;
 
 import com.nexmo.sdk.verify.core.response.VerifyResponse;
-import com.nexmo.sdk.verify.core.service.CommandService;
 
 import com.nexmo.sdk.verify.event.*;
 
@@ -53,11 +52,6 @@ public class CommandServiceListener extends ServiceListener<VerifyResponse> {
                 commandListener.onSuccess(this.command);
                 break;
             }
-            case ResultCodes.INVALID_TOKEN: {
-                // Issue a new token request.
-                CommandService.getInstance().start(CommandService.getInstance().getNexmoClient(), this);
-                break;
-            }
             default: {
                 commandListener.onError(this.command,
                                         formatResultCode(response.getResultCode()),
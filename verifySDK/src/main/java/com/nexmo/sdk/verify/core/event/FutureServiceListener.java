@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2015 Nexmo Inc
+ * All rights reserved.
+ *
+ * Licensed only under the Nexmo Verify SDK License Agreement located at
+ *
+ * https://www.nexmo.com/terms-use/verify-sdk/ (the “License”)
+ *
+ * You may not use, exercise any rights with respect to or exploit this SDK,
+ * or any modifications or derivative works thereof, except in accordance
+ * with the License.
+ */
+
+package com.nexmo.sdk.verify.core.event;
+
+import java.io.IOException;
+
+import com.nexmo.sdk.core.client.ResultCodes;
+import com.nexmo.sdk.core.event.ServiceListener;
+import com.nexmo.sdk.core.executor.ResultFuture;
+
+import com.nexmo.sdk.verify.client.VerifyException;
+import com.nexmo.sdk.verify.core.response.BaseResponse;
+import com.nexmo.sdk.verify.event.VerifyError;
+
+/**
+ * SDK internal network response callback that completes a {@link ResultFuture}.
+ * Rejected responses complete the future with a {@link VerifyException}, network errors with the IOException.
+ *
+ * @param <T> expected response type.
+ * @param <V> result type of the future.
+ */
+public abstract class FutureServiceListener<T extends BaseResponse, V> extends ServiceListener<T> {
+
+    private final ResultFuture<V> future;
+
+    public FutureServiceListener(final ResultFuture<V> future) {
+        this.future = future;
+    }
+
+    public ResultFuture<V> getFuture() {
+        return this.future;
+    }
+
+    /**
+     * Get the future result from a successful response.
+     *
+     * @param response The successful response.
+     * @return The result.
+     */
+    protected abstract V getResult(final T response);
+
+    /**
+     * Checks if the response result code is a success.
+     */
+    protected boolean isSuccess(final int resultCode) {
+        return (resultCode == ResultCodes.RESULT_CODE_OK);
+    }
+
+    /**
+     * Map the result code of a rejected response.
+     */
+    protected VerifyError getError(final int resultCode) {
+        return formatResultCode(resultCode);
+    }
+
+    @Override
+    public void onResponse(final T response) {
+        if (isSuccess(response.getResultCode()))
+            this.future.set(getResult(response));
+        else
+            onFail(getError(response.getResultCode()), response.getResultMessage());
+    }
+
+    @Override
+    public void onFail(final VerifyError errorCode, final String reasonMessage) {
+        this.future.setException(new VerifyException(errorCode, reasonMessage));
+    }
+
+    @Override
+    public void onException(final IOException exception) {
+        this.future.setException(exception);
+    }
+
+}
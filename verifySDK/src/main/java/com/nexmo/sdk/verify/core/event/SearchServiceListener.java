@@ -17,7 +17,6 @@ import com.nexmo.sdk.core.client.ResultCodes;
 import com.nexmo.sdk.core.event.ServiceListener;
 
 import com.nexmo.sdk.verify.core.response.SearchResponse;
-import com.nexmo.sdk.verify.core.service.SearchService;
 
 import com.nexmo.sdk.verify.event.*;
 
@@ -52,11 +51,6 @@ public class SearchServiceListener extends ServiceListener<SearchResponse> {
                 searchListener.onUserStatus(response.getUserStatus());
                 break;
             }
-            case ResultCodes.INVALID_TOKEN: {
-                // Restart search and issue a new token request.
-                SearchService.getInstance().start(SearchService.getInstance().getNexmoClient(), this);
-                break;
-            }
             default: {
                 searchListener.onError(formatResultCode(response.getResultCode()),
                                                         response.getResultMessage());
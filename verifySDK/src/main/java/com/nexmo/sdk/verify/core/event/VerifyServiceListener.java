@@ -17,7 +17,6 @@ import com.nexmo.sdk.core.client.ResultCodes;
 import com.nexmo.sdk.core.event.ServiceListener;
 
 import com.nexmo.sdk.verify.core.response.VerifyResponse;
-import com.nexmo.sdk.verify.core.service.VerifyService;
 
 import com.nexmo.sdk.verify.event.UserStatus;
 import com.nexmo.sdk.verify.event.VerifyError;
@@ -55,12 +54,6 @@ public class VerifyServiceListener extends ServiceListener<VerifyResponse> {
                 getClientListener().notifyErrorListeners(VerifyError.INVALID_USER_STATUS_FOR_STATELESS_VERIFICATION);
                 break;
             }
-            case ResultCodes.INVALID_TOKEN: {
-                // Restart verify and request for a new token.
-                // If token continues to expire the service will send back a throttled error.
-                VerifyService.getInstance().start(VerifyService.getInstance().getNexmoClient(), this);
-                break;
-            }
             default: {
                 getClientListener().handleErrorResult(response.getResultCode());
                 break;
@@ -13,151 +13,98 @@
 
 package com.nexmo.sdk.verify.core.service;
 
-import android.app.Service;
-import android.content.Intent;
-import android.os.IBinder;
 import android.text.TextUtils;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonSyntaxException;
-
 import com.nexmo.sdk.NexmoClient;
 
-import com.nexmo.sdk.core.client.Response;
+import com.nexmo.sdk.core.client.Protocol;
 import com.nexmo.sdk.core.client.ResultCodes;
-
-import com.nexmo.sdk.core.event.ServiceListener;
-import com.nexmo.sdk.core.request.RequestSigning;
+import com.nexmo.sdk.core.executor.Priority;
+import com.nexmo.sdk.verify.core.cache.VerifiedUserCache;
+import com.nexmo.sdk.verify.core.request.BaseRequest;
 import com.nexmo.sdk.verify.core.response.BaseResponse;
+import com.nexmo.sdk.verify.event.UserStatus;
 
 /**
  * Wrapper class used for constructing and sending Http requests to Nexmo services.
+ * <p>
+ * The requests are sent by the pure Java {@link ServiceEndpoint}, the Android services only build them
+ * from the {@link NexmoClient} state. Whoever starts a request, the {@link VerifiedUserCache} of the client
+ * is updated from its response.
  *
+ * @param <R> request type.
  * @param <T> expected response type.
  */
-public abstract class BaseService<T extends BaseResponse> extends Service {
+public abstract class BaseService<R extends BaseRequest, T extends BaseResponse> extends ServiceEndpoint<NexmoClient, R, T> {
 
     /** Log tag, apps may override it. */
     private static final String TAG = BaseService.class.getSimpleName();
-    private NexmoClient nexmoClient;
-    private ServiceListener<T> serviceListener;
 
     /** HTTP request methods. */
-    public static final String METHOD_TOKEN = "token/json?";
-    public static final String METHOD_VERIFY = "verify/json?";
-    public static final String METHOD_VERIFY_STANDALONE = "verify/oneshot/json?";
-    public static final String METHOD_CHECK = "verify/check/json?";
-    public static final String METHOD_CHECK_STANDALONE = "verify/oneshot/check/json?";
-    public static final String METHOD_SEARCH = "verify/search/json?";
-    public static final String METHOD_LOGOUT = "verify/logout/json?";
-    public static final String METHOD_COMMAND = "verify/control/json?";
+    public static final String METHOD_TOKEN = Protocol.METHOD_TOKEN;
+    public static final String METHOD_VERIFY = Protocol.METHOD_VERIFY;
+    public static final String METHOD_VERIFY_STANDALONE = Protocol.METHOD_VERIFY_STANDALONE;
+    public static final String METHOD_CHECK = Protocol.METHOD_CHECK;
+    public static final String METHOD_CHECK_STANDALONE = Protocol.METHOD_CHECK_STANDALONE;
+    public static final String METHOD_SEARCH = Protocol.METHOD_SEARCH;
+    public static final String METHOD_LOGOUT = Protocol.METHOD_LOGOUT;
+    public static final String METHOD_COMMAND = Protocol.METHOD_COMMAND;
 
     /** Custom HTTP header fields. */
-    public static final String OS_FAMILY = "X-NEXMO-SDK-OS-FAMILY";
-    public static final String OS_REVISION = "X-NEXMO-SDK-OS-REVISION";
-    public static final String SDK_REVISION = "X-NEXMO-SDK-REVISION";
-    public static final String RESPONSE_SIG = "X-NEXMO-RESPONSE-SIGNATURE";
+    public static final String OS_FAMILY = Protocol.OS_FAMILY;
+    public static final String OS_REVISION = Protocol.OS_REVISION;
+    public static final String SDK_REVISION = Protocol.SDK_REVISION;
+    public static final String RESPONSE_SIG = Protocol.RESPONSE_SIG;
 
     /** HTTP request parameters. */
-    public static final String PARAM_DEVICE_ID = "device_id";
-    public static final String PARAM_SOURCE_IP = "source_ip_address";
-    public static final String PARAM_APP_ID = "app_id";
-    public static final String PARAM_NUMBER = "number";
-    public static final String PARAM_COUNTRY_CODE = "country";
-    public static final String PARAM_TIMESTAMP = "timestamp";
-    public static final String PARAM_LANGUAGE = "lg";
-    public static final String PARAM_SIGNATURE = "sig";
-    public static final String PARAM_COMMAND = "cmd";
-    public static final String PARAM_COMMAND_CANCEL = "cancel";
-    public static final String PARAM_COMMAND_SKIP = "trigger_next_event";
-    public static final String PARAM_GCM_REGISTRATION_TOKEN = "push_token";
+    public static final String PARAM_DEVICE_ID = Protocol.PARAM_DEVICE_ID;
+    public static final String PARAM_SOURCE_IP = Protocol.PARAM_SOURCE_IP;
+    public static final String PARAM_APP_ID = Protocol.PARAM_APP_ID;
+    public static final String PARAM_NUMBER = Protocol.PARAM_NUMBER;
+    public static final String PARAM_COUNTRY_CODE = Protocol.PARAM_COUNTRY_CODE;
+    public static final String PARAM_TIMESTAMP = Protocol.PARAM_TIMESTAMP;
+    public static final String PARAM_LANGUAGE = Protocol.PARAM_LANGUAGE;
+    public static final String PARAM_SIGNATURE = Protocol.PARAM_SIGNATURE;
+    public static final String PARAM_COMMAND = Protocol.PARAM_COMMAND;
+    public static final String PARAM_COMMAND_CANCEL = Protocol.PARAM_COMMAND_CANCEL;
+    public static final String PARAM_COMMAND_SKIP = Protocol.PARAM_COMMAND_SKIP;
+    public static final String PARAM_GCM_REGISTRATION_TOKEN = Protocol.PARAM_GCM_REGISTRATION_TOKEN;
 
     /** HTTP response parameters. */
-    public static final String PARAM_RESULT_CODE = "result_code";
-    public static final String PARAM_RESULT_MESSAGE = "result_message";
-    public static final String PARAM_RESULT_USER_STATUS = "user_status";
+    public static final String PARAM_RESULT_CODE = Protocol.PARAM_RESULT_CODE;
+    public static final String PARAM_RESULT_MESSAGE = Protocol.PARAM_RESULT_MESSAGE;
+    public static final String PARAM_RESULT_USER_STATUS = Protocol.PARAM_RESULT_USER_STATUS;
 
     /** User status */
-    public static final String USER_NEW = "new";
-    public static final String USER_PENDING = "pending";
-    public static final String USER_VERIFIED = "verified";
-    public static final String USER_UNVERIFIED = "unverified";
-    public static final String USER_FAILED = "failed";
-    public static final String USER_EXPIRED = "expired";
-    public static final String USER_BLACKLISTED = "blacklisted";
-    public static final String USER_UNKNOWN = "unknown";
-
-    public static final Gson gson = new GsonBuilder().create();
+    public static final String USER_NEW = Protocol.USER_NEW;
+    public static final String USER_PENDING = Protocol.USER_PENDING;
+    public static final String USER_VERIFIED = Protocol.USER_VERIFIED;
+    public static final String USER_UNVERIFIED = Protocol.USER_UNVERIFIED;
+    public static final String USER_FAILED = Protocol.USER_FAILED;
+    public static final String USER_EXPIRED = Protocol.USER_EXPIRED;
+    public static final String USER_BLACKLISTED = Protocol.USER_BLACKLISTED;
+    public static final String USER_UNKNOWN = Protocol.USER_UNKNOWN;
 
     protected BaseService() {
-    }
-
-    @Override
-    public IBinder onBind(Intent intent) {
-        return null;
+        this(TAG, Priority.NORMAL);
     }
 
     /**
-     * Validate if the response signature was supplied and if it matches the expected value.
-     * @param nexmoClient The NexmoClient object that sends the request.
-     * @param response The http response parsed as a {@link BaseResponse}
-     * @param result The un-parsed response message.
-     *
-     * @return true if the signature is invalid, false otherwise.
+     * @param tag       The log tag of the service.
+     * @param priority  The priority of the service requests on the {@link com.nexmo.sdk.core.executor.RequestExecutor}.
      */
-    public static boolean isSignatureInvalid(final NexmoClient nexmoClient,
-                                             final BaseResponse response,
-                                             final Response result) {
-        if (response.getResultCode() == ResultCodes.INVALID_CREDENTIALS)
-            if (TextUtils.isEmpty(result.getSignature()))
-                return true;
-        if (response.getResultCode() == ResultCodes.RESULT_CODE_OK)
-            if (!RequestSigning.verifyRequestSignature(response.getTimestamp(),
-                                                       result,
-                                                       nexmoClient.getSharedSecretKey()))
-                return true;
-        return false;
+    protected BaseService(final String tag, final Priority priority) {
+        super(tag, priority);
     }
 
     /**
-     * Deserialize the specified Json into an object of the specified class.
-     * @param input The raw response body in string format.
-     *
-     * @return An object of type {@link}T from the string. Returns {@code null} if {@link @param input} is {@code null}.
-     * @throws JsonSyntaxException If {@param input} is not a valid representation for an object of type {@link T}.
-     */
-    abstract T parseJson(final String input) throws JsonSyntaxException;
-
-    /**
-     * Initiate the task that triggers the http request.
-     * @param nexmoClient   The NexmoClient object that sends the request.
-     * @param listener      The internal listener.
-     * @return              True if the request has been initiated, False otherwise.
-     */
-    abstract boolean start(final NexmoClient nexmoClient,
-                           final ServiceListener<T> listener);
-
-    /**
-     * Update the service with a new token.
-     * @param token The new token.
+     * Cache the user status of a successful response, under the number of the request it answers.
      */
-    abstract void updateToken(final String token);
-
-    public void setNexmoClient(final NexmoClient nexmoClient) {
-        this.nexmoClient = nexmoClient;
-    }
-
-    public NexmoClient getNexmoClient() {
-        return nexmoClient;
-    }
-
-    public ServiceListener<T> getServiceListener() {
-        return serviceListener;
-    }
-
-    public void setServiceListener(ServiceListener<T> serviceListener) {
-        this.serviceListener = serviceListener;
+    protected static void cacheUserStatus(final NexmoClient nexmoClient, final BaseRequest request,
+                                          final BaseResponse response, final UserStatus userStatus) {
+        VerifiedUserCache cache = nexmoClient.getVerifiedUserCache();
+        if (cache != null && response.getResultCode() == ResultCodes.RESULT_CODE_OK && !TextUtils.isEmpty(request.getPhoneNumber()))
+            cache.put(request.getCountryCode(), request.getPhoneNumber(), userStatus, response.getTimestamp());
     }
 
 }
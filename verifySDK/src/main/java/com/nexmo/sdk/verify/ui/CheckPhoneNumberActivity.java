@@ -30,9 +30,9 @@ import android.widget.TextView;
 
 import com.nexmo.sdk.NexmoClient;
 import com.nexmo.sdk.R;
-import com.nexmo.sdk.core.client.ClientBuilderException;
 import com.nexmo.sdk.core.client.ResultCodes;
 import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.core.executor.Cancellable;
 import com.nexmo.sdk.verify.client.VerifyClient;
 import com.nexmo.sdk.verify.core.event.BaseClientListener;
 import com.nexmo.sdk.verify.core.event.CheckServiceListener;
@@ -69,6 +69,7 @@ public class CheckPhoneNumberActivity extends VerifyBaseActivity implements Base
     private BroadcastReceiver verifyClientBroadcastReceiver;
     // Internal listeners.
     private CheckServiceListener checkServiceListener;
+    private Cancellable checkCall;
     private CommandServiceListener commandServiceListener;
     private CommandListener commandListener = new CommandListener() {
         @Override
@@ -135,17 +136,9 @@ public class CheckPhoneNumberActivity extends VerifyBaseActivity implements Base
             this.verifyRequest = extras.getParcelable(VerifyRequest.class.getSimpleName());
             NexmoClient parcelable = extras.getParcelable(NexmoClient.class.getSimpleName());
             if(parcelable != null) {
-                try {
-                    this.nexmoClient = new NexmoClient.NexmoClientBuilder()
-                            .context(getApplicationContext())
-                            .applicationId(parcelable.getApplicationId())
-                            .sharedSecretKey(parcelable.getSharedSecretKey())
-                            .environmentHost(parcelable.getEnvironmentHost())
-                            .build();
-                } catch (ClientBuilderException e) {
-                    e.printStackTrace();
-                    return;
-                }
+                // The parcelled client keeps the settings of the application client, only its context is attached here.
+                parcelable.setContext(getApplicationContext());
+                this.nexmoClient = parcelable;
             }
         }
         setup();
@@ -221,9 +214,9 @@ public class CheckPhoneNumberActivity extends VerifyBaseActivity implements Base
         // trigger cancel command, and dismiss this activity only when successful.
         CommandServiceListener commandServiceListener = new CommandServiceListener(
                 Command.CANCEL, this.commandListener, this);
-        CommandService service = CommandService.getInstance();
-        service.init(new CommandRequest(this.verifyRequest.getCountryCode(), this.verifyRequest.getPhoneNumber(), Command.CANCEL));
-        service.start(this.nexmoClient, commandServiceListener);
+        CommandService.getInstance().start(this.nexmoClient,
+                                           new CommandRequest(this.verifyRequest.getCountryCode(), this.verifyRequest.getPhoneNumber(), Command.CANCEL),
+                                           commandServiceListener);
     }
 
     public void onTryAgain(View view) {
@@ -238,9 +231,9 @@ public class CheckPhoneNumberActivity extends VerifyBaseActivity implements Base
 
         CommandServiceListener commandServiceListener = new CommandServiceListener(
                 Command.TRIGGER_NEXT_EVENT, this.commandListener, this);
-        CommandService service = CommandService.getInstance();
-        service.init(new CommandRequest(this.verifyRequest.getCountryCode(), this.verifyRequest.getPhoneNumber(), Command.TRIGGER_NEXT_EVENT));
-        service.start(this.nexmoClient, commandServiceListener);
+        CommandService.getInstance().start(this.nexmoClient,
+                                           new CommandRequest(this.verifyRequest.getCountryCode(), this.verifyRequest.getPhoneNumber(), Command.TRIGGER_NEXT_EVENT),
+                                           commandServiceListener);
     }
 
     public void onCheck(View view){
@@ -306,13 +299,26 @@ public class CheckPhoneNumberActivity extends VerifyBaseActivity implements Base
 
     private void triggerCheck(){
         this.activity_indicator.setVisibility(View.VISIBLE);
+        VerifyRequest checkRequest;
         synchronized(this) {
             this.verifyRequest.setPinCode(getCodeInput());
+            // The check gets its own copy, the pin may be edited again while the request is in flight.
+            checkRequest = new VerifyRequest(this.verifyRequest.getCountryCode(),
+                                             this.verifyRequest.getPhoneNumber(),
+                                             this.verifyRequest.getPinCode());
+            checkRequest.setStandalone(this.verifyRequest.isStandalone());
         }
         this.checkServiceListener = new CheckServiceListener(this);
-        CheckService checkService = CheckService.getInstance();
-        checkService.init(this.verifyRequest);
-        checkService.start(this.nexmoClient, this.checkServiceListener);
+        this.checkCall = CheckService.getInstance().submit(this.nexmoClient, checkRequest, this.checkServiceListener);
+    }
+
+    @Override
+    protected void onDestroy() {
+        // Nobody is left to handle the result once the activity finishes, abort the request in flight.
+        // A configuration change recreates the activity, the request goes on.
+        if (this.checkCall != null && isFinishing())
+            this.checkCall.cancel();
+        super.onDestroy();
     }
 
 }
@@ -27,9 +27,9 @@ import android.widget.TextView;
 
 import com.nexmo.sdk.NexmoClient;
 import com.nexmo.sdk.R;
-import com.nexmo.sdk.core.client.ClientBuilderException;
 import com.nexmo.sdk.core.client.ResultCodes;
 import com.nexmo.sdk.core.config.Defaults;
+import com.nexmo.sdk.core.executor.Cancellable;
 import com.nexmo.sdk.util.DeviceUtil;
 import com.nexmo.sdk.verify.core.event.BaseClientListener;
 import com.nexmo.sdk.verify.core.event.VerifyServiceListener;
@@ -57,6 +57,7 @@ public class VerifyPhoneNumberActivity extends VerifyBaseActivity implements Bas
     private NexmoClient nexmoClient;
     // Internal listeners.
     private VerifyServiceListener verifyServiceListener;
+    private Cancellable verifyCall;
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -66,12 +67,9 @@ public class VerifyPhoneNumberActivity extends VerifyBaseActivity implements Bas
         if (extras != null) {
             NexmoClient parcelable = extras.getParcelable(NexmoClient.class.getSimpleName());
             if(parcelable != null) {
-                try {
-                    this.nexmoClient = new NexmoClient.NexmoClientBuilder().context(getApplicationContext()).applicationId(parcelable.getApplicationId()).sharedSecretKey(parcelable.getSharedSecretKey()).environmentHost(parcelable.getEnvironmentHost()).build();
-                } catch (ClientBuilderException e) {
-                    e.printStackTrace();
-                    return;
-                }
+                // The parcelled client keeps the settings of the application client, only its context is attached here.
+                parcelable.setContext(getApplicationContext());
+                this.nexmoClient = parcelable;
                 setup();
                 prefillInput();
             }
@@ -234,9 +232,9 @@ public class VerifyPhoneNumberActivity extends VerifyBaseActivity implements Bas
 
     private void triggerVerify() {
         this.verifyServiceListener = new VerifyServiceListener(this);
-        VerifyService verifyService = VerifyService.getInstance();
-        verifyService.init(new VerifyRequest(getCountryCodeSelection(), getPhoneNumberInput()));
-        verifyService.start(this.nexmoClient, this.verifyServiceListener);
+        this.verifyCall = VerifyService.getInstance().submit(this.nexmoClient,
+                                                             new VerifyRequest(getCountryCodeSelection(), getPhoneNumberInput()),
+                                                             this.verifyServiceListener);
     }
 
     private String getPhoneNumberInput() {
@@ -257,6 +255,15 @@ public class VerifyPhoneNumberActivity extends VerifyBaseActivity implements Bas
         super.onStop();
     }
 
+    @Override
+    protected void onDestroy() {
+        // Nobody is left to handle the result once the activity finishes, abort the request in flight.
+        // A configuration change recreates the activity, the request goes on.
+        if (this.verifyCall != null && isFinishing())
+            this.verifyCall.cancel();
+        super.onDestroy();
+    }
+
     private void launchView(Class<CheckPhoneNumberActivity> activityClass) {
         Context appContext = this.nexmoClient.getContext();
         Intent checkCodeIntent = new Intent(appContext, activityClass);